@@ -0,0 +1,287 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+
+/**
+ * Serialisation output that writes UTF-8 encoded JSON straight into a
+ * caller-supplied {@code java.nio.ByteBuffer}, typically a direct
+ * (off-heap) buffer of an NIO transport. No heap copy of the serialised
+ * message is made.
+ *
+ * <p>When the buffer fills up, an {@link OverflowHandler} is asked for
+ * room to continue. The handler can either drain the buffer and hand it
+ * back for reuse ({@link #drainTo}), or replace it with a larger one
+ * ({@link #GROW}).
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+ *
+ * buffer = response.serialize(buffer);
+ *
+ * buffer.flip();
+ *
+ * channel.write(buffer);
+ * </pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2ByteBufferOutput extends JSONRPC2Output {
+
+
+	/**
+	 * Handler for a full output buffer.
+	 */
+	public interface OverflowHandler {
+
+
+		/**
+		 * Called when the output buffer has no room left for the next
+		 * write.
+		 *
+		 * @param buffer   The full buffer, in write mode.
+		 * @param required The number of bytes pending to be written.
+		 *
+		 * @return The buffer to continue writing into, in write mode
+		 *         and with at least one byte remaining. May be the
+		 *         same buffer after it has been drained, or a new
+		 *         buffer holding the previous content.
+		 *
+		 * @throws IOException If the buffer couldn't be drained.
+		 */
+		public ByteBuffer handleOverflow(final ByteBuffer buffer, final int required)
+			throws IOException;
+	}
+
+
+	/**
+	 * Overflow handler that replaces a full buffer with one at least
+	 * twice as large, of the same kind (direct or heap), with the
+	 * previous content copied over.
+	 */
+	public static final OverflowHandler GROW = new OverflowHandler() {
+
+		public ByteBuffer handleOverflow(final ByteBuffer buffer, final int required) {
+
+			int capacity = Math.max(buffer.capacity() << 1, buffer.position() + required);
+
+			if (capacity < 0)
+				capacity = Integer.MAX_VALUE;
+
+			ByteBuffer larger = buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+
+			buffer.flip();
+			larger.put(buffer);
+			return larger;
+		}
+	};
+
+
+	/**
+	 * The current output buffer.
+	 */
+	private ByteBuffer buffer;
+
+
+	/**
+	 * The overflow handler.
+	 */
+	private final OverflowHandler overflowHandler;
+
+
+	/**
+	 * Creates a new byte buffer output that grows the buffer when full.
+	 *
+	 * @param buffer The buffer to write to, in write mode. Must not be
+	 *               {@code null}.
+	 */
+	public JSONRPC2ByteBufferOutput(final ByteBuffer buffer) {
+
+		this(buffer, GROW);
+	}
+
+
+	/**
+	 * Creates a new byte buffer output.
+	 *
+	 * @param buffer          The buffer to write to, in write mode. Must
+	 *                        not be {@code null}.
+	 * @param overflowHandler The handler to call when the buffer is full.
+	 *                        Must not be {@code null}.
+	 */
+	public JSONRPC2ByteBufferOutput(final ByteBuffer buffer, final OverflowHandler overflowHandler) {
+
+		if (buffer == null)
+			throw new NullPointerException("The byte buffer must not be null");
+
+		if (overflowHandler == null)
+			throw new NullPointerException("The overflow handler must not be null");
+
+		this.buffer = buffer;
+		this.overflowHandler = overflowHandler;
+	}
+
+
+	/**
+	 * Returns an overflow handler that writes the content of a full
+	 * buffer to the specified channel and then reuses the buffer. After
+	 * serialisation the remaining content must be written out by the
+	 * caller. The channel must be in blocking mode: a non-blocking
+	 * channel which accepts no bytes causes an exception rather than a
+	 * busy wait.
+	 *
+	 * @param channel The channel to drain to. Must not be {@code null}.
+	 *
+	 * @return The overflow handler.
+	 */
+	public static OverflowHandler drainTo(final WritableByteChannel channel) {
+
+		if (channel == null)
+			throw new NullPointerException("The channel must not be null");
+
+		return new OverflowHandler() {
+
+			public ByteBuffer handleOverflow(final ByteBuffer buffer, final int required)
+				throws IOException {
+
+				buffer.flip();
+
+				while (buffer.hasRemaining()) {
+
+					if (channel.write(buffer) == 0)
+						throw new IOException("The channel accepted no bytes, it must be in blocking mode");
+				}
+
+				buffer.clear();
+				return buffer;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the current output buffer. This may differ from the
+	 * buffer passed to the constructor if the overflow handler replaced
+	 * it.
+	 *
+	 * @return The output buffer, in write mode.
+	 */
+	public ByteBuffer getBuffer() {
+
+		return buffer;
+	}
+
+
+	/**
+	 * Makes room for at least one byte.
+	 *
+	 * @param required The number of bytes pending to be written.
+	 *
+	 * @throws IOException If the overflow handler failed.
+	 */
+	private void overflow(final int required)
+		throws IOException {
+
+		ByteBuffer next = overflowHandler.handleOverflow(buffer, required);
+
+		if (next == null || ! next.hasRemaining())
+			throw new IOException("The overflow handler didn't provide room in the output buffer");
+
+		buffer = next;
+	}
+
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b The byte to write.
+	 *
+	 * @throws IOException If the overflow handler failed.
+	 */
+	public void write(final int b)
+		throws IOException {
+
+		if (! buffer.hasRemaining())
+			overflow(1);
+
+		buffer.put((byte)b);
+	}
+
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param b   The bytes to write.
+	 * @param off The offset of the first byte to write.
+	 * @param len The number of bytes to write.
+	 *
+	 * @throws IOException If the overflow handler failed.
+	 */
+	public void write(final byte[] b, final int off, final int len)
+		throws IOException {
+
+		int pos = off;
+		int left = len;
+
+		while (left > 0) {
+
+			if (! buffer.hasRemaining())
+				overflow(left);
+
+			final int n = Math.min(left, buffer.remaining());
+
+			buffer.put(b, pos, n);
+
+			pos += n;
+			left -= n;
+		}
+	}
+
+
+	/**
+	 * Appends a subsequence of the specified character sequence, encoded
+	 * as UTF-8. ASCII characters are put straight into the buffer.
+	 *
+	 * @param csq   The character sequence to append. If {@code null} the
+	 *              string "null" is appended.
+	 * @param start The index of the first character to append.
+	 * @param end   The index after the last character to append.
+	 *
+	 * @return This output.
+	 *
+	 * @throws IOException If the overflow handler failed.
+	 */
+	public JSONRPC2Output append(final CharSequence csq, final int start, final int end)
+		throws IOException {
+
+		if (csq == null)
+			return append("null", start, end);
+
+		for (int i = start; i < end; i++) {
+
+			final char c = csq.charAt(i);
+
+			if (c < 0x80 && ! hasPendingSurrogate()) {
+
+				if (! buffer.hasRemaining())
+					overflow(end - i);
+
+				buffer.put((byte)c);
+			}
+			else {
+				append(c);
+			}
+		}
+
+		return this;
+	}
+}
@@ -0,0 +1,432 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Writes JSON values in canonical form, so that equal content always
+ * produces identical bytes regardless of map ordering and number types.
+ * The rules follow the JSON Canonicalization Scheme (RFC 8785) closely:
+ *
+ * <ul>
+ *     <li>No whitespace.
+ *     <li>Object members sorted by name, comparing UTF-16 code units.
+ *     <li>Strings escaped minimally: only the quotation mark, the
+ *         backslash and control characters, the latter with the short
+ *         escapes where defined and lowercase <code>&#92;u00xx</code> otherwise.
+ *     <li>Numbers of any Java type normalised to their decimal digits,
+ *         without leading or trailing zeros, and written by the
+ *         ECMAScript rules of RFC 8785: in plain notation if the decimal
+ *         point falls within 21 digits, e.g. {@code 2.0}, {@code 2L} and
+ *         {@code 2E+0} are all written as {@code 2} and {@code 1e20} as
+ *         {@code 100000000000000000000}; else in exponent notation, e.g.
+ *         {@code 1e+21} and {@code 1e-7}. Doubles contribute the digits
+ *         of their shortest decimal form. Negative zero is written as
+ *         {@code 0}, NaN and infinite doubles as {@code null}.
+ *     <li>Raw values are parsed and canonicalised.
+ * </ul>
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+final class JSONRPC2CanonicalWriter {
+
+
+	/**
+	 * Lowercase hexadecimal digits for unicode escapes.
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+
+	/**
+	 * The largest double magnitude up to which all integers are exact.
+	 */
+	private static final double MAX_EXACT_DOUBLE = 9007199254740992.0; // 2^53
+
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private JSONRPC2CanonicalWriter() { }
+
+
+	/**
+	 * Writes the specified JSON value in canonical form.
+	 *
+	 * @param value The value, may be {@code null}.
+	 * @param out   The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeValue(final Object value, final Appendable out)
+		throws IOException {
+
+		if (value == null)
+			out.append("null");
+
+		else if (value instanceof String)
+			writeString((String)value, out);
+
+		else if (value instanceof Number)
+			writeNumber((Number)value, out);
+
+		else if (value instanceof Boolean)
+			out.append(((Boolean)value).booleanValue() ? "true" : "false");
+
+		else if (value instanceof Map)
+			writeObject((Map<?,?>)value, out);
+
+		else if (value instanceof List)
+			writeArray((List<?>)value, out);
+
+		else if (value instanceof JSONRPC2RawValue)
+			writeRawValue((JSONRPC2RawValue)value, out);
+
+		else if (value instanceof JSONRPC2Error)
+			writeValue(((JSONRPC2Error)value).toJSON(), out);
+
+		else if (value instanceof Object[])
+			writeArray(Arrays.asList((Object[])value), out);
+
+		else
+			writeString(value.toString(), out);
+	}
+
+
+	/**
+	 * Writes the specified map as a JSON object with sorted members.
+	 *
+	 * @param map The map.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeObject(final Map<?,?> map, final Appendable out)
+		throws IOException {
+
+		final String[] names = new String[map.size()];
+		final Object[] values = new Object[names.length];
+
+		int n = 0;
+
+		for (Map.Entry<?,?> entry: map.entrySet()) {
+
+			names[n] = String.valueOf(entry.getKey());
+			values[n] = entry.getValue();
+			n++;
+		}
+
+		// String order is by UTF-16 code unit, as required; sort an
+		// index to keep the values aligned
+		final Integer[] order = new Integer[n];
+
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			public int compare(final Integer a, final Integer b) {
+
+				return names[a].compareTo(names[b]);
+			}
+		});
+
+		out.append('{');
+
+		for (int i = 0; i < n; i++) {
+
+			if (i > 0)
+				out.append(',');
+
+			writeString(names[order[i]], out);
+			out.append(':');
+			writeValue(values[order[i]], out);
+		}
+
+		out.append('}');
+	}
+
+
+	/**
+	 * Writes the specified list as a JSON array.
+	 *
+	 * @param list The list.
+	 * @param out  The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeArray(final List<?> list, final Appendable out)
+		throws IOException {
+
+		out.append('[');
+
+		boolean first = true;
+
+		for (Object item: list) {
+
+			if (first)
+				first = false;
+			else
+				out.append(',');
+
+			writeValue(item, out);
+		}
+
+		out.append(']');
+	}
+
+
+	/**
+	 * Parses and writes the specified raw value in canonical form.
+	 *
+	 * @param raw The raw value.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeRawValue(final JSONRPC2RawValue raw, final Appendable out)
+		throws IOException {
+
+		final Object value;
+
+		try {
+			value = raw.parse();
+
+		} catch (JSONRPC2ParseException e) {
+
+			throw new IllegalArgumentException("Invalid raw JSON value: " + e.getMessage(), e);
+		}
+
+		writeValue(value, out);
+	}
+
+
+	/**
+	 * Writes the specified string with minimal escaping.
+	 *
+	 * @param s   The string.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeString(final String s, final Appendable out)
+		throws IOException {
+
+		out.append('"');
+
+		final int len = s.length();
+
+		int run = 0;
+
+		for (int i = 0; i < len; i++) {
+
+			final char c = s.charAt(i);
+
+			if (c >= 0x20 && c != '"' && c != '\\')
+				continue;
+
+			// Flush the run of unescaped characters
+			if (run < i)
+				out.append(s, run, i);
+
+			run = i + 1;
+
+			switch (c) {
+				case '"':  out.append("\\\""); break;
+				case '\\': out.append("\\\\"); break;
+				case '\b': out.append("\\b"); break;
+				case '\f': out.append("\\f"); break;
+				case '\n': out.append("\\n"); break;
+				case '\r': out.append("\\r"); break;
+				case '\t': out.append("\\t"); break;
+				default:
+					out.append("\\u00");
+					out.append(HEX_DIGITS[c >> 4]);
+					out.append(HEX_DIGITS[c & 0xf]);
+			}
+		}
+
+		if (run < len)
+			out.append(s, run, len);
+
+		out.append('"');
+	}
+
+
+	/**
+	 * Writes the specified number in normalised form.
+	 *
+	 * @param number The number.
+	 * @param out    The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeNumber(final Number number, final Appendable out)
+		throws IOException {
+
+		if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte)
+			// At most 19 digits, always in plain notation
+			JSONRPC2ValueWriter.writeLong(number.longValue(), out);
+
+		else if (number instanceof Double)
+			writeDouble(number.doubleValue(), out);
+
+		else if (number instanceof Float)
+			// The shortest decimal form of the float, not of the
+			// widened double
+			writeDouble(Double.parseDouble(number.toString()), out);
+
+		else if (number instanceof BigInteger)
+			writeDecimal(((BigInteger)number).signum() < 0, ((BigInteger)number).abs().toString(), 0, out);
+
+		else if (number instanceof BigDecimal)
+			writeBigDecimal((BigDecimal)number, out);
+
+		else
+			writeBigDecimal(new BigDecimal(number.toString()), out);
+	}
+
+
+	/**
+	 * Writes the specified double in normalised form.
+	 *
+	 * @param value The value.
+	 * @param out   The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeDouble(final double value, final Appendable out)
+		throws IOException {
+
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			out.append("null");
+			return;
+		}
+
+		if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_DOUBLE) {
+			// At most 16 digits, same as the general path; also turns
+			// -0.0 into 0
+			JSONRPC2ValueWriter.writeLong((long)value, out);
+			return;
+		}
+
+		// Take the digits and exponent of the shortest decimal form,
+		// e.g. 1.5E300 or 0.001
+		final String s = Double.toString(Math.abs(value));
+
+		final int e = s.indexOf('E');
+		final int mantissaEnd = e < 0 ? s.length() : e;
+		final int point = s.indexOf('.');
+
+		final String digits = s.substring(0, point) + s.substring(point + 1, mantissaEnd);
+
+		long exponent = e < 0 ? 0 : Integer.parseInt(s.substring(e + 1));
+
+		exponent -= mantissaEnd - point - 1;
+
+		writeDecimal(value < 0, digits, exponent, out);
+	}
+
+
+	/**
+	 * Writes the specified big decimal in normalised form.
+	 *
+	 * @param value The value.
+	 * @param out   The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeBigDecimal(final BigDecimal value, final Appendable out)
+		throws IOException {
+
+		writeDecimal(value.signum() < 0, value.unscaledValue().abs().toString(), -(long)value.scale(), out);
+	}
+
+
+	/**
+	 * Writes the decimal number {@code digits * 10^exponent} by the
+	 * ECMAScript number formatting rules of RFC 8785. The exponent only
+	 * affects the written exponent or the number of zeros, which are
+	 * bounded, so huge exponents are not expanded.
+	 *
+	 * @param negative {@code true} if the number is negative.
+	 * @param digits   The decimal digits of the magnitude, possibly with
+	 *                 leading and trailing zeros.
+	 * @param exponent The decimal exponent.
+	 * @param out      The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeDecimal(final boolean negative, final String digits, long exponent, final Appendable out)
+		throws IOException {
+
+		int start = 0;
+		int end = digits.length();
+
+		while (start < end && digits.charAt(start) == '0')
+			start++;
+
+		while (end > start && digits.charAt(end - 1) == '0') {
+			end--;
+			exponent++;
+		}
+
+		if (start == end) {
+			// Also negative zero
+			out.append('0');
+			return;
+		}
+
+		if (negative)
+			out.append('-');
+
+		final int k = end - start;
+
+		// The position of the decimal point relative to the first digit
+		final long n = k + exponent;
+
+		if (k <= n && n <= 21) {
+
+			out.append(digits, start, end);
+
+			for (long i = k; i < n; i++)
+				out.append('0');
+		}
+		else if (0 < n && n <= 21) {
+
+			out.append(digits, start, start + (int)n);
+			out.append('.');
+			out.append(digits, start + (int)n, end);
+		}
+		else if (-6 < n && n <= 0) {
+
+			out.append("0.");
+
+			for (long i = n; i < 0; i++)
+				out.append('0');
+
+			out.append(digits, start, end);
+		}
+		else {
+			out.append(digits.charAt(start));
+
+			if (k > 1) {
+				out.append('.');
+				out.append(digits, start + 1, end);
+			}
+
+			out.append('e');
+			out.append(n - 1 < 0 ? '-' : '+');
+			out.append(Long.toString(Math.abs(n - 1)));
+		}
+	}
+}
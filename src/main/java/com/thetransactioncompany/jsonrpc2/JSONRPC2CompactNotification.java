@@ -0,0 +1,223 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+
+/**
+ * Compact immutable form of a JSON-RPC 2.0 notification, see
+ * {@link JSONRPC2CompactMessage}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2CompactNotification compact = JSONRPC2CompactNotification.from(notification);
+ *
+ * replayQueue.add(compact);
+ *
+ * // later
+ * JSONRPC2Notification replayed = compact.toMutable();
+ * </pre>
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2CompactNotification extends JSONRPC2CompactMessage {
+
+
+	/**
+	 * The notificationed method name.
+	 */
+	private final String method;
+
+
+	/**
+	 * The compacted parameters, see
+	 * {@link JSONRPC2CompactMessage#compactParams}.
+	 */
+	private final Object params;
+
+
+	/**
+	 * The parameters type.
+	 */
+	private final JSONRPC2ParamsType paramsType;
+
+
+	/**
+	 * Creates a compact form of the specified notification.
+	 *
+	 * @param notification The notification. Must not be {@code null}.
+	 */
+	JSONRPC2CompactNotification(final JSONRPC2Notification notification) {
+
+		super(notification);
+
+		method = notification.getMethod();
+		params = compactParams(notification.getParams());
+		paramsType = notification.getParamsType();
+	}
+
+
+	/**
+	 * Creates a compact form of the specified notification.
+	 *
+	 * @param notification The notification. Must not be {@code null}.
+	 *
+	 * @return The compact notification.
+	 */
+	public static JSONRPC2CompactNotification from(final JSONRPC2Notification notification) {
+
+		if (notification == null)
+			throw new NullPointerException("The notification must not be null");
+
+		return new JSONRPC2CompactNotification(notification);
+	}
+
+
+	/**
+	 * Gets the name of the notificationed method.
+	 *
+	 * @return The method name.
+	 */
+	public String getMethod() {
+
+		return method;
+	}
+
+
+	/**
+	 * Gets the parameters type ({@link JSONRPC2ParamsType#ARRAY},
+	 * {@link JSONRPC2ParamsType#OBJECT} or
+	 * {@link JSONRPC2ParamsType#NO_PARAMS}).
+	 *
+	 * @return The parameters type.
+	 */
+	public JSONRPC2ParamsType getParamsType() {
+
+		return paramsType;
+	}
+
+
+	/**
+	 * Gets the number of parameters. Pre-serialised parameters are not
+	 * counted.
+	 *
+	 * @return The number of parameters.
+	 */
+	public int getParamCount() {
+
+		if (! (params instanceof Object[]))
+			return 0;
+
+		final int length = ((Object[])params).length;
+
+		return paramsType == JSONRPC2ParamsType.ARRAY ? length : length / 2;
+	}
+
+
+	/**
+	 * Gets the parameter at the specified position. For JSON object
+	 * parameters the members are numbered in their original order.
+	 *
+	 * @param index The parameter index.
+	 *
+	 * @return The parameter value, {@code null} if there are no
+	 *         parameters or they are pre-serialised.
+	 *
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public Object getParam(final int index) {
+
+		if (! (params instanceof Object[]))
+			return null;
+
+		final Object[] array = (Object[])params;
+
+		if (paramsType == JSONRPC2ParamsType.ARRAY)
+			return array[index];
+
+		if (index < 0 || index >= array.length / 2)
+			throw new IndexOutOfBoundsException("Parameter index out of range: " + index);
+
+		return array[index * 2 + 1];
+	}
+
+
+	/**
+	 * Gets the named parameter.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value, {@code null} if not found or the
+	 *         parameters aren't a JSON object.
+	 */
+	public Object getParam(final String name) {
+
+		if (paramsType != JSONRPC2ParamsType.OBJECT || ! (params instanceof Object[]))
+			return null;
+
+		final Object[] array = (Object[])params;
+
+		for (int i = 0; i < array.length; i += 2) {
+
+			if (array[i].equals(name))
+				return array[i + 1];
+		}
+
+		return null;
+	}
+
+
+	/**
+	 * Gets the notification parameters as a new mutable list or map.
+	 *
+	 * @return The parameters as {@code List} if JSON array, {@code Map}
+	 *         if JSON object, {@link JSONRPC2RawValue} if pre-serialised,
+	 *         or {@code null} if none.
+	 */
+	public Object getParams() {
+
+		return expandParams(params, paramsType);
+	}
+
+
+	/**
+	 * Creates a mutable copy of this notification.
+	 *
+	 * @return The mutable notification.
+	 */
+	public JSONRPC2Notification toMutable() {
+
+		JSONRPC2Notification notification = new JSONRPC2Notification(method);
+		notification.setParams(expandParams(params, paramsType));
+		copyNonStdAttributesTo(notification);
+		return notification;
+	}
+
+
+	/**
+	 * Serialises this notification as JSON to the specified output.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
+
+		out.append("{\"jsonrpc\":\"2.0\",\"method\":");
+		JSONRPC2ValueWriter.writeString(method, out);
+
+		if (params != null) {
+			out.append(",\"params\":");
+			writeParams(params, paramsType, out);
+		}
+
+		writeNonStdAttributes(out);
+
+		out.append('}');
+	}
+}
@@ -0,0 +1,245 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+
+/**
+ * Compact immutable form of a JSON-RPC 2.0 request, see
+ * {@link JSONRPC2CompactMessage}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2CompactRequest compact = JSONRPC2CompactRequest.from(request);
+ *
+ * inFlight.put(compact.getID(), compact);
+ *
+ * // later
+ * JSONRPC2Request replayed = compact.toMutable();
+ * </pre>
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2CompactRequest extends JSONRPC2CompactMessage {
+
+
+	/**
+	 * The requested method name.
+	 */
+	private final String method;
+
+
+	/**
+	 * The compacted parameters, see
+	 * {@link JSONRPC2CompactMessage#compactParams}.
+	 */
+	private final Object params;
+
+
+	/**
+	 * The parameters type.
+	 */
+	private final JSONRPC2ParamsType paramsType;
+
+
+	/**
+	 * The request identifier.
+	 */
+	private final Object id;
+
+
+	/**
+	 * Creates a compact form of the specified request.
+	 *
+	 * @param request The request. Must not be {@code null}.
+	 */
+	JSONRPC2CompactRequest(final JSONRPC2Request request) {
+
+		super(request);
+
+		method = request.getMethod();
+		params = compactParams(request.getParams());
+		paramsType = request.getParamsType();
+		id = request.getID();
+	}
+
+
+	/**
+	 * Creates a compact form of the specified request.
+	 *
+	 * @param request The request. Must not be {@code null}.
+	 *
+	 * @return The compact request.
+	 */
+	public static JSONRPC2CompactRequest from(final JSONRPC2Request request) {
+
+		if (request == null)
+			throw new NullPointerException("The request must not be null");
+
+		return new JSONRPC2CompactRequest(request);
+	}
+
+
+	/**
+	 * Gets the name of the requested method.
+	 *
+	 * @return The method name.
+	 */
+	public String getMethod() {
+
+		return method;
+	}
+
+
+	/**
+	 * Gets the parameters type ({@link JSONRPC2ParamsType#ARRAY},
+	 * {@link JSONRPC2ParamsType#OBJECT} or
+	 * {@link JSONRPC2ParamsType#NO_PARAMS}).
+	 *
+	 * @return The parameters type.
+	 */
+	public JSONRPC2ParamsType getParamsType() {
+
+		return paramsType;
+	}
+
+
+	/**
+	 * Gets the number of parameters. Pre-serialised parameters are not
+	 * counted.
+	 *
+	 * @return The number of parameters.
+	 */
+	public int getParamCount() {
+
+		if (! (params instanceof Object[]))
+			return 0;
+
+		final int length = ((Object[])params).length;
+
+		return paramsType == JSONRPC2ParamsType.ARRAY ? length : length / 2;
+	}
+
+
+	/**
+	 * Gets the parameter at the specified position. For JSON object
+	 * parameters the members are numbered in their original order.
+	 *
+	 * @param index The parameter index.
+	 *
+	 * @return The parameter value, {@code null} if there are no
+	 *         parameters or they are pre-serialised.
+	 *
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	public Object getParam(final int index) {
+
+		if (! (params instanceof Object[]))
+			return null;
+
+		final Object[] array = (Object[])params;
+
+		if (paramsType == JSONRPC2ParamsType.ARRAY)
+			return array[index];
+
+		if (index < 0 || index >= array.length / 2)
+			throw new IndexOutOfBoundsException("Parameter index out of range: " + index);
+
+		return array[index * 2 + 1];
+	}
+
+
+	/**
+	 * Gets the named parameter.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value, {@code null} if not found or the
+	 *         parameters aren't a JSON object.
+	 */
+	public Object getParam(final String name) {
+
+		if (paramsType != JSONRPC2ParamsType.OBJECT || ! (params instanceof Object[]))
+			return null;
+
+		final Object[] array = (Object[])params;
+
+		for (int i = 0; i < array.length; i += 2) {
+
+			if (array[i].equals(name))
+				return array[i + 1];
+		}
+
+		return null;
+	}
+
+
+	/**
+	 * Gets the request parameters as a new mutable list or map.
+	 *
+	 * @return The parameters as {@code List} if JSON array, {@code Map}
+	 *         if JSON object, {@link JSONRPC2RawValue} if pre-serialised,
+	 *         or {@code null} if none.
+	 */
+	public Object getParams() {
+
+		return expandParams(params, paramsType);
+	}
+
+
+	/**
+	 * Gets the request identifier.
+	 *
+	 * @return The request identifier ({@code Number}, {@code Boolean},
+	 *         {@code String}) or {@code null}.
+	 */
+	public Object getID() {
+
+		return id;
+	}
+
+
+	/**
+	 * Creates a mutable copy of this request.
+	 *
+	 * @return The mutable request.
+	 */
+	public JSONRPC2Request toMutable() {
+
+		JSONRPC2Request request = new JSONRPC2Request(method, id);
+		request.setParams(expandParams(params, paramsType));
+		copyNonStdAttributesTo(request);
+		return request;
+	}
+
+
+	/**
+	 * Serialises this request as JSON to the specified output.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
+
+		out.append("{\"jsonrpc\":\"2.0\",\"method\":");
+		JSONRPC2ValueWriter.writeString(method, out);
+
+		if (params != null) {
+			out.append(",\"params\":");
+			writeParams(params, paramsType, out);
+		}
+
+		out.append(",\"id\":");
+		JSONRPC2ValueWriter.writeValue(id, out);
+
+		writeNonStdAttributes(out);
+
+		out.append('}');
+	}
+}
@@ -0,0 +1,165 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+
+/**
+ * Compact immutable form of a JSON-RPC 2.0 response, see
+ * {@link JSONRPC2CompactMessage}. The result and the error are shared
+ * with the source response.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2CompactResponse extends JSONRPC2CompactMessage {
+
+
+	/**
+	 * The result, {@code null} if none.
+	 */
+	private final Object result;
+
+
+	/**
+	 * The error, {@code null} on success.
+	 */
+	private final JSONRPC2Error error;
+
+
+	/**
+	 * The echoed request identifier.
+	 */
+	private final Object id;
+
+
+	/**
+	 * Creates a compact form of the specified response.
+	 *
+	 * @param response The response. Must not be {@code null}.
+	 */
+	JSONRPC2CompactResponse(final JSONRPC2Response response) {
+
+		super(response);
+
+		result = response.getResult();
+		error = response.getError();
+		id = response.getID();
+	}
+
+
+	/**
+	 * Creates a compact form of the specified response.
+	 *
+	 * @param response The response. Must not be {@code null}.
+	 *
+	 * @return The compact response.
+	 */
+	public static JSONRPC2CompactResponse from(final JSONRPC2Response response) {
+
+		if (response == null)
+			throw new NullPointerException("The response must not be null");
+
+		return new JSONRPC2CompactResponse(response);
+	}
+
+
+	/**
+	 * Gets the result of the request.
+	 *
+	 * @return The result, {@code null} if none or on error.
+	 */
+	public Object getResult() {
+
+		return result;
+	}
+
+
+	/**
+	 * Gets the error object indicating the cause of the request failure.
+	 *
+	 * @return The error, {@code null} on success.
+	 */
+	public JSONRPC2Error getError() {
+
+		return error;
+	}
+
+
+	/**
+	 * A convenience method to check if the response indicates success or
+	 * failure of the request.
+	 *
+	 * @return {@code true} if the request succeeded, {@code false} if
+	 *         there was an error.
+	 */
+	public boolean indicatesSuccess() {
+
+		return error == null;
+	}
+
+
+	/**
+	 * Gets the request identifier that is echoed back to the caller.
+	 *
+	 * @return The request identifier ({@code Number}, {@code Boolean},
+	 *         {@code String}) or {@code null}.
+	 */
+	public Object getID() {
+
+		return id;
+	}
+
+
+	/**
+	 * Creates a mutable copy of this response.
+	 *
+	 * @return The mutable response.
+	 */
+	public JSONRPC2Response toMutable() {
+
+		JSONRPC2Response response = error != null ? new JSONRPC2Response(error, id) : new JSONRPC2Response(result, id);
+		copyNonStdAttributesTo(response);
+		return response;
+	}
+
+
+	/**
+	 * Serialises this response as JSON to the specified output.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
+
+		// Result and error are mutually exclusive
+		if (error != null && error.getResponsePrefix() != null) {
+
+			if (out instanceof JSONRPC2Output)
+				((JSONRPC2Output)out).write(error.getResponsePrefixBytes());
+			else
+				out.append(error.getResponsePrefix());
+		}
+		else if (error != null) {
+
+			out.append("{\"jsonrpc\":\"2.0\",\"error\":");
+			error.writeJSON(out);
+			out.append(",\"id\":");
+		}
+		else {
+			out.append("{\"jsonrpc\":\"2.0\",\"result\":");
+			JSONRPC2ValueWriter.writeValue(result, out);
+			out.append(",\"id\":");
+		}
+
+		JSONRPC2ValueWriter.writeValue(id, out);
+
+		writeNonStdAttributes(out);
+
+		out.append('}');
+	}
+}
@@ -34,6 +34,16 @@ import net.minidev.json.JSONObject;
  *     <li>{@link #INTERNAL_ERROR} Internal error (-32603)
  * </ul>
  *
+ * <p>The standard error instances are preserialised, so error responses
+ * carrying them are produced from a template plus the request identifier.
+ * They are also stackless: a stack trace captured during class 
+ * initialisation would be misleading wherever they are thrown.
+ *
+ * <p>Errors that are thrown on hot paths, such as parameter validation 
+ * under bad traffic, should be created without a stack trace, see
+ * {@link #JSONRPC2Error(int,String,Object,boolean)}, or preallocated in a
+ * {@link JSONRPC2ErrorRegistry}.
+ *
  * <p>Note that the range -32099..-32000 is reserved for additional server 
  * errors.
  *
@@ -52,7 +62,7 @@ import net.minidev.json.JSONObject;
  * <a href="http://groups.google.com/group/json-rpc">here</a>.
  *
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-08-05)
+ * @version 1.27 (2026-10-18)
  */
 public class JSONRPC2Error extends Exception {
 	
@@ -60,31 +70,31 @@ public class JSONRPC2Error extends Exception {
 	/** 
 	 * JSON parse error (-32700).
 	 */
-	public static final JSONRPC2Error PARSE_ERROR = new JSONRPC2Error(-32700, "JSON parse error");
+	public static final JSONRPC2Error PARSE_ERROR = new JSONRPC2Error(-32700, "JSON parse error", null, false);
 	
 	
 	/** 
 	 * Invalid JSON-RPC 2.0 request error (-32600).
 	 */
-	public static final JSONRPC2Error INVALID_REQUEST = new JSONRPC2Error(-32600, "Invalid request");
+	public static final JSONRPC2Error INVALID_REQUEST = new JSONRPC2Error(-32600, "Invalid request", null, false);
 	
 	
 	/** 
 	 * Method not found error (-32601). 
 	 */
-	public static final JSONRPC2Error METHOD_NOT_FOUND = new JSONRPC2Error(-32601, "Method not found");
+	public static final JSONRPC2Error METHOD_NOT_FOUND = new JSONRPC2Error(-32601, "Method not found", null, false);
 	
 	
 	/** 
 	 * Invalid parameters error (-32602).
 	 */
-	public static final JSONRPC2Error INVALID_PARAMS = new JSONRPC2Error(-32602, "Invalid parameters");
+	public static final JSONRPC2Error INVALID_PARAMS = new JSONRPC2Error(-32602, "Invalid parameters", null, false);
 	
 	
 	/** 
 	 * Internal JSON-RPC 2.0 error (-32603).
 	 */
-	public static final JSONRPC2Error INTERNAL_ERROR = new JSONRPC2Error(-32603, "Internal error");
+	public static final JSONRPC2Error INTERNAL_ERROR = new JSONRPC2Error(-32603, "Internal error", null, false);
 	
 	
 	/**
@@ -99,6 +109,45 @@ public class JSONRPC2Error extends Exception {
 	private Object data;
 	
 	
+	/**
+	 * {@code false} for a stackless error. Not yet set while the
+	 * superclass constructor runs.
+	 */
+	private final boolean writableStackTrace;
+	
+	
+	/**
+	 * Preserialised JSON string of this error, {@code null} if not 
+	 * preserialised.
+	 */
+	private String json = null;
+	
+	
+	/**
+	 * Preserialised start of a response carrying this error, up to and
+	 * including the {@code "id":} member name, {@code null} if not 
+	 * preserialised.
+	 */
+	private String responsePrefix = null;
+	
+	
+	/**
+	 * The UTF-8 encoded {@link #responsePrefix}, {@code null} if not
+	 * preserialised.
+	 */
+	private byte[] responsePrefixBytes = null;
+	
+	
+	static {
+		// The standard errors are immutable, serialise them once
+		PARSE_ERROR.preserialize();
+		INVALID_REQUEST.preserialize();
+		METHOD_NOT_FOUND.preserialize();
+		INVALID_PARAMS.preserialize();
+		INTERNAL_ERROR.preserialize();
+	}
+	
+	
 	/** 
 	 * Creates a new JSON-RPC 2.0 error with the specified code and 
 	 * message. The optional data is omitted.
@@ -109,8 +158,7 @@ public class JSONRPC2Error extends Exception {
 	 */
 	public JSONRPC2Error(int code, String message) {
 		
-		super(message);
-		this.code = code;
+		this(code, message, null, true);
 	}
 	
 	
@@ -122,13 +170,73 @@ public class JSONRPC2Error extends Exception {
 	 *                application-specific).
 	 * @param message The error message.
 	 * @param data    Optional error data, must <a href="#map">map</a>
-	 *                to a valid JSON type.
+	 *                to a valid JSON type or be a pre-serialised
+	 *                {@link JSONRPC2RawValue}.
 	 */
 	public JSONRPC2Error(int code, String message, Object data) {
 		
+		this(code, message, data, true);
+	}
+	
+	
+	/** 
+	 * Creates a new JSON-RPC 2.0 error with the specified code, message
+	 * and data, optionally without a stack trace. Filling in the stack 
+	 * trace is the main cost of creating and throwing an exception, and 
+	 * a JSON-RPC 2.0 error reported to the client doesn't need one.
+	 * 
+	 * @param code               The error code (standard pre-defined or
+	 *                           application-specific).
+	 * @param message            The error message.
+	 * @param data               Optional error data, must 
+	 *                           <a href="#map">map</a> to a valid JSON 
+	 *                           type or be a pre-serialised
+	 *                           {@link JSONRPC2RawValue}, {@code null} if
+	 *                           none.
+	 * @param writableStackTrace {@code false} to create a stackless 
+	 *                           error, which neither captures nor 
+	 *                           records a stack trace.
+	 */
+	public JSONRPC2Error(int code, String message, Object data, boolean writableStackTrace) {
+		
 		super(message);
 		this.code = code;
 		this.data = data;
+		this.writableStackTrace = writableStackTrace;
+		
+		// The superclass constructor skipped the capture, see 
+		// fillInStackTrace()
+		if (writableStackTrace)
+			super.fillInStackTrace();
+	}
+	
+	
+	/**
+	 * Fills in the stack trace, unless this error is stackless. The 
+	 * superclass constructor calls this method before the 
+	 * {@link #writableStackTrace} flag is set, so the initial capture is 
+	 * always skipped and made by the constructor instead.
+	 *
+	 * @return This error.
+	 */
+	public synchronized Throwable fillInStackTrace() {
+		
+		if (! writableStackTrace)
+			return this;
+		
+		return super.fillInStackTrace();
+	}
+	
+	
+	/**
+	 * Sets the stack trace, ignored if this error is stackless.
+	 *
+	 * @param stackTrace The stack trace elements.
+	 */
+	public void setStackTrace(final StackTraceElement[] stackTrace) {
+		
+		if (writableStackTrace)
+			super.setStackTrace(stackTrace);
 	}
 	
 	
@@ -154,6 +262,53 @@ public class JSONRPC2Error extends Exception {
 	}
 	
 	
+	/**
+	 * Precomputes the JSON serialisation of this error and the start of
+	 * a response carrying it. Intended for immutable errors that are 
+	 * reused, such as the standard error constants.
+	 */
+	void preserialize() {
+	
+		json = toJSONString();
+		
+		responsePrefix = "{\"jsonrpc\":\"2.0\",\"error\":" + json + ",\"id\":";
+		
+		try {
+			responsePrefixBytes = responsePrefix.getBytes("UTF-8");
+			
+		} catch (java.io.UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			throw new AssertionError(e);
+		}
+	}
+	
+	
+	/**
+	 * Returns the preserialised start of a response carrying this error,
+	 * up to and including the {@code "id":} member name.
+	 *
+	 * @return The response prefix, {@code null} if not preserialised.
+	 */
+	String getResponsePrefix() {
+	
+		return responsePrefix;
+	}
+	
+	
+	/**
+	 * Returns the UTF-8 encoded preserialised start of a response 
+	 * carrying this error, up to and including the {@code "id":} member
+	 * name.
+	 *
+	 * @return The response prefix bytes, {@code null} if not 
+	 *         preserialised.
+	 */
+	byte[] getResponsePrefixBytes() {
+	
+		return responsePrefixBytes;
+	}
+	
+	
 	/** 
 	 * Gets a JSON representation of the JSON-RPC 2.0 error.
 	 *
@@ -172,6 +327,31 @@ public class JSONRPC2Error extends Exception {
 	}
 	
 	
+	/**
+	 * Serialises the error object as JSON to the specified output, 
+	 * without an intermediate JSON object.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws java.io.IOException If an I/O exception occurred.
+	 */
+	void writeJSON(final Appendable out)
+		throws java.io.IOException {
+	
+		out.append("{\"code\":");
+		JSONRPC2ValueWriter.writeLong(code, out);
+		out.append(",\"message\":");
+		JSONRPC2ValueWriter.writeValue(super.getMessage(), out);
+		
+		if (data != null) {
+			out.append(",\"data\":");
+			JSONRPC2ValueWriter.writeValue(data, out);
+		}
+		
+		out.append('}');
+	}
+	
+	
 	/** 
 	 * Serialises the error object to a JSON string.
 	 *
@@ -179,7 +359,32 @@ public class JSONRPC2Error extends Exception {
 	 */
 	public String toString() {
 		
-		return toJSON().toString();
+		if (json != null)
+			return json;
+		
+		return toJSONString();
+	}
+	
+	
+	/**
+	 * Serialises the error object to a JSON string with 
+	 * {@link #writeJSON}.
+	 *
+	 * @return The JSON string.
+	 */
+	private String toJSONString() {
+	
+		StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeJSON(sb);
+			
+		} catch (java.io.IOException e) {
+			// Not thrown by a string builder
+			throw new AssertionError(e);
+		}
+		
+		return sb.toString();
 	}
 	
 	
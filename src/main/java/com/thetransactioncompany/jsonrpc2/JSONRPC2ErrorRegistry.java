@@ -0,0 +1,242 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+/**
+ * Registry of preallocated JSON-RPC 2.0 errors, keyed by error code. The
+ * registered errors are stackless and preserialised, so throwing them and
+ * producing error responses from them costs next to nothing. Register the
+ * application error codes once at startup, then look them up on the hot
+ * path.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2ErrorRegistry registry = JSONRPC2ErrorRegistry.getDefault();
+ *
+ * JSONRPC2Error INSUFFICIENT_FUNDS = registry.register(1001, "Insufficient funds");
+ *
+ * // later, on a validation path
+ * throw INSUFFICIENT_FUNDS;
+ * </pre>
+ *
+ * <p>The default registry holds the standard errors, e.g.
+ * {@link JSONRPC2Error#METHOD_NOT_FOUND}. The parser returns the registered
+ * instance for error responses that match a registered code and message
+ * and carry no data, instead of creating a new error.
+ *
+ * <p>This class is thread-safe. Lookups don't lock: the registered errors
+ * are kept in an array sorted by code, which is copied on registration and
+ * binary searched.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2ErrorRegistry {
+
+
+	/**
+	 * The default registry.
+	 */
+	private static final JSONRPC2ErrorRegistry DEFAULT = new JSONRPC2ErrorRegistry();
+
+
+	static {
+		DEFAULT.add(JSONRPC2Error.PARSE_ERROR);
+		DEFAULT.add(JSONRPC2Error.INVALID_REQUEST);
+		DEFAULT.add(JSONRPC2Error.METHOD_NOT_FOUND);
+		DEFAULT.add(JSONRPC2Error.INVALID_PARAMS);
+		DEFAULT.add(JSONRPC2Error.INTERNAL_ERROR);
+	}
+
+
+	/**
+	 * The registered errors, sorted by code. Replaced, never modified.
+	 */
+	private volatile JSONRPC2Error[] errors = new JSONRPC2Error[0];
+
+
+	/**
+	 * Creates a new empty error registry.
+	 */
+	public JSONRPC2ErrorRegistry() {
+
+		// nothing to do
+	}
+
+
+	/**
+	 * Gets the default registry, which holds the standard JSON-RPC 2.0
+	 * errors.
+	 *
+	 * @return The default registry.
+	 */
+	public static JSONRPC2ErrorRegistry getDefault() {
+
+		return DEFAULT;
+	}
+
+
+	/**
+	 * Registers a new preallocated error with the specified code and
+	 * message.
+	 *
+	 * @param code    The error code. Must not be registered already.
+	 * @param message The error message.
+	 *
+	 * @return The stackless, preserialised error.
+	 */
+	public JSONRPC2Error register(final int code, final String message) {
+
+		return register(code, message, null);
+	}
+
+
+	/**
+	 * Registers a new preallocated error with the specified code, message
+	 * and data. The data must not be modified afterwards.
+	 *
+	 * @param code    The error code. Must not be registered already.
+	 * @param message The error message.
+	 * @param data    Optional error data, {@code null} if none.
+	 *
+	 * @return The stackless, preserialised error.
+	 */
+	public JSONRPC2Error register(final int code, final String message, final Object data) {
+
+		JSONRPC2Error error = new JSONRPC2Error(code, message, data, false);
+
+		error.preserialize();
+
+		add(error);
+
+		return error;
+	}
+
+
+	/**
+	 * Adds the specified error.
+	 *
+	 * @param error The error. Its code must not be registered already.
+	 */
+	private synchronized void add(final JSONRPC2Error error) {
+
+		final JSONRPC2Error[] current = errors;
+
+		final int index = indexOf(current, error.getCode());
+
+		if (index >= 0)
+			throw new IllegalArgumentException("The error code " + error.getCode() + " is already registered");
+
+		final int insertion = -(index + 1);
+
+		JSONRPC2Error[] updated = new JSONRPC2Error[current.length + 1];
+
+		System.arraycopy(current, 0, updated, 0, insertion);
+		updated[insertion] = error;
+		System.arraycopy(current, insertion, updated, insertion + 1, current.length - insertion);
+
+		errors = updated;
+	}
+
+
+	/**
+	 * Binary searches the specified sorted errors for a code.
+	 *
+	 * @param errors The errors, sorted by code.
+	 * @param code   The error code.
+	 *
+	 * @return The index of the error, else -(insertion point + 1).
+	 */
+	private static int indexOf(final JSONRPC2Error[] errors, final int code) {
+
+		int low = 0;
+		int high = errors.length - 1;
+
+		while (low <= high) {
+
+			final int mid = (low + high) >>> 1;
+			final int midCode = errors[mid].getCode();
+
+			if (midCode < code)
+				low = mid + 1;
+			else if (midCode > code)
+				high = mid - 1;
+			else
+				return mid;
+		}
+
+		return -(low + 1);
+	}
+
+
+	/**
+	 * Gets the registered error with the specified code.
+	 *
+	 * @param code The error code.
+	 *
+	 * @return The error, {@code null} if not registered.
+	 */
+	public JSONRPC2Error get(final int code) {
+
+		final JSONRPC2Error[] current = errors;
+
+		final int index = indexOf(current, code);
+
+		return index >= 0 ? current[index] : null;
+	}
+
+
+	/**
+	 * Gets the registered error with the specified code, message and no
+	 * data.
+	 *
+	 * @param code    The error code.
+	 * @param message The error message.
+	 *
+	 * @return The error, {@code null} if not registered, or if the
+	 *         registered error has a different message or data.
+	 */
+	public JSONRPC2Error get(final int code, final String message) {
+
+		JSONRPC2Error error = get(code);
+
+		if (error == null || error.getData() != null)
+			return null;
+
+		final String registeredMessage = error.getMessage();
+
+		if (registeredMessage == null ? message != null : ! registeredMessage.equals(message))
+			return null;
+
+		return error;
+	}
+
+
+	/**
+	 * Gets the codes of the registered errors.
+	 *
+	 * @return The error codes, in ascending order.
+	 */
+	public int[] getCodes() {
+
+		final JSONRPC2Error[] current = errors;
+
+		int[] codes = new int[current.length];
+
+		for (int i = 0; i < current.length; i++)
+			codes[i] = current[i].getCode();
+
+		return codes;
+	}
+
+
+	/**
+	 * Gets the number of registered errors.
+	 *
+	 * @return The number of registered errors.
+	 */
+	public int size() {
+
+		return errors.length;
+	}
+}
@@ -0,0 +1,292 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+/**
+ * Output that computes a streaming 64-bit XXH64 hash of the bytes written
+ * to it, without retaining them. Serialise a message to it in canonical
+ * form to obtain a hash suitable for cache keys and deduplication, see
+ * {@link JSONRPC2Message#canonicalHash}.
+ *
+ * <p>XXH64 is a fast non-cryptographic hash; it must not be relied upon
+ * where an adversary could craft collisions.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2HashOutput hash = new JSONRPC2HashOutput();
+ *
+ * request.writeCanonicalJSON(hash);
+ *
+ * long key = hash.getValue();
+ * </pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2HashOutput extends JSONRPC2Output {
+
+
+	private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+	private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long PRIME64_3 = 0x165667B19E3779F9L;
+	private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+	private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+
+	/**
+	 * The hash seed.
+	 */
+	private final long seed;
+
+
+	/**
+	 * The four stripe accumulators.
+	 */
+	private long v1, v2, v3, v4;
+
+
+	/**
+	 * Buffer for an incomplete 32-byte stripe.
+	 */
+	private final byte[] buffer = new byte[32];
+
+
+	/**
+	 * The number of bytes in the stripe buffer.
+	 */
+	private int buffered;
+
+
+	/**
+	 * The total number of bytes hashed.
+	 */
+	private long total;
+
+
+	/**
+	 * Creates a new hash output with a zero seed.
+	 */
+	public JSONRPC2HashOutput() {
+
+		this(0L);
+	}
+
+
+	/**
+	 * Creates a new hash output.
+	 *
+	 * @param seed The hash seed.
+	 */
+	public JSONRPC2HashOutput(final long seed) {
+
+		this.seed = seed;
+		reset();
+	}
+
+
+	/**
+	 * Resets the hash state, to hash new content with the same seed.
+	 */
+	public void reset() {
+
+		v1 = seed + PRIME64_1 + PRIME64_2;
+		v2 = seed + PRIME64_2;
+		v3 = seed;
+		v4 = seed - PRIME64_1;
+		buffered = 0;
+		total = 0;
+		clearPendingSurrogate();
+	}
+
+
+	/**
+	 * Mixes an 8-byte lane into an accumulator.
+	 */
+	private static long round(long acc, final long input) {
+
+		acc += input * PRIME64_2;
+		acc = Long.rotateLeft(acc, 31);
+		return acc * PRIME64_1;
+	}
+
+
+	/**
+	 * Merges an accumulator into the hash.
+	 */
+	private static long mergeRound(long acc, final long val) {
+
+		acc ^= round(0, val);
+		return acc * PRIME64_1 + PRIME64_4;
+	}
+
+
+	/**
+	 * Reads a little-endian 64-bit integer.
+	 */
+	private static long readLong(final byte[] b, final int i) {
+
+		return (b[i] & 0xffL)
+		     | (b[i + 1] & 0xffL) << 8
+		     | (b[i + 2] & 0xffL) << 16
+		     | (b[i + 3] & 0xffL) << 24
+		     | (b[i + 4] & 0xffL) << 32
+		     | (b[i + 5] & 0xffL) << 40
+		     | (b[i + 6] & 0xffL) << 48
+		     | (b[i + 7] & 0xffL) << 56;
+	}
+
+
+	/**
+	 * Reads a little-endian unsigned 32-bit integer.
+	 */
+	private static long readInt(final byte[] b, final int i) {
+
+		return (b[i] & 0xffL)
+		     | (b[i + 1] & 0xffL) << 8
+		     | (b[i + 2] & 0xffL) << 16
+		     | (b[i + 3] & 0xffL) << 24;
+	}
+
+
+	/**
+	 * Processes a 32-byte stripe.
+	 */
+	private void stripe(final byte[] b, final int i) {
+
+		v1 = round(v1, readLong(b, i));
+		v2 = round(v2, readLong(b, i + 8));
+		v3 = round(v3, readLong(b, i + 16));
+		v4 = round(v4, readLong(b, i + 24));
+	}
+
+
+	/**
+	 * Hashes a single byte.
+	 *
+	 * @param b The byte.
+	 */
+	public void write(final int b) {
+
+		buffer[buffered++] = (byte)b;
+		total++;
+
+		if (buffered == 32) {
+			stripe(buffer, 0);
+			buffered = 0;
+		}
+	}
+
+
+	/**
+	 * Hashes the specified bytes.
+	 *
+	 * @param b   The bytes.
+	 * @param off The offset of the first byte.
+	 * @param len The number of bytes.
+	 */
+	public void write(final byte[] b, final int off, final int len) {
+
+		int pos = off;
+		final int end = off + len;
+
+		total += len;
+
+		if (buffered > 0) {
+
+			final int n = Math.min(32 - buffered, len);
+
+			System.arraycopy(b, pos, buffer, buffered, n);
+			buffered += n;
+			pos += n;
+
+			if (buffered < 32)
+				return;
+
+			stripe(buffer, 0);
+			buffered = 0;
+		}
+
+		while (end - pos >= 32) {
+			stripe(b, pos);
+			pos += 32;
+		}
+
+		System.arraycopy(b, pos, buffer, 0, end - pos);
+		buffered = end - pos;
+	}
+
+
+	/**
+	 * Hashes the specified bytes.
+	 *
+	 * @param b The bytes.
+	 */
+	public void write(final byte[] b) {
+
+		write(b, 0, b.length);
+	}
+
+
+	/**
+	 * Returns the number of bytes hashed so far.
+	 *
+	 * @return The number of bytes.
+	 */
+	public long getLength() {
+
+		return total;
+	}
+
+
+	/**
+	 * Returns the XXH64 hash of the bytes written so far. The state is not
+	 * changed, more bytes may be written afterwards.
+	 *
+	 * @return The 64-bit hash value.
+	 */
+	public long getValue() {
+
+		long h;
+
+		if (total >= 32) {
+			h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+			h = mergeRound(h, v1);
+			h = mergeRound(h, v2);
+			h = mergeRound(h, v3);
+			h = mergeRound(h, v4);
+		}
+		else {
+			h = seed + PRIME64_5;
+		}
+
+		h += total;
+
+		int i = 0;
+
+		for (; i + 8 <= buffered; i += 8) {
+			h ^= round(0, readLong(buffer, i));
+			h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+		}
+
+		if (i + 4 <= buffered) {
+			h ^= readInt(buffer, i) * PRIME64_1;
+			h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+			i += 4;
+		}
+
+		for (; i < buffered; i++) {
+			h ^= (buffer[i] & 0xffL) * PRIME64_5;
+			h = Long.rotateLeft(h, 11) * PRIME64_1;
+		}
+
+		h ^= h >>> 33;
+		h *= PRIME64_2;
+		h ^= h >>> 29;
+		h *= PRIME64_3;
+		h ^= h >>> 32;
+
+		return h;
+	}
+}
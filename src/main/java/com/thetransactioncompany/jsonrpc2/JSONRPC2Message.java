@@ -1,6 +1,10 @@
 package com.thetransactioncompany.jsonrpc2;
 
 
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
 import java.util.*;
 
 import net.minidev.json.JSONObject;
@@ -49,20 +53,56 @@ import net.minidev.json.JSONObject;
  *     null        <--->  null
  * </pre>
  *
+ * <p>Results, parameters and error data that are already serialised may be 
+ * passed as a {@link JSONRPC2RawValue}, which is copied verbatim into the
+ * output.
+ *
  * <p>The JSON-RPC 2.0 specification and user group forum can be found 
  * <a href="http://groups.google.com/group/json-rpc">here</a>.
  * 
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-07-09)
+ * @version 1.27 (2026-10-18)
  */
 public abstract class JSONRPC2Message {
 
 
 	/**
-	 * Map of non-standard JSON-RPC 2.0 message attributes, {@code null} if
-	 * none.
+	 * The names of the non-standard JSON-RPC 2.0 message attributes, 
+	 * {@code null} if none were ever appended.
+	 */
+	private String[] nonStdNames = null;
+	
+	
+	/**
+	 * The values of the non-standard JSON-RPC 2.0 message attributes, 
+	 * parallel to the names.
+	 */
+	private Object[] nonStdValues = null;
+	
+	
+	/**
+	 * The number of non-standard JSON-RPC 2.0 message attributes.
+	 */
+	private int nonStdCount = 0;
+	
+	
+	/**
+	 * If {@code true} the serialised form of the message is kept after
+	 * the first serialisation.
 	 */
-	private Map <String,Object> nonStdAttributes = null;
+	private boolean memoizeSerialization = false;
+	
+	
+	/**
+	 * The memoised JSON string, {@code null} if none.
+	 */
+	private volatile String serializedString = null;
+	
+	
+	/**
+	 * The memoised UTF-8 encoded JSON bytes, {@code null} if none.
+	 */
+	private volatile byte[] serializedBytes = null;
 	
 
 	/** 
@@ -138,10 +178,43 @@ public abstract class JSONRPC2Message {
 	}
 	
 	
+	/**
+	 * Checks if the specified name is reserved by the JSON-RPC 2.0 
+	 * protocol: "jsonrpc", "method", "params", "id", "result" or "error".
+	 * The names are told apart by length first, so most non-standard 
+	 * names are rejected without a string comparison.
+	 *
+	 * @param name The name. Must not be {@code null}.
+	 *
+	 * @return {@code true} if the name is reserved, else {@code false}.
+	 */
+	static boolean isReservedName(final String name) {
+	
+		switch (name.length()) {
+		
+			case 2:
+				return name.equals("id");
+			
+			case 5:
+				return name.equals("error");
+			
+			case 6:
+				return name.equals("method") || name.equals("params") || name.equals("result");
+			
+			case 7:
+				return name.equals("jsonrpc");
+			
+			default:
+				return false;
+		}
+	}
+	
+	
 	/**
 	 * Appends a non-standard attribute to a JSON-RPC 2.0 message. This is 
 	 * done by adding a new member (key / value pair) to the JSON object 
-	 * representing the message.
+	 * representing the message. An existing attribute with the same name
+	 * is replaced.
 	 *
 	 * <p>You may use this method to add meta and debugging attributes, 
 	 * such as the request processing time, to a JSON-RPC 2.0 message.
@@ -157,14 +230,7 @@ public abstract class JSONRPC2Message {
 	public void appendNonStdAttribute(final String name, final Object value) {
 	
 		// Name check
-		if (name == null          ||
-		    name.equals("method") ||
-		    name.equals("id")     ||
-		    name.equals("params") ||
-		    name.equals("result") ||
-		    name.equals("error")  ||
-		    name.equals("jsonrpc")   )
-	
+		if (name == null || isReservedName(name))
 			throw new IllegalArgumentException("Non-standard attribute name violation");
 	
 		// Value check
@@ -178,10 +244,46 @@ public abstract class JSONRPC2Message {
 			throw new IllegalArgumentException("Illegal non-standard attribute value, must map to a valid JSON type");
 		
 		
-		if (nonStdAttributes == null)
-			nonStdAttributes = new HashMap<String,Object>();
+		invalidateSerialization();
+		
+		final int index = indexOfNonStdAttribute(name);
+		
+		if (index >= 0) {
+			nonStdValues[index] = value;
+			return;
+		}
+		
+		if (nonStdNames == null) {
+			nonStdNames = new String[2];
+			nonStdValues = new Object[2];
+		}
+		else if (nonStdCount == nonStdNames.length) {
+			nonStdNames = Arrays.copyOf(nonStdNames, nonStdCount * 2);
+			nonStdValues = Arrays.copyOf(nonStdValues, nonStdCount * 2);
+		}
+		
+		nonStdNames[nonStdCount] = name;
+		nonStdValues[nonStdCount] = value;
+		nonStdCount++;
+	}
+	
+	
+	/**
+	 * Returns the index of the named non-standard attribute.
+	 *
+	 * @param name The attribute name.
+	 *
+	 * @return The index, -1 if not found.
+	 */
+	private int indexOfNonStdAttribute(final String name) {
+	
+		for (int i=0; i < nonStdCount; i++) {
+		
+			if (nonStdNames[i].equals(name))
+				return i;
+		}
 		
-		nonStdAttributes.put(name, value);
+		return -1;
 	}
 	
 	
@@ -195,21 +297,117 @@ public abstract class JSONRPC2Message {
 	 */
 	public Object getNonStdAttribute(final String name) {
 	
-		if (nonStdAttributes == null)
-			return null;
+		final int index = indexOfNonStdAttribute(name);
 		
-		return nonStdAttributes.get(name);
+		return index >= 0 ? nonStdValues[index] : null;
+	}
+	
+	
+	/**
+	 * Gets the number of non-standard JSON-RPC 2.0 message attributes. 
+	 * Together with {@link #getNonStdAttributeName} and 
+	 * {@link #getNonStdAttributeValue} this allows the attributes to be 
+	 * iterated without allocation:
+	 *
+	 * <pre>
+	 * for (int i=0; i &lt; message.getNonStdAttributeCount(); i++)
+	 *         trace(message.getNonStdAttributeName(i), message.getNonStdAttributeValue(i));
+	 * </pre>
+	 *
+	 * @return The number of non-standard attributes.
+	 */
+	public int getNonStdAttributeCount() {
+	
+		return nonStdCount;
+	}
+	
+	
+	/**
+	 * Gets the name of the non-standard attribute at the specified index,
+	 * in order of appending.
+	 *
+	 * @param index The attribute index, from zero to 
+	 *              {@link #getNonStdAttributeCount} minus one.
+	 *
+	 * @return The attribute name.
+	 */
+	public String getNonStdAttributeName(final int index) {
+	
+		if (index < 0 || index >= nonStdCount)
+			throw new IndexOutOfBoundsException("Non-standard attribute index: " + index);
+		
+		return nonStdNames[index];
+	}
+	
+	
+	/**
+	 * Gets the value of the non-standard attribute at the specified 
+	 * index, in order of appending.
+	 *
+	 * @param index The attribute index, from zero to 
+	 *              {@link #getNonStdAttributeCount} minus one.
+	 *
+	 * @return The attribute value, may be {@code null}.
+	 */
+	public Object getNonStdAttributeValue(final int index) {
+	
+		if (index < 0 || index >= nonStdCount)
+			throw new IndexOutOfBoundsException("Non-standard attribute index: " + index);
+		
+		return nonStdValues[index];
 	}
 	
 	
 	/**
 	 * Retrieves the non-standard JSON-RPC 2.0 message attributes.
 	 *
-	 * @return The non-standard attributes as a map, {@code null} if none.
+	 * @return A snapshot of the non-standard attributes as a map, in 
+	 *         order of appending, {@code null} if none. Changes to the
+	 *         map don't affect the message.
 	 */
 	public Map<String,Object> getNonStandardAttributes() {
 	
-		return nonStdAttributes;
+		if (nonStdCount == 0)
+			return null;
+		
+		Map<String,Object> map = new LinkedHashMap<String,Object>(nonStdCount * 2);
+		
+		for (int i=0; i < nonStdCount; i++)
+			map.put(nonStdNames[i], nonStdValues[i]);
+		
+		return map;
+	}
+	
+	
+	/**
+	 * Resets this message to a blank state for reuse, see 
+	 * {@link JSONRPC2Parser#parseInto(String,JSONRPC2Request)} and
+	 * {@link JSONRPC2MessagePool}. Clears the message members, the 
+	 * non-standard attributes and the memoised serialised form. The 
+	 * memoisation setting is kept.
+	 */
+	public void reset() {
+	
+		if (nonStdCount > 0) {
+			Arrays.fill(nonStdNames, 0, nonStdCount, null);
+			Arrays.fill(nonStdValues, 0, nonStdCount, null);
+			nonStdCount = 0;
+		}
+		
+		invalidateSerialization();
+	}
+	
+	
+	/**
+	 * Puts the non-standard attributes of this message into the 
+	 * specified JSON object.
+	 *
+	 * @param json The JSON object.
+	 */
+	void putNonStdAttributes(final Map<String,Object> json) {
+	
+		for (int i=0; i < nonStdCount; i++)
+			json.put(nonStdNames[i], nonStdValues[i]);
 	}
 	
 	
@@ -221,6 +419,358 @@ public abstract class JSONRPC2Message {
 	public abstract JSONObject toJSON();
 	
 	
+	/**
+	 * Controls memoisation of the serialised form of this message. If 
+	 * enabled, the output of the first {@link #toString} or 
+	 * {@link #serialize} call is kept and repeated calls only copy it.
+	 * Use this for messages that are sent many times, such as broadcast 
+	 * notifications or cached responses.
+	 *
+	 * <p>The memoised form is cleared by the setter methods of the 
+	 * message and by {@link #appendNonStdAttribute}. Changes made directly
+	 * to the parameter, result or attribute objects are not detected, 
+	 * these must not be modified while memoisation is enabled.
+	 *
+	 * @param enable {@code true} to memoise the serialised form, else
+	 *               {@code false}.
+	 */
+	public void memoizeSerialization(final boolean enable) {
+	
+		memoizeSerialization = enable;
+		
+		if (! enable)
+			invalidateSerialization();
+	}
+	
+	
+	/**
+	 * Returns {@code true} if the serialised form of this message is 
+	 * memoised, else {@code false}.
+	 *
+	 * @return {@code true} if the serialised form is memoised, else
+	 *         {@code false}.
+	 */
+	public boolean memoizesSerialization() {
+	
+		return memoizeSerialization;
+	}
+	
+	
+	/**
+	 * Clears the memoised serialised form of this message. Must be called
+	 * by subclasses whenever the message content changes.
+	 */
+	protected void invalidateSerialization() {
+	
+		serializedString = null;
+		serializedBytes = null;
+	}
+	
+	
+	/**
+	 * Serialises this message as JSON to the specified output.
+	 *
+	 * @param out The output to append to, e.g. a {@link JSONRPC2Output}
+	 *            for direct UTF-8 encoding.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
+	
+		toJSON().writeJSONString(out);
+	}
+	
+	
+	/**
+	 * Serialises this message as canonical JSON to the specified output:
+	 * members sorted by name, numbers normalised and no whitespace. Equal
+	 * messages produce identical output regardless of the map types and
+	 * number types used for their content, which makes the canonical form
+	 * suitable for cache keys, deduplication and signing. Raw values are
+	 * parsed and canonicalised.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeCanonicalJSON(final Appendable out)
+		throws IOException {
+	
+		JSONRPC2CanonicalWriter.writeObject(toJSON(), out);
+	}
+	
+	
+	/**
+	 * Serialises this message to a canonical JSON string, see
+	 * {@link #writeCanonicalJSON}.
+	 *
+	 * @return The canonical JSON string.
+	 */
+	public String toCanonicalString() {
+	
+		StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeCanonicalJSON(sb);
+			
+		} catch (IOException e) {
+			// String builders don't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+		
+		return sb.toString();
+	}
+	
+	
+	/**
+	 * Computes the XXH64 hash of the canonical UTF-8 encoded JSON form of
+	 * this message with a zero seed. The canonical form is hashed as it is
+	 * written, without producing a string or byte array.
+	 *
+	 * @return The 64-bit hash.
+	 */
+	public long canonicalHash() {
+	
+		return canonicalHash(0L);
+	}
+	
+	
+	/**
+	 * Computes the XXH64 hash of the canonical UTF-8 encoded JSON form of
+	 * this message. The canonical form is hashed as it is written, without
+	 * producing a string or byte array.
+	 *
+	 * @param seed The hash seed.
+	 *
+	 * @return The 64-bit hash.
+	 */
+	public long canonicalHash(final long seed) {
+	
+		JSONRPC2HashOutput out = new JSONRPC2HashOutput(seed);
+		
+		try {
+			writeCanonicalJSON(out);
+			out.finish();
+			
+		} catch (IOException e) {
+			// Hash outputs don't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+		
+		return out.getValue();
+	}
+	
+	
+	/**
+	 * Writes the non-standard attributes of this message as JSON object 
+	 * members, each one preceded by a comma.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	void writeNonStdAttributes(final Appendable out)
+		throws IOException {
+	
+		for (int i=0; i < nonStdCount; i++) {
+		
+			out.append(',');
+			JSONRPC2ValueWriter.writeString(nonStdNames[i], out);
+			out.append(':');
+			JSONRPC2ValueWriter.writeValue(nonStdValues[i], out);
+		}
+	}
+	
+	
+	/**
+	 * Returns the key under which the output size of this message is
+	 * estimated, typically the method name.
+	 *
+	 * @return The size estimate key, {@code null} if none.
+	 */
+	String getSizeEstimateKey() {
+	
+		return null;
+	}
+	
+	
+	/**
+	 * Serialises this message as UTF-8 encoded JSON into the reusable 
+	 * buffer of the calling thread. The buffer is pre-sized from a running
+	 * estimate of the output size for the method, so in steady state no
+	 * garbage is produced.
+	 *
+	 * <p>The returned buffer content is valid until the next 
+	 * serialisation on the same thread.
+	 *
+	 * @return The thread buffer holding the serialised message.
+	 */
+	public JSONRPC2OutputBuffer serialize() {
+	
+		return serialize(getSizeEstimateKey());
+	}
+	
+	
+	/**
+	 * Serialises this message as UTF-8 encoded JSON into the reusable
+	 * buffer of the calling thread, pre-sizing it from the running output
+	 * size estimate for the specified key. Use this method for responses 
+	 * to track their size by the method name of the original request.
+	 *
+	 * <p>The returned buffer content is valid until the next 
+	 * serialisation on the same thread.
+	 *
+	 * @param sizeEstimateKey The key under which the output size is 
+	 *                        estimated, typically the method name. May be
+	 *                        {@code null}.
+	 *
+	 * @return The thread buffer holding the serialised message.
+	 */
+	public JSONRPC2OutputBuffer serialize(final String sizeEstimateKey) {
+	
+		if (memoizeSerialization) {
+		
+			byte[] memo = serializedBytes;
+			
+			if (memo != null) {
+				JSONRPC2OutputBuffer out = JSONRPC2OutputBuffer.getThreadBuffer(memo.length);
+				out.write(memo);
+				return out;
+			}
+		}
+	
+		JSONRPC2OutputBuffer out = JSONRPC2OutputBuffer.getThreadBuffer(JSONRPC2OutputBuffer.estimateSize(sizeEstimateKey));
+		
+		try {
+			writeJSON(out);
+			out.finish();
+			
+		} catch (IOException e) {
+			// The output buffer doesn't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+		
+		JSONRPC2OutputBuffer.recordSize(sizeEstimateKey, out.size());
+		
+		if (memoizeSerialization)
+			serializedBytes = out.toByteArray();
+		
+		return out;
+	}
+	
+	
+	/**
+	 * Serialises this message as UTF-8 encoded JSON straight into the 
+	 * specified byte buffer, typically a direct buffer. If the buffer 
+	 * fills up it is replaced with a larger one, see 
+	 * {@link JSONRPC2ByteBufferOutput#GROW}.
+	 *
+	 * @param buffer The buffer to write to, in write mode. Must not be 
+	 *               {@code null}.
+	 *
+	 * @return The buffer holding the serialised message, in write mode.
+	 *         This is a new buffer if the original one had to be grown.
+	 */
+	public ByteBuffer serialize(final ByteBuffer buffer) {
+	
+		try {
+			return serialize(buffer, JSONRPC2ByteBufferOutput.GROW);
+			
+		} catch (IOException e) {
+			// Not thrown when growing
+			throw new AssertionError(e);
+		}
+	}
+	
+	
+	/**
+	 * Serialises this message as UTF-8 encoded JSON straight into the
+	 * specified byte buffer, typically a direct buffer. If the buffer 
+	 * fills up the overflow handler is asked for room to continue, e.g. 
+	 * by draining the buffer to a channel, see 
+	 * {@link JSONRPC2ByteBufferOutput#drainTo}.
+	 *
+	 * @param buffer          The buffer to write to, in write mode. Must 
+	 *                        not be {@code null}.
+	 * @param overflowHandler The handler to call when the buffer is full.
+	 *                        Must not be {@code null}.
+	 *
+	 * @return The buffer holding the (remaining) serialised message, in
+	 *         write mode. May differ from the original buffer if the 
+	 *         overflow handler replaced it.
+	 *
+	 * @throws IOException If the overflow handler failed.
+	 */
+	public ByteBuffer serialize(final ByteBuffer buffer, final JSONRPC2ByteBufferOutput.OverflowHandler overflowHandler)
+		throws IOException {
+	
+		JSONRPC2ByteBufferOutput out = new JSONRPC2ByteBufferOutput(buffer, overflowHandler);
+		
+		byte[] memo = memoizeSerialization ? serializedBytes : null;
+		
+		if (memo != null)
+			out.write(memo);
+		else
+			writeJSON(out);
+		
+		out.finish();
+		
+		return out.getBuffer();
+	}
+	
+	
+	/**
+	 * Serialises this message as UTF-8 encoded JSON into a sequence of 
+	 * byte buffer segments, for a gathering write. Large pre-serialised 
+	 * values, such as a {@link JSONRPC2RawValue} result, become separate
+	 * segments and are not copied. See 
+	 * {@link JSONRPC2SegmentedOutput#DEFAULT_SEGMENT_THRESHOLD}.
+	 *
+	 * @return The segments, in order.
+	 */
+	public ByteBuffer[] serializeSegments() {
+	
+		return serializeSegments(JSONRPC2SegmentedOutput.DEFAULT_SEGMENT_THRESHOLD);
+	}
+	
+	
+	/**
+	 * Serialises this message as UTF-8 encoded JSON into a sequence of 
+	 * byte buffer segments, for a gathering write. Pre-serialised values
+	 * at or above the specified size become separate segments and are 
+	 * not copied.
+	 *
+	 * @param segmentThreshold The size at which pre-serialised values are
+	 *                         referenced as separate segments, in bytes.
+	 *                         Must be positive.
+	 *
+	 * @return The segments, in order.
+	 */
+	public ByteBuffer[] serializeSegments(final int segmentThreshold) {
+	
+		JSONRPC2SegmentedOutput out = new JSONRPC2SegmentedOutput(segmentThreshold);
+		
+		byte[] memo = memoizeSerialization ? serializedBytes : null;
+		
+		if (memo != null) {
+			out.write(memo);
+			return out.getSegments();
+		}
+		
+		try {
+			writeJSON(out);
+			out.finish();
+			
+		} catch (IOException e) {
+			// The segmented output doesn't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+		
+		return out.getSegments();
+	}
+	
+	
 	/** 
 	 * Serialises this message to a JSON string.
 	 *
@@ -228,6 +778,38 @@ public abstract class JSONRPC2Message {
 	 */
 	public String toString() {
 		
-		return toJSON().toString();
+		if (! memoizeSerialization)
+			return toJSONString();
+		
+		String memo = serializedString;
+		
+		if (memo == null) {
+			memo = toJSONString();
+			serializedString = memo;
+		}
+		
+		return memo;
+	}
+	
+	
+	/**
+	 * Serialises this message to a JSON string with 
+	 * {@link #writeJSON(Appendable)}.
+	 *
+	 * @return The JSON string.
+	 */
+	private String toJSONString() {
+	
+		StringBuilder sb = new StringBuilder();
+		
+		try {
+			writeJSON(sb);
+			
+		} catch (IOException e) {
+			// String builders don't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+		
+		return sb.toString();
 	}
 }
@@ -0,0 +1,174 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.util.ArrayDeque;
+
+
+/**
+ * Pool of recyclable JSON-RPC 2.0 message objects, for pipelines that must
+ * not allocate message objects in steady state. Messages are acquired from
+ * the pool, filled with {@link JSONRPC2Parser#parseInto} or the setter
+ * methods, and released back when no longer referenced. Released messages
+ * are {@link JSONRPC2Message#reset reset}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2MessagePool pool = new JSONRPC2MessagePool(64);
+ * JSONRPC2Parser parser = new JSONRPC2Parser();
+ *
+ * JSONRPC2Request request = parser.parseInto(jsonString, pool.acquireRequest());
+ *
+ * // process request
+ *
+ * pool.release(request);
+ * </pre>
+ *
+ * <p>Note that parsing still allocates the parameter values.
+ *
+ * <p>This class is not thread-safe, use one pool per thread.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2MessagePool {
+
+
+	/**
+	 * The maximum number of idle messages kept per message type.
+	 */
+	private final int maxIdle;
+
+
+	/**
+	 * The idle requests.
+	 */
+	private final ArrayDeque<JSONRPC2Request> requests;
+
+
+	/**
+	 * The idle notifications.
+	 */
+	private final ArrayDeque<JSONRPC2Notification> notifications;
+
+
+	/**
+	 * The idle responses.
+	 */
+	private final ArrayDeque<JSONRPC2Response> responses;
+
+
+	/**
+	 * Creates a new message pool.
+	 *
+	 * @param maxIdle The maximum number of idle messages to keep per
+	 *                message type. Messages released beyond it are left
+	 *                to the garbage collector. Must be positive.
+	 */
+	public JSONRPC2MessagePool(final int maxIdle) {
+
+		if (maxIdle < 1)
+			throw new IllegalArgumentException("The maximum number of idle messages must be positive");
+
+		this.maxIdle = maxIdle;
+
+		requests = new ArrayDeque<JSONRPC2Request>(maxIdle);
+		notifications = new ArrayDeque<JSONRPC2Notification>(maxIdle);
+		responses = new ArrayDeque<JSONRPC2Response>(maxIdle);
+	}
+
+
+	/**
+	 * Gets the maximum number of idle messages kept per message type.
+	 *
+	 * @return The maximum number of idle messages.
+	 */
+	public int getMaxIdle() {
+
+		return maxIdle;
+	}
+
+
+	/**
+	 * Acquires a blank request from the pool, or creates a new one if
+	 * the pool is empty.
+	 *
+	 * @return The blank request.
+	 */
+	public JSONRPC2Request acquireRequest() {
+
+		JSONRPC2Request request = requests.pollLast();
+
+		return request != null ? request : new JSONRPC2Request();
+	}
+
+
+	/**
+	 * Acquires a blank notification from the pool, or creates a new one
+	 * if the pool is empty.
+	 *
+	 * @return The blank notification.
+	 */
+	public JSONRPC2Notification acquireNotification() {
+
+		JSONRPC2Notification notification = notifications.pollLast();
+
+		return notification != null ? notification : new JSONRPC2Notification();
+	}
+
+
+	/**
+	 * Acquires a blank response from the pool, or creates a new one if
+	 * the pool is empty.
+	 *
+	 * @return The blank response.
+	 */
+	public JSONRPC2Response acquireResponse() {
+
+		JSONRPC2Response response = responses.pollLast();
+
+		return response != null ? response : new JSONRPC2Response();
+	}
+
+
+	/**
+	 * Resets the specified message and releases it back to the pool. The
+	 * message must not be used by the caller afterwards.
+	 *
+	 * @param message The message. Must not be {@code null}.
+	 */
+	public void release(final JSONRPC2Message message) {
+
+		if (message == null)
+			throw new NullPointerException("The message must not be null");
+
+		message.reset();
+
+		if (message instanceof JSONRPC2Request) {
+
+			if (requests.size() < maxIdle)
+				requests.addLast((JSONRPC2Request)message);
+		}
+		else if (message instanceof JSONRPC2Notification) {
+
+			if (notifications.size() < maxIdle)
+				notifications.addLast((JSONRPC2Notification)message);
+		}
+		else if (message instanceof JSONRPC2Response) {
+
+			if (responses.size() < maxIdle)
+				responses.addLast((JSONRPC2Response)message);
+		}
+	}
+
+
+	/**
+	 * Gets the number of idle messages in the pool, of all types.
+	 *
+	 * @return The number of idle messages.
+	 */
+	public int size() {
+
+		return requests.size() + notifications.size() + responses.size();
+	}
+}
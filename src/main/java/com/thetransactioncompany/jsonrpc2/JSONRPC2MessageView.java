@@ -0,0 +1,642 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.util.Map;
+
+
+/**
+ * Read-only flyweight view of a JSON-RPC 2.0 message backed by a range of
+ * UTF-8 encoded bytes. Pointing the view at a message with {@link #wrap}
+ * scans the top-level members once and records their byte spans; the
+ * members are decoded only when accessed. A single view can be pointed at
+ * one record after another without allocation, which suits scanning large
+ * numbers of stored messages for a few fields.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2MessageView view = new JSONRPC2MessageView();
+ *
+ * for (Record record: log) {
+ *
+ *         view.wrap(record.bytes(), record.offset(), record.length());
+ *
+ *         if (view.isRequest() &amp;&amp; view.methodEquals("makePayment"))
+ *                 audit(view.getID(), view.getParams());
+ * }
+ * </pre>
+ *
+ * <p>The read accessors mirror those of {@link JSONRPC2Request},
+ * {@link JSONRPC2Notification} and {@link JSONRPC2Response}. The envelope
+ * is validated on {@link #wrap}: the version, a string method name and a
+ * scalar identifier. The parameters, result and error are validated when
+ * decoded. The byte array must not be modified while the view is pointed
+ * at it.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2MessageView {
+
+
+	/**
+	 * {@code true} to skip the check of the {@code "jsonrpc":"2.0"}
+	 * version member.
+	 */
+	private final boolean ignoreVersion;
+
+
+	/**
+	 * The backing bytes, {@code null} if not pointed at a message.
+	 */
+	private byte[] bytes;
+
+
+	/**
+	 * The offset of the message in the backing bytes.
+	 */
+	private int offset;
+
+
+	/**
+	 * The length of the message, in bytes.
+	 */
+	private int length;
+
+
+	/**
+	 * The span of the method value, -1 start if absent.
+	 */
+	private int methodStart, methodEnd;
+
+
+	/**
+	 * The span of the params value, -1 start if absent.
+	 */
+	private int paramsStart, paramsEnd;
+
+
+	/**
+	 * The span of the id value, -1 start if absent.
+	 */
+	private int idStart, idEnd;
+
+
+	/**
+	 * The span of the result value, -1 start if absent.
+	 */
+	private int resultStart, resultEnd;
+
+
+	/**
+	 * The span of the error value, -1 start if absent.
+	 */
+	private int errorStart, errorEnd;
+
+
+	/**
+	 * The number of non-standard members.
+	 */
+	private int nonStdCount;
+
+
+	/**
+	 * Creates a new message view which checks the version member.
+	 */
+	public JSONRPC2MessageView() {
+
+		this(false);
+	}
+
+
+	/**
+	 * Creates a new message view.
+	 *
+	 * @param ignoreVersion {@code true} to skip the check of the
+	 *                      {@code "jsonrpc":"2.0"} version member.
+	 */
+	public JSONRPC2MessageView(final boolean ignoreVersion) {
+
+		this.ignoreVersion = ignoreVersion;
+		clear();
+	}
+
+
+	/**
+	 * Clears the member spans.
+	 */
+	private void clear() {
+
+		bytes = null;
+		offset = 0;
+		length = 0;
+		methodStart = paramsStart = idStart = resultStart = errorStart = -1;
+		methodEnd = paramsEnd = idEnd = resultEnd = errorEnd = -1;
+		nonStdCount = 0;
+	}
+
+
+	/**
+	 * Points this view at the specified message.
+	 *
+	 * @param bytes The UTF-8 encoded JSON-RPC 2.0 message. Must not be
+	 *              {@code null}.
+	 *
+	 * @return This view.
+	 *
+	 * @throws JSONRPC2ParseException If the message is malformed. The
+	 *                                view is then cleared.
+	 */
+	public JSONRPC2MessageView wrap(final byte[] bytes)
+		throws JSONRPC2ParseException {
+
+		return wrap(bytes, 0, bytes.length);
+	}
+
+
+	/**
+	 * Points this view at the message in the specified byte range.
+	 *
+	 * @param bytes  The backing bytes. Must not be {@code null}.
+	 * @param offset The offset of the UTF-8 encoded JSON-RPC 2.0
+	 *               message.
+	 * @param length The length of the message, in bytes.
+	 *
+	 * @return This view.
+	 *
+	 * @throws JSONRPC2ParseException If the message is malformed. The
+	 *                                view is then cleared.
+	 */
+	public JSONRPC2MessageView wrap(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		if (bytes == null)
+			throw new NullPointerException("The bytes must not be null");
+
+		if (offset < 0 || length < 0 || offset + length > bytes.length)
+			throw new IndexOutOfBoundsException();
+
+		clear();
+
+		try {
+			scan(bytes, offset, offset + length);
+
+		} catch (JSONRPC2ParseException e) {
+
+			clear();
+			throw e;
+		}
+
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+
+		return this;
+	}
+
+
+	/**
+	 * Scans the top-level members of the message and records their spans.
+	 *
+	 * @param b     The bytes.
+	 * @param start The start of the message.
+	 * @param end   The end of the message.
+	 *
+	 * @throws JSONRPC2ParseException If the message is malformed.
+	 */
+	private void scan(final byte[] b, final int start, final int end)
+		throws JSONRPC2ParseException {
+
+		int pos = JSONRPC2Scanner.skipWhitespace(b, start, end);
+
+		if (pos >= end)
+			throw new JSONRPC2ParseException("Invalid JSON: Empty string", JSONRPC2ParseException.JSON, null);
+
+		if (b[pos] == '[')
+			throw new JSONRPC2ParseException("JSON-RPC 2.0 batch requests/notifications not supported");
+
+		if (b[pos] != '{')
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 message: Message must be a JSON object");
+
+		pos = JSONRPC2Scanner.skipWhitespace(b, pos + 1, end);
+
+		boolean versionFound = false;
+
+		if (pos < end && b[pos] == '}') {
+			pos++;
+		}
+		else {
+			while (true) {
+
+				final int keyStart = pos;
+				final int keyEnd = JSONRPC2Scanner.skipString(b, pos, end);
+
+				pos = JSONRPC2Scanner.skipWhitespace(b, keyEnd, end);
+
+				if (pos >= end || b[pos] != ':')
+					throw JSONRPC2Scanner.malformed("Expected colon", pos);
+
+				final int valueStart = JSONRPC2Scanner.skipWhitespace(b, pos + 1, end);
+				final int valueEnd = JSONRPC2Scanner.skipValue(b, valueStart, end);
+
+				if (JSONRPC2Scanner.stringEquals(b, keyStart, keyEnd, "method")) {
+					methodStart = valueStart;
+					methodEnd = valueEnd;
+				}
+				else if (JSONRPC2Scanner.stringEquals(b, keyStart, keyEnd, "params")) {
+					paramsStart = valueStart;
+					paramsEnd = valueEnd;
+				}
+				else if (JSONRPC2Scanner.stringEquals(b, keyStart, keyEnd, "id")) {
+					idStart = valueStart;
+					idEnd = valueEnd;
+				}
+				else if (JSONRPC2Scanner.stringEquals(b, keyStart, keyEnd, "result")) {
+					resultStart = valueStart;
+					resultEnd = valueEnd;
+				}
+				else if (JSONRPC2Scanner.stringEquals(b, keyStart, keyEnd, "error")) {
+					errorStart = valueStart;
+					errorEnd = valueEnd;
+				}
+				else if (JSONRPC2Scanner.stringEquals(b, keyStart, keyEnd, "jsonrpc")) {
+
+					if (! ignoreVersion && ! (b[valueStart] == '"' && JSONRPC2Scanner.stringEquals(b, valueStart, valueEnd, "2.0")))
+						throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0: Version string missing or not \"2.0\"");
+
+					versionFound = true;
+				}
+				else {
+					nonStdCount++;
+				}
+
+				pos = JSONRPC2Scanner.skipWhitespace(b, valueEnd, end);
+
+				if (pos < end && b[pos] == ',') {
+					pos = JSONRPC2Scanner.skipWhitespace(b, pos + 1, end);
+					continue;
+				}
+
+				if (pos < end && b[pos] == '}') {
+					pos++;
+					break;
+				}
+
+				throw JSONRPC2Scanner.malformed("Expected comma or closing brace", pos);
+			}
+		}
+
+		if (JSONRPC2Scanner.skipWhitespace(b, pos, end) != end)
+			throw JSONRPC2Scanner.malformed("Trailing content", pos);
+
+		if (! ignoreVersion && ! versionFound)
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0: Version string missing or not \"2.0\"");
+
+		if (methodStart >= 0) {
+
+			if (b[methodStart] != '"')
+				throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Method name not a JSON string");
+
+			if (methodEnd - methodStart == 2)
+				throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Method name is an empty string");
+
+			if (paramsStart >= 0 && b[paramsStart] != '[' && b[paramsStart] != '{' && ! isNull(paramsStart, paramsEnd, b))
+				throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Method parameters have unexpected JSON type");
+		}
+		else if (resultStart < 0 && errorStart < 0) {
+
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 message: Neither method, result nor error specified");
+		}
+		else if (resultStart >= 0 && errorStart >= 0) {
+
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 response: You cannot have result and error at the same time");
+		}
+		else if (errorStart >= 0 && b[errorStart] != '{') {
+
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 response: Error not a JSON object");
+		}
+
+		if (idStart >= 0 && (b[idStart] == '{' || b[idStart] == '['))
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 message: Identifier not a JSON scalar");
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified span holds the null literal.
+	 */
+	private static boolean isNull(final int start, final int end, final byte[] b) {
+
+		return JSONRPC2Scanner.equalsASCII(b, start, end, "null");
+	}
+
+
+	/**
+	 * Ensures this view is pointed at a message.
+	 */
+	private void ensureWrapped() {
+
+		if (bytes == null)
+			throw new IllegalStateException("The view is not pointed at a message");
+	}
+
+
+	/**
+	 * Returns {@code true} if the message is a request: it has a method
+	 * name and an identifier.
+	 *
+	 * @return {@code true} if a request.
+	 */
+	public boolean isRequest() {
+
+		ensureWrapped();
+		return methodStart >= 0 && idStart >= 0;
+	}
+
+
+	/**
+	 * Returns {@code true} if the message is a notification: it has a
+	 * method name and no identifier.
+	 *
+	 * @return {@code true} if a notification.
+	 */
+	public boolean isNotification() {
+
+		ensureWrapped();
+		return methodStart >= 0 && idStart < 0;
+	}
+
+
+	/**
+	 * Returns {@code true} if the message is a response: it has a result
+	 * or an error and no method name.
+	 *
+	 * @return {@code true} if a response.
+	 */
+	public boolean isResponse() {
+
+		ensureWrapped();
+		return methodStart < 0;
+	}
+
+
+	/**
+	 * Gets the name of the requested method.
+	 *
+	 * @return The method name, {@code null} if the message is a response.
+	 */
+	public String getMethod() {
+
+		ensureWrapped();
+
+		if (methodStart < 0)
+			return null;
+
+		return JSONRPC2Scanner.decodeString(bytes, methodStart, methodEnd);
+	}
+
+
+	/**
+	 * Compares the name of the requested method with the specified name,
+	 * without decoding it.
+	 *
+	 * @param method The method name to compare with.
+	 *
+	 * @return {@code true} if the message is a request or notification
+	 *         for the specified method.
+	 */
+	public boolean methodEquals(final String method) {
+
+		ensureWrapped();
+
+		return methodStart >= 0 && JSONRPC2Scanner.stringEquals(bytes, methodStart, methodEnd, method);
+	}
+
+
+	/**
+	 * Gets the parameters type ({@link JSONRPC2ParamsType#ARRAY},
+	 * {@link JSONRPC2ParamsType#OBJECT} or
+	 * {@link JSONRPC2ParamsType#NO_PARAMS}).
+	 *
+	 * @return The parameters type.
+	 */
+	public JSONRPC2ParamsType getParamsType() {
+
+		ensureWrapped();
+
+		if (paramsStart < 0)
+			return JSONRPC2ParamsType.NO_PARAMS;
+
+		if (bytes[paramsStart] == '[')
+			return JSONRPC2ParamsType.ARRAY;
+
+		if (bytes[paramsStart] == '{')
+			return JSONRPC2ParamsType.OBJECT;
+
+		return JSONRPC2ParamsType.NO_PARAMS;
+	}
+
+
+	/**
+	 * Gets the request or notification parameters, decoding them.
+	 *
+	 * @return The parameters as {@code List} if JSON array, {@code Map}
+	 *         if JSON object, or {@code null} if none.
+	 *
+	 * @throws JSONRPC2ParseException If the parameters are malformed.
+	 */
+	public Object getParams()
+		throws JSONRPC2ParseException {
+
+		JSONRPC2RawValue raw = getRawParams();
+
+		return raw != null ? raw.parse() : null;
+	}
+
+
+	/**
+	 * Gets the request or notification parameters as a raw value backed
+	 * by the bytes of this view, without decoding or copying them. The raw
+	 * value is only valid while the backing bytes are unchanged.
+	 *
+	 * @return The raw parameters, {@code null} if none.
+	 */
+	public JSONRPC2RawValue getRawParams() {
+
+		if (getParamsType() == JSONRPC2ParamsType.NO_PARAMS)
+			return null;
+
+		return new JSONRPC2RawValue(bytes, paramsStart, paramsEnd - paramsStart);
+	}
+
+
+	/**
+	 * Gets the message identifier.
+	 *
+	 * @return The identifier ({@code Number}, {@code Boolean},
+	 *         {@code String}) or {@code null}.
+	 */
+	public Object getID() {
+
+		ensureWrapped();
+
+		if (idStart < 0)
+			return null;
+
+		try {
+			return JSONRPC2Scanner.decodeScalar(bytes, idStart, idEnd);
+
+		} catch (JSONRPC2ParseException e) {
+			// Checked on wrap
+			throw new AssertionError(e);
+		}
+	}
+
+
+	/**
+	 * Gets the response result, decoding it.
+	 *
+	 * @return The result, {@code null} if none.
+	 *
+	 * @throws JSONRPC2ParseException If the result is malformed.
+	 */
+	public Object getResult()
+		throws JSONRPC2ParseException {
+
+		JSONRPC2RawValue raw = getRawResult();
+
+		return raw != null ? raw.parse() : null;
+	}
+
+
+	/**
+	 * Gets the response result as a raw value backed by the bytes of this
+	 * view, without decoding or copying it. The raw value is only valid
+	 * while the backing bytes are unchanged.
+	 *
+	 * @return The raw result, {@code null} if none.
+	 */
+	public JSONRPC2RawValue getRawResult() {
+
+		ensureWrapped();
+
+		if (resultStart < 0)
+			return null;
+
+		return new JSONRPC2RawValue(bytes, resultStart, resultEnd - resultStart);
+	}
+
+
+	/**
+	 * Returns {@code true} if the message is a response indicating
+	 * success.
+	 *
+	 * @return {@code true} if the response indicates success.
+	 */
+	public boolean indicatesSuccess() {
+
+		return isResponse() && errorStart < 0;
+	}
+
+
+	/**
+	 * Gets the response error, decoding it. Registered errors, such as
+	 * the standard ones, are returned as the shared instance, see
+	 * {@link JSONRPC2ErrorRegistry}.
+	 *
+	 * @return The error, {@code null} if none.
+	 *
+	 * @throws JSONRPC2ParseException If the error is malformed.
+	 */
+	public JSONRPC2Error getError()
+		throws JSONRPC2ParseException {
+
+		ensureWrapped();
+
+		if (errorStart < 0)
+			return null;
+
+		Map<?,?> errorJSON = (Map<?,?>)new JSONRPC2RawValue(bytes, errorStart, errorEnd - errorStart).parse();
+
+		if (! (errorJSON.get("code") instanceof Long))
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 response: Error code missing or not an integer");
+
+		final int code = ((Long)errorJSON.get("code")).intValue();
+
+		final Object message = errorJSON.get("message");
+
+		if (message != null && ! (message instanceof String))
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 response: Error message missing or not a string");
+
+		final Object data = errorJSON.get("data");
+
+		JSONRPC2Error error = null;
+
+		if (data == null)
+			error = JSONRPC2ErrorRegistry.getDefault().get(code, (String)message);
+
+		if (error == null)
+			error = new JSONRPC2Error(code, (String)message, data);
+
+		return error;
+	}
+
+
+	/**
+	 * Gets the number of non-standard members of the message.
+	 *
+	 * @return The number of non-standard members.
+	 */
+	public int getNonStdAttributeCount() {
+
+		ensureWrapped();
+		return nonStdCount;
+	}
+
+
+	/**
+	 * Gets the length of the message, in bytes.
+	 *
+	 * @return The length.
+	 */
+	public int getLength() {
+
+		ensureWrapped();
+		return length;
+	}
+
+
+	/**
+	 * Parses the message into a full JSON-RPC 2.0 message object.
+	 *
+	 * @param parser The parser to use. Must not be {@code null}.
+	 *
+	 * @return An instance of {@link JSONRPC2Request},
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException If parsing failed.
+	 */
+	public JSONRPC2Message toMessage(final JSONRPC2Parser parser)
+		throws JSONRPC2ParseException {
+
+		ensureWrapped();
+
+		return parser.parseJSONRPC2Message(toString());
+	}
+
+
+	/**
+	 * Returns the JSON text of the message.
+	 *
+	 * @return The JSON text, {@code null} if the view is not pointed at a
+	 *         message.
+	 */
+	public String toString() {
+
+		if (bytes == null)
+			return null;
+
+		return new String(bytes, offset, length, JSONRPC2Scanner.UTF_8);
+	}
+}
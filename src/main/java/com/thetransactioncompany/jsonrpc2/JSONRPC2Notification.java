@@ -1,6 +1,8 @@
 package com.thetransactioncompany.jsonrpc2;
 
 
+import java.io.IOException;
+
 import java.util.*;
 
 import net.minidev.json.JSONObject;
@@ -83,7 +85,7 @@ import net.minidev.json.JSONObject;
  * <a href="http://groups.google.com/group/json-rpc">here</a>.
  * 
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-07-10)
+ * @version 1.27 (2026-10-18)
  */
 public class JSONRPC2Notification extends JSONRPC2Message {
 
@@ -202,6 +204,18 @@ public class JSONRPC2Notification extends JSONRPC2Message {
 	}
 	
 	
+	/**
+	 * Constructs a new blank JSON-RPC 2.0 notification, to be filled by
+	 * {@link JSONRPC2Parser#parseInto(String,JSONRPC2Notification)} or 
+	 * the setter methods. The method name must be set before 
+	 * serialisation.
+	 */
+	public JSONRPC2Notification() {
+	
+		paramsType = JSONRPC2ParamsType.NO_PARAMS;
+	}
+	
+	
 	/** 
 	 * Constructs a new JSON-RPC 2.0 notification with no parameters.
 	 *
@@ -266,6 +280,19 @@ public class JSONRPC2Notification extends JSONRPC2Message {
 			throw new NullPointerException();
 
 		this.method = method;
+		
+		invalidateSerialization();
+	}
+	
+	
+	/**
+	 * Returns the method name as the output size estimate key.
+	 *
+	 * @return The method name.
+	 */
+	String getSizeEstimateKey() {
+	
+		return method;
 	}
 	
 	
@@ -286,7 +313,8 @@ public class JSONRPC2Notification extends JSONRPC2Message {
 	 * Gets the notification parameters.
 	 *
 	 * @return The parameters as {@code List} if JSON array, {@code Map} 
-	 *         if JSON object, or {@code null} if none.
+	 *         if JSON object, {@link JSONRPC2RawValue} if set as 
+	 *         pre-serialised JSON, or {@code null} if none.
 	 */
 	public Object getParams() {
 		
@@ -299,7 +327,10 @@ public class JSONRPC2Notification extends JSONRPC2Message {
 	 *
 	 * @param params The parameters. For a JSON array type pass a 
 	 *               {@code List}. For a JSON object pass a {@code Map}. 
-	 *               If there are no parameters pass {@code null}.
+	 *               Pre-serialised parameters may be passed as a
+	 *               {@link JSONRPC2RawValue} representing a JSON array
+	 *               or object. If there are no parameters pass 
+	 *               {@code null}.
 	 */
 	public void setParams(final Object params) {
 	
@@ -311,11 +342,33 @@ public class JSONRPC2Notification extends JSONRPC2Message {
 			
 		else if (params instanceof Map)
 			paramsType = JSONRPC2ParamsType.OBJECT;
+		
+		else if (params instanceof JSONRPC2RawValue && ((JSONRPC2RawValue)params).isArray())
+			paramsType = JSONRPC2ParamsType.ARRAY;
+		
+		else if (params instanceof JSONRPC2RawValue && ((JSONRPC2RawValue)params).isObject())
+			paramsType = JSONRPC2ParamsType.OBJECT;
 			
 		else
-			throw new IllegalArgumentException("The notification parameters must be of type List, Map or null");
+			throw new IllegalArgumentException("The notification parameters must be of type List, Map, JSON array or object JSONRPC2RawValue, or null");
 			
 		this.params = params;
+		
+		invalidateSerialization();
+	}
+	
+	
+	/**
+	 * Resets this notification to a blank state for reuse. The method 
+	 * name must be set again before serialisation.
+	 */
+	public void reset() {
+	
+		super.reset();
+		
+		method = null;
+		params = null;
+		paramsType = JSONRPC2ParamsType.NO_PARAMS;
 	}
 	
 	
@@ -337,19 +390,35 @@ public class JSONRPC2Notification extends JSONRPC2Message {
 		notf.put("jsonrpc", "2.0");
 		
 		
-		Map <String,Object> nonStdAttributes = getNonStandardAttributes();
+		putNonStdAttributes(notf);
 		
-		if (nonStdAttributes != null) {
+		return notf;
+	}
+	
+	
+	/**
+	 * Serialises this JSON-RPC 2.0 notification as JSON to the specified 
+	 * output. The members are written directly, without an intermediate 
+	 * JSON object.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
+	
+		out.append("{\"jsonrpc\":\"2.0\",\"method\":");
+		JSONRPC2ValueWriter.writeValue(method, out);
 		
-			Iterator<Map.Entry<String,Object>> it = nonStdAttributes.entrySet().iterator();
-			
-			while (it.hasNext()) {
-			
-				Map.Entry <String,Object> pair = it.next();
-				notf.put(pair.getKey(), pair.getValue());
-			}
+		// the params can be omitted if empty
+		if (params != null && paramsType != JSONRPC2ParamsType.NO_PARAMS) {
+			out.append(",\"params\":");
+			JSONRPC2ValueWriter.writeValue(params, out);
 		}
 		
-		return notf;
+		writeNonStdAttributes(out);
+		
+		out.append('}');
 	}
 }
@@ -0,0 +1,252 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+
+/**
+ * The base abstract class for byte outputs that JSON-RPC 2.0 messages can be
+ * serialised to. Characters appended to the output are encoded as UTF-8 on
+ * the fly, pre-encoded content can be written as raw bytes.
+ *
+ * <p>There are four concrete classes:
+ *
+ * <ul>
+ *     <li>{@link JSONRPC2OutputBuffer} A growable heap buffer, reusable
+ *         per thread.
+ *     <li>{@link JSONRPC2ByteBufferOutput} Writes into a caller-supplied
+ *         (typically direct) {@code java.nio.ByteBuffer}.
+ *     <li>{@link JSONRPC2SegmentedOutput} Collects byte buffer segments
+ *         for a gathering write, referencing large pre-serialised values
+ *         without copying them.
+ *     <li>{@link JSONRPC2HashOutput} Computes a streaming hash of the
+ *         output without retaining it.
+ * </ul>
+ *
+ * <p>Implementations are not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public abstract class JSONRPC2Output implements Appendable {
+
+
+	/**
+	 * Pending high surrogate from a previous {@link #append(char)} call,
+	 * zero if none.
+	 */
+	private char highSurrogate = 0;
+
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b The byte to write.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public abstract void write(final int b)
+		throws IOException;
+
+
+	/**
+	 * Writes the specified bytes. Outputs which
+	 * {@link #retainsWrittenBytes retain written bytes} may keep a
+	 * reference to the byte range instead of copying it, so the caller 
+	 * must not modify the range afterwards.
+	 *
+	 * @param b   The bytes to write.
+	 * @param off The offset of the first byte to write.
+	 * @param len The number of bytes to write.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public abstract void write(final byte[] b, final int off, final int len)
+		throws IOException;
+
+
+	/**
+	 * Returns {@code true} if this output may keep references to byte
+	 * ranges passed to {@link #write(byte[],int,int)} rather than copy
+	 * them. Callers which reuse a buffer between writes must then write
+	 * from a fresh array each time.
+	 *
+	 * @return {@code true} if written bytes may be retained, else
+	 *         {@code false}.
+	 */
+	public boolean retainsWrittenBytes() {
+
+		return false;
+	}
+
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param b The bytes to write.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void write(final byte[] b)
+		throws IOException {
+
+		write(b, 0, b.length);
+	}
+
+
+	/**
+	 * Returns {@code true} if a high surrogate is pending, i.e. the last
+	 * appended character was the first half of a surrogate pair.
+	 *
+	 * @return {@code true} if a high surrogate is pending.
+	 */
+	protected boolean hasPendingSurrogate() {
+
+		return highSurrogate != 0;
+	}
+
+
+	/**
+	 * Discards any pending high surrogate. Must be called by subclasses
+	 * when their content is reset.
+	 */
+	protected void clearPendingSurrogate() {
+
+		highSurrogate = 0;
+	}
+
+
+	/**
+	 * Completes the output: a high surrogate still pending from the last
+	 * appended character is written as '?', like any other unpaired
+	 * surrogate, instead of being lost. The serialisation methods of the
+	 * messages call this at the end; callers appending text directly must
+	 * call it before reading the output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void finish()
+		throws IOException {
+
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			write('?');
+		}
+	}
+
+
+	/**
+	 * Appends the specified character, encoded as UTF-8.
+	 *
+	 * @param c The character to append.
+	 *
+	 * @return This output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public JSONRPC2Output append(final char c)
+		throws IOException {
+
+		if (highSurrogate != 0) {
+
+			final char high = highSurrogate;
+			highSurrogate = 0;
+
+			if (Character.isLowSurrogate(c)) {
+				writeCodePoint(Character.toCodePoint(high, c));
+				return this;
+			}
+
+			// Unpaired high surrogate
+			write('?');
+		}
+
+		if (c < 0x80)
+			write(c);
+
+		else if (Character.isHighSurrogate(c))
+			highSurrogate = c;
+
+		else if (Character.isLowSurrogate(c))
+			write('?'); // Unpaired low surrogate
+
+		else
+			writeCodePoint(c);
+
+		return this;
+	}
+
+
+	/**
+	 * Appends the specified character sequence, encoded as UTF-8.
+	 *
+	 * @param csq The character sequence to append. If {@code null} the
+	 *            string "null" is appended.
+	 *
+	 * @return This output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public JSONRPC2Output append(final CharSequence csq)
+		throws IOException {
+
+		if (csq == null)
+			return append("null", 0, 4);
+
+		return append(csq, 0, csq.length());
+	}
+
+
+	/**
+	 * Appends a subsequence of the specified character sequence, encoded
+	 * as UTF-8.
+	 *
+	 * @param csq   The character sequence to append. If {@code null} the
+	 *              string "null" is appended.
+	 * @param start The index of the first character to append.
+	 * @param end   The index after the last character to append.
+	 *
+	 * @return This output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public JSONRPC2Output append(final CharSequence csq, final int start, final int end)
+		throws IOException {
+
+		if (csq == null)
+			return append("null", start, end);
+
+		for (int i = start; i < end; i++)
+			append(csq.charAt(i));
+
+		return this;
+	}
+
+
+	/**
+	 * Writes the UTF-8 encoding of the specified non-ASCII code point.
+	 *
+	 * @param cp The code point.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	protected void writeCodePoint(final int cp)
+		throws IOException {
+
+		if (cp < 0x800) {
+			write(0xc0 | (cp >> 6));
+			write(0x80 | (cp & 0x3f));
+		}
+		else if (cp < 0x10000) {
+			write(0xe0 | (cp >> 12));
+			write(0x80 | ((cp >> 6) & 0x3f));
+			write(0x80 | (cp & 0x3f));
+		}
+		else {
+			write(0xf0 | (cp >> 18));
+			write(0x80 | ((cp >> 12) & 0x3f));
+			write(0x80 | ((cp >> 6) & 0x3f));
+			write(0x80 | (cp & 0x3f));
+		}
+	}
+}
@@ -0,0 +1,546 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Growable byte buffer for serialising JSON-RPC 2.0 messages straight to
+ * UTF-8 encoded bytes. Characters appended to the buffer are encoded on the
+ * fly, so no intermediate {@code String} or {@code byte[]} copy of the
+ * serialised message is created.
+ *
+ * <p>Each thread owns a reusable buffer which is handed out by
+ * {@link #getThreadBuffer}. The {@link JSONRPC2Message#serialize} methods
+ * write into it, after pre-sizing it from a running estimate of the output
+ * size for the particular method. In steady state serialisation therefore
+ * produces no garbage.
+ *
+ * <p>The content of a thread buffer is valid until the next serialisation
+ * on the same thread. Use {@link #byteBuffer}, {@link #writeTo(OutputStream)}
+ * or {@link #writeTo(WritableByteChannel)} to pass it on without copying,
+ * or {@link #toByteArray} to obtain a private copy.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2Response response = new JSONRPC2Response(result, id);
+ *
+ * JSONRPC2OutputBuffer out = response.serialize();
+ *
+ * out.writeTo(channel);
+ * </pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2OutputBuffer extends JSONRPC2Output {
+
+
+	/**
+	 * The initial capacity of new buffers, in bytes.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+
+	/**
+	 * The maximum capacity that a thread buffer may retain between
+	 * serialisations, in bytes. Larger buffers are released after use so
+	 * that a single large message doesn't pin memory indefinitely.
+	 */
+	public static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+
+
+	/**
+	 * The maximum number of keys (typically method names) for which output
+	 * size estimates are kept.
+	 */
+	private static final int MAX_ESTIMATE_KEYS = 1024;
+
+
+	/**
+	 * The key under which output size estimates for messages without a
+	 * method name (responses) are kept.
+	 */
+	private static final String NO_KEY = "";
+
+
+	/**
+	 * The per-thread reusable buffers.
+	 */
+	private static final ThreadLocal<JSONRPC2OutputBuffer> threadBuffer = new ThreadLocal<JSONRPC2OutputBuffer>() {
+
+		protected JSONRPC2OutputBuffer initialValue() {
+			return new JSONRPC2OutputBuffer();
+		}
+	};
+
+
+	/**
+	 * Running output size estimates, keyed by method name.
+	 */
+	private static final ConcurrentMap<String,AtomicInteger> sizeEstimates = new ConcurrentHashMap<String,AtomicInteger>();
+
+
+	/**
+	 * The buffer content.
+	 */
+	private byte[] buf;
+
+
+	/**
+	 * The number of valid bytes in the buffer.
+	 */
+	private int size = 0;
+
+
+	/**
+	 * Cached byte buffer view of the content, {@code null} if none has
+	 * been requested for the current backing array.
+	 */
+	private ByteBuffer view = null;
+
+
+	/**
+	 * Creates a new output buffer with the default initial capacity.
+	 */
+	public JSONRPC2OutputBuffer() {
+
+		this(DEFAULT_CAPACITY);
+	}
+
+
+	/**
+	 * Creates a new output buffer with the specified initial capacity.
+	 *
+	 * @param capacity The initial capacity, in bytes.
+	 */
+	public JSONRPC2OutputBuffer(final int capacity) {
+
+		if (capacity < 0)
+			throw new IllegalArgumentException("The capacity must not be negative");
+
+		buf = new byte[capacity];
+	}
+
+
+	/**
+	 * Returns the reusable buffer of the calling thread, emptied and with
+	 * at least the specified capacity.
+	 *
+	 * @param capacity The minimum required capacity, in bytes.
+	 *
+	 * @return The thread buffer.
+	 */
+	public static JSONRPC2OutputBuffer getThreadBuffer(final int capacity) {
+
+		JSONRPC2OutputBuffer out = threadBuffer.get();
+
+		if (out.buf.length > MAX_RETAINED_CAPACITY) {
+			// Don't hold on to an oversized array from a previous use
+			out = new JSONRPC2OutputBuffer(Math.max(capacity, DEFAULT_CAPACITY));
+			threadBuffer.set(out);
+		}
+
+		out.reset();
+		out.ensureCapacity(capacity);
+		return out;
+	}
+
+
+	/**
+	 * Returns the estimated output size for messages with the specified
+	 * key.
+	 *
+	 * @param key The estimate key, typically the method name. May be
+	 *            {@code null}.
+	 *
+	 * @return The estimated output size, in bytes.
+	 */
+	public static int estimateSize(final String key) {
+
+		AtomicInteger estimate = sizeEstimates.get(key != null ? key : NO_KEY);
+
+		if (estimate == null)
+			return DEFAULT_CAPACITY;
+
+		// Leave some headroom above the average
+		int average = estimate.get();
+		return average + (average >> 2);
+	}
+
+
+	/**
+	 * Updates the running output size estimate for messages with the
+	 * specified key.
+	 *
+	 * @param key  The estimate key, typically the method name. May be
+	 *             {@code null}.
+	 * @param size The actual output size, in bytes.
+	 */
+	public static void recordSize(final String key, final int size) {
+
+		final String k = key != null ? key : NO_KEY;
+
+		AtomicInteger estimate = sizeEstimates.get(k);
+
+		if (estimate == null) {
+
+			// Bound the number of tracked keys
+			if (sizeEstimates.size() >= MAX_ESTIMATE_KEYS)
+				return;
+
+			estimate = new AtomicInteger(size);
+
+			AtomicInteger existing = sizeEstimates.putIfAbsent(k, estimate);
+
+			if (existing == null)
+				return;
+
+			estimate = existing;
+		}
+
+		// Exponential moving average with 1/8 weight, concurrent
+		// updates may be lost which is fine for an estimate
+		int average = estimate.get();
+		estimate.lazySet(average + ((size - average) >> 3));
+	}
+
+
+	/**
+	 * Ensures the buffer can hold at least the specified total number of
+	 * bytes without growing.
+	 *
+	 * @param capacity The required capacity, in bytes.
+	 */
+	public void ensureCapacity(final int capacity) {
+
+		if (capacity > buf.length)
+			grow(capacity);
+	}
+
+
+	/**
+	 * Grows the backing array to hold at least the specified number of
+	 * bytes.
+	 *
+	 * @param minCapacity The minimum required capacity, in bytes.
+	 */
+	private void grow(final int minCapacity) {
+
+		int newCapacity = buf.length << 1;
+
+		if (newCapacity < minCapacity)
+			newCapacity = minCapacity;
+
+		if (newCapacity < 0)
+			newCapacity = Integer.MAX_VALUE;
+
+		byte[] newBuf = new byte[newCapacity];
+		System.arraycopy(buf, 0, newBuf, 0, size);
+		buf = newBuf;
+		view = null;
+	}
+
+
+	/**
+	 * Empties the buffer. The backing array is retained.
+	 */
+	public void reset() {
+
+		size = 0;
+		clearPendingSurrogate();
+	}
+
+
+	/**
+	 * Returns the number of bytes in the buffer.
+	 *
+	 * @return The content size, in bytes.
+	 */
+	public int size() {
+
+		return size;
+	}
+
+
+	/**
+	 * Returns the current capacity of the buffer.
+	 *
+	 * @return The capacity, in bytes.
+	 */
+	public int capacity() {
+
+		return buf.length;
+	}
+
+
+	/**
+	 * Returns the backing array. Only the first {@link #size} bytes are
+	 * valid. The array is replaced when the buffer grows.
+	 *
+	 * @return The backing array.
+	 */
+	public byte[] array() {
+
+		return buf;
+	}
+
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b The byte to write.
+	 */
+	public void write(final int b) {
+
+		if (size == buf.length)
+			grow(size + 1);
+
+		buf[size++] = (byte)b;
+	}
+
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param b   The bytes to write.
+	 * @param off The offset of the first byte to write.
+	 * @param len The number of bytes to write.
+	 */
+	public void write(final byte[] b, final int off, final int len) {
+
+		if (size + len > buf.length)
+			grow(size + len);
+
+		System.arraycopy(b, off, buf, size, len);
+		size += len;
+	}
+
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param b The bytes to write.
+	 */
+	public void write(final byte[] b) {
+
+		write(b, 0, b.length);
+	}
+
+
+	/**
+	 * Appends the specified character, encoded as UTF-8.
+	 *
+	 * @param c The character to append.
+	 *
+	 * @return This buffer.
+	 */
+	public JSONRPC2OutputBuffer append(final char c) {
+
+		try {
+			super.append(c);
+
+		} catch (IOException e) {
+			// Never thrown by this output
+			throw new AssertionError(e);
+		}
+
+		return this;
+	}
+
+
+	/**
+	 * Completes the buffer: a pending high surrogate is written as '?'.
+	 */
+	public void finish() {
+
+		try {
+			super.finish();
+
+		} catch (IOException e) {
+			// Never thrown by this output
+			throw new AssertionError(e);
+		}
+	}
+
+
+	/**
+	 * Appends the specified character sequence, encoded as UTF-8.
+	 *
+	 * @param csq The character sequence to append. If {@code null} the
+	 *            string "null" is appended.
+	 *
+	 * @return This buffer.
+	 */
+	public JSONRPC2OutputBuffer append(final CharSequence csq) {
+
+		if (csq == null)
+			return append("null", 0, 4);
+
+		return append(csq, 0, csq.length());
+	}
+
+
+	/**
+	 * Appends a subsequence of the specified character sequence, encoded
+	 * as UTF-8.
+	 *
+	 * @param csq   The character sequence to append. If {@code null} the
+	 *              string "null" is appended.
+	 * @param start The index of the first character to append.
+	 * @param end   The index after the last character to append.
+	 *
+	 * @return This buffer.
+	 */
+	public JSONRPC2OutputBuffer append(final CharSequence csq, final int start, final int end) {
+
+		if (csq == null)
+			return append("null", start, end);
+
+		// Pessimistic sizing for mostly ASCII content
+		ensureCapacity(size + (end - start));
+
+		for (int i = start; i < end; i++) {
+
+			final char c = csq.charAt(i);
+
+			if (c < 0x80 && ! hasPendingSurrogate()) {
+
+				if (size == buf.length)
+					grow(size + 1);
+
+				buf[size++] = (byte)c;
+			}
+			else {
+				append(c);
+			}
+		}
+
+		return this;
+	}
+
+
+	/**
+	 * Writes the UTF-8 encoding of the specified non-ASCII code point.
+	 *
+	 * @param cp The code point.
+	 */
+	protected void writeCodePoint(final int cp) {
+
+		if (size + 4 > buf.length)
+			grow(size + 4);
+
+		if (cp < 0x800) {
+			buf[size++] = (byte)(0xc0 | (cp >> 6));
+			buf[size++] = (byte)(0x80 | (cp & 0x3f));
+		}
+		else if (cp < 0x10000) {
+			buf[size++] = (byte)(0xe0 | (cp >> 12));
+			buf[size++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+			buf[size++] = (byte)(0x80 | (cp & 0x3f));
+		}
+		else {
+			buf[size++] = (byte)(0xf0 | (cp >> 18));
+			buf[size++] = (byte)(0x80 | ((cp >> 12) & 0x3f));
+			buf[size++] = (byte)(0x80 | ((cp >> 6) & 0x3f));
+			buf[size++] = (byte)(0x80 | (cp & 0x3f));
+		}
+	}
+
+
+	/**
+	 * Returns a byte buffer view of the content, without copying. The view
+	 * is cached and reused until the backing array is replaced, so repeated
+	 * calls don't allocate.
+	 *
+	 * @return The byte buffer view, positioned at zero and limited to
+	 *         the content size.
+	 */
+	public ByteBuffer byteBuffer() {
+
+		if (view == null)
+			view = ByteBuffer.wrap(buf);
+
+		view.clear();
+		view.limit(size);
+		return view;
+	}
+
+
+	/**
+	 * Writes the content to the specified output stream.
+	 *
+	 * @param out The output stream.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeTo(final OutputStream out)
+		throws IOException {
+
+		out.write(buf, 0, size);
+	}
+
+
+	/**
+	 * Writes the entire content to the specified channel. The channel
+	 * must be in blocking mode: a non-blocking channel which accepts no
+	 * bytes causes an exception rather than a busy wait.
+	 *
+	 * @param channel The channel.
+	 *
+	 * @throws IOException If an I/O exception occurred, or the channel
+	 *                     accepted no bytes.
+	 */
+	public void writeTo(final WritableByteChannel channel)
+		throws IOException {
+
+		ByteBuffer bb = byteBuffer();
+
+		while (bb.hasRemaining()) {
+
+			if (channel.write(bb) == 0)
+				throw new IOException("The channel accepted no bytes, it must be in blocking mode");
+		}
+	}
+
+
+	/**
+	 * Returns a copy of the content.
+	 *
+	 * @return The content bytes.
+	 */
+	public byte[] toByteArray() {
+
+		byte[] copy = new byte[size];
+		System.arraycopy(buf, 0, copy, 0, size);
+		return copy;
+	}
+
+
+	/**
+	 * Decodes the content to a string.
+	 *
+	 * @return The content as a string.
+	 */
+	public String toString() {
+
+		try {
+			return new String(buf, 0, size, "UTF-8");
+
+		} catch (java.io.UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -52,7 +52,7 @@ import net.minidev.json.parser.*;
  * <a href="http://groups.google.com/group/json-rpc">here</a>.
  * 
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-08-06)
+ * @version 1.27 (2026-10-18)
  */
 public class JSONRPC2Parser {
 
@@ -84,6 +84,13 @@ public class JSONRPC2Parser {
 	private boolean parseNonStdAttributes;
 	
 	
+	/**
+	 * If {@code true} the parameters, result and error data must be kept
+	 * as raw spans of the input, see {@link #passThrough}.
+	 */
+	private boolean passThrough;
+	
+	
 	/**
 	 * Special container factory for constructing JSON objects in a way
 	 * that preserves their original member order.
@@ -199,6 +206,18 @@ public class JSONRPC2Parser {
 		if (jsonString.trim().length()==0)
 			throw new JSONRPC2ParseException("Invalid JSON: Empty string", JSONRPC2ParseException.JSON, jsonString);
 		
+		if (passThrough) {
+			
+			final byte[] bytes = jsonString.getBytes(JSONRPC2Scanner.UTF_8);
+			
+			try {
+				return scanJSONObject(bytes, 0, bytes.length, true);
+				
+			} catch (JSONRPC2ParseException e) {
+				throw new JSONRPC2ParseException(e.getMessage(), e.getCauseType(), jsonString);
+			}
+		}
+		
 		Object json;
 		
 		// Parse the JSON string
@@ -223,6 +242,153 @@ public class JSONRPC2Parser {
 	}
 	
 	
+	/**
+	 * Parses a UTF-8 encoded JSON object. Provides the initial parsing of
+	 * JSON-RPC 2.0 messages supplied as bytes.
+	 *
+	 * @param bytes  The bytes. Must not be {@code null}.
+	 * @param offset The offset of the JSON object.
+	 * @param length The length of the JSON object, in bytes.
+	 *
+	 * @return The parsed JSON object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	private Map<String,Object> parseJSONObject(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+	
+		if (bytes == null)
+			throw new JSONRPC2ParseException("Null argument", JSONRPC2ParseException.JSON, null);
+		
+		if (offset < 0 || length < 0 || offset + length > bytes.length)
+			throw new IndexOutOfBoundsException();
+		
+		if (passThrough)
+			return scanJSONObject(bytes, offset, offset + length, true);
+		
+		return parseJSONObject(new String(bytes, offset, length, JSONRPC2Scanner.UTF_8));
+	}
+	
+	
+	/**
+	 * Scans a UTF-8 encoded JSON object in pass-through mode. In a message
+	 * envelope array and object parameters and results are returned as
+	 * {@link JSONRPC2RawValue raw values} referencing the input, and the
+	 * error object is scanned in turn. In an error object the array and
+	 * object data is returned as a raw value. Scalars are decoded, any
+	 * other nested arrays and objects are parsed.
+	 *
+	 * @param b        The bytes.
+	 * @param start    The start of the JSON object.
+	 * @param end      The end of the JSON object.
+	 * @param envelope {@code true} for a message envelope, 
+	 *                 {@code false} for an error object.
+	 *
+	 * @return The scanned JSON object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	private Map<String,Object> scanJSONObject(final byte[] b, final int start, final int end, final boolean envelope)
+		throws JSONRPC2ParseException {
+	
+		int pos = JSONRPC2Scanner.skipWhitespace(b, start, end);
+		
+		if (pos >= end)
+			throw new JSONRPC2ParseException("Invalid JSON: Empty string", JSONRPC2ParseException.JSON, null);
+		
+		if (envelope && b[pos] == '[')
+			throw new JSONRPC2ParseException("JSON-RPC 2.0 batch requests/notifications not supported");
+		
+		if (b[pos] != '{')
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 message: Message must be a JSON object");
+		
+		Map<String,Object> json = new LinkedHashMap<String,Object>();
+		
+		pos = JSONRPC2Scanner.skipWhitespace(b, pos + 1, end);
+		
+		if (pos < end && b[pos] == '}') {
+			pos++;
+		}
+		else {
+			while (true) {
+			
+				final int keyEnd = JSONRPC2Scanner.skipString(b, pos, end);
+				final String key = JSONRPC2Scanner.decodeString(b, pos, keyEnd);
+				
+				pos = JSONRPC2Scanner.skipWhitespace(b, keyEnd, end);
+				
+				if (pos >= end || b[pos] != ':')
+					throw JSONRPC2Scanner.malformed("Expected colon", pos);
+				
+				final int valueStart = JSONRPC2Scanner.skipWhitespace(b, pos + 1, end);
+				final int valueEnd = JSONRPC2Scanner.skipValue(b, valueStart, end);
+				
+				final boolean container = b[valueStart] == '{' || b[valueStart] == '[';
+				
+				Object value;
+				
+				if (! container)
+					value = JSONRPC2Scanner.decodeScalar(b, valueStart, valueEnd);
+				else if (envelope && (key.equals("params") || key.equals("result")))
+					value = new JSONRPC2RawValue(b, valueStart, valueEnd - valueStart);
+				else if (envelope && key.equals("error") && b[valueStart] == '{')
+					value = scanJSONObject(b, valueStart, valueEnd, false);
+				else if (! envelope && key.equals("data"))
+					value = new JSONRPC2RawValue(b, valueStart, valueEnd - valueStart);
+				else
+					value = new JSONRPC2RawValue(b, valueStart, valueEnd - valueStart).parse();
+				
+				json.put(key, value);
+				
+				pos = JSONRPC2Scanner.skipWhitespace(b, valueEnd, end);
+				
+				if (pos < end && b[pos] == ',') {
+					pos = JSONRPC2Scanner.skipWhitespace(b, pos + 1, end);
+					continue;
+				}
+				
+				if (pos < end && b[pos] == '}') {
+					pos++;
+					break;
+				}
+				
+				throw JSONRPC2Scanner.malformed("Expected comma or closing brace", pos);
+			}
+		}
+		
+		if (JSONRPC2Scanner.skipWhitespace(b, pos, end) != end)
+			throw JSONRPC2Scanner.malformed("Trailing content", pos);
+		
+		return json;
+	}
+	
+	
+	/**
+	 * Returns {@code true} if the specified object is of a valid 
+	 * parameters type: a list, a map or a raw JSON array or object.
+	 *
+	 * @param params The parameters object.
+	 *
+	 * @return {@code true} if of a valid parameters type, else
+	 *         {@code false}.
+	 */
+	private static boolean isParamsType(final Object params) {
+	
+		if (params instanceof List || params instanceof Map)
+			return true;
+		
+		if (params instanceof JSONRPC2RawValue) {
+			
+			JSONRPC2RawValue raw = (JSONRPC2RawValue)params;
+			return raw.isArray() || raw.isObject();
+		}
+		
+		return false;
+	}
+	
+	
 	/**
 	 * Ensures the specified parameter is a {@code String} object set to
 	 * "2.0". This method is intended to check the "jsonrpc" attribute 
@@ -248,6 +414,26 @@ public class JSONRPC2Parser {
 	}
 	
 	
+	/**
+	 * Appends the non-standard attributes found in the specified JSON 
+	 * object to a JSON-RPC 2.0 message, if enabled.
+	 *
+	 * @param json    The JSON object.
+	 * @param message The message.
+	 */
+	private void appendNonStdAttributes(final Map<String,Object> json, final JSONRPC2Message message) {
+	
+		if (! parseNonStdAttributes)
+			return;
+		
+		for (Map.Entry<String,Object> entry: json.entrySet()) {
+		
+			if (! JSONRPC2Message.isReservedName(entry.getKey()))
+				message.appendNonStdAttribute(entry.getKey(), entry.getValue());
+		}
+	}
+	
+	
 	/** 
 	 * Provides common parsing of JSON-RPC 2.0 requests, notifications 
 	 * and responses. Use this method if you don't know which type of 
@@ -270,35 +456,93 @@ public class JSONRPC2Parser {
 	public JSONRPC2Message parseJSONRPC2Message(final String jsonString)
 		throws JSONRPC2ParseException {
 	
+		return parseJSONRPC2Message(parseJSONObject(jsonString), jsonString);
+	}
+	
+	
+	/** 
+	 * Parses a UTF-8 encoded JSON-RPC 2.0 message. In 
+	 * {@link #passThrough pass-through} mode the raw values of the parsed
+	 * message reference the specified bytes, which must not be modified 
+	 * afterwards.
+	 *
+	 * @param bytes  The bytes. Must not be {@code null}.
+	 * @param offset The offset of the message.
+	 * @param length The length of the message, in bytes.
+	 *
+	 * @return An instance of {@link JSONRPC2Request}, 
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Message parseJSONRPC2Message(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Message(parseJSONObject(bytes, offset, length), null);
+	}
+	
+	
+	/** 
+	 * Provides common parsing of JSON-RPC 2.0 requests, notifications 
+	 * and responses that have already been decoded into a map, e.g. from
+	 * a binary encoding. The map is not modified.
+	 *
+	 * @param json The JSON-RPC 2.0 message as a map. Must not be 
+	 *             {@code null}.
+	 *
+	 * @return An instance of {@link JSONRPC2Request}, 
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if the parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Message parseJSONRPC2Message(final Map<String,Object> json)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Message(json, null);
+	}
+	
+	
+	/** 
+	 * Provides common parsing of JSON-RPC 2.0 requests, notifications 
+	 * and responses.
+	 *
+	 * @param json       The JSON-RPC 2.0 message as a map.
+	 * @param jsonString The original JSON string, {@code null} if none.
+	 *
+	 * @return An instance of {@link JSONRPC2Request}, 
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if the parsing 
+	 *                                failed.
+	 */
+	private JSONRPC2Message parseJSONRPC2Message(final Map<String,Object> json, final String jsonString)
+		throws JSONRPC2ParseException {
+	
 		// Try each of the parsers until one succeeds (or all fail)
 		try {
-			return parseJSONRPC2Request(jsonString);
+			return parseJSONRPC2Request(json, jsonString, null);
 
 		} catch (JSONRPC2ParseException e) {
 		
-			// throw on JSON error, ignore on protocol error
-			if (e.getCauseType() == JSONRPC2ParseException.JSON)
-				throw e;
+			// ignore on protocol error
 		}
 		
 		try {
-			return parseJSONRPC2Notification(jsonString);
+			return parseJSONRPC2Notification(json, jsonString, null);
 			
 		} catch (JSONRPC2ParseException e) {
 			
-			// throw on JSON error, ignore on protocol error
-			if (e.getCauseType() == JSONRPC2ParseException.JSON)
-				throw e;
+			// ignore on protocol error
 		}
 		
 		try {
-			return parseJSONRPC2Response(jsonString);
+			return parseJSONRPC2Response(json, jsonString, null);
 			
 		} catch (JSONRPC2ParseException e) {
 			
-			// throw on JSON error, ignore on protocol error
-			if (e.getCauseType() == JSONRPC2ParseException.JSON)
-				throw e;
+			// ignore on protocol error
 		}
 		
 		throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 message", JSONRPC2ParseException.PROTOCOL, jsonString);
@@ -318,19 +562,74 @@ public class JSONRPC2Parser {
 	public JSONRPC2Request parseJSONRPC2Request(final String jsonString)
 		throws JSONRPC2ParseException {
 	
-		// Initial JSON object parsing
-		Map<String,Object> json = parseJSONObject(jsonString);
-		
-		
+		return parseJSONRPC2Request(parseJSONObject(jsonString), jsonString, null);
+	}
+	
+	
+	/** 
+	 * Parses a UTF-8 encoded JSON-RPC 2.0 request. In 
+	 * {@link #passThrough pass-through} mode the raw values of the parsed
+	 * request reference the specified bytes, which must not be modified 
+	 * afterwards.
+	 *
+	 * @param bytes  The bytes. Must not be {@code null}.
+	 * @param offset The offset of the request.
+	 * @param length The length of the request, in bytes.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 request object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Request parseJSONRPC2Request(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Request(parseJSONObject(bytes, offset, length), null, null);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 request that has already been decoded into a 
+	 * map, e.g. from a binary encoding. The map is not modified.
+	 *
+	 * @param json The JSON-RPC 2.0 request as a map. Must not be 
+	 *             {@code null}.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 request object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Request parseJSONRPC2Request(final Map<String,Object> json)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Request(json, null, null);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 request.
+	 *
+	 * @param json       The JSON-RPC 2.0 request as a map.
+	 * @param jsonString The original JSON string, {@code null} if none.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 request object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	private JSONRPC2Request parseJSONRPC2Request(final Map<String,Object> json, final String jsonString, final JSONRPC2Request target)
+		throws JSONRPC2ParseException {
+	
 		// Check for JSON-RPC version "2.0"
-		Object version = json.remove("jsonrpc");
+		Object version = json.get("jsonrpc");
 		
 		if (! ignoreVersion)
 			ensureVersion2(version, jsonString);
 			
 		
 		// Extract method name
-		Object method = json.remove("method");
+		Object method = json.get("method");
 		
 		if (method == null)
 			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Method name missing", jsonString);
@@ -344,7 +643,7 @@ public class JSONRPC2Parser {
 		if (! json.containsKey("id"))
 			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Missing identifier", jsonString);
 		
-		Object id = json.remove("id");
+		Object id = json.get("id");
 		
 		if (  id != null             &&
 		    !(id instanceof Number ) &&
@@ -354,33 +653,27 @@ public class JSONRPC2Parser {
 		
 		
 		// Extract params
-		Object params = json.remove("params");
+		Object params = json.get("params");
+		
+		
+		if (params != null && ! isParamsType(params))
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Method parameters have unexpected JSON type", jsonString);
 		
 		
-		JSONRPC2Request request = null;
+		JSONRPC2Request request = target;
 		
-		if (params == null)
-			request = new JSONRPC2Request((String)method, id);
-		else if (params instanceof List)
-			request = new JSONRPC2Request((String)method, (List)params, id);
-		else if (params instanceof Map)
-			request = new JSONRPC2Request((String)method, (Map)params, id);
+		if (request == null)
+			request = new JSONRPC2Request();
 		else
-			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 request: Method parameters have unexpected JSON type", jsonString);
+			request.reset();
 		
+		request.setMethod((String)method);
+		request.setParams(params);
+		request.setID(id);
 		
-		// Extract remaining non-std params?
-		if (parseNonStdAttributes) {
 		
-			Iterator <Map.Entry<String,Object>> it = json.entrySet().iterator();
-			
-			while (it.hasNext()) {
-				
-				Map.Entry <String,Object> entry = it.next();
-				
-				request.appendNonStdAttribute(entry.getKey(), entry.getValue());
-			}
-		}
+		// Extract remaining non-std params?
+		appendNonStdAttributes(json, request);
 		
 		return request;
 	}
@@ -400,19 +693,74 @@ public class JSONRPC2Parser {
 	public JSONRPC2Notification parseJSONRPC2Notification(final String jsonString)
 		throws JSONRPC2ParseException {
 	
-		// Initial JSON object parsing
-		Map <String,Object> json = parseJSONObject(jsonString);
-		
-		
+		return parseJSONRPC2Notification(parseJSONObject(jsonString), jsonString, null);
+	}
+	
+	
+	/** 
+	 * Parses a UTF-8 encoded JSON-RPC 2.0 notification. In 
+	 * {@link #passThrough pass-through} mode the raw values of the parsed
+	 * notification reference the specified bytes, which must not be modified 
+	 * afterwards.
+	 *
+	 * @param bytes  The bytes. Must not be {@code null}.
+	 * @param offset The offset of the notification.
+	 * @param length The length of the notification, in bytes.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 notification object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Notification parseJSONRPC2Notification(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Notification(parseJSONObject(bytes, offset, length), null, null);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 notification that has already been decoded 
+	 * into a map, e.g. from a binary encoding. The map is not modified.
+	 *
+	 * @param json The JSON-RPC 2.0 notification as a map. Must not be 
+	 *             {@code null}.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 notification object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Notification parseJSONRPC2Notification(final Map<String,Object> json)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Notification(json, null, null);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 notification.
+	 *
+	 * @param json       The JSON-RPC 2.0 notification as a map.
+	 * @param jsonString The original JSON string, {@code null} if none.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 notification object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	private JSONRPC2Notification parseJSONRPC2Notification(final Map<String,Object> json, final String jsonString, final JSONRPC2Notification target)
+		throws JSONRPC2ParseException {
+	
 		// Check for JSON-RPC version "2.0"
-		Object version = json.remove("jsonrpc");
+		Object version = json.get("jsonrpc");
 		
 		if (! ignoreVersion)
 			ensureVersion2(version, jsonString);
 		
 		
 		// Extract method name
-		Object method = json.remove("method");
+		Object method = json.get("method");
 		
 		if (method == null)
 			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 notification: Method name missing", jsonString);
@@ -425,29 +773,21 @@ public class JSONRPC2Parser {
 		// Extract params
 		Object params = json.get("params");
 		
-		JSONRPC2Notification notification = null;
+		if (params != null && ! isParamsType(params))
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 notification: Method parameters have unexpected JSON type", jsonString);
 		
-		if (params == null)
-			notification = new JSONRPC2Notification((String)method);
-		else if (params instanceof List)
-			notification = new JSONRPC2Notification((String)method, (List)params);
-		else if (params instanceof Map)
-			notification = new JSONRPC2Notification((String)method, (Map)params);
+		JSONRPC2Notification notification = target;
+		
+		if (notification == null)
+			notification = new JSONRPC2Notification();
 		else
-			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 notification: Method parameters have unexpected JSON type", jsonString);
+			notification.reset();
+		
+		notification.setMethod((String)method);
+		notification.setParams(params);
 	
 		// Extract remaining non-std params?
-		if (parseNonStdAttributes) {
-		
-			Iterator <Map.Entry<String,Object>> it = json.entrySet().iterator();
-			
-			while (it.hasNext()) {
-				
-				Map.Entry <String,Object> entry = it.next();
-				
-				notification.appendNonStdAttribute(entry.getKey(), entry.getValue());
-			}
-		}
+		appendNonStdAttributes(json, notification);
 		
 		return notification;
 	}
@@ -463,22 +803,78 @@ public class JSONRPC2Parser {
 	 * @throws JSONRPC2ParseException With detailed message if parsing 
 	 *                                failed.
 	 */
-	@SuppressWarnings("unchecked")
 	public JSONRPC2Response parseJSONRPC2Response(final String jsonString)
 		throws JSONRPC2ParseException {
 	
-		// Initial JSON object parsing
-		Map <String,Object> json = parseJSONObject(jsonString);
-		
+		return parseJSONRPC2Response(parseJSONObject(jsonString), jsonString, null);
+	}
+	
+	
+	/** 
+	 * Parses a UTF-8 encoded JSON-RPC 2.0 response. In 
+	 * {@link #passThrough pass-through} mode the raw values of the parsed
+	 * response reference the specified bytes, which must not be modified 
+	 * afterwards.
+	 *
+	 * @param bytes  The bytes. Must not be {@code null}.
+	 * @param offset The offset of the response.
+	 * @param length The length of the response, in bytes.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 response object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Response parseJSONRPC2Response(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Response(parseJSONObject(bytes, offset, length), null, null);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 response that has already been decoded into a
+	 * map, e.g. from a binary encoding. The map is not modified.
+	 *
+	 * @param json The JSON-RPC 2.0 response as a map. Must not be 
+	 *             {@code null}.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 response object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Response parseJSONRPC2Response(final Map<String,Object> json)
+		throws JSONRPC2ParseException {
+	
+		return parseJSONRPC2Response(json, null, null);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 response.
+	 *
+	 * @param json       The JSON-RPC 2.0 response as a map.
+	 * @param jsonString The original JSON string, {@code null} if none.
+	 *
+	 * @return The corresponding JSON-RPC 2.0 response object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	@SuppressWarnings("unchecked")
+	private JSONRPC2Response parseJSONRPC2Response(final Map<String,Object> json, final String jsonString, final JSONRPC2Response target)
+		throws JSONRPC2ParseException {
+	
 		// Check for JSON-RPC version "2.0"
-		Object version = json.remove("jsonrpc");
+		Object version = json.get("jsonrpc");
 		
 		if (! ignoreVersion)
 			ensureVersion2(version, jsonString);
 		
 		
 		// Extract request ID
-		Object id = json.remove("id");
+		Object id = json.get("id");
 		
 		if (   id != null             &&
 		    ! (id instanceof Boolean) &&
@@ -490,24 +886,28 @@ public class JSONRPC2Parser {
 		// Extract result/error and create response object
 		// Note: result and error are mutually exclusive
 		
-		JSONRPC2Response response = null;
+		Object result = null;
+		
+		JSONRPC2Error error = null;
 		
 		if (json.containsKey("result") && ! json.containsKey("error")) {
 			
 			// Success
-			Object res = json.remove("result");
-			
-			response = new JSONRPC2Response(res, id);
-					
+			result = json.get("result");
 		}
 		else if (! json.containsKey("result") && json.containsKey("error")) {
 		
 			// Error JSON object
-			Map <String,Object> errorJSON = (Map<String,Object>)json.remove("error");
+			Object errorObject = json.get("error");
 			
-			if (errorJSON == null)
+			if (errorObject == null)
 				throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 response: Missing error object", jsonString);
 			
+			if (! (errorObject instanceof Map))
+				throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 response: Error not a JSON object", jsonString);
+			
+			Map <String,Object> errorJSON = (Map<String,Object>)errorObject;
+			
 			int errorCode;
 			try {
 				errorCode = ((Long)errorJSON.get("code")).intValue();
@@ -524,8 +924,12 @@ public class JSONRPC2Parser {
 			
 			Object errorData = errorJSON.get("data");
 			
-			response = new JSONRPC2Response(new JSONRPC2Error(errorCode, errorMessage, errorData), id);
+			// Share registered errors, e.g. the standard ones
+			if (errorData == null)
+				error = JSONRPC2ErrorRegistry.getDefault().get(errorCode, errorMessage);
 			
+			if (error == null)
+				error = new JSONRPC2Error(errorCode, errorMessage, errorData);
 		}
 		else if (json.containsKey("result") && json.containsKey("error")) {
 			// Invalid response
@@ -540,23 +944,103 @@ public class JSONRPC2Parser {
 		}
 		
 		
-		// Extract remaining non-std params?
-		if (parseNonStdAttributes) {
+		JSONRPC2Response response = target;
+		
+		if (response == null)
+			response = new JSONRPC2Response();
+		else
+			response.reset();
+		
+		if (error != null)
+			response.setError(error);
+		else
+			response.setResult(result);
+		
+		response.setID(id);
 		
-			Iterator <Map.Entry<String,Object>> it = json.entrySet().iterator();
-			
-			while (it.hasNext()) {
-				
-				Map.Entry <String,Object> entry = it.next();
-				
-				response.appendNonStdAttribute(entry.getKey(), entry.getValue());
-			}
-		}
+		
+		// Extract remaining non-std params?
+		appendNonStdAttributes(json, response);
 		
 		return response;
 	}
 	
 	
+	/** 
+	 * Parses a JSON-RPC 2.0 request string into an existing request object, 
+	 * which is reset first. Together with {@link JSONRPC2Message#reset} 
+	 * and a {@link JSONRPC2MessagePool} this allows message objects to be 
+	 * recycled. If parsing fails the target is left unchanged.
+	 *
+	 * @param jsonString The JSON-RPC 2.0 request string, UTF-8 encoded.
+	 * @param target     The request object to parse into. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The target request object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Request parseInto(final String jsonString, final JSONRPC2Request target)
+		throws JSONRPC2ParseException {
+	
+		if (target == null)
+			throw new NullPointerException("The target request must not be null");
+		
+		return parseJSONRPC2Request(parseJSONObject(jsonString), jsonString, target);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 notification string into an existing notification object, 
+	 * which is reset first. Together with {@link JSONRPC2Message#reset} 
+	 * and a {@link JSONRPC2MessagePool} this allows message objects to be 
+	 * recycled. If parsing fails the target is left unchanged.
+	 *
+	 * @param jsonString The JSON-RPC 2.0 notification string, UTF-8 encoded.
+	 * @param target     The notification object to parse into. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The target notification object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Notification parseInto(final String jsonString, final JSONRPC2Notification target)
+		throws JSONRPC2ParseException {
+	
+		if (target == null)
+			throw new NullPointerException("The target notification must not be null");
+		
+		return parseJSONRPC2Notification(parseJSONObject(jsonString), jsonString, target);
+	}
+	
+	
+	/** 
+	 * Parses a JSON-RPC 2.0 response string into an existing response object, 
+	 * which is reset first. Together with {@link JSONRPC2Message#reset} 
+	 * and a {@link JSONRPC2MessagePool} this allows message objects to be 
+	 * recycled. If parsing fails the target is left unchanged.
+	 *
+	 * @param jsonString The JSON-RPC 2.0 response string, UTF-8 encoded.
+	 * @param target     The response object to parse into. Must not be
+	 *                   {@code null}.
+	 *
+	 * @return The target response object.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if parsing 
+	 *                                failed.
+	 */
+	public JSONRPC2Response parseInto(final String jsonString, final JSONRPC2Response target)
+		throws JSONRPC2ParseException {
+	
+		if (target == null)
+			throw new NullPointerException("The target response must not be null");
+		
+		return parseJSONRPC2Response(parseJSONObject(jsonString), jsonString, target);
+	}
+	
+	
 	/**
 	 * Controls the preservation of JSON object member order in parsed
 	 * JSON-RPC 2.0 messages.
@@ -657,4 +1141,43 @@ public class JSONRPC2Parser {
 	
 		return parseNonStdAttributes;
 	}
+	
+	
+	/**
+	 * Specifies whether to keep the parameters, results and error data of
+	 * parsed JSON-RPC 2.0 messages as raw spans of the input. In this 
+	 * pass-through mode JSON arrays and objects in those positions are 
+	 * not parsed but returned as {@link JSONRPC2RawValue raw values}, 
+	 * which serialisation copies verbatim. A proxy that only rewrites the
+	 * message envelope, e.g. the ID or a non-standard attribute, thus 
+	 * forwards a message at a cost proportional to the envelope, not to 
+	 * the payload. To modify the payload, {@link JSONRPC2RawValue#parse 
+	 * parse} it and set the parsed value on the message.
+	 *
+	 * <p>Pass-through mode applies to messages parsed from strings and 
+	 * bytes, not from decoded maps. The member order setting doesn't 
+	 * apply to the raw values, their original text is kept as is. The 
+	 * raw values are only checked for balanced brackets and well-formed 
+	 * strings, their full syntax is validated when they are parsed.
+	 *
+	 * @param enable {@code true} to enable pass-through mode, else
+	 *               {@code false}.
+	 */
+	public void passThrough(final boolean enable) {
+	
+		passThrough = enable;
+	}
+	
+	
+	/**
+	 * Returns {@code true} if the parameters, results and error data of 
+	 * parsed JSON-RPC 2.0 messages are kept as raw spans of the input.
+	 *
+	 * @return {@code true} if pass-through mode is enabled, else
+	 *         {@code false}.
+	 */
+	public boolean passesThrough() {
+	
+		return passThrough;
+	}
 }
@@ -0,0 +1,720 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import net.minidev.json.JSONAware;
+import net.minidev.json.JSONStreamAware;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
+
+/**
+ * Pre-serialised JSON value, such as a cached or proxied result. Raw values
+ * are accepted as JSON-RPC 2.0 response results, request and notification
+ * parameters and error data. On serialisation their bytes are copied
+ * verbatim into the output, without being parsed and re-serialised.
+ *
+ * <p>The JSON text is not validated on construction (apart from a check
+ * that it isn't blank); it is the responsibility of the caller to supply
+ * well-formed UTF-8 encoded JSON. The byte array is not copied either and
+ * must not be modified afterwards.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * byte[] cached = cache.get(key);
+ *
+ * JSONRPC2Response response = new JSONRPC2Response(new JSONRPC2RawValue(cached), id);
+ * </pre>
+ *
+ * <p>Instances of this class are immutable.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2RawValue implements JSONAware, JSONStreamAware {
+
+
+	/**
+	 * The UTF-8 encoded JSON text.
+	 */
+	private final byte[] bytes;
+
+
+	/**
+	 * The offset of the JSON text in the byte array.
+	 */
+	private final int offset;
+
+
+	/**
+	 * The length of the JSON text, in bytes.
+	 */
+	private final int length;
+
+
+	/**
+	 * The first non-whitespace character of the JSON text.
+	 */
+	private final char firstChar;
+
+
+	/**
+	 * Lazily decoded string representation.
+	 */
+	private String string = null;
+
+
+	/**
+	 * Creates a new raw JSON value.
+	 *
+	 * @param bytes The UTF-8 encoded JSON text. Must not be {@code null}.
+	 */
+	public JSONRPC2RawValue(final byte[] bytes) {
+
+		this(bytes, 0, bytes.length);
+	}
+
+
+	/**
+	 * Creates a new raw JSON value from a range of the specified byte
+	 * array.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the UTF-8 encoded JSON text.
+	 * @param length The length of the JSON text, in bytes.
+	 */
+	public JSONRPC2RawValue(final byte[] bytes, final int offset, final int length) {
+
+		if (bytes == null)
+			throw new NullPointerException("The JSON bytes must not be null");
+
+		if (offset < 0 || length < 0 || offset + length > bytes.length)
+			throw new IndexOutOfBoundsException();
+
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+
+		char first = 0;
+
+		for (int i = offset; i < offset + length; i++) {
+
+			final byte b = bytes[i];
+
+			if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+				first = (char)b;
+				break;
+			}
+		}
+
+		if (first == 0)
+			throw new IllegalArgumentException("The raw JSON value must not be blank");
+
+		firstChar = first;
+	}
+
+
+	/**
+	 * Creates a new raw JSON value from the specified JSON string.
+	 *
+	 * @param json The JSON text. Must not be {@code null}.
+	 */
+	public JSONRPC2RawValue(final String json) {
+
+		this(encode(json));
+		string = json;
+	}
+
+
+	/**
+	 * Encodes the specified string as UTF-8.
+	 *
+	 * @param s The string.
+	 *
+	 * @return The UTF-8 bytes.
+	 */
+	private static byte[] encode(final String s) {
+
+		if (s == null)
+			throw new NullPointerException("The JSON string must not be null");
+
+		try {
+			return s.getBytes("UTF-8");
+
+		} catch (UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			throw new AssertionError(e);
+		}
+	}
+
+
+	/**
+	 * Returns the backing byte array. It must not be modified. Use
+	 * {@link #getOffset} and {@link #getLength} to locate the JSON text
+	 * in it.
+	 *
+	 * @return The backing byte array.
+	 */
+	public byte[] getBytes() {
+
+		return bytes;
+	}
+
+
+	/**
+	 * Returns the offset of the JSON text in the backing byte array.
+	 *
+	 * @return The offset.
+	 */
+	public int getOffset() {
+
+		return offset;
+	}
+
+
+	/**
+	 * Returns the length of the JSON text.
+	 *
+	 * @return The length, in bytes.
+	 */
+	public int getLength() {
+
+		return length;
+	}
+
+
+	/**
+	 * Returns {@code true} if the raw value is a JSON array.
+	 *
+	 * @return {@code true} if a JSON array, else {@code false}.
+	 */
+	public boolean isArray() {
+
+		return firstChar == '[';
+	}
+
+
+	/**
+	 * Returns {@code true} if the raw value is a JSON object.
+	 *
+	 * @return {@code true} if a JSON object, else {@code false}.
+	 */
+	public boolean isObject() {
+
+		return firstChar == '{';
+	}
+
+
+	/**
+	 * Returns {@code true} if the raw value is a JSON string.
+	 *
+	 * @return {@code true} if a JSON string, else {@code false}.
+	 */
+	public boolean isString() {
+
+		return firstChar == '"';
+	}
+
+
+	/**
+	 * Returns {@code true} if the raw value is the JSON null literal.
+	 *
+	 * @return {@code true} if JSON null, else {@code false}.
+	 */
+	public boolean isNull() {
+
+		return firstChar == 'n';
+	}
+
+
+	/**
+	 * Returns {@code true} if the raw value is a JSON number.
+	 *
+	 * @return {@code true} if a JSON number, else {@code false}.
+	 */
+	public boolean isNumber() {
+
+		return firstChar == '-' || (firstChar >= '0' && firstChar <= '9');
+	}
+
+
+	/**
+	 * Returns the text of the raw value if it is a JSON string or number,
+	 * for decoding string-encoded values, such as UUIDs and timestamps, 
+	 * straight from the bytes. For a JSON string without escapes and
+	 * non-ASCII characters the returned sequence is a view of the backing
+	 * bytes, else the string is decoded.
+	 *
+	 * @return The content of the JSON string or the literal JSON number,
+	 *         {@code null} for other JSON types.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value is malformed.
+	 */
+	public CharSequence getText()
+		throws JSONRPC2ParseException {
+
+		if (! isString() && ! isNumber())
+			return null;
+
+		final int end = offset + length;
+		final int start = JSONRPC2Scanner.skipWhitespace(bytes, offset, end);
+		final int valueEnd = JSONRPC2Scanner.skipValue(bytes, start, end);
+
+		if (isNumber())
+			return new ASCIISequence(bytes, start, valueEnd);
+
+		for (int i = start + 1; i < valueEnd - 1; i++) {
+
+			if (bytes[i] == '\\' || bytes[i] < 0)
+				return JSONRPC2Scanner.decodeString(bytes, start, valueEnd);
+		}
+
+		return new ASCIISequence(bytes, start + 1, valueEnd - 1);
+	}
+
+
+	/**
+	 * Parses the raw value into its Java representation (as defined by
+	 * the underlying JSON Smart library).
+	 *
+	 * @return The parsed value: {@code Boolean}, {@code Number},
+	 *         {@code String}, {@code List}, {@code Map} or {@code null}.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value isn't valid JSON.
+	 */
+	public Object parse()
+		throws JSONRPC2ParseException {
+
+		try {
+			return new JSONParser(JSONParser.MODE_JSON_SIMPLE).parse(toJSONString());
+
+		} catch (ParseException e) {
+
+			throw new JSONRPC2ParseException("Invalid JSON", JSONRPC2ParseException.JSON, toJSONString());
+		}
+	}
+
+
+	/**
+	 * Gets the member with the specified name of the raw value, if it is 
+	 * a JSON object. Only the member names are decoded, the other members
+	 * are skipped.
+	 *
+	 * @param name The member name.
+	 *
+	 * @return The member value as a raw value referencing the same bytes,
+	 *         {@code null} if the raw value isn't a JSON object or has no
+	 *         such member.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value is malformed.
+	 */
+	public JSONRPC2RawValue getMember(final String name)
+		throws JSONRPC2ParseException {
+
+		if (! isObject())
+			return null;
+
+		final int end = offset + length;
+
+		int pos = JSONRPC2Scanner.skipWhitespace(bytes, offset, end);
+
+		pos = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+
+		if (pos < end && bytes[pos] == '}')
+			return null;
+
+		while (true) {
+
+			final int keyStart = pos;
+			final int keyEnd = JSONRPC2Scanner.skipString(bytes, pos, end);
+
+			pos = JSONRPC2Scanner.skipWhitespace(bytes, keyEnd, end);
+
+			if (pos >= end || bytes[pos] != ':')
+				throw JSONRPC2Scanner.malformed("Expected colon", pos);
+
+			final int valueStart = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+			final int valueEnd = JSONRPC2Scanner.skipValue(bytes, valueStart, end);
+
+			if (JSONRPC2Scanner.stringEquals(bytes, keyStart, keyEnd, name))
+				return new JSONRPC2RawValue(bytes, valueStart, valueEnd - valueStart);
+
+			pos = JSONRPC2Scanner.skipWhitespace(bytes, valueEnd, end);
+
+			if (pos < end && bytes[pos] == ',') {
+				pos = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+				continue;
+			}
+
+			if (pos < end && bytes[pos] == '}')
+				return null;
+
+			throw JSONRPC2Scanner.malformed("Expected comma or closing brace", pos);
+		}
+	}
+
+
+	/**
+	 * Gets the element at the specified index of the raw value, if it is
+	 * a JSON array. The preceding elements are skipped, not decoded.
+	 *
+	 * @param index The element index.
+	 *
+	 * @return The element as a raw value referencing the same bytes,
+	 *         {@code null} if the raw value isn't a JSON array or the 
+	 *         index is out of range.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value is malformed.
+	 */
+	public JSONRPC2RawValue getElement(final int index)
+		throws JSONRPC2ParseException {
+
+		if (! isArray() || index < 0)
+			return null;
+
+		final int end = offset + length;
+
+		int pos = JSONRPC2Scanner.skipWhitespace(bytes, offset, end);
+
+		pos = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+
+		if (pos < end && bytes[pos] == ']')
+			return null;
+
+		for (int i = 0; ; i++) {
+
+			final int valueEnd = JSONRPC2Scanner.skipValue(bytes, pos, end);
+
+			if (i == index)
+				return new JSONRPC2RawValue(bytes, pos, valueEnd - pos);
+
+			pos = JSONRPC2Scanner.skipWhitespace(bytes, valueEnd, end);
+
+			if (pos < end && bytes[pos] == ',') {
+				pos = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+				continue;
+			}
+
+			if (pos < end && bytes[pos] == ']')
+				return null;
+
+			throw JSONRPC2Scanner.malformed("Expected comma or closing bracket", pos);
+		}
+	}
+
+
+	/**
+	 * Decodes the raw value, which must be a JSON array of numbers, 
+	 * straight into a {@code long} array, without building the boxed 
+	 * list. Decimals are truncated, as by {@link Number#longValue}.
+	 *
+	 * @return The numbers.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value isn't a JSON array
+	 *                                of numbers.
+	 */
+	public long[] toLongArray()
+		throws JSONRPC2ParseException {
+
+		long[] numbers = new long[scanNumbers(null, null)];
+
+		scanNumbers(numbers, null);
+
+		return numbers;
+	}
+
+
+	/**
+	 * Decodes the raw value, which must be a JSON array of numbers, 
+	 * straight into a {@code double} array, without building the boxed 
+	 * list.
+	 *
+	 * @return The numbers.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value isn't a JSON array
+	 *                                of numbers.
+	 */
+	public double[] toDoubleArray()
+		throws JSONRPC2ParseException {
+
+		double[] numbers = new double[scanNumbers(null, null)];
+
+		scanNumbers(null, numbers);
+
+		return numbers;
+	}
+
+
+	/**
+	 * Scans the raw value as a JSON array of numbers. Counts the numbers
+	 * if no target array is specified, else decodes them into it.
+	 *
+	 * @param longs   The {@code long} target array, {@code null} if none.
+	 * @param doubles The {@code double} target array, {@code null} if 
+	 *                none.
+	 *
+	 * @return The number of numbers.
+	 *
+	 * @throws JSONRPC2ParseException If the raw value isn't a JSON array
+	 *                                of numbers.
+	 */
+	private int scanNumbers(final long[] longs, final double[] doubles)
+		throws JSONRPC2ParseException {
+
+		final int end = offset + length;
+
+		int pos = JSONRPC2Scanner.skipWhitespace(bytes, offset, end);
+
+		if (bytes[pos] != '[')
+			throw new JSONRPC2ParseException("Not a JSON array of numbers");
+
+		pos = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+
+		int count = 0;
+
+		if (pos < end && bytes[pos] == ']')
+			return count;
+
+		while (true) {
+
+			if (pos >= end || (bytes[pos] != '-' && (bytes[pos] < '0' || bytes[pos] > '9')))
+				throw new JSONRPC2ParseException("Not a JSON array of numbers");
+
+			final int numberEnd = JSONRPC2Scanner.skipValue(bytes, pos, end);
+
+			if (longs != null || doubles != null) {
+
+				boolean integral = true;
+
+				for (int i = pos; i < numberEnd && integral; i++)
+					integral = bytes[i] != '.' && bytes[i] != 'e' && bytes[i] != 'E';
+
+				if (integral && numberEnd - pos <= 18) {
+
+					final long value = JSONRPC2Scanner.parseLong(bytes, pos, numberEnd);
+
+					if (longs != null)
+						longs[count] = value;
+					else
+						doubles[count] = value;
+				}
+				else if (doubles != null) {
+					doubles[count] = JSONRPC2Scanner.parseDouble(bytes, pos, numberEnd);
+				}
+				else {
+					longs[count] = JSONRPC2Scanner.decodeNumber(bytes, pos, numberEnd).longValue();
+				}
+			}
+
+			count++;
+
+			pos = JSONRPC2Scanner.skipWhitespace(bytes, numberEnd, end);
+
+			if (pos < end && bytes[pos] == ',') {
+				pos = JSONRPC2Scanner.skipWhitespace(bytes, pos + 1, end);
+				continue;
+			}
+
+			if (pos < end && bytes[pos] == ']')
+				return count;
+
+			throw JSONRPC2Scanner.malformed("Expected comma or closing bracket", pos);
+		}
+	}
+
+
+	/**
+	 * Writes the raw JSON text to the specified output. If the output is
+	 * a {@link JSONRPC2Output} the bytes are copied verbatim.
+	 *
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSONString(final Appendable out)
+		throws IOException {
+
+		if (out instanceof JSONRPC2Output)
+			((JSONRPC2Output)out).write(bytes, offset, length);
+		else
+			out.append(toJSONString());
+	}
+
+
+	/**
+	 * Returns the raw JSON text as a string.
+	 *
+	 * @return The JSON text.
+	 */
+	public String toJSONString() {
+
+		if (string == null) {
+
+			try {
+				string = new String(bytes, offset, length, "UTF-8");
+
+			} catch (UnsupportedEncodingException e) {
+				// UTF-8 is always supported
+				throw new AssertionError(e);
+			}
+		}
+
+		return string;
+	}
+
+
+	/**
+	 * Returns the raw JSON text as a string.
+	 *
+	 * @return The JSON text.
+	 */
+	public String toString() {
+
+		return toJSONString();
+	}
+
+
+	/**
+	 * Overrides {@code Object.equals()}.
+	 *
+	 * @param object The object to compare to.
+	 *
+	 * @return {@code true} if both objects are raw values with identical
+	 *         JSON bytes, {@code false} if not.
+	 */
+	public boolean equals(final Object object) {
+
+		if (object == this)
+			return true;
+
+		if (! (object instanceof JSONRPC2RawValue))
+			return false;
+
+		JSONRPC2RawValue other = (JSONRPC2RawValue)object;
+
+		if (length != other.length)
+			return false;
+
+		for (int i = 0; i < length; i++) {
+
+			if (bytes[offset + i] != other.bytes[other.offset + i])
+				return false;
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Overrides {@code Object.hashCode()}.
+	 *
+	 * @return The hash code of the JSON bytes.
+	 */
+	public int hashCode() {
+
+		int h = 1;
+
+		for (int i = offset; i < offset + length; i++)
+			h = 31 * h + bytes[i];
+
+		return h;
+	}
+
+
+	/**
+	 * Character sequence view of an ASCII range of a byte array.
+	 */
+	private static final class ASCIISequence implements CharSequence {
+
+
+		/**
+		 * The bytes.
+		 */
+		private final byte[] bytes;
+
+
+		/**
+		 * The start of the range.
+		 */
+		private final int start;
+
+
+		/**
+		 * The end of the range.
+		 */
+		private final int end;
+
+
+		/**
+		 * Creates a new view of the specified ASCII range.
+		 *
+		 * @param bytes The bytes.
+		 * @param start The start of the range.
+		 * @param end   The end of the range.
+		 */
+		ASCIISequence(final byte[] bytes, final int start, final int end) {
+
+			this.bytes = bytes;
+			this.start = start;
+			this.end = end;
+		}
+
+
+		/**
+		 * Returns the length of the range.
+		 *
+		 * @return The length.
+		 */
+		public int length() {
+
+			return end - start;
+		}
+
+
+		/**
+		 * Returns the character at the specified index.
+		 *
+		 * @param index The index.
+		 *
+		 * @return The character.
+		 */
+		public char charAt(final int index) {
+
+			if (index < 0 || index >= end - start)
+				throw new IndexOutOfBoundsException();
+
+			return (char)bytes[start + index];
+		}
+
+
+		/**
+		 * Returns a view of the specified subrange.
+		 *
+		 * @param from The start index, inclusive.
+		 * @param to   The end index, exclusive.
+		 *
+		 * @return The subrange view.
+		 */
+		public CharSequence subSequence(final int from, final int to) {
+
+			if (from < 0 || to > end - start || from > to)
+				throw new IndexOutOfBoundsException();
+
+			return new ASCIISequence(bytes, start + from, start + to);
+		}
+
+
+		/**
+		 * Copies the range into a string.
+		 *
+		 * @return The string.
+		 */
+		public String toString() {
+
+			return new String(bytes, start, end - start, JSONRPC2Scanner.UTF_8);
+		}
+	}
+}
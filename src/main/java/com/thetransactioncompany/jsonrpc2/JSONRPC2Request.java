@@ -1,6 +1,8 @@
 package com.thetransactioncompany.jsonrpc2;
 
 
+import java.io.IOException;
+
 import java.util.*;
 
 import net.minidev.json.JSONObject;
@@ -86,7 +88,7 @@ import net.minidev.json.JSONObject;
  * <a href="http://groups.google.com/group/json-rpc">here</a>.
  * 
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-07-10)
+ * @version 1.27 (2026-10-18)
  */
 public class JSONRPC2Request extends JSONRPC2Message {
 
@@ -204,6 +206,17 @@ public class JSONRPC2Request extends JSONRPC2Message {
 	}
 	
 	
+	/**
+	 * Constructs a new blank JSON-RPC 2.0 request, to be filled by
+	 * {@link JSONRPC2Parser#parseInto(String,JSONRPC2Request)} or the
+	 * setter methods. The method name must be set before serialisation.
+	 */
+	public JSONRPC2Request() {
+	
+		paramsType = JSONRPC2ParamsType.NO_PARAMS;
+	}
+	
+	
 	/** 
 	 * Constructs a new JSON-RPC 2.0 request with no parameters.
 	 *
@@ -282,6 +295,19 @@ public class JSONRPC2Request extends JSONRPC2Message {
 			throw new NullPointerException();
 
 		this.method = method;
+		
+		invalidateSerialization();
+	}
+	
+	
+	/**
+	 * Returns the method name as the output size estimate key.
+	 *
+	 * @return The method name.
+	 */
+	String getSizeEstimateKey() {
+	
+		return method;
 	}
 	
 	
@@ -302,7 +328,8 @@ public class JSONRPC2Request extends JSONRPC2Message {
 	 * Gets the request parameters.
 	 *
 	 * @return The parameters as {@code List} if JSON array, {@code Map} 
-	 *         if JSON object, or {@code null} if none.
+	 *         if JSON object, {@link JSONRPC2RawValue} if set as 
+	 *         pre-serialised JSON, or {@code null} if none.
 	 */
 	public Object getParams() {
 		
@@ -315,7 +342,10 @@ public class JSONRPC2Request extends JSONRPC2Message {
 	 *
 	 * @param params The parameters. For a JSON array type pass a 
 	 *               {@code List}. For a JSON object pass a {@code Map}. 
-	 *               If there are no parameters pass {@code null}.
+	 *               Pre-serialised parameters may be passed as a
+	 *               {@link JSONRPC2RawValue} representing a JSON array
+	 *               or object. If there are no parameters pass 
+	 *               {@code null}.
 	 */
 	public void setParams(final Object params) {
 	
@@ -327,11 +357,19 @@ public class JSONRPC2Request extends JSONRPC2Message {
 			
 		else if (params instanceof Map)
 			paramsType = JSONRPC2ParamsType.OBJECT;
+		
+		else if (params instanceof JSONRPC2RawValue && ((JSONRPC2RawValue)params).isArray())
+			paramsType = JSONRPC2ParamsType.ARRAY;
+		
+		else if (params instanceof JSONRPC2RawValue && ((JSONRPC2RawValue)params).isObject())
+			paramsType = JSONRPC2ParamsType.OBJECT;
 			
 		else
-			throw new IllegalArgumentException("The request parameters must be of type List, Map or null");
+			throw new IllegalArgumentException("The request parameters must be of type List, Map, JSON array or object JSONRPC2RawValue, or null");
 			
 		this.params = params;
+		
+		invalidateSerialization();
 	}
 	
 	
@@ -363,6 +401,23 @@ public class JSONRPC2Request extends JSONRPC2Message {
 		    ! (id instanceof String )     )
 			throw new IllegalArgumentException("The request identifier must map to a JSON scalar");
 		this.id = id;
+		
+		invalidateSerialization();
+	}
+	
+	
+	/**
+	 * Resets this request to a blank state for reuse. The method name must
+	 * be set again before serialisation.
+	 */
+	public void reset() {
+	
+		super.reset();
+		
+		method = null;
+		params = null;
+		paramsType = JSONRPC2ParamsType.NO_PARAMS;
+		id = null;
 	}
 	
 	
@@ -385,19 +440,38 @@ public class JSONRPC2Request extends JSONRPC2Message {
 		
 		req.put("jsonrpc", "2.0");
 		
-		Map <String,Object> nonStdAttributes = getNonStandardAttributes();
+		putNonStdAttributes(req);
 		
-		if (nonStdAttributes != null) {
+		return req;
+	}
+	
+	
+	/**
+	 * Serialises this JSON-RPC 2.0 request as JSON to the specified 
+	 * output. The members are written directly, without an intermediate 
+	 * JSON object.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
+	
+		out.append("{\"jsonrpc\":\"2.0\",\"method\":");
+		JSONRPC2ValueWriter.writeValue(method, out);
 		
-			Iterator<Map.Entry<String,Object>> it = nonStdAttributes.entrySet().iterator();
-			
-			while (it.hasNext()) {
-			
-				Map.Entry <String,Object> pair = it.next();
-				req.put(pair.getKey(), pair.getValue());
-			}
+		// the params can be omitted if empty
+		if (params != null && paramsType != JSONRPC2ParamsType.NO_PARAMS) {
+			out.append(",\"params\":");
+			JSONRPC2ValueWriter.writeValue(params, out);
 		}
 		
-		return req;
+		out.append(",\"id\":");
+		JSONRPC2ValueWriter.writeValue(id, out);
+		
+		writeNonStdAttributes(out);
+		
+		out.append('}');
 	}
 }
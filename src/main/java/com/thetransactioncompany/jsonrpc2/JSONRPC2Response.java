@@ -1,6 +1,8 @@
 package com.thetransactioncompany.jsonrpc2;
 
 
+import java.io.IOException;
+
 import java.util.*;
 
 import net.minidev.json.JSONObject;
@@ -112,7 +114,7 @@ import net.minidev.json.JSONObject;
  * <a href="http://groups.google.com/group/json-rpc">here</a>.
  *
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2010-07-10)
+ * @version 1.27 (2026-10-18)
  */
 public class JSONRPC2Response extends JSONRPC2Message {
 	
@@ -224,6 +226,18 @@ public class JSONRPC2Response extends JSONRPC2Message {
 	}
 	
 	
+	/**
+	 * Creates a new blank JSON-RPC 2.0 response, to be filled by
+	 * {@link JSONRPC2Parser#parseInto(String,JSONRPC2Response)} or the 
+	 * setter methods. Until then it indicates success with a 
+	 * {@code null} result and identifier.
+	 */
+	public JSONRPC2Response() {
+	
+		// nothing to do
+	}
+	
+	
 	/** 
 	 * Creates a new JSON-RPC 2.0 response to a successful request.
 	 *
@@ -274,21 +288,25 @@ public class JSONRPC2Response extends JSONRPC2Message {
 	 * error data will be invalidated.
 	 *
 	 * @param result The result. The value can <a href="#map">map</a> to 
-	 *               any JSON type.
+	 *               any JSON type, or be a pre-serialised 
+	 *               {@link JSONRPC2RawValue}.
 	 */
 	public void setResult(final Object result) {
 		
-		if (   result != null             &&
-		    ! (result instanceof Boolean) &&
-		    ! (result instanceof Number ) &&
-		    ! (result instanceof String ) &&
-		    ! (result instanceof List   ) &&
-		    ! (result instanceof Map    )    )
+		if (   result != null                      &&
+		    ! (result instanceof Boolean)          &&
+		    ! (result instanceof Number )          &&
+		    ! (result instanceof String )          &&
+		    ! (result instanceof List   )          &&
+		    ! (result instanceof Map    )          &&
+		    ! (result instanceof JSONRPC2RawValue)    )
 		    	throw new IllegalArgumentException("The result must map to a JSON type");
 		
 		// result and error are mutually exclusive
 		this.result = result;
 		this.error = null;
+		
+		invalidateSerialization();
 	}	
 	
 	
@@ -322,6 +340,8 @@ public class JSONRPC2Response extends JSONRPC2Message {
 		// result and error are mutually exclusive
 		this.error = error;
 		this.result = null;		
+		
+		invalidateSerialization();
 	}
 	
 	
@@ -372,6 +392,8 @@ public class JSONRPC2Response extends JSONRPC2Message {
 			throw new IllegalArgumentException("The request identifier must map to a JSON scalar");
 		
 		this.id = id;
+		
+		invalidateSerialization();
 	}
 	
 	
@@ -388,6 +410,20 @@ public class JSONRPC2Response extends JSONRPC2Message {
 	}
 	
 	
+	/**
+	 * Resets this response to a blank state for reuse: success with a 
+	 * {@code null} result and identifier.
+	 */
+	public void reset() {
+	
+		super.reset();
+		
+		result = null;
+		error = null;
+		id = null;
+	}
+	
+	
 	/** 
 	 * Gets a JSON representation of this JSON-RPC 2.0 response.
 	 *
@@ -410,19 +446,50 @@ public class JSONRPC2Response extends JSONRPC2Message {
 		out.put("jsonrpc", "2.0");
 		
 		
-		Map <String,Object> nonStdAttributes = getNonStandardAttributes();
+		putNonStdAttributes(out);
 		
-		if (nonStdAttributes != null) {
+		return out;
+	}
+	
+	
+	/**
+	 * Serialises this JSON-RPC 2.0 response as JSON to the specified 
+	 * output. The members are written directly, without an intermediate 
+	 * JSON object. Responses carrying one of the standard 
+	 * {@link JSONRPC2Error} constants are started from a preserialised 
+	 * template.
+	 *
+	 * @param out The output to append to.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeJSON(final Appendable out)
+		throws IOException {
 		
-			Iterator<Map.Entry<String,Object>> it = nonStdAttributes.entrySet().iterator();
-			
-			while (it.hasNext()) {
-			
-				Map.Entry <String,Object> pair = it.next();
-				out.put(pair.getKey(), pair.getValue());
-			}
+		// Result and error are mutually exclusive
+		if (error != null && error.getResponsePrefix() != null) {
+		
+			if (out instanceof JSONRPC2Output)
+				((JSONRPC2Output)out).write(error.getResponsePrefixBytes());
+			else
+				out.append(error.getResponsePrefix());
 		}
+		else if (error != null) {
 		
-		return out;
+			out.append("{\"jsonrpc\":\"2.0\",\"error\":");
+			error.writeJSON(out);
+			out.append(",\"id\":");
+		}
+		else {
+			out.append("{\"jsonrpc\":\"2.0\",\"result\":");
+			JSONRPC2ValueWriter.writeValue(result, out);
+			out.append(",\"id\":");
+		}
+		
+		JSONRPC2ValueWriter.writeValue(id, out);
+		
+		writeNonStdAttributes(out);
+		
+		out.append('}');
 	}
 }
@@ -0,0 +1,676 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.math.BigInteger;
+
+import java.nio.charset.Charset;
+
+
+/**
+ * Byte-level scanner for UTF-8 encoded JSON text. Locates the spans of
+ * values without building them, and decodes strings, numbers and literals
+ * straight from the bytes. Nested objects and arrays are skipped by
+ * counting brackets outside strings; their content is validated only when
+ * they are decoded.
+ *
+ * <p>Positions are byte indices; span ends are exclusive.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+final class JSONRPC2Scanner {
+
+
+	/**
+	 * The UTF-8 character set.
+	 */
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+
+
+	/**
+	 * The ISO-8859-1 character set, for decoding pure ASCII.
+	 */
+	private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+
+	/**
+	 * The powers of ten which are exact as doubles.
+	 */
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private JSONRPC2Scanner() { }
+
+
+	/**
+	 * Creates a parse exception for malformed JSON.
+	 *
+	 * @param message The message.
+	 * @param pos     The byte position of the error.
+	 *
+	 * @return The parse exception.
+	 */
+	static JSONRPC2ParseException malformed(final String message, final int pos) {
+
+		return new JSONRPC2ParseException("Invalid JSON: " + message + " at position " + pos, JSONRPC2ParseException.JSON, null);
+	}
+
+
+	/**
+	 * Skips whitespace.
+	 *
+	 * @param b   The bytes.
+	 * @param pos The start position.
+	 * @param end The end of the input.
+	 *
+	 * @return The position of the next non-whitespace byte, or the end.
+	 */
+	static int skipWhitespace(final byte[] b, int pos, final int end) {
+
+		while (pos < end) {
+
+			final byte c = b[pos];
+
+			if (c != ' ' && c != '\t' && c != '\n' && c != '\r')
+				break;
+
+			pos++;
+		}
+
+		return pos;
+	}
+
+
+	/**
+	 * Skips a JSON value.
+	 *
+	 * @param b   The bytes.
+	 * @param pos The position of the first byte of the value.
+	 * @param end The end of the input.
+	 *
+	 * @return The position after the value.
+	 *
+	 * @throws JSONRPC2ParseException If the value is malformed.
+	 */
+	static int skipValue(final byte[] b, final int pos, final int end)
+		throws JSONRPC2ParseException {
+
+		if (pos >= end)
+			throw malformed("Unexpected end", pos);
+
+		switch (b[pos]) {
+
+			case '"':
+				return skipString(b, pos, end);
+
+			case '{':
+			case '[':
+				return skipContainer(b, pos, end);
+
+			case 't':
+				return skipLiteral(b, pos, end, "true");
+
+			case 'f':
+				return skipLiteral(b, pos, end, "false");
+
+			case 'n':
+				return skipLiteral(b, pos, end, "null");
+
+			default:
+				return skipNumber(b, pos, end);
+		}
+	}
+
+
+	/**
+	 * Skips a JSON string, validating its escapes.
+	 *
+	 * @param b   The bytes.
+	 * @param pos The position of the opening quote.
+	 * @param end The end of the input.
+	 *
+	 * @return The position after the closing quote.
+	 *
+	 * @throws JSONRPC2ParseException If the string is malformed.
+	 */
+	static int skipString(final byte[] b, int pos, final int end)
+		throws JSONRPC2ParseException {
+
+		if (pos >= end || b[pos] != '"')
+			throw malformed("Expected string", pos);
+
+		pos++;
+
+		while (pos < end) {
+
+			final byte c = b[pos];
+
+			if (c == '"')
+				return pos + 1;
+
+			if (c == '\\') {
+
+				if (pos + 1 >= end)
+					break;
+
+				switch (b[pos + 1]) {
+
+					case '"': case '\\': case '/': case 'b':
+					case 'f': case 'n': case 'r': case 't':
+						pos += 2;
+						break;
+
+					case 'u':
+						if (pos + 6 > end)
+							throw malformed("Truncated unicode escape", pos);
+
+						for (int i = pos + 2; i < pos + 6; i++) {
+
+							if (hexValue(b[i]) < 0)
+								throw malformed("Bad unicode escape", pos);
+						}
+
+						pos += 6;
+						break;
+
+					default:
+						throw malformed("Bad escape", pos);
+				}
+			}
+			else if (c >= 0 && c < 0x20) {
+
+				throw malformed("Unescaped control character", pos);
+			}
+			else {
+				pos++;
+			}
+		}
+
+		throw malformed("Unterminated string", pos);
+	}
+
+
+	/**
+	 * Skips a JSON object or array by counting brackets outside strings.
+	 *
+	 * @param b   The bytes.
+	 * @param pos The position of the opening bracket.
+	 * @param end The end of the input.
+	 *
+	 * @return The position after the closing bracket.
+	 *
+	 * @throws JSONRPC2ParseException If the brackets don't match or the
+	 *                                input ends.
+	 */
+	static int skipContainer(final byte[] b, int pos, final int end)
+		throws JSONRPC2ParseException {
+
+		int depth = 0;
+
+		while (pos < end) {
+
+			final byte c = b[pos];
+
+			if (c == '"') {
+				pos = skipString(b, pos, end);
+				continue;
+			}
+
+			if (c == '{' || c == '[') {
+				depth++;
+			}
+			else if (c == '}' || c == ']') {
+
+				if (--depth == 0)
+					return pos + 1;
+			}
+
+			pos++;
+		}
+
+		throw malformed("Unterminated object or array", pos);
+	}
+
+
+	/**
+	 * Skips the specified literal.
+	 *
+	 * @param b       The bytes.
+	 * @param pos     The start position.
+	 * @param end     The end of the input.
+	 * @param literal The expected literal.
+	 *
+	 * @return The position after the literal.
+	 *
+	 * @throws JSONRPC2ParseException If the literal doesn't match.
+	 */
+	private static int skipLiteral(final byte[] b, final int pos, final int end, final String literal)
+		throws JSONRPC2ParseException {
+
+		final int literalEnd = pos + literal.length();
+
+		if (literalEnd > end || ! equalsASCII(b, pos, literalEnd, literal))
+			throw malformed("Unexpected token", pos);
+
+		return literalEnd;
+	}
+
+
+	/**
+	 * Skips a JSON number, validating its syntax.
+	 *
+	 * @param b   The bytes.
+	 * @param pos The start position.
+	 * @param end The end of the input.
+	 *
+	 * @return The position after the number.
+	 *
+	 * @throws JSONRPC2ParseException If the number is malformed.
+	 */
+	private static int skipNumber(final byte[] b, int pos, final int end)
+		throws JSONRPC2ParseException {
+
+		final int start = pos;
+
+		if (pos < end && b[pos] == '-')
+			pos++;
+
+		final int intStart = pos;
+
+		while (pos < end && isDigit(b[pos]))
+			pos++;
+
+		if (pos == intStart || (b[intStart] == '0' && pos - intStart > 1))
+			throw malformed("Unexpected token", start);
+
+		if (pos < end && b[pos] == '.') {
+
+			final int fractionStart = ++pos;
+
+			while (pos < end && isDigit(b[pos]))
+				pos++;
+
+			if (pos == fractionStart)
+				throw malformed("Bad number", start);
+		}
+
+		if (pos < end && (b[pos] == 'e' || b[pos] == 'E')) {
+
+			pos++;
+
+			if (pos < end && (b[pos] == '+' || b[pos] == '-'))
+				pos++;
+
+			final int exponentStart = pos;
+
+			while (pos < end && isDigit(b[pos]))
+				pos++;
+
+			if (pos == exponentStart)
+				throw malformed("Bad number", start);
+		}
+
+		return pos;
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified byte is a decimal digit.
+	 */
+	private static boolean isDigit(final byte c) {
+
+		return c >= '0' && c <= '9';
+	}
+
+
+	/**
+	 * Returns the value of the specified hexadecimal digit.
+	 *
+	 * @param c The digit.
+	 *
+	 * @return The value, -1 if not a hexadecimal digit.
+	 */
+	private static int hexValue(final byte c) {
+
+		if (c >= '0' && c <= '9')
+			return c - '0';
+
+		if (c >= 'a' && c <= 'f')
+			return c - 'a' + 10;
+
+		if (c >= 'A' && c <= 'F')
+			return c - 'A' + 10;
+
+		return -1;
+	}
+
+
+	/**
+	 * Compares a byte range with an ASCII string, without allocation.
+	 *
+	 * @param b     The bytes.
+	 * @param start The start of the range.
+	 * @param end   The end of the range.
+	 * @param s     The ASCII string.
+	 *
+	 * @return {@code true} if equal.
+	 */
+	static boolean equalsASCII(final byte[] b, final int start, final int end, final String s) {
+
+		if (end - start != s.length())
+			return false;
+
+		for (int i = 0; i < s.length(); i++) {
+
+			if (b[start + i] != s.charAt(i))
+				return false;
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Compares the content of a JSON string with the specified string,
+	 * without allocation unless the JSON string has escapes or non-ASCII
+	 * characters.
+	 *
+	 * @param b     The bytes.
+	 * @param start The position of the opening quote.
+	 * @param end   The position after the closing quote.
+	 * @param s     The string to compare with.
+	 *
+	 * @return {@code true} if equal.
+	 */
+	static boolean stringEquals(final byte[] b, final int start, final int end, final String s) {
+
+		final int len = end - start - 2;
+
+		boolean simple = len == s.length();
+
+		for (int i = 0; simple && i < len; i++) {
+
+			final byte c = b[start + 1 + i];
+
+			if (c == '\\' || c < 0)
+				simple = false;
+			else if (c != s.charAt(i))
+				return false;
+		}
+
+		if (simple)
+			return true;
+
+		return decodeString(b, start, end).equals(s);
+	}
+
+
+	/**
+	 * Decodes a JSON string.
+	 *
+	 * @param b     The bytes.
+	 * @param start The position of the opening quote.
+	 * @param end   The position after the closing quote.
+	 *
+	 * @return The decoded string.
+	 */
+	static String decodeString(final byte[] b, final int start, final int end) {
+
+		final int contentStart = start + 1;
+		final int contentEnd = end - 1;
+
+		boolean ascii = true;
+		boolean escaped = false;
+
+		for (int i = contentStart; i < contentEnd; i++) {
+
+			if (b[i] < 0)
+				ascii = false;
+			else if (b[i] == '\\')
+				escaped = true;
+		}
+
+		if (! escaped)
+			return new String(b, contentStart, contentEnd - contentStart, ascii ? ISO_8859_1 : UTF_8);
+
+		StringBuilder sb = new StringBuilder(contentEnd - contentStart);
+
+		int run = contentStart;
+		int i = contentStart;
+
+		while (i < contentEnd) {
+
+			if (b[i] != '\\') {
+				i++;
+				continue;
+			}
+
+			if (run < i)
+				sb.append(new String(b, run, i - run, UTF_8));
+
+			final byte e = b[i + 1];
+
+			switch (e) {
+				case 'b': sb.append('\b'); break;
+				case 'f': sb.append('\f'); break;
+				case 'n': sb.append('\n'); break;
+				case 'r': sb.append('\r'); break;
+				case 't': sb.append('\t'); break;
+				case 'u':
+					sb.append((char)(hexValue(b[i + 2]) << 12 |
+					                 hexValue(b[i + 3]) << 8  |
+					                 hexValue(b[i + 4]) << 4  |
+					                 hexValue(b[i + 5])));
+					i += 4;
+					break;
+				default:
+					sb.append((char)e);
+			}
+
+			i += 2;
+			run = i;
+		}
+
+		if (run < contentEnd)
+			sb.append(new String(b, run, contentEnd - run, UTF_8));
+
+		return sb.toString();
+	}
+
+
+	/**
+	 * Decodes a JSON number, in the same types as JSON Smart: integers as
+	 * {@code Long}, or {@code BigInteger} if too large, and decimals as
+	 * {@code Double}.
+	 *
+	 * @param b     The bytes.
+	 * @param start The start of the number.
+	 * @param end   The end of the number.
+	 *
+	 * @return The number.
+	 */
+	static Number decodeNumber(final byte[] b, final int start, final int end) {
+
+		boolean integral = true;
+
+		for (int i = start; i < end; i++) {
+
+			final byte c = b[i];
+
+			if (c == '.' || c == 'e' || c == 'E') {
+				integral = false;
+				break;
+			}
+		}
+
+		final String s = new String(b, start, end - start, ISO_8859_1);
+
+		if (! integral)
+			return Double.valueOf(s);
+
+		if (end - start <= 18)
+			return Long.valueOf(parseLong(b, start, end));
+
+		BigInteger big = new BigInteger(s);
+
+		if (big.bitLength() < 64)
+			return Long.valueOf(big.longValue());
+
+		return big;
+	}
+
+
+	/**
+	 * Parses a short integer straight from the bytes.
+	 *
+	 * @param b     The bytes.
+	 * @param start The start of the integer.
+	 * @param end   The end of the integer, at most 18 bytes after the
+	 *              start.
+	 *
+	 * @return The value.
+	 */
+	static long parseLong(final byte[] b, final int start, final int end) {
+
+		final boolean negative = b[start] == '-';
+
+		long value = 0;
+
+		for (int i = negative ? start + 1 : start; i < end; i++)
+			value = value * 10 + (b[i] - '0');
+
+		return negative ? -value : value;
+	}
+
+
+	/**
+	 * Parses a number straight from the bytes into a {@code double}. A
+	 * number with at most 15 significant digits and a decimal exponent
+	 * within 22, the common case, is converted with a single exact
+	 * multiplication or division, which rounds correctly. Other numbers
+	 * are handed to {@link Double#parseDouble}.
+	 *
+	 * @param b     The bytes.
+	 * @param start The start of the number, as validated by
+	 *              {@link #skipValue}.
+	 * @param end   The end of the number.
+	 *
+	 * @return The value.
+	 */
+	static double parseDouble(final byte[] b, final int start, final int end) {
+
+		final boolean negative = b[start] == '-';
+
+		int pos = negative ? start + 1 : start;
+
+		long mantissa = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean fraction = false;
+
+		for (; pos < end; pos++) {
+
+			final byte c = b[pos];
+
+			if (c == '.') {
+				fraction = true;
+				continue;
+			}
+
+			if (! isDigit(c))
+				break;
+
+			if (mantissa != 0 || c != '0')
+				digits++;
+
+			if (digits > 15)
+				return Double.parseDouble(new String(b, start, end - start, ISO_8859_1));
+
+			mantissa = mantissa * 10 + (c - '0');
+
+			if (fraction)
+				scale++;
+		}
+
+		int exponent = 0;
+
+		if (pos < end) {
+
+			// Exponent
+			pos++;
+
+			final boolean negativeExponent = b[pos] == '-';
+
+			if (b[pos] == '-' || b[pos] == '+')
+				pos++;
+
+			for (; pos < end; pos++) {
+
+				if (exponent < 1000)
+					exponent = exponent * 10 + (b[pos] - '0');
+			}
+
+			if (negativeExponent)
+				exponent = -exponent;
+		}
+
+		exponent -= scale;
+
+		final double value;
+
+		if (mantissa == 0)
+			value = 0.0;
+		else if (exponent >= 0 && exponent < POWERS_OF_TEN.length)
+			value = mantissa * POWERS_OF_TEN[exponent];
+		else if (exponent < 0 && -exponent < POWERS_OF_TEN.length)
+			value = mantissa / POWERS_OF_TEN[-exponent];
+		else
+			return Double.parseDouble(new String(b, start, end - start, ISO_8859_1));
+
+		return negative ? -value : value;
+	}
+
+
+	/**
+	 * Decodes a JSON scalar: string, number, boolean or null.
+	 *
+	 * @param b     The bytes.
+	 * @param start The start of the value.
+	 * @param end   The end of the value.
+	 *
+	 * @return The decoded value.
+	 *
+	 * @throws JSONRPC2ParseException If the value is not a scalar.
+	 */
+	static Object decodeScalar(final byte[] b, final int start, final int end)
+		throws JSONRPC2ParseException {
+
+		switch (b[start]) {
+
+			case '"':
+				return decodeString(b, start, end);
+
+			case 't':
+				return Boolean.TRUE;
+
+			case 'f':
+				return Boolean.FALSE;
+
+			case 'n':
+				return null;
+
+			case '{':
+			case '[':
+				throw malformed("Expected scalar", start);
+
+			default:
+				return decodeNumber(b, start, end);
+		}
+	}
+}
@@ -0,0 +1,345 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Serialisation output that collects the UTF-8 encoded JSON as a sequence
+ * of {@code java.nio.ByteBuffer} segments, suitable for a gathering write.
+ * Small writes are copied into heap chunks, while byte ranges at or above
+ * the segment threshold, such as the content of large
+ * {@link JSONRPC2RawValue}s, are referenced as separate segments without
+ * being copied.
+ *
+ * <p>Referenced byte ranges must not be modified until the segments have
+ * been written out.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2Response response = new JSONRPC2Response(new JSONRPC2RawValue(cachedBlob), id);
+ *
+ * JSONRPC2SegmentedOutput.writeFully(channel, response.serializeSegments());
+ * </pre>
+ *
+ * <p>Note that a single gathering write may write only part of the
+ * segments, use {@link #writeFully} to drain them.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class JSONRPC2SegmentedOutput extends JSONRPC2Output {
+
+
+	/**
+	 * The default size threshold at which written byte ranges are
+	 * referenced rather than copied, in bytes.
+	 */
+	public static final int DEFAULT_SEGMENT_THRESHOLD = 1024;
+
+
+	/**
+	 * The size of the heap chunks for copied content, in bytes.
+	 */
+	private static final int CHUNK_SIZE = 512;
+
+
+	/**
+	 * The size threshold at which written byte ranges are referenced.
+	 */
+	private final int segmentThreshold;
+
+
+	/**
+	 * The completed segments.
+	 */
+	private final List<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+
+
+	/**
+	 * The current heap chunk, {@code null} if none.
+	 */
+	private byte[] chunk = null;
+
+
+	/**
+	 * The start of the pending (not yet segmented) content in the current
+	 * chunk.
+	 */
+	private int chunkStart = 0;
+
+
+	/**
+	 * The write position in the current chunk.
+	 */
+	private int chunkPos = 0;
+
+
+	/**
+	 * The total output size, in bytes.
+	 */
+	private int size = 0;
+
+
+	/**
+	 * Creates a new segmented output with the default segment threshold.
+	 */
+	public JSONRPC2SegmentedOutput() {
+
+		this(DEFAULT_SEGMENT_THRESHOLD);
+	}
+
+
+	/**
+	 * Creates a new segmented output.
+	 *
+	 * @param segmentThreshold The size at which written byte ranges are
+	 *                         referenced as separate segments rather than
+	 *                         copied, in bytes. Must be positive.
+	 */
+	public JSONRPC2SegmentedOutput(final int segmentThreshold) {
+
+		if (segmentThreshold < 1)
+			throw new IllegalArgumentException("The segment threshold must be positive");
+
+		this.segmentThreshold = segmentThreshold;
+	}
+
+
+	/**
+	 * Returns the size threshold at which written byte ranges are
+	 * referenced as separate segments rather than copied.
+	 *
+	 * @return The segment threshold, in bytes.
+	 */
+	public int getSegmentThreshold() {
+
+		return segmentThreshold;
+	}
+
+
+	/**
+	 * Closes the pending content of the current chunk as a segment.
+	 */
+	private void flushChunk() {
+
+		if (chunkPos > chunkStart) {
+			segments.add(ByteBuffer.wrap(chunk, chunkStart, chunkPos - chunkStart).slice());
+			chunkStart = chunkPos;
+		}
+	}
+
+
+	/**
+	 * Ensures the current chunk has room for at least one byte.
+	 */
+	private void ensureChunk() {
+
+		if (chunk != null && chunkPos < chunk.length)
+			return;
+
+		flushChunk();
+
+		chunk = new byte[CHUNK_SIZE];
+		chunkStart = 0;
+		chunkPos = 0;
+	}
+
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param b The byte to write.
+	 */
+	public void write(final int b) {
+
+		ensureChunk();
+
+		chunk[chunkPos++] = (byte)b;
+		size++;
+	}
+
+
+	/**
+	 * Returns {@code true}: byte ranges at or above the segment threshold
+	 * are referenced, not copied.
+	 *
+	 * @return {@code true}.
+	 */
+	public boolean retainsWrittenBytes() {
+
+		return true;
+	}
+
+
+	/**
+	 * Writes the specified bytes. Ranges at or above the segment
+	 * threshold are referenced as a separate read-only segment, smaller
+	 * ranges are copied.
+	 *
+	 * @param b   The bytes to write.
+	 * @param off The offset of the first byte to write.
+	 * @param len The number of bytes to write.
+	 */
+	public void write(final byte[] b, final int off, final int len) {
+
+		if (len >= segmentThreshold) {
+
+			flushChunk();
+			segments.add(ByteBuffer.wrap(b, off, len).slice().asReadOnlyBuffer());
+			size += len;
+			return;
+		}
+
+		int pos = off;
+		int left = len;
+
+		while (left > 0) {
+
+			ensureChunk();
+
+			final int n = Math.min(left, chunk.length - chunkPos);
+
+			System.arraycopy(b, pos, chunk, chunkPos, n);
+
+			chunkPos += n;
+			pos += n;
+			left -= n;
+		}
+
+		size += len;
+	}
+
+
+	/**
+	 * Writes the specified bytes.
+	 *
+	 * @param b The bytes to write.
+	 */
+	public void write(final byte[] b) {
+
+		write(b, 0, b.length);
+	}
+
+
+	/**
+	 * Appends a subsequence of the specified character sequence, encoded
+	 * as UTF-8. ASCII characters are copied straight into the current
+	 * chunk.
+	 *
+	 * @param csq   The character sequence to append. If {@code null} the
+	 *              string "null" is appended.
+	 * @param start The index of the first character to append.
+	 * @param end   The index after the last character to append.
+	 *
+	 * @return This output.
+	 *
+	 * @throws IOException Never thrown by this output.
+	 */
+	public JSONRPC2Output append(final CharSequence csq, final int start, final int end)
+		throws IOException {
+
+		if (csq == null)
+			return append("null", start, end);
+
+		for (int i = start; i < end; i++) {
+
+			final char c = csq.charAt(i);
+
+			if (c < 0x80 && ! hasPendingSurrogate()) {
+
+				ensureChunk();
+
+				chunk[chunkPos++] = (byte)c;
+				size++;
+			}
+			else {
+				append(c);
+			}
+		}
+
+		return this;
+	}
+
+
+	/**
+	 * Returns the total output size.
+	 *
+	 * @return The total size of all segments, in bytes.
+	 */
+	public int size() {
+
+		return size;
+	}
+
+
+	/**
+	 * Returns the output segments. Each buffer is positioned at zero and
+	 * limited to the segment length.
+	 *
+	 * @return The segments, in order.
+	 */
+	public ByteBuffer[] getSegments() {
+
+		flushChunk();
+
+		return segments.toArray(new ByteBuffer[segments.size()]);
+	}
+
+
+	/**
+	 * Writes all segments to the specified channel with gathering writes.
+	 * The channel must be in blocking mode, see
+	 * {@link #writeFully(GatheringByteChannel,ByteBuffer[])}.
+	 *
+	 * @param channel The channel to write to. Must not be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void writeTo(final GatheringByteChannel channel)
+		throws IOException {
+
+		writeFully(channel, getSegments());
+	}
+
+
+	/**
+	 * Writes the specified segments to a channel with gathering writes,
+	 * until all of them are drained. The channel must be in blocking
+	 * mode: a non-blocking channel which accepts no bytes causes an
+	 * exception rather than a busy wait. Non-blocking channels should be
+	 * written with a selector instead.
+	 *
+	 * @param channel  The channel to write to. Must not be {@code null}.
+	 * @param segments The segments to write. Must not be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred, or the channel
+	 *                     accepted no bytes.
+	 */
+	public static void writeFully(final GatheringByteChannel channel, final ByteBuffer[] segments)
+		throws IOException {
+
+		int first = 0;
+
+		while (true) {
+
+			while (first < segments.length && ! segments[first].hasRemaining())
+				first++;
+
+			if (first == segments.length)
+				return;
+
+			if (channel.write(segments, first, segments.length - first) == 0)
+				throw new IOException("The channel accepted no bytes, it must be in blocking mode");
+		}
+	}
+}
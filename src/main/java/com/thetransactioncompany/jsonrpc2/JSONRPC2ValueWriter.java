@@ -0,0 +1,444 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.IOException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import net.minidev.json.JSONArray;
+import net.minidev.json.JSONAware;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONStreamAware;
+import net.minidev.json.JSONValue;
+
+
+/**
+ * Writes JSON values to an output without intermediate strings. Integers
+ * and doubles are formatted digit by digit straight into the output, and
+ * strings are escaped with runs of unescaped characters copied in bulk.
+ *
+ * <p>The output is compatible with the JSON Smart library: the same
+ * characters are escaped, and doubles are written in the shortest form
+ * that parses back to the same value. NaN and infinite doubles, which
+ * have no JSON representation, are written as {@code null}. Values of
+ * other types are delegated to JSON Smart.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+final class JSONRPC2ValueWriter {
+
+
+	/**
+	 * Hexadecimal digits for unicode escapes.
+	 */
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+
+	/**
+	 * Long powers of ten, from 10^0 to 10^18.
+	 */
+	private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+
+	/**
+	 * Exact double powers of ten, from 10^0 to 10^17.
+	 */
+	private static final double[] DOUBLE_POWERS_OF_TEN = new double[18];
+
+
+	/**
+	 * The largest double magnitude up to which all integers are exact.
+	 */
+	private static final double MAX_EXACT_DOUBLE = 9007199254740992.0; // 2^53
+
+
+	static {
+		long p = 1;
+
+		for (int i = 0; i < LONG_POWERS_OF_TEN.length; i++) {
+
+			LONG_POWERS_OF_TEN[i] = p;
+
+			if (i < DOUBLE_POWERS_OF_TEN.length)
+				DOUBLE_POWERS_OF_TEN[i] = p;
+
+			p *= 10;
+		}
+	}
+
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private JSONRPC2ValueWriter() { }
+
+
+	/**
+	 * Writes the specified JSON value.
+	 *
+	 * @param value The value, may be {@code null}.
+	 * @param out   The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeValue(final Object value, final Appendable out)
+		throws IOException {
+
+		if (value == null)
+			out.append("null");
+
+		else if (value instanceof String)
+			writeString((String)value, out);
+
+		else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+			writeLong(((Number)value).longValue(), out);
+
+		else if (value instanceof Double)
+			writeDouble(((Double)value).doubleValue(), out);
+
+		else if (value instanceof Boolean)
+			out.append(((Boolean)value).booleanValue() ? "true" : "false");
+
+		// JSON Smart containers are stream-aware, but written here
+		else if (value instanceof JSONObject)
+			writeObject((Map<?,?>)value, out);
+
+		else if (value instanceof JSONArray)
+			writeArray((List<?>)value, out);
+
+		else if (value instanceof JSONStreamAware)
+			((JSONStreamAware)value).writeJSONString(out);
+
+		else if (value instanceof JSONAware)
+			out.append(((JSONAware)value).toJSONString());
+
+		else if (value instanceof Map)
+			writeObject((Map<?,?>)value, out);
+
+		else if (value instanceof List)
+			writeArray((List<?>)value, out);
+
+		else
+			JSONValue.writeJSONString(value, out);
+	}
+
+
+	/**
+	 * Writes the specified map as a JSON object.
+	 *
+	 * @param map The map.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeObject(final Map<?,?> map, final Appendable out)
+		throws IOException {
+
+		out.append('{');
+
+		boolean first = true;
+
+		for (Map.Entry<?,?> entry: map.entrySet()) {
+
+			if (first)
+				first = false;
+			else
+				out.append(',');
+
+			writeString(String.valueOf(entry.getKey()), out);
+			out.append(':');
+			writeValue(entry.getValue(), out);
+		}
+
+		out.append('}');
+	}
+
+
+	/**
+	 * Writes the specified list as a JSON array.
+	 *
+	 * @param list The list.
+	 * @param out  The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeArray(final List<?> list, final Appendable out)
+		throws IOException {
+
+		out.append('[');
+
+		if (list instanceof RandomAccess) {
+
+			final int size = list.size();
+
+			for (int i = 0; i < size; i++) {
+
+				if (i > 0)
+					out.append(',');
+
+				writeValue(list.get(i), out);
+			}
+		}
+		else {
+			boolean first = true;
+
+			for (Object item: list) {
+
+				if (first)
+					first = false;
+				else
+					out.append(',');
+
+				writeValue(item, out);
+			}
+		}
+
+		out.append(']');
+	}
+
+
+	/**
+	 * Writes the specified string as a quoted and escaped JSON string.
+	 * Runs of characters that need no escaping are appended in bulk.
+	 *
+	 * @param s   The string. Must not be {@code null}.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeString(final String s, final Appendable out)
+		throws IOException {
+
+		out.append('"');
+
+		final int len = s.length();
+
+		int start = 0;
+
+		for (int i = 0; i < len; i++) {
+
+			final char c = s.charAt(i);
+
+			// Fast path for printable ASCII
+			if (c >= 0x20 && c < 0x7f && c != '"' && c != '\\' && c != '/')
+				continue;
+
+			if (c >= 0xa0 && (c < 0x2000 || c > 0x20ff))
+				continue;
+
+			if (i > start)
+				out.append(s, start, i);
+
+			writeEscaped(c, out);
+
+			start = i + 1;
+		}
+
+		if (start < len)
+			out.append(s, start, len);
+
+		out.append('"');
+	}
+
+
+	/**
+	 * Writes the escape sequence for the specified character.
+	 *
+	 * @param c   The character to escape.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeEscaped(final char c, final Appendable out)
+		throws IOException {
+
+		out.append('\\');
+
+		switch (c) {
+
+			case '"':  out.append('"');  break;
+			case '\\': out.append('\\'); break;
+			case '/':  out.append('/');  break;
+			case '\b': out.append('b');  break;
+			case '\f': out.append('f');  break;
+			case '\n': out.append('n');  break;
+			case '\r': out.append('r');  break;
+			case '\t': out.append('t');  break;
+
+			default:
+				out.append('u');
+				out.append(HEX_DIGITS[(c >> 12) & 0xf]);
+				out.append(HEX_DIGITS[(c >> 8) & 0xf]);
+				out.append(HEX_DIGITS[(c >> 4) & 0xf]);
+				out.append(HEX_DIGITS[c & 0xf]);
+		}
+	}
+
+
+	/**
+	 * Writes a single ASCII character, as a raw byte if the output is a
+	 * {@link JSONRPC2Output}.
+	 *
+	 * @param c   The ASCII character.
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeAscii(final int c, final Appendable out)
+		throws IOException {
+
+		if (out instanceof JSONRPC2Output)
+			((JSONRPC2Output)out).write(c);
+		else
+			out.append((char)c);
+	}
+
+
+	/**
+	 * Writes the decimal digits of the specified non-negative long,
+	 * padded with leading zeros to the specified minimum number of
+	 * digits.
+	 *
+	 * @param value     The value. Must not be negative.
+	 * @param minDigits The minimum number of digits.
+	 * @param out       The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeDigits(long value, final int minDigits, final Appendable out)
+		throws IOException {
+
+		int n = 1;
+
+		while (n < LONG_POWERS_OF_TEN.length && value >= LONG_POWERS_OF_TEN[n])
+			n++;
+
+		if (n < minDigits)
+			n = minDigits;
+
+		for (int i = n - 1; i >= 0; i--) {
+
+			final long p = LONG_POWERS_OF_TEN[i];
+
+			final int digit = (int)(value / p);
+
+			writeAscii('0' + digit, out);
+
+			value -= digit * p;
+		}
+	}
+
+
+	/**
+	 * Writes the specified long as a JSON number.
+	 *
+	 * @param value The value.
+	 * @param out   The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeLong(final long value, final Appendable out)
+		throws IOException {
+
+		if (value == Long.MIN_VALUE) {
+			out.append("-9223372036854775808");
+			return;
+		}
+
+		if (value < 0) {
+			writeAscii('-', out);
+			writeDigits(-value, 1, out);
+		}
+		else {
+			writeDigits(value, 1, out);
+		}
+	}
+
+
+	/**
+	 * Writes the specified double as a JSON number, in the shortest
+	 * decimal form that parses back to the same value. Values with a
+	 * magnitude from 10^-3 up to 10^7 are formatted straight into the
+	 * output, others with {@code Double.toString}. NaN and infinite
+	 * values are written as {@code null}.
+	 *
+	 * @param value The value.
+	 * @param out   The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	static void writeDouble(final double value, final Appendable out)
+		throws IOException {
+
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			out.append("null");
+			return;
+		}
+
+		final double abs = Math.abs(value);
+
+		if (abs >= 1e-3 && abs < 1e7) {
+
+			// Find the fewest fraction digits that round-trip; the
+			// division by an exact power of ten is correctly rounded
+			for (int k = 0; k < DOUBLE_POWERS_OF_TEN.length; k++) {
+
+				final double scaled = abs * DOUBLE_POWERS_OF_TEN[k];
+
+				if (scaled >= MAX_EXACT_DOUBLE)
+					break;
+
+				final long m = Math.round(scaled);
+
+				if (m / DOUBLE_POWERS_OF_TEN[k] == abs) {
+					writeFixed(value < 0, m, k, out);
+					return;
+				}
+			}
+		}
+		else if (abs == 0.0) {
+			out.append(1.0 / value < 0 ? "-0.0" : "0.0");
+			return;
+		}
+
+		out.append(Double.toString(value));
+	}
+
+
+	/**
+	 * Writes a decimal number with the specified unscaled value and
+	 * number of fraction digits, in the style of {@code Double.toString}.
+	 *
+	 * @param negative       {@code true} if the number is negative.
+	 * @param unscaled       The unscaled value. Must not be negative.
+	 * @param fractionDigits The number of fraction digits.
+	 * @param out            The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeFixed(final boolean negative, long unscaled, int fractionDigits, final Appendable out)
+		throws IOException {
+
+		while (fractionDigits > 0 && unscaled % 10 == 0) {
+			unscaled /= 10;
+			fractionDigits--;
+		}
+
+		if (negative)
+			writeAscii('-', out);
+
+		final long p = LONG_POWERS_OF_TEN[fractionDigits];
+
+		writeDigits(unscaled / p, 1, out);
+
+		writeAscii('.', out);
+
+		if (fractionDigits == 0)
+			writeAscii('0', out);
+		else
+			writeDigits(unscaled % p, fractionDigits, out);
+	}
+}
@@ -0,0 +1,622 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.nio.charset.Charset;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minidev.json.JSONValue;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Message;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Notification;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Output;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2OutputBuffer;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParamsType;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Parser;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2RawValue;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Request;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Response;
+
+
+/**
+ * The base abstract class for binary codecs of the JSON data model, such as
+ * CBOR and MessagePack. Messages are written member by member, without an
+ * intermediate JSON object; decoded maps are validated by a
+ * {@link JSONRPC2Parser}.
+ *
+ * <p>Values are mapped as in the JSON form: integers decode to
+ * {@code Long}, floating point numbers to {@code Double}, arrays to
+ * {@code List} and maps to {@code Map} with string keys. NaN and infinite
+ * doubles are encoded as null. Raw JSON values and other types supported
+ * by JSON Smart are converted through their JSON form.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+abstract class BinaryCodec implements JSONRPC2Codec {
+
+
+	/**
+	 * The UTF-8 character set.
+	 */
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+
+
+	/**
+	 * The maximum nesting depth of decoded arrays and maps.
+	 */
+	static final int MAX_DEPTH = 512;
+
+
+	/**
+	 * The JSON-RPC 2.0 parser, for message validation.
+	 */
+	private final JSONRPC2Parser parser;
+
+
+	/**
+	 * Creates a new binary codec.
+	 *
+	 * @param parser The JSON-RPC 2.0 parser to validate decoded messages
+	 *               with. Must not be {@code null}.
+	 */
+	BinaryCodec(final JSONRPC2Parser parser) {
+
+		if (parser == null)
+			throw new NullPointerException("The parser must not be null");
+
+		this.parser = parser;
+	}
+
+
+	/**
+	 * Creates a new map for a decoded object, preserving the member order
+	 * if the parser is set to.
+	 *
+	 * @param size The expected number of members, -1 if unknown.
+	 *
+	 * @return The new map.
+	 */
+	Map<String,Object> createMap(final int size) {
+
+		if (parser.preservesOrder())
+			return new LinkedHashMap<String,Object>();
+		else
+			return new HashMap<String,Object>(size > 0 ? size * 4 / 3 + 1 : 16);
+	}
+
+
+	/**
+	 * Writes a map header.
+	 *
+	 * @param out  The output.
+	 * @param size The number of map entries.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeMapHeader(final JSONRPC2Output out, final int size)
+		throws IOException;
+
+
+	/**
+	 * Writes an array header.
+	 *
+	 * @param out  The output.
+	 * @param size The number of array items.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeArrayHeader(final JSONRPC2Output out, final int size)
+		throws IOException;
+
+
+	/**
+	 * Writes a UTF-8 string header.
+	 *
+	 * @param out    The output.
+	 * @param length The UTF-8 length of the string, in bytes.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeStringHeader(final JSONRPC2Output out, final int length)
+		throws IOException;
+
+
+	/**
+	 * Writes a null.
+	 *
+	 * @param out The output.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeNull(final JSONRPC2Output out)
+		throws IOException;
+
+
+	/**
+	 * Writes a boolean.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeBoolean(final JSONRPC2Output out, final boolean value)
+		throws IOException;
+
+
+	/**
+	 * Writes an integer in its most compact form.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeLong(final JSONRPC2Output out, final long value)
+		throws IOException;
+
+
+	/**
+	 * Writes a finite double.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeDouble(final JSONRPC2Output out, final double value)
+		throws IOException;
+
+
+	/**
+	 * Writes a number that doesn't fit into a long or double without loss,
+	 * i.e. a big integer beyond the long range or a big decimal.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	abstract void writeBigNumber(final JSONRPC2Output out, final Number value)
+		throws IOException;
+
+
+	/**
+	 * Decodes a single value spanning the specified bytes.
+	 *
+	 * @param bytes  The byte array.
+	 * @param offset The offset of the encoded value.
+	 * @param length The length of the encoded value.
+	 *
+	 * @return The decoded value.
+	 *
+	 * @throws JSONRPC2ParseException If the value is malformed, not
+	 *                                supported or doesn't span all
+	 *                                bytes.
+	 */
+	abstract Object decodeValue(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException;
+
+
+	/**
+	 * Returns the UTF-8 length of the specified string.
+	 *
+	 * @param s The string.
+	 *
+	 * @return The UTF-8 length in bytes, -1 if the string has unpaired
+	 *         surrogates.
+	 */
+	static int utf8Length(final String s) {
+
+		final int len = s.length();
+
+		int n = len;
+
+		for (int i = 0; i < len; i++) {
+
+			final char c = s.charAt(i);
+
+			if (c < 0x80)
+				continue;
+
+			if (c < 0x800) {
+				n++;
+			}
+			else if (Character.isHighSurrogate(c)) {
+
+				if (i + 1 == len || ! Character.isLowSurrogate(s.charAt(i + 1)))
+					return -1;
+
+				n += 2;
+				i++;
+			}
+			else if (Character.isLowSurrogate(c)) {
+				return -1;
+			}
+			else {
+				n += 2;
+			}
+		}
+
+		return n;
+	}
+
+
+	/**
+	 * Writes a string.
+	 *
+	 * @param out The output.
+	 * @param s   The string.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	void writeString(final JSONRPC2Output out, final String s)
+		throws IOException {
+
+		final int length = utf8Length(s);
+
+		if (length < 0) {
+			// Unpaired surrogates, let the charset replace them
+			byte[] utf8 = s.getBytes(UTF_8);
+			writeStringHeader(out, utf8.length);
+			out.write(utf8);
+			return;
+		}
+
+		writeStringHeader(out, length);
+		out.append(s);
+	}
+
+
+	/**
+	 * Writes a value of the JSON data model.
+	 *
+	 * @param out   The output.
+	 * @param value The value, may be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	void writeValue(final JSONRPC2Output out, final Object value)
+		throws IOException {
+
+		if (value == null) {
+			writeNull(out);
+		}
+		else if (value instanceof String) {
+			writeString(out, (String)value);
+		}
+		else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			writeLong(out, ((Number)value).longValue());
+		}
+		else if (value instanceof Double || value instanceof Float) {
+
+			// Floats as in their JSON form
+			final double d = value instanceof Float ? Double.parseDouble(value.toString()) : ((Double)value).doubleValue();
+
+			if (Double.isNaN(d) || Double.isInfinite(d))
+				writeNull(out);
+			else
+				writeDouble(out, d);
+		}
+		else if (value instanceof Boolean) {
+			writeBoolean(out, ((Boolean)value).booleanValue());
+		}
+		else if (value instanceof Map) {
+
+			Map<?,?> map = (Map<?,?>)value;
+
+			writeMapHeader(out, map.size());
+
+			for (Map.Entry<?,?> entry: map.entrySet()) {
+
+				writeString(out, String.valueOf(entry.getKey()));
+				writeValue(out, entry.getValue());
+			}
+		}
+		else if (value instanceof List) {
+
+			List<?> list = (List<?>)value;
+
+			writeArrayHeader(out, list.size());
+
+			for (Object item: list)
+				writeValue(out, item);
+		}
+		else if (value instanceof BigInteger && ((BigInteger)value).bitLength() < 64) {
+			writeLong(out, ((BigInteger)value).longValue());
+		}
+		else if (value instanceof BigInteger || value instanceof BigDecimal) {
+			writeBigNumber(out, (Number)value);
+		}
+		else if (value instanceof JSONRPC2RawValue) {
+
+			try {
+				writeValue(out, ((JSONRPC2RawValue)value).parse());
+
+			} catch (JSONRPC2ParseException e) {
+
+				throw new IllegalArgumentException("Invalid raw JSON value: " + e.getMessage());
+			}
+		}
+		else {
+			// Other JSON Smart supported types, e.g. arrays
+			try {
+				writeValue(out, new JSONParser(JSONParser.MODE_JSON_SIMPLE).parse(JSONValue.toJSONString(value)));
+
+			} catch (ParseException e) {
+
+				throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+			}
+		}
+	}
+
+
+	/**
+	 * Writes the specified JSON-RPC 2.0 error as a map.
+	 *
+	 * @param out   The output.
+	 * @param error The error.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	void writeError(final JSONRPC2Output out, final JSONRPC2Error error)
+		throws IOException {
+
+		final Object data = error.getData();
+
+		writeMapHeader(out, data != null ? 3 : 2);
+
+		writeString(out, "code");
+		writeLong(out, error.getCode());
+
+		writeString(out, "message");
+		writeValue(out, error.getMessage());
+
+		if (data != null) {
+			writeString(out, "data");
+			writeValue(out, data);
+		}
+	}
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message to the specified output.
+	 * The {@code "jsonrpc":"2.0"} member is always included.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 * @param out     The output to write to. Must not be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void encode(final JSONRPC2Message message, final JSONRPC2Output out)
+		throws IOException {
+
+		final int nonStdCount = message.getNonStdAttributeCount();
+
+		if (message instanceof JSONRPC2Request) {
+
+			JSONRPC2Request request = (JSONRPC2Request)message;
+
+			// the params can be omitted if empty
+			final boolean hasParams = request.getParams() != null &&
+			                          request.getParamsType() != JSONRPC2ParamsType.NO_PARAMS;
+
+			writeMapHeader(out, (hasParams ? 4 : 3) + nonStdCount);
+
+			writeString(out, "jsonrpc");
+			writeString(out, "2.0");
+
+			writeString(out, "method");
+			writeString(out, request.getMethod());
+
+			if (hasParams) {
+				writeString(out, "params");
+				writeValue(out, request.getParams());
+			}
+
+			writeString(out, "id");
+			writeValue(out, request.getID());
+		}
+		else if (message instanceof JSONRPC2Notification) {
+
+			JSONRPC2Notification notification = (JSONRPC2Notification)message;
+
+			final boolean hasParams = notification.getParams() != null &&
+			                          notification.getParamsType() != JSONRPC2ParamsType.NO_PARAMS;
+
+			writeMapHeader(out, (hasParams ? 3 : 2) + nonStdCount);
+
+			writeString(out, "jsonrpc");
+			writeString(out, "2.0");
+
+			writeString(out, "method");
+			writeString(out, notification.getMethod());
+
+			if (hasParams) {
+				writeString(out, "params");
+				writeValue(out, notification.getParams());
+			}
+		}
+		else if (message instanceof JSONRPC2Response) {
+
+			JSONRPC2Response response = (JSONRPC2Response)message;
+
+			writeMapHeader(out, 3 + nonStdCount);
+
+			writeString(out, "jsonrpc");
+			writeString(out, "2.0");
+
+			// Result and error are mutually exclusive
+			if (response.getError() != null) {
+				writeString(out, "error");
+				writeError(out, response.getError());
+			}
+			else {
+				writeString(out, "result");
+				writeValue(out, response.getResult());
+			}
+
+			writeString(out, "id");
+			writeValue(out, response.getID());
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported message type: " + message.getClass().getName());
+		}
+
+		for (int i=0; i < nonStdCount; i++) {
+
+			writeString(out, message.getNonStdAttributeName(i));
+			writeValue(out, message.getNonStdAttributeValue(i));
+		}
+	}
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 *
+	 * @return The encoded message.
+	 */
+	public byte[] encode(final JSONRPC2Message message) {
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer();
+
+		try {
+			encode(message, out);
+
+		} catch (IOException e) {
+			// The output buffer doesn't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Decodes the envelope of a JSON-RPC 2.0 message.
+	 *
+	 * @param bytes  The byte array.
+	 * @param offset The offset of the encoded message.
+	 * @param length The length of the encoded message.
+	 *
+	 * @return The decoded envelope map.
+	 *
+	 * @throws JSONRPC2ParseException If decoding failed or the message is
+	 *                                not a map.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String,Object> decodeEnvelope(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		if (bytes == null)
+			throw new JSONRPC2ParseException("Null argument", JSONRPC2ParseException.JSON, null);
+
+		if (offset < 0 || length < 0 || offset + length > bytes.length)
+			throw new IndexOutOfBoundsException();
+
+		if (length == 0)
+			throw new JSONRPC2ParseException("Invalid " + getName() + ": Empty message", JSONRPC2ParseException.JSON, null);
+
+		Object envelope = decodeValue(bytes, offset, length);
+
+		if (envelope instanceof List)
+			throw new JSONRPC2ParseException("JSON-RPC 2.0 batch requests/notifications not supported");
+
+		if (! (envelope instanceof Map))
+			throw new JSONRPC2ParseException("Invalid JSON-RPC 2.0 message: Message must be a map");
+
+		return (Map<String,Object>)envelope;
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 request, notification or response.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded message.
+	 * @param length The length of the encoded message.
+	 *
+	 * @return An instance of {@link JSONRPC2Request},
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Message decode(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Message(decodeEnvelope(bytes, offset, length));
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 request.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded request.
+	 * @param length The length of the encoded request.
+	 *
+	 * @return The decoded request.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Request decodeRequest(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Request(decodeEnvelope(bytes, offset, length));
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 notification.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded notification.
+	 * @param length The length of the encoded notification.
+	 *
+	 * @return The decoded notification.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Notification decodeNotification(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Notification(decodeEnvelope(bytes, offset, length));
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 response.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded response.
+	 * @param length The length of the encoded response.
+	 *
+	 * @return The decoded response.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Response decodeResponse(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Response(decodeEnvelope(bytes, offset, length));
+	}
+}
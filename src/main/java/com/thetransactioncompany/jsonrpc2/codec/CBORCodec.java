@@ -0,0 +1,793 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Output;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Parser;
+
+
+/**
+ * CBOR (RFC 8949) codec for JSON-RPC 2.0 messages. Messages are encoded as
+ * a CBOR map with the same members as their JSON form, including
+ * {@code "jsonrpc":"2.0"}, so they are interchangeable with it.
+ *
+ * <p>Encoding details:
+ *
+ * <ul>
+ *     <li>Integers are encoded in the shortest CBOR integer form.
+ *     <li>Doubles are encoded as single precision floats where lossless,
+ *         else as double precision floats.
+ *     <li>Big integers beyond the long range are encoded as bignums (tags 2
+ *         and 3), big decimals as decimal fractions (tag 4).
+ * </ul>
+ *
+ * <p>The decoder accepts definite and indefinite length strings, arrays
+ * and maps, half, single and double precision floats and the undefined
+ * value (decoded as null). Byte strings (outside bignums) and map keys
+ * other than text strings are rejected, as they have no JSON equivalent.
+ * Other tags are ignored.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2Codec codec = new CBORCodec();
+ *
+ * byte[] cbor = codec.encode(request);
+ *
+ * JSONRPC2Request decoded = codec.decodeRequest(cbor, 0, cbor.length);
+ * </pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public class CBORCodec extends BinaryCodec {
+
+
+	/**
+	 * Major type: unsigned integer.
+	 */
+	private static final int UNSIGNED_INT = 0;
+
+
+	/**
+	 * Major type: negative integer.
+	 */
+	private static final int NEGATIVE_INT = 1;
+
+
+	/**
+	 * Major type: byte string.
+	 */
+	private static final int BYTE_STRING = 2;
+
+
+	/**
+	 * Major type: text string.
+	 */
+	private static final int TEXT_STRING = 3;
+
+
+	/**
+	 * Major type: array.
+	 */
+	private static final int ARRAY = 4;
+
+
+	/**
+	 * Major type: map.
+	 */
+	private static final int MAP = 5;
+
+
+	/**
+	 * Major type: tag.
+	 */
+	private static final int TAG = 6;
+
+
+	/**
+	 * Major type: simple value or float.
+	 */
+	private static final int SIMPLE = 7;
+
+
+	/**
+	 * Additional information value for indefinite lengths.
+	 */
+	private static final int INDEFINITE = 31;
+
+
+	/**
+	 * The "break" stop code of indefinite length items.
+	 */
+	private static final int BREAK = 0xff;
+
+
+	/**
+	 * Creates a new CBOR codec with a default parser.
+	 */
+	public CBORCodec() {
+
+		this(new JSONRPC2Parser());
+	}
+
+
+	/**
+	 * Creates a new CBOR codec.
+	 *
+	 * @param parser The JSON-RPC 2.0 parser to validate decoded messages
+	 *               with, also determines whether member order is
+	 *               preserved. Must not be {@code null}.
+	 */
+	public CBORCodec(final JSONRPC2Parser parser) {
+
+		super(parser);
+	}
+
+
+	/**
+	 * Returns the name of this codec.
+	 *
+	 * @return "cbor".
+	 */
+	public String getName() {
+
+		return "cbor";
+	}
+
+
+	/**
+	 * Writes an item header in its shortest form.
+	 *
+	 * @param out       The output.
+	 * @param majorType The major type.
+	 * @param value     The header value, treated as unsigned.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeHeader(final JSONRPC2Output out, final int majorType, final long value)
+		throws IOException {
+
+		final int mt = majorType << 5;
+
+		if (value >= 0 && value < 24) {
+			out.write(mt | (int)value);
+		}
+		else if (value >= 0 && value < 0x100) {
+			out.write(mt | 24);
+			out.write((int)value);
+		}
+		else if (value >= 0 && value < 0x10000) {
+			out.write(mt | 25);
+			out.write((int)(value >> 8));
+			out.write((int)value);
+		}
+		else if (value >= 0 && value < 0x100000000L) {
+			out.write(mt | 26);
+			writeInt(out, (int)value);
+		}
+		else {
+			out.write(mt | 27);
+			writeInt(out, (int)(value >>> 32));
+			writeInt(out, (int)value);
+		}
+	}
+
+
+	/**
+	 * Writes a big-endian 32-bit integer.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeInt(final JSONRPC2Output out, final int value)
+		throws IOException {
+
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+
+	void writeMapHeader(final JSONRPC2Output out, final int size)
+		throws IOException {
+
+		writeHeader(out, MAP, size);
+	}
+
+
+	void writeArrayHeader(final JSONRPC2Output out, final int size)
+		throws IOException {
+
+		writeHeader(out, ARRAY, size);
+	}
+
+
+	void writeStringHeader(final JSONRPC2Output out, final int length)
+		throws IOException {
+
+		writeHeader(out, TEXT_STRING, length);
+	}
+
+
+	void writeNull(final JSONRPC2Output out)
+		throws IOException {
+
+		out.write(0xf6);
+	}
+
+
+	void writeBoolean(final JSONRPC2Output out, final boolean value)
+		throws IOException {
+
+		out.write(value ? 0xf5 : 0xf4);
+	}
+
+
+	void writeLong(final JSONRPC2Output out, final long value)
+		throws IOException {
+
+		if (value >= 0)
+			writeHeader(out, UNSIGNED_INT, value);
+		else
+			writeHeader(out, NEGATIVE_INT, -1 - value);
+	}
+
+
+	void writeDouble(final JSONRPC2Output out, final double value)
+		throws IOException {
+
+		final float f = (float)value;
+
+		if ((double)f == value) {
+			out.write(0xfa);
+			writeInt(out, Float.floatToIntBits(f));
+		}
+		else {
+			final long bits = Double.doubleToLongBits(value);
+			out.write(0xfb);
+			writeInt(out, (int)(bits >>> 32));
+			writeInt(out, (int)bits);
+		}
+	}
+
+
+	/**
+	 * Writes a big integer as a bignum.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeBignum(final JSONRPC2Output out, final BigInteger value)
+		throws IOException {
+
+		BigInteger magnitude = value;
+
+		if (value.signum() < 0) {
+			writeHeader(out, TAG, 3);
+			magnitude = value.negate().subtract(BigInteger.ONE);
+		}
+		else {
+			writeHeader(out, TAG, 2);
+		}
+
+		byte[] bytes = magnitude.toByteArray();
+
+		// Strip the sign byte
+		int off = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+
+		writeHeader(out, BYTE_STRING, bytes.length - off);
+		out.write(bytes, off, bytes.length - off);
+	}
+
+
+	void writeBigNumber(final JSONRPC2Output out, final Number value)
+		throws IOException {
+
+		if (value instanceof BigInteger) {
+			writeBignum(out, (BigInteger)value);
+			return;
+		}
+
+		BigDecimal decimal = (BigDecimal)value;
+
+		// Decimal fraction [exponent, mantissa]
+		writeHeader(out, TAG, 4);
+		writeHeader(out, ARRAY, 2);
+		writeLong(out, -decimal.scale());
+
+		BigInteger mantissa = decimal.unscaledValue();
+
+		if (mantissa.bitLength() < 64)
+			writeLong(out, mantissa.longValue());
+		else
+			writeBignum(out, mantissa);
+	}
+
+
+	Object decodeValue(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		Decoder decoder = new Decoder(bytes, offset, offset + length);
+
+		Object value = decoder.readValue(0);
+
+		if (decoder.pos != decoder.end)
+			throw decoder.error("Unexpected trailing bytes");
+
+		return value;
+	}
+
+
+	/**
+	 * CBOR decoder over a byte array range.
+	 */
+	private class Decoder {
+
+
+		/**
+		 * The input bytes.
+		 */
+		private final byte[] buf;
+
+
+		/**
+		 * The current position.
+		 */
+		private int pos;
+
+
+		/**
+		 * The end of the input range.
+		 */
+		private final int end;
+
+
+		/**
+		 * Creates a new decoder.
+		 *
+		 * @param buf   The input bytes.
+		 * @param start The start of the input range.
+		 * @param end   The end of the input range.
+		 */
+		Decoder(final byte[] buf, final int start, final int end) {
+
+			this.buf = buf;
+			this.pos = start;
+			this.end = end;
+		}
+
+
+		/**
+		 * Creates a decoding exception.
+		 *
+		 * @param message The error message.
+		 *
+		 * @return The parse exception.
+		 */
+		JSONRPC2ParseException error(final String message) {
+
+			return new JSONRPC2ParseException("Invalid CBOR: " + message, JSONRPC2ParseException.JSON, null);
+		}
+
+
+		/**
+		 * Reads the next byte.
+		 *
+		 * @return The byte, as an unsigned integer.
+		 *
+		 * @throws JSONRPC2ParseException On unexpected end of input.
+		 */
+		int readByte()
+			throws JSONRPC2ParseException {
+
+			if (pos >= end)
+				throw error("Unexpected end of input");
+
+			return buf[pos++] & 0xff;
+		}
+
+
+		/**
+		 * Reads a big-endian unsigned integer.
+		 *
+		 * @param n The number of bytes.
+		 *
+		 * @return The integer, may be negative if 8 bytes are read.
+		 *
+		 * @throws JSONRPC2ParseException On unexpected end of input.
+		 */
+		long readUnsigned(final int n)
+			throws JSONRPC2ParseException {
+
+			if (end - pos < n)
+				throw error("Unexpected end of input");
+
+			long value = 0;
+
+			for (int i = 0; i < n; i++)
+				value = (value << 8) | (buf[pos++] & 0xff);
+
+			return value;
+		}
+
+
+		/**
+		 * Reads the argument of an item header.
+		 *
+		 * @param info The additional information of the header.
+		 *
+		 * @return The argument, may be negative for 64-bit values.
+		 *
+		 * @throws JSONRPC2ParseException If the header is malformed.
+		 */
+		long readArgument(final int info)
+			throws JSONRPC2ParseException {
+
+			if (info < 24)
+				return info;
+
+			switch (info) {
+
+				case 24: return readUnsigned(1);
+				case 25: return readUnsigned(2);
+				case 26: return readUnsigned(4);
+				case 27: return readUnsigned(8);
+
+				default:
+					throw error("Reserved additional information " + info);
+			}
+		}
+
+
+		/**
+		 * Reads the length argument of an item header.
+		 *
+		 * @param info     The additional information of the header.
+		 * @param minBytes The minimum number of bytes each counted element
+		 *                 occupies, to reject lengths exceeding the input.
+		 *
+		 * @return The length.
+		 *
+		 * @throws JSONRPC2ParseException If the length is invalid.
+		 */
+		int readLength(final int info, final int minBytes)
+			throws JSONRPC2ParseException {
+
+			final long length = readArgument(info);
+
+			if (length < 0 || length > (end - pos) / minBytes)
+				throw error("Length exceeds the input");
+
+			return (int)length;
+		}
+
+
+		/**
+		 * Reads a text string with the specified header.
+		 *
+		 * @param info The additional information of the header.
+		 *
+		 * @return The string.
+		 *
+		 * @throws JSONRPC2ParseException If the string is malformed.
+		 */
+		String readText(final int info)
+			throws JSONRPC2ParseException {
+
+			if (info != INDEFINITE) {
+
+				final int length = readLength(info, 1);
+
+				String s = new String(buf, pos, length, UTF_8);
+				pos += length;
+				return s;
+			}
+
+			// Concatenated definite length chunks
+			StringBuilder sb = new StringBuilder();
+
+			while (true) {
+
+				final int initial = readByte();
+
+				if (initial == BREAK)
+					return sb.toString();
+
+				if (initial >> 5 != TEXT_STRING || (initial & 0x1f) == INDEFINITE)
+					throw error("Invalid text string chunk");
+
+				sb.append(readText(initial & 0x1f));
+			}
+		}
+
+
+		/**
+		 * Reads a byte string with the specified header.
+		 *
+		 * @param info The additional information of the header.
+		 *
+		 * @return The bytes.
+		 *
+		 * @throws JSONRPC2ParseException If the byte string is malformed.
+		 */
+		byte[] readBytes(final int info)
+			throws JSONRPC2ParseException {
+
+			if (info == INDEFINITE)
+				throw error("Indefinite length bignum");
+
+			final int length = readLength(info, 1);
+
+			byte[] bytes = new byte[length];
+			System.arraycopy(buf, pos, bytes, 0, length);
+			pos += length;
+			return bytes;
+		}
+
+
+		/**
+		 * Reads the next value.
+		 *
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The value.
+		 *
+		 * @throws JSONRPC2ParseException If the value is malformed or not
+		 *                                supported.
+		 */
+		Object readValue(final int depth)
+			throws JSONRPC2ParseException {
+
+			if (depth > MAX_DEPTH)
+				throw error("Maximum nesting depth exceeded");
+
+			final int initial = readByte();
+
+			final int majorType = initial >> 5;
+
+			final int info = initial & 0x1f;
+
+			switch (majorType) {
+
+				case UNSIGNED_INT: {
+					final long value = readArgument(info);
+
+					if (value < 0)
+						return new BigInteger(Long.toHexString(value), 16);
+
+					return value;
+				}
+
+				case NEGATIVE_INT: {
+					final long value = readArgument(info);
+
+					if (value < 0)
+						return BigInteger.ONE.negate().subtract(new BigInteger(Long.toHexString(value), 16));
+
+					return -1 - value;
+				}
+
+				case BYTE_STRING:
+					throw error("Byte strings not supported");
+
+				case TEXT_STRING:
+					return readText(info);
+
+				case ARRAY:
+					return readArray(info, depth);
+
+				case MAP:
+					return readMap(info, depth);
+
+				case TAG:
+					return readTagged(readArgument(info), depth);
+
+				default:
+					return readSimple(info);
+			}
+		}
+
+
+		/**
+		 * Reads an array with the specified header.
+		 *
+		 * @param info  The additional information of the header.
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The array as a list.
+		 *
+		 * @throws JSONRPC2ParseException If the array is malformed.
+		 */
+		List<Object> readArray(final int info, final int depth)
+			throws JSONRPC2ParseException {
+
+			if (info == INDEFINITE) {
+
+				List<Object> list = new ArrayList<Object>();
+
+				while (pos < end && (buf[pos] & 0xff) != BREAK)
+					list.add(readValue(depth + 1));
+
+				readByte(); // break
+				return list;
+			}
+
+			final int size = readLength(info, 1);
+
+			List<Object> list = new ArrayList<Object>(size);
+
+			for (int i = 0; i < size; i++)
+				list.add(readValue(depth + 1));
+
+			return list;
+		}
+
+
+		/**
+		 * Reads a map with the specified header.
+		 *
+		 * @param info  The additional information of the header.
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The map.
+		 *
+		 * @throws JSONRPC2ParseException If the map is malformed or has
+		 *                                non-text keys.
+		 */
+		Map<String,Object> readMap(final int info, final int depth)
+			throws JSONRPC2ParseException {
+
+			final boolean indefinite = info == INDEFINITE;
+
+			final int size = indefinite ? -1 : readLength(info, 2);
+
+			Map<String,Object> map = createMap(size);
+
+			for (int i = 0; indefinite || i < size; i++) {
+
+				final int initial = readByte();
+
+				if (indefinite && initial == BREAK)
+					break;
+
+				if (initial >> 5 != TEXT_STRING)
+					throw error("Map keys must be text strings");
+
+				String key = readText(initial & 0x1f);
+
+				map.put(key, readValue(depth + 1));
+			}
+
+			return map;
+		}
+
+
+		/**
+		 * Reads the content of a tagged item.
+		 *
+		 * @param tag   The tag number.
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The value.
+		 *
+		 * @throws JSONRPC2ParseException If the item is malformed.
+		 */
+		Object readTagged(final long tag, final int depth)
+			throws JSONRPC2ParseException {
+
+			if (tag == 2 || tag == 3) {
+
+				final int initial = readByte();
+
+				if (initial >> 5 != BYTE_STRING)
+					throw error("Bignum content must be a byte string");
+
+				BigInteger magnitude = new BigInteger(1, readBytes(initial & 0x1f));
+
+				return tag == 2 ? magnitude : BigInteger.ONE.negate().subtract(magnitude);
+			}
+
+			if (tag == 4) {
+
+				Object fraction = readValue(depth + 1);
+
+				if (! (fraction instanceof List) || ((List)fraction).size() != 2)
+					throw error("Decimal fraction must be a two-item array");
+
+				Object exponent = ((List)fraction).get(0);
+				Object mantissa = ((List)fraction).get(1);
+
+				if (! (exponent instanceof Long) || (Long)exponent > Integer.MAX_VALUE || (Long)exponent < -Integer.MAX_VALUE)
+					throw error("Invalid decimal fraction exponent");
+
+				BigInteger unscaled;
+
+				if (mantissa instanceof Long)
+					unscaled = BigInteger.valueOf((Long)mantissa);
+				else if (mantissa instanceof BigInteger)
+					unscaled = (BigInteger)mantissa;
+				else
+					throw error("Invalid decimal fraction mantissa");
+
+				return new BigDecimal(unscaled, -((Long)exponent).intValue());
+			}
+
+			// Ignore other tags
+			return readValue(depth + 1);
+		}
+
+
+		/**
+		 * Reads a simple value or float with the specified header.
+		 *
+		 * @param info The additional information of the header.
+		 *
+		 * @return The value.
+		 *
+		 * @throws JSONRPC2ParseException If the value is not supported.
+		 */
+		Object readSimple(final int info)
+			throws JSONRPC2ParseException {
+
+			switch (info) {
+
+				case 20: return Boolean.FALSE;
+				case 21: return Boolean.TRUE;
+				case 22: return null;
+				case 23: return null; // undefined
+
+				case 25: return halfToDouble((int)readUnsigned(2));
+				case 26: return (double)Float.intBitsToFloat((int)readUnsigned(4));
+				case 27: return Double.longBitsToDouble(readUnsigned(8));
+
+				case INDEFINITE:
+					throw error("Unexpected break");
+
+				default:
+					throw error("Unsupported simple value " + info);
+			}
+		}
+	}
+
+
+	/**
+	 * Converts a half precision float to a double.
+	 *
+	 * @param half The half precision bits.
+	 *
+	 * @return The double value.
+	 */
+	private static double halfToDouble(final int half) {
+
+		final int exponent = (half >> 10) & 0x1f;
+		final int mantissa = half & 0x3ff;
+
+		double value;
+
+		if (exponent == 0)
+			value = mantissa * Math.pow(2, -24);
+		else if (exponent != 31)
+			value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+		else
+			value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+
+		return (half & 0x8000) != 0 ? -value : value;
+	}
+}
@@ -0,0 +1,709 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Error;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Message;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Notification;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Output;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2OutputBuffer;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Request;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Response;
+
+
+/**
+ * Compression codec that deflates the output of an inner codec (JSON by
+ * default) with a preset dictionary. JSON-RPC 2.0 messages are small and
+ * repetitive, so generic compression gains little on them; with a
+ * dictionary of the envelope members, method and parameter names even
+ * short messages compress well.
+ *
+ * <p>Messages are raw deflate streams (RFC 1951), without zlib or gzip
+ * headers, and the deflater and inflater are reused across messages.
+ * Both peers must use the same inner codec and dictionary; use
+ * {@link #getDictionaryID} to check that during negotiation.
+ *
+ * <p>The dictionary is either the preset envelope dictionary of the inner
+ * codec, see {@link #createPresetDictionary}, or one trained from traffic
+ * samples with {@link #trainDictionary}:
+ *
+ * <pre>
+ * List&lt;byte[]&gt; samples = ...; // messages encoded with the inner codec
+ *
+ * JSONRPC2Codec json = new JSONCodec();
+ *
+ * byte[] dictionary = DeflateCodec.trainDictionary(DeflateCodec.createPresetDictionary(json), samples, 16 * 1024);
+ *
+ * JSONRPC2Codec codec = new DeflateCodec(json, dictionary);
+ * </pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public class DeflateCodec implements JSONRPC2Codec {
+
+
+	/**
+	 * The maximum useful dictionary size, limited by the deflate window.
+	 */
+	public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+
+	/**
+	 * The maximum size of an inflated message, to guard against
+	 * decompression bombs.
+	 */
+	public static final int MAX_DECODED_SIZE = 16 * 1024 * 1024;
+
+
+	/**
+	 * The length of the substrings counted during dictionary training.
+	 */
+	private static final int NGRAM_LENGTH = 8;
+
+
+	/**
+	 * The length of the sample segments that make up a trained
+	 * dictionary.
+	 */
+	private static final int SEGMENT_LENGTH = 64;
+
+
+	/**
+	 * The offset between candidate segments during dictionary training.
+	 */
+	private static final int SEGMENT_STRIDE = 16;
+
+
+	/**
+	 * The inner codec.
+	 */
+	private final JSONRPC2Codec inner;
+
+
+	/**
+	 * The preset dictionary.
+	 */
+	private final byte[] dictionary;
+
+
+	/**
+	 * The dictionary ID, the Adler-32 checksum of the dictionary.
+	 */
+	private final int dictionaryID;
+
+
+	/**
+	 * The reusable deflater.
+	 */
+	private final Deflater deflater;
+
+
+	/**
+	 * The reusable inflater.
+	 */
+	private final Inflater inflater = new Inflater(true);
+
+
+	/**
+	 * Buffer for the output of the inner codec.
+	 */
+	private final JSONRPC2OutputBuffer plain = new JSONRPC2OutputBuffer();
+
+
+	/**
+	 * Buffer for compressed or inflated content.
+	 */
+	private byte[] scratch = new byte[JSONRPC2OutputBuffer.DEFAULT_CAPACITY];
+
+
+	/**
+	 * Creates a new deflate codec with the preset envelope dictionary of
+	 * the inner codec.
+	 *
+	 * @param inner The inner codec. Must not be {@code null}.
+	 */
+	public DeflateCodec(final JSONRPC2Codec inner) {
+
+		this(inner, createPresetDictionary(inner));
+	}
+
+
+	/**
+	 * Creates a new deflate codec with the default compression level.
+	 *
+	 * @param inner      The inner codec. Must not be {@code null}.
+	 * @param dictionary The preset dictionary, at most
+	 *                   {@link #MAX_DICTIONARY_SIZE} bytes are used. Must
+	 *                   not be {@code null}.
+	 */
+	public DeflateCodec(final JSONRPC2Codec inner, final byte[] dictionary) {
+
+		this(inner, dictionary, Deflater.DEFAULT_COMPRESSION);
+	}
+
+
+	/**
+	 * Creates a new deflate codec.
+	 *
+	 * @param inner      The inner codec. Must not be {@code null}.
+	 * @param dictionary The preset dictionary, at most
+	 *                   {@link #MAX_DICTIONARY_SIZE} bytes are used. Must
+	 *                   not be {@code null}.
+	 * @param level      The compression level, 0 - 9 or
+	 *                   {@code Deflater.DEFAULT_COMPRESSION}.
+	 */
+	public DeflateCodec(final JSONRPC2Codec inner, final byte[] dictionary, final int level) {
+
+		if (inner == null)
+			throw new NullPointerException("The inner codec must not be null");
+
+		if (dictionary == null)
+			throw new NullPointerException("The dictionary must not be null");
+
+		this.inner = inner;
+
+		// Only the end of the dictionary is within the deflate window
+		if (dictionary.length > MAX_DICTIONARY_SIZE)
+			this.dictionary = Arrays.copyOfRange(dictionary, dictionary.length - MAX_DICTIONARY_SIZE, dictionary.length);
+		else
+			this.dictionary = dictionary.clone();
+
+		Adler32 adler = new Adler32();
+		adler.update(this.dictionary);
+		dictionaryID = (int)adler.getValue();
+
+		deflater = new Deflater(level, true);
+	}
+
+
+	/**
+	 * Creates a preset dictionary of the JSON-RPC 2.0 envelope for the
+	 * specified codec: the encoded standard error responses and skeleton
+	 * requests, notifications and responses.
+	 *
+	 * @param codec The codec. Must not be {@code null}.
+	 *
+	 * @return The preset dictionary.
+	 */
+	public static byte[] createPresetDictionary(final JSONRPC2Codec codec) {
+
+		JSONRPC2Error[] errors = {
+			JSONRPC2Error.PARSE_ERROR,
+			JSONRPC2Error.INVALID_REQUEST,
+			JSONRPC2Error.INTERNAL_ERROR,
+			JSONRPC2Error.INVALID_PARAMS,
+			JSONRPC2Error.METHOD_NOT_FOUND
+		};
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer();
+
+		// Most frequent last, closest to the compressed data
+		for (JSONRPC2Error error: errors)
+			out.write(codec.encode(new JSONRPC2Response(error, 0L)));
+
+		Map<String,Object> params = new HashMap<String,Object>();
+		params.put("", "");
+
+		out.write(codec.encode(new JSONRPC2Notification("", params)));
+		out.write(codec.encode(new JSONRPC2Response("", 0L)));
+		out.write(codec.encode(new JSONRPC2Request("", params, 0L)));
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Trains a dictionary from samples of encoded messages. Segments of
+	 * the samples are picked greedily by how many samples share their
+	 * substrings, and placed before the specified preset dictionary with
+	 * the most useful ones last.
+	 *
+	 * @param preset  The preset dictionary to end with, empty if none.
+	 *                Must not be {@code null}.
+	 * @param samples The sample messages, encoded with the inner codec.
+	 *                Must not be {@code null}.
+	 * @param maxSize The maximum dictionary size, in bytes; capped at
+	 *                {@link #MAX_DICTIONARY_SIZE}.
+	 *
+	 * @return The trained dictionary.
+	 */
+	public static byte[] trainDictionary(final byte[] preset, final List<byte[]> samples, final int maxSize) {
+
+		final int size = Math.min(maxSize, MAX_DICTIONARY_SIZE);
+
+		if (preset.length >= size)
+			return Arrays.copyOfRange(preset, preset.length - size, preset.length);
+
+		// Count the samples each substring occurs in
+		Map<String,int[]> counts = new HashMap<String,int[]>();
+
+		for (byte[] sample: samples) {
+
+			Set<String> seen = new HashSet<String>();
+
+			for (int i = 0; i + NGRAM_LENGTH <= sample.length; i++) {
+
+				String ngram = ngram(sample, i);
+
+				if (! seen.add(ngram))
+					continue;
+
+				int[] count = counts.get(ngram);
+
+				if (count == null)
+					counts.put(ngram, new int[]{ 1 });
+				else
+					count[0]++;
+			}
+		}
+
+		// Substrings in the preset are covered already
+		for (int i = 0; i + NGRAM_LENGTH <= preset.length; i++)
+			counts.remove(ngram(preset, i));
+
+		// Lazy greedy selection of segments
+		PriorityQueue<Segment> queue = new PriorityQueue<Segment>();
+
+		for (byte[] sample: samples) {
+
+			for (int i = 0; i < sample.length; i += SEGMENT_STRIDE) {
+
+				Segment segment = new Segment(sample, i, Math.min(SEGMENT_LENGTH, sample.length - i));
+
+				if (segment.score(counts) > 0)
+					queue.add(segment);
+			}
+		}
+
+		List<Segment> selected = new ArrayList<Segment>();
+
+		int budget = size - preset.length;
+
+		while (budget > 0 && ! queue.isEmpty()) {
+
+			Segment segment = queue.poll();
+
+			final int score = segment.score(counts);
+
+			if (score <= 0)
+				continue;
+
+			if (! queue.isEmpty() && score < queue.peek().score) {
+				// Stale score, requeue
+				queue.add(segment);
+				continue;
+			}
+
+			int length = Math.min(segment.length, budget);
+
+			segment.cover(counts, length);
+
+			selected.add(new Segment(segment.bytes, segment.offset, length));
+
+			budget -= length;
+		}
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer(size);
+
+		// Most useful last
+		for (int i = selected.size() - 1; i >= 0; i--) {
+
+			Segment segment = selected.get(i);
+
+			out.write(segment.bytes, segment.offset, segment.length);
+		}
+
+		out.write(preset);
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Returns the substring of the training n-gram length at the
+	 * specified position.
+	 *
+	 * @param bytes  The bytes.
+	 * @param offset The offset of the substring.
+	 *
+	 * @return The substring, as an ISO-8859-1 string.
+	 */
+	@SuppressWarnings("deprecation")
+	private static String ngram(final byte[] bytes, final int offset) {
+
+		return new String(bytes, 0, offset, NGRAM_LENGTH);
+	}
+
+
+	/**
+	 * Candidate dictionary segment.
+	 */
+	private static final class Segment implements Comparable<Segment> {
+
+
+		/**
+		 * The sample bytes.
+		 */
+		final byte[] bytes;
+
+
+		/**
+		 * The segment offset.
+		 */
+		final int offset;
+
+
+		/**
+		 * The segment length.
+		 */
+		final int length;
+
+
+		/**
+		 * The last computed score.
+		 */
+		int score;
+
+
+		/**
+		 * Creates a new segment.
+		 *
+		 * @param bytes  The sample bytes.
+		 * @param offset The segment offset.
+		 * @param length The segment length.
+		 */
+		Segment(final byte[] bytes, final int offset, final int length) {
+
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+
+		/**
+		 * Computes the score of this segment: the number of samples
+		 * sharing each of its uncovered substrings, summed. Substrings
+		 * found in a single sample only don't count.
+		 *
+		 * @param counts The substring sample counts.
+		 *
+		 * @return The score.
+		 */
+		int score(final Map<String,int[]> counts) {
+
+			int sum = 0;
+
+			for (int i = offset; i + NGRAM_LENGTH <= offset + length; i++) {
+
+				int[] count = counts.get(ngram(bytes, i));
+
+				if (count != null && count[0] > 1)
+					sum += count[0];
+			}
+
+			score = sum;
+			return sum;
+		}
+
+
+		/**
+		 * Marks the substrings of the segment start as covered.
+		 *
+		 * @param counts The substring sample counts.
+		 * @param length The length of the segment start.
+		 */
+		void cover(final Map<String,int[]> counts, final int length) {
+
+			for (int i = offset; i + NGRAM_LENGTH <= offset + length; i++)
+				counts.remove(ngram(bytes, i));
+		}
+
+
+		public int compareTo(final Segment other) {
+
+			// Highest score first
+			return other.score - score;
+		}
+	}
+
+
+	/**
+	 * Returns the name of this codec.
+	 *
+	 * @return "deflate+" followed by the name of the inner codec.
+	 */
+	public String getName() {
+
+		return "deflate+" + inner.getName();
+	}
+
+
+	/**
+	 * Returns the inner codec.
+	 *
+	 * @return The inner codec.
+	 */
+	public JSONRPC2Codec getInnerCodec() {
+
+		return inner;
+	}
+
+
+	/**
+	 * Returns a copy of the preset dictionary.
+	 *
+	 * @return The preset dictionary.
+	 */
+	public byte[] getDictionary() {
+
+		return dictionary.clone();
+	}
+
+
+	/**
+	 * Returns the dictionary ID, the Adler-32 checksum of the dictionary
+	 * (as in zlib streams). Peers must use dictionaries with the same ID.
+	 *
+	 * @return The dictionary ID.
+	 */
+	public int getDictionaryID() {
+
+		return dictionaryID;
+	}
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message with the inner codec and
+	 * deflates it to the specified output.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 * @param out     The output to write to. Must not be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void encode(final JSONRPC2Message message, final JSONRPC2Output out)
+		throws IOException {
+
+		plain.reset();
+
+		inner.encode(message, plain);
+
+		deflater.reset();
+
+		if (dictionary.length > 0)
+			deflater.setDictionary(dictionary);
+
+		deflater.setInput(plain.array(), 0, plain.size());
+		deflater.finish();
+
+		// An output retaining the written bytes needs a fresh array per chunk
+		final boolean fresh = out.retainsWrittenBytes();
+
+		while (! deflater.finished()) {
+
+			final byte[] buf = fresh ? new byte[scratch.length] : scratch;
+
+			final int n = deflater.deflate(buf);
+
+			out.write(buf, 0, n);
+		}
+	}
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message with the inner codec and
+	 * deflates it.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 *
+	 * @return The compressed message.
+	 */
+	public byte[] encode(final JSONRPC2Message message) {
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer();
+
+		try {
+			encode(message, out);
+
+		} catch (IOException e) {
+			// The output buffer doesn't throw I/O exceptions
+			throw new AssertionError(e);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	/**
+	 * Inflates the specified compressed message into the scratch buffer.
+	 *
+	 * @param bytes  The byte array.
+	 * @param offset The offset of the compressed message.
+	 * @param length The length of the compressed message.
+	 *
+	 * @return The length of the inflated message.
+	 *
+	 * @throws JSONRPC2ParseException If the message couldn't be inflated.
+	 */
+	private int inflate(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		if (bytes == null)
+			throw new JSONRPC2ParseException("Null argument", JSONRPC2ParseException.JSON, null);
+
+		inflater.reset();
+
+		if (dictionary.length > 0)
+			inflater.setDictionary(dictionary);
+
+		inflater.setInput(bytes, offset, length);
+
+		int size = 0;
+
+		try {
+			while (! inflater.finished()) {
+
+				if (size == scratch.length) {
+
+					if (size >= MAX_DECODED_SIZE)
+						throw new JSONRPC2ParseException("Invalid deflate stream: Message too large", JSONRPC2ParseException.JSON, null);
+
+					scratch = Arrays.copyOf(scratch, Math.min(size * 2, MAX_DECODED_SIZE));
+				}
+
+				final int n = inflater.inflate(scratch, size, scratch.length - size);
+
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new JSONRPC2ParseException("Invalid deflate stream: Unexpected end of input", JSONRPC2ParseException.JSON, null);
+
+				size += n;
+			}
+
+		} catch (DataFormatException e) {
+
+			throw new JSONRPC2ParseException("Invalid deflate stream: " + e.getMessage(), JSONRPC2ParseException.JSON, null);
+		}
+
+		return size;
+	}
+
+
+	/**
+	 * Inflates and decodes a JSON-RPC 2.0 request, notification or
+	 * response.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the compressed message.
+	 * @param length The length of the compressed message.
+	 *
+	 * @return An instance of {@link JSONRPC2Request},
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Message decode(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		// Inflate first, it may replace the scratch buffer
+		final int n = inflate(bytes, offset, length);
+
+		return inner.decode(scratch, 0, n);
+	}
+
+
+	/**
+	 * Inflates and decodes a JSON-RPC 2.0 request.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the compressed request.
+	 * @param length The length of the compressed request.
+	 *
+	 * @return The decoded request.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Request decodeRequest(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		// Inflate first, it may replace the scratch buffer
+		final int n = inflate(bytes, offset, length);
+
+		return inner.decodeRequest(scratch, 0, n);
+	}
+
+
+	/**
+	 * Inflates and decodes a JSON-RPC 2.0 notification.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the compressed notification.
+	 * @param length The length of the compressed notification.
+	 *
+	 * @return The decoded notification.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Notification decodeNotification(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		// Inflate first, it may replace the scratch buffer
+		final int n = inflate(bytes, offset, length);
+
+		return inner.decodeNotification(scratch, 0, n);
+	}
+
+
+	/**
+	 * Inflates and decodes a JSON-RPC 2.0 response.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the compressed response.
+	 * @param length The length of the compressed response.
+	 *
+	 * @return The decoded response.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Response decodeResponse(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		// Inflate first, it may replace the scratch buffer
+		final int n = inflate(bytes, offset, length);
+
+		return inner.decodeResponse(scratch, 0, n);
+	}
+
+
+	/**
+	 * Releases the native resources of the deflater and inflater. The
+	 * codec must not be used afterwards.
+	 */
+	public void end() {
+
+		deflater.end();
+		inflater.end();
+	}
+}
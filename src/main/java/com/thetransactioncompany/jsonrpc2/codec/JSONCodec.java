@@ -0,0 +1,194 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Message;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Notification;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Output;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Parser;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Request;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Response;
+
+
+/**
+ * The standard UTF-8 encoded JSON codec.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public class JSONCodec implements JSONRPC2Codec {
+
+
+	/**
+	 * The JSON-RPC 2.0 parser.
+	 */
+	private final JSONRPC2Parser parser;
+
+
+	/**
+	 * Creates a new JSON codec with a default parser.
+	 */
+	public JSONCodec() {
+
+		this(new JSONRPC2Parser());
+	}
+
+
+	/**
+	 * Creates a new JSON codec.
+	 *
+	 * @param parser The JSON-RPC 2.0 parser to use. Must not be
+	 *               {@code null}.
+	 */
+	public JSONCodec(final JSONRPC2Parser parser) {
+
+		if (parser == null)
+			throw new NullPointerException("The parser must not be null");
+
+		this.parser = parser;
+	}
+
+
+	/**
+	 * Returns the name of this codec.
+	 *
+	 * @return "json".
+	 */
+	public String getName() {
+
+		return "json";
+	}
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message to the specified output.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 * @param out     The output to write to. Must not be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void encode(final JSONRPC2Message message, final JSONRPC2Output out)
+		throws IOException {
+
+		message.writeJSON(out);
+		out.finish();
+	}
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 *
+	 * @return The UTF-8 encoded JSON.
+	 */
+	public byte[] encode(final JSONRPC2Message message) {
+
+		return message.serialize().toByteArray();
+	}
+
+
+	/**
+	 * Decodes the specified UTF-8 encoded JSON.
+	 *
+	 * @param bytes  The byte array.
+	 * @param offset The offset of the JSON text.
+	 * @param length The length of the JSON text.
+	 *
+	 * @return The JSON string.
+	 */
+	private static String toString(final byte[] bytes, final int offset, final int length) {
+
+		try {
+			return new String(bytes, offset, length, "UTF-8");
+
+		} catch (UnsupportedEncodingException e) {
+			// UTF-8 is always supported
+			throw new AssertionError(e);
+		}
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 request, notification or response from UTF-8
+	 * encoded JSON.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded message.
+	 * @param length The length of the encoded message.
+	 *
+	 * @return An instance of {@link JSONRPC2Request},
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Message decode(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Message(toString(bytes, offset, length));
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 request from UTF-8 encoded JSON.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded request.
+	 * @param length The length of the encoded request.
+	 *
+	 * @return The decoded request.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Request decodeRequest(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Request(toString(bytes, offset, length));
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 notification from UTF-8 encoded JSON.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded notification.
+	 * @param length The length of the encoded notification.
+	 *
+	 * @return The decoded notification.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Notification decodeNotification(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Notification(toString(bytes, offset, length));
+	}
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 response from UTF-8 encoded JSON.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded response.
+	 * @param length The length of the encoded response.
+	 *
+	 * @return The decoded response.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Response decodeResponse(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		return parser.parseJSONRPC2Response(toString(bytes, offset, length));
+	}
+}
@@ -0,0 +1,120 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.io.IOException;
+
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Message;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Notification;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Output;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Request;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Response;
+
+
+/**
+ * Wire encoding of JSON-RPC 2.0 messages. Peers may pick a codec per
+ * connection, all codecs map to and from the same message classes, with
+ * the validation rules of
+ * {@link com.thetransactioncompany.jsonrpc2.JSONRPC2Parser}.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public interface JSONRPC2Codec {
+
+
+	/**
+	 * Returns the name of this codec, e.g. "json" or "cbor", for
+	 * negotiation between peers.
+	 *
+	 * @return The codec name.
+	 */
+	public String getName();
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message to the specified output.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 * @param out     The output to write to. Must not be {@code null}.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	public void encode(final JSONRPC2Message message, final JSONRPC2Output out)
+		throws IOException;
+
+
+	/**
+	 * Encodes the specified JSON-RPC 2.0 message.
+	 *
+	 * @param message The message to encode. Must not be {@code null}.
+	 *
+	 * @return The encoded message.
+	 */
+	public byte[] encode(final JSONRPC2Message message);
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 request, notification or response.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded message.
+	 * @param length The length of the encoded message.
+	 *
+	 * @return An instance of {@link JSONRPC2Request},
+	 *         {@link JSONRPC2Notification} or {@link JSONRPC2Response}.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Message decode(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException;
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 request.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded request.
+	 * @param length The length of the encoded request.
+	 *
+	 * @return The decoded request.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Request decodeRequest(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException;
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 notification.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded notification.
+	 * @param length The length of the encoded notification.
+	 *
+	 * @return The decoded notification.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Notification decodeNotification(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException;
+
+
+	/**
+	 * Decodes a JSON-RPC 2.0 response.
+	 *
+	 * @param bytes  The byte array. Must not be {@code null}.
+	 * @param offset The offset of the encoded response.
+	 * @param length The length of the encoded response.
+	 *
+	 * @return The decoded response.
+	 *
+	 * @throws JSONRPC2ParseException With detailed message if decoding
+	 *                                failed.
+	 */
+	public JSONRPC2Response decodeResponse(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException;
+}
@@ -0,0 +1,577 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.io.IOException;
+
+import java.math.BigInteger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Output;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2ParseException;
+import com.thetransactioncompany.jsonrpc2.JSONRPC2Parser;
+
+
+/**
+ * MessagePack codec for JSON-RPC 2.0 messages. Messages are encoded as a
+ * MessagePack map with the same members as their JSON form, including
+ * {@code "jsonrpc":"2.0"}, so they are interchangeable with it and can be
+ * bridged from MessagePack services without a text step.
+ *
+ * <p>Encoding details:
+ *
+ * <ul>
+ *     <li>Integers, including identifiers and error codes, are encoded in
+ *         the smallest MessagePack integer format, e.g. a positive or
+ *         negative fixint.
+ *     <li>Doubles are encoded as float 32 where lossless, else as float 64.
+ *     <li>Big integers in the uint 64 range are encoded as such; other big
+ *         integers and big decimals have no MessagePack equivalent and are
+ *         encoded as float 64.
+ * </ul>
+ *
+ * <p>The decoder rejects binary and extension types, and map keys other
+ * than strings, as they have no JSON equivalent.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * JSONRPC2Codec codec = new MessagePackCodec();
+ *
+ * byte[] msgpack = codec.encode(response);
+ *
+ * JSONRPC2Response decoded = codec.decodeResponse(msgpack, 0, msgpack.length);
+ * </pre>
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public class MessagePackCodec extends BinaryCodec {
+
+
+	/**
+	 * The largest uint 64 value.
+	 */
+	private static final BigInteger MAX_UINT64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+
+	/**
+	 * Creates a new MessagePack codec with a default parser.
+	 */
+	public MessagePackCodec() {
+
+		this(new JSONRPC2Parser());
+	}
+
+
+	/**
+	 * Creates a new MessagePack codec.
+	 *
+	 * @param parser The JSON-RPC 2.0 parser to validate decoded messages
+	 *               with, also determines whether member order is
+	 *               preserved. Must not be {@code null}.
+	 */
+	public MessagePackCodec(final JSONRPC2Parser parser) {
+
+		super(parser);
+	}
+
+
+	/**
+	 * Returns the name of this codec.
+	 *
+	 * @return "msgpack".
+	 */
+	public String getName() {
+
+		return "msgpack";
+	}
+
+
+	/**
+	 * Writes a big-endian 16-bit integer.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeShort(final JSONRPC2Output out, final int value)
+		throws IOException {
+
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+
+	/**
+	 * Writes a big-endian 32-bit integer.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeInt(final JSONRPC2Output out, final int value)
+		throws IOException {
+
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+
+	/**
+	 * Writes a big-endian 64-bit integer.
+	 *
+	 * @param out   The output.
+	 * @param value The value.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeLong64(final JSONRPC2Output out, final long value)
+		throws IOException {
+
+		writeInt(out, (int)(value >>> 32));
+		writeInt(out, (int)value);
+	}
+
+
+	/**
+	 * Writes a container or string header.
+	 *
+	 * @param out       The output.
+	 * @param size      The size.
+	 * @param fixPrefix The fix format prefix.
+	 * @param fixMax    The largest size of the fix format.
+	 * @param prefix8   The 8-bit format prefix, 0 if none.
+	 * @param prefix16  The 16-bit format prefix.
+	 * @param prefix32  The 32-bit format prefix.
+	 *
+	 * @throws IOException If an I/O exception occurred.
+	 */
+	private static void writeHeader(final JSONRPC2Output out,
+		                        final int size,
+		                        final int fixPrefix,
+		                        final int fixMax,
+		                        final int prefix8,
+		                        final int prefix16,
+		                        final int prefix32)
+		throws IOException {
+
+		if (size <= fixMax) {
+			out.write(fixPrefix | size);
+		}
+		else if (prefix8 != 0 && size < 0x100) {
+			out.write(prefix8);
+			out.write(size);
+		}
+		else if (size < 0x10000) {
+			out.write(prefix16);
+			writeShort(out, size);
+		}
+		else {
+			out.write(prefix32);
+			writeInt(out, size);
+		}
+	}
+
+
+	void writeMapHeader(final JSONRPC2Output out, final int size)
+		throws IOException {
+
+		writeHeader(out, size, 0x80, 15, 0, 0xde, 0xdf);
+	}
+
+
+	void writeArrayHeader(final JSONRPC2Output out, final int size)
+		throws IOException {
+
+		writeHeader(out, size, 0x90, 15, 0, 0xdc, 0xdd);
+	}
+
+
+	void writeStringHeader(final JSONRPC2Output out, final int length)
+		throws IOException {
+
+		writeHeader(out, length, 0xa0, 31, 0xd9, 0xda, 0xdb);
+	}
+
+
+	void writeNull(final JSONRPC2Output out)
+		throws IOException {
+
+		out.write(0xc0);
+	}
+
+
+	void writeBoolean(final JSONRPC2Output out, final boolean value)
+		throws IOException {
+
+		out.write(value ? 0xc3 : 0xc2);
+	}
+
+
+	void writeLong(final JSONRPC2Output out, final long value)
+		throws IOException {
+
+		if (value >= 0) {
+
+			if (value < 0x80) {
+				out.write((int)value); // positive fixint
+			}
+			else if (value < 0x100) {
+				out.write(0xcc);
+				out.write((int)value);
+			}
+			else if (value < 0x10000) {
+				out.write(0xcd);
+				writeShort(out, (int)value);
+			}
+			else if (value < 0x100000000L) {
+				out.write(0xce);
+				writeInt(out, (int)value);
+			}
+			else {
+				out.write(0xcf);
+				writeLong64(out, value);
+			}
+		}
+		else {
+			if (value >= -32) {
+				out.write((int)value); // negative fixint
+			}
+			else if (value >= Byte.MIN_VALUE) {
+				out.write(0xd0);
+				out.write((int)value);
+			}
+			else if (value >= Short.MIN_VALUE) {
+				out.write(0xd1);
+				writeShort(out, (int)value);
+			}
+			else if (value >= Integer.MIN_VALUE) {
+				out.write(0xd2);
+				writeInt(out, (int)value);
+			}
+			else {
+				out.write(0xd3);
+				writeLong64(out, value);
+			}
+		}
+	}
+
+
+	void writeDouble(final JSONRPC2Output out, final double value)
+		throws IOException {
+
+		final float f = (float)value;
+
+		if ((double)f == value) {
+			out.write(0xca);
+			writeInt(out, Float.floatToIntBits(f));
+		}
+		else {
+			out.write(0xcb);
+			writeLong64(out, Double.doubleToLongBits(value));
+		}
+	}
+
+
+	void writeBigNumber(final JSONRPC2Output out, final Number value)
+		throws IOException {
+
+		if (value instanceof BigInteger && ((BigInteger)value).signum() > 0 && ((BigInteger)value).compareTo(MAX_UINT64) <= 0) {
+			out.write(0xcf);
+			writeLong64(out, value.longValue());
+			return;
+		}
+
+		final double d = value.doubleValue();
+
+		if (Double.isInfinite(d))
+			writeNull(out);
+		else
+			writeDouble(out, d);
+	}
+
+
+	Object decodeValue(final byte[] bytes, final int offset, final int length)
+		throws JSONRPC2ParseException {
+
+		Decoder decoder = new Decoder(bytes, offset, offset + length);
+
+		Object value = decoder.readValue(0);
+
+		if (decoder.pos != decoder.end)
+			throw decoder.error("Unexpected trailing bytes");
+
+		return value;
+	}
+
+
+	/**
+	 * MessagePack decoder over a byte array range.
+	 */
+	private class Decoder {
+
+
+		/**
+		 * The input bytes.
+		 */
+		private final byte[] buf;
+
+
+		/**
+		 * The current position.
+		 */
+		private int pos;
+
+
+		/**
+		 * The end of the input range.
+		 */
+		private final int end;
+
+
+		/**
+		 * Creates a new decoder.
+		 *
+		 * @param buf   The input bytes.
+		 * @param start The start of the input range.
+		 * @param end   The end of the input range.
+		 */
+		Decoder(final byte[] buf, final int start, final int end) {
+
+			this.buf = buf;
+			this.pos = start;
+			this.end = end;
+		}
+
+
+		/**
+		 * Creates a decoding exception.
+		 *
+		 * @param message The error message.
+		 *
+		 * @return The parse exception.
+		 */
+		JSONRPC2ParseException error(final String message) {
+
+			return new JSONRPC2ParseException("Invalid MessagePack: " + message, JSONRPC2ParseException.JSON, null);
+		}
+
+
+		/**
+		 * Reads a big-endian integer.
+		 *
+		 * @param n The number of bytes.
+		 *
+		 * @return The unsigned integer, may be negative if 8 bytes are
+		 *         read.
+		 *
+		 * @throws JSONRPC2ParseException On unexpected end of input.
+		 */
+		long readUnsigned(final int n)
+			throws JSONRPC2ParseException {
+
+			if (end - pos < n)
+				throw error("Unexpected end of input");
+
+			long value = 0;
+
+			for (int i = 0; i < n; i++)
+				value = (value << 8) | (buf[pos++] & 0xff);
+
+			return value;
+		}
+
+
+		/**
+		 * Checks a size against the remaining input.
+		 *
+		 * @param size     The size.
+		 * @param minBytes The minimum number of bytes each counted element
+		 *                 occupies.
+		 *
+		 * @return The size.
+		 *
+		 * @throws JSONRPC2ParseException If the size exceeds the input.
+		 */
+		int checkSize(final long size, final int minBytes)
+			throws JSONRPC2ParseException {
+
+			if (size < 0 || size > (end - pos) / minBytes)
+				throw error("Length exceeds the input");
+
+			return (int)size;
+		}
+
+
+		/**
+		 * Reads a string of the specified length.
+		 *
+		 * @param length The UTF-8 length.
+		 *
+		 * @return The string.
+		 *
+		 * @throws JSONRPC2ParseException On unexpected end of input.
+		 */
+		String readString(final long length)
+			throws JSONRPC2ParseException {
+
+			final int n = checkSize(length, 1);
+
+			String s = new String(buf, pos, n, UTF_8);
+			pos += n;
+			return s;
+		}
+
+
+		/**
+		 * Reads the next value.
+		 *
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The value.
+		 *
+		 * @throws JSONRPC2ParseException If the value is malformed or not
+		 *                                supported.
+		 */
+		Object readValue(final int depth)
+			throws JSONRPC2ParseException {
+
+			if (depth > MAX_DEPTH)
+				throw error("Maximum nesting depth exceeded");
+
+			if (pos >= end)
+				throw error("Unexpected end of input");
+
+			final int b = buf[pos++] & 0xff;
+
+			if (b < 0x80)
+				return (long)b; // positive fixint
+
+			if (b >= 0xe0)
+				return (long)(byte)b; // negative fixint
+
+			if (b < 0x90)
+				return readMap(b & 0x0f, depth);
+
+			if (b < 0xa0)
+				return readArray(b & 0x0f, depth);
+
+			if (b < 0xc0)
+				return readString(b & 0x1f);
+
+			switch (b) {
+
+				case 0xc0: return null;
+				case 0xc2: return Boolean.FALSE;
+				case 0xc3: return Boolean.TRUE;
+
+				case 0xca: return (double)Float.intBitsToFloat((int)readUnsigned(4));
+				case 0xcb: return Double.longBitsToDouble(readUnsigned(8));
+
+				case 0xcc: return readUnsigned(1);
+				case 0xcd: return readUnsigned(2);
+				case 0xce: return readUnsigned(4);
+
+				case 0xcf: {
+					final long value = readUnsigned(8);
+
+					if (value < 0)
+						return new BigInteger(Long.toHexString(value), 16);
+
+					return value;
+				}
+
+				case 0xd0: return (long)(byte)readUnsigned(1);
+				case 0xd1: return (long)(short)readUnsigned(2);
+				case 0xd2: return (long)(int)readUnsigned(4);
+				case 0xd3: return readUnsigned(8);
+
+				case 0xd9: return readString(readUnsigned(1));
+				case 0xda: return readString(readUnsigned(2));
+				case 0xdb: return readString(readUnsigned(4));
+
+				case 0xdc: return readArray(readUnsigned(2), depth);
+				case 0xdd: return readArray(readUnsigned(4), depth);
+
+				case 0xde: return readMap(readUnsigned(2), depth);
+				case 0xdf: return readMap(readUnsigned(4), depth);
+
+				case 0xc4:
+				case 0xc5:
+				case 0xc6:
+					throw error("Binary type not supported");
+
+				case 0xc1:
+					throw error("Invalid format 0xc1");
+
+				default:
+					throw error("Extension types not supported");
+			}
+		}
+
+
+		/**
+		 * Reads an array of the specified size.
+		 *
+		 * @param size  The number of array items.
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The array as a list.
+		 *
+		 * @throws JSONRPC2ParseException If the array is malformed.
+		 */
+		List<Object> readArray(final long size, final int depth)
+			throws JSONRPC2ParseException {
+
+			final int n = checkSize(size, 1);
+
+			List<Object> list = new ArrayList<Object>(n);
+
+			for (int i = 0; i < n; i++)
+				list.add(readValue(depth + 1));
+
+			return list;
+		}
+
+
+		/**
+		 * Reads a map of the specified size.
+		 *
+		 * @param size  The number of map entries.
+		 * @param depth The current nesting depth.
+		 *
+		 * @return The map.
+		 *
+		 * @throws JSONRPC2ParseException If the map is malformed or has
+		 *                                non-string keys.
+		 */
+		Map<String,Object> readMap(final long size, final int depth)
+			throws JSONRPC2ParseException {
+
+			final int n = checkSize(size, 2);
+
+			Map<String,Object> map = createMap(n);
+
+			for (int i = 0; i < n; i++) {
+
+				Object key = readValue(depth + 1);
+
+				if (! (key instanceof String))
+					throw error("Map keys must be strings");
+
+				map.put((String)key, readValue(depth + 1));
+			}
+
+			return map;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+/**
+ * Wire codecs for JSON-RPC 2.0 messages, as an alternative to the standard
+ * JSON text form, e.g. for traffic between peers inside a data center.
+ *
+ * <p>All codecs implement the
+ * {@link com.thetransactioncompany.jsonrpc2.codec.JSONRPC2Codec} interface
+ * and map to and from the same message classes, with the validation rules
+ * of {@link com.thetransactioncompany.jsonrpc2.JSONRPC2Parser}:
+ *
+ * <ul>
+ *     <li>{@link com.thetransactioncompany.jsonrpc2.codec.JSONCodec} The
+ *         standard UTF-8 encoded JSON.
+ *     <li>{@link com.thetransactioncompany.jsonrpc2.codec.CBORCodec} CBOR
+ *         (RFC 8949).
+ *     <li>{@link com.thetransactioncompany.jsonrpc2.codec.MessagePackCodec}
+ *         MessagePack.
+ *     <li>{@link com.thetransactioncompany.jsonrpc2.codec.DeflateCodec}
+ *         Deflate compression with a preset dictionary, on top of any of
+ *         the above.
+ * </ul>
+ *
+ * <p><b>Package dependencies:</b> The classes in this package depend on the 
+ * sister {@link com.thetransactioncompany.jsonrpc2} package.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+package com.thetransactioncompany.jsonrpc2.codec;
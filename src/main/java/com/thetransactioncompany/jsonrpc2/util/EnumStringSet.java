@@ -0,0 +1,324 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Precompiled set of acceptable enumerated string values, for matching
+ * parameters in constant time. Create the set once, e.g. as a static
+ * constant, and pass it to the {@code getEnumString} methods of the
+ * parameter retrievers instead of a string array.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * static final EnumStringSet SEXES = new EnumStringSet("male", "female");
+ *
+ * String sex = r.getEnumString("sex", SEXES, true);
+ * </pre>
+ *
+ * <p>Case insensitive matching follows
+ * {@link String#equalsIgnoreCase}. If several values match an input, the
+ * first one wins, as with a linear search.
+ *
+ * <p>This class is immutable and thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class EnumStringSet {
+
+
+	/**
+	 * The acceptable values, in their original order.
+	 */
+	private final String[] values;
+
+
+	/**
+	 * Maps each value to its index.
+	 */
+	private final Map<String,Integer> exact;
+
+
+	/**
+	 * The case-folded values, in their original order.
+	 */
+	private final String[] folded;
+
+
+	/**
+	 * Open-addressed hash table of the indexes of the case-folded values,
+	 * plus one, 0 marks an empty slot. The input is hashed and compared
+	 * while folding it char by char, so that it's never copied.
+	 */
+	private final int[] foldedSlots;
+
+
+	/**
+	 * Creates a new precompiled set of enumerated string values.
+	 *
+	 * @param values The acceptable string values. Must not be
+	 *               {@code null} or contain {@code null}.
+	 */
+	public EnumStringSet(final String ... values) {
+
+		if (values == null)
+			throw new NullPointerException("The enumerated string values must not be null");
+
+		this.values = values.clone();
+
+		exact = new HashMap<String,Integer>(values.length * 2);
+		folded = new String[values.length];
+
+		// Keep the load factor at or below one half
+		int capacity = 2;
+
+		while (capacity < values.length * 2)
+			capacity <<= 1;
+
+		foldedSlots = new int[capacity];
+
+		for (int i = 0; i < this.values.length; i++) {
+
+			final String value = this.values[i];
+
+			if (value == null)
+				throw new NullPointerException("The enumerated string values must not contain null");
+
+			if (! exact.containsKey(value))
+				exact.put(value, i);
+
+			folded[i] = fold(value);
+
+			// Folded values keep the index of their first occurrence
+			if (indexOfFolded(folded[i]) < 0)
+				foldedSlots[freeSlot(folded[i])] = i + 1;
+		}
+	}
+
+
+	/**
+	 * Folds the case of the specified character, consistently with
+	 * {@link String#equalsIgnoreCase}.
+	 *
+	 * @param c The character.
+	 *
+	 * @return The case-folded character.
+	 */
+	private static char fold(final char c) {
+
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+
+	/**
+	 * Folds the case of the specified string, consistently with
+	 * {@link String#equalsIgnoreCase}.
+	 *
+	 * @param s The string.
+	 *
+	 * @return The case-folded string.
+	 */
+	private static String fold(final String s) {
+
+		char[] chars = null;
+
+		for (int i = 0; i < s.length(); i++) {
+
+			final char c = s.charAt(i);
+			final char f = fold(c);
+
+			if (f != c) {
+
+				if (chars == null)
+					chars = s.toCharArray();
+
+				chars[i] = f;
+			}
+		}
+
+		return chars != null ? new String(chars) : s;
+	}
+
+
+	/**
+	 * Returns the hash table slot to start probing at for the specified
+	 * string, as if it were case-folded.
+	 *
+	 * @param s The string.
+	 *
+	 * @return The slot.
+	 */
+	private int firstSlot(final String s) {
+
+		// Same as the hash code of the folded string
+		int h = 0;
+
+		for (int i = 0; i < s.length(); i++)
+			h = 31 * h + fold(s.charAt(i));
+
+		return (h ^ (h >>> 16)) & (foldedSlots.length - 1);
+	}
+
+
+	/**
+	 * Returns the first empty hash table slot for the specified folded
+	 * value.
+	 *
+	 * @param key The folded value.
+	 *
+	 * @return The empty slot.
+	 */
+	private int freeSlot(final String key) {
+
+		final int mask = foldedSlots.length - 1;
+
+		int slot = firstSlot(key);
+
+		while (foldedSlots[slot] != 0)
+			slot = (slot + 1) & mask;
+
+		return slot;
+	}
+
+
+	/**
+	 * Returns the index of the folded value matching the specified input
+	 * when case-folded.
+	 *
+	 * @param input The string to match.
+	 *
+	 * @return The index of the matching value, -1 if none.
+	 */
+	private int indexOfFolded(final String input) {
+
+		final int mask = foldedSlots.length - 1;
+
+		for (int slot = firstSlot(input); foldedSlots[slot] != 0; slot = (slot + 1) & mask) {
+
+			final int index = foldedSlots[slot] - 1;
+
+			if (equalsFolded(folded[index], input))
+				return index;
+		}
+
+		return -1;
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified input, when case-folded,
+	 * equals the specified folded value.
+	 *
+	 * @param key   The folded value.
+	 * @param input The input.
+	 *
+	 * @return {@code true} if they match, else {@code false}.
+	 */
+	private static boolean equalsFolded(final String key, final String input) {
+
+		final int len = key.length();
+
+		if (input.length() != len)
+			return false;
+
+		for (int i = 0; i < len; i++) {
+
+			if (fold(input.charAt(i)) != key.charAt(i))
+				return false;
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Returns the index of the value matching the specified input.
+	 *
+	 * @param input      The string to match, {@code null} never matches.
+	 * @param ignoreCase {@code true} for a case insensitive match.
+	 *
+	 * @return The index of the matching value, -1 if none.
+	 */
+	public int indexOf(final String input, final boolean ignoreCase) {
+
+		if (input == null)
+			return -1;
+
+		if (ignoreCase)
+			return indexOfFolded(input);
+
+		final Integer index = exact.get(input);
+
+		return index != null ? index : -1;
+	}
+
+
+	/**
+	 * Returns the value matching the specified input.
+	 *
+	 * @param input      The string to match, {@code null} never matches.
+	 * @param ignoreCase {@code true} for a case insensitive match.
+	 *
+	 * @return The matching value, as specified at construction,
+	 *         {@code null} if none.
+	 */
+	public String match(final String input, final boolean ignoreCase) {
+
+		final int index = indexOf(input, ignoreCase);
+
+		return index >= 0 ? values[index] : null;
+	}
+
+
+	/**
+	 * Returns {@code true} if the specified input matches exactly a value
+	 * in this set.
+	 *
+	 * @param input The string to match.
+	 *
+	 * @return {@code true} if the input matches, else {@code false}.
+	 */
+	public boolean contains(final String input) {
+
+		return indexOf(input, false) >= 0;
+	}
+
+
+	/**
+	 * Gets the value at the specified index.
+	 *
+	 * @param index The index.
+	 *
+	 * @return The value.
+	 */
+	public String get(final int index) {
+
+		return values[index];
+	}
+
+
+	/**
+	 * Gets the number of values in this set.
+	 *
+	 * @return The number of values.
+	 */
+	public int size() {
+
+		return values.length;
+	}
+
+
+	/**
+	 * Returns a copy of the values in this set.
+	 *
+	 * @return The values, in their original order.
+	 */
+	public String[] toArray() {
+
+		return values.clone();
+	}
+}
@@ -1,11 +1,14 @@
 package com.thetransactioncompany.jsonrpc2.util;
 
 
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import com.thetransactioncompany.jsonrpc2.*;
 
@@ -32,6 +35,11 @@ import com.thetransactioncompany.jsonrpc2.*;
  * {@link com.thetransactioncompany.jsonrpc2.JSONRPC2Error#INVALID_PARAMS}
  * exception is thrown.
  *
+ * <p>The parameters of a request parsed in pass-through mode are a raw
+ * JSON object, see {@link #NamedParamsRetriever(JSONRPC2RawValue)}. Its 
+ * members are then looked up and decoded one by one, so that array and 
+ * string-encoded parameters are decoded straight from the bytes.
+ *
  * <p>Example: suppose you have a method with 3 named parameters "name", "age"
  * and "sex", where the last is optional and defaults to "female":
  *
@@ -70,7 +78,7 @@ import com.thetransactioncompany.jsonrpc2.*;
  * </pre>
  *
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2012-07-08)
+ * @version 1.27 (2026-10-18)
  */
 public class NamedParamsRetriever 
 	extends ParamsRetriever {
@@ -80,6 +88,13 @@ public class NamedParamsRetriever
 	 * The named params interface. 
 	 */
 	private Map<String,Object> params = null;
+	
+	
+	/**
+	 * The raw named params, {@code null} if bound to a map. Decoded into
+	 * {@link #params} only when all members are needed.
+	 */
+	private JSONRPC2RawValue rawParams = null;
 
 
 	/** 
@@ -94,6 +109,149 @@ public class NamedParamsRetriever
 	}
 	
 	
+	/** 
+	 * Creates a new named parameters retriever from the specified raw
+	 * JSON object, e.g. the parameters of a request parsed in 
+	 * pass-through mode. Each parameter is looked up in the raw object 
+	 * when retrieved, without decoding the other members. A member 
+	 * retrieved as {@code Object.class} is returned undecoded, as a raw
+	 * value, unless it's {@code null}. Methods that need all parameters,
+	 * such as {@link #size} and {@link #getNames}, decode the object 
+	 * once; if it turns out malformed it's treated as empty.
+	 *
+	 * @param params The raw named parameters, a JSON object. Must not be
+	 *               {@code null}.
+	 */
+	public NamedParamsRetriever(final JSONRPC2RawValue params) {
+	
+		rebind(params);
+	}
+	
+	
+	/**
+	 * Rebinds this retriever to the specified key-value map, so that a 
+	 * thread-confined retriever can be reused across requests instead of
+	 * creating one per request. The retriever keeps no other per-request
+	 * state; the enumeration lookup tables are shared and stay valid.
+	 *
+	 * @param params The named parameters map.
+	 *
+	 * @return This retriever.
+	 */
+	public NamedParamsRetriever rebind(final Map<String,Object> params) {
+	
+		this.params = params;
+		rawParams = null;
+		
+		return this;
+	}
+	
+	
+	/**
+	 * Rebinds this retriever to the specified raw JSON object, see
+	 * {@link #NamedParamsRetriever(JSONRPC2RawValue)}.
+	 *
+	 * @param params The raw named parameters, a JSON object. Must not be
+	 *               {@code null}.
+	 *
+	 * @return This retriever.
+	 */
+	public NamedParamsRetriever rebind(final JSONRPC2RawValue params) {
+	
+		if (! params.isObject())
+			throw new IllegalArgumentException("The raw named parameters must be a JSON object");
+		
+		this.params = null;
+		rawParams = params;
+		
+		return this;
+	}
+	
+	
+	/**
+	 * Returns the parameters as a map, decoding raw parameters on the 
+	 * first call.
+	 *
+	 * @return The parameters map, empty for malformed raw parameters.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String,Object> map() {
+	
+		if (params == null) {
+		
+			Object decoded;
+			
+			try {
+				decoded = rawParams.parse();
+				
+			} catch (JSONRPC2ParseException e) {
+			
+				decoded = null;
+			}
+			
+			params = decoded instanceof Map ? (Map<String,Object>)decoded : new HashMap<String,Object>();
+		}
+		
+		return params;
+	}
+	
+	
+	/**
+	 * Looks up the specified parameter. Raw parameters are looked up 
+	 * without decoding the other members.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value, a raw value if not yet decoded,
+	 *         {@link #MISSING} if there's no such parameter.
+	 *
+	 * @throws JSONRPC2Error If the raw parameters are malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private Object lookup(final String name)
+		throws JSONRPC2Error {
+	
+		if (params != null) {
+		
+			final Object value = params.get(name);
+			
+			return value != null || params.containsKey(name) ? value : MISSING;
+		}
+		
+		try {
+			final JSONRPC2RawValue value = rawParams.getMember(name);
+			
+			return value != null ? value : MISSING;
+			
+		} catch (JSONRPC2ParseException e) {
+		
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Looks up and decodes the specified parameter without throwing an
+	 * exception.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value, {@code null} if the raw parameters 
+	 *         are malformed, {@link #MISSING} if there's no such 
+	 *         parameter.
+	 */
+	private Object peek(final String name) {
+	
+		try {
+			return decodeRaw(lookup(name), null);
+			
+		} catch (JSONRPC2Error e) {
+		
+			return null;
+		}
+	}
+	
+	
 	/**
 	 * Returns the number of available named parameters.
 	 *
@@ -101,7 +259,7 @@ public class NamedParamsRetriever
 	 */
 	public int size() {
 	
-		return params.size();
+		return map().size();
 	}
 	
 	
@@ -115,10 +273,16 @@ public class NamedParamsRetriever
 	 */
 	public boolean hasParameter(final String name) {
 		
-		if (params.containsKey(name))
-			return true;
-		else
+		if (params != null)
+			return params.containsKey(name);
+		
+		try {
+			return lookup(name) != MISSING;
+			
+		} catch (JSONRPC2Error e) {
+		
 			return false;
+		}
 	}
 	
 	
@@ -151,7 +315,7 @@ public class NamedParamsRetriever
 	public boolean hasParameters(final String[] mandatoryNames, final String[] optionalNames) {
 	
 		// Do shallow copy of params
-		Map paramsCopy = (Map)((HashMap)params).clone();
+		Map<String,Object> paramsCopy = new HashMap<String,Object>(map());
 	
 		// Pop the mandatory names
 		for (String name: mandatoryNames) {
@@ -189,9 +353,9 @@ public class NamedParamsRetriever
 	 */
 	public String[] getNames() {
 	
-		Set<String> keyset = params.keySet();
+		Set<String> keyset = map().keySet();
 		
-		return (String[]) keyset.toArray(new String[]{});
+		return keyset.toArray(new String[]{});
 	}
 	
 	
@@ -240,6 +404,29 @@ public class NamedParamsRetriever
 	}
 	
 	
+	/**
+	 * Validates the parameters against the specified compiled schema in 
+	 * one pass and stores their values in a reusable slot array. This is 
+	 * the efficient alternative to {@link #ensureParameters(String[],String[])}
+	 * followed by the typed getters.
+	 *
+	 * @param schema The named parameters schema. Must not be 
+	 *               {@code null}.
+	 * @param values The slot array, created by the schema. Must not be
+	 *               {@code null}.
+	 *
+	 * @throws JSONRPC2Error On a missing mandatory parameter, a name 
+	 *                       outside the schema, bad type, {@code null} 
+	 *                       value or bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public void ensureParameters(final NamedParamsSchema schema, final ParamValues values)
+		throws JSONRPC2Error {
+	
+		schema.validate(map(), values);
+	}
+	
+	
 	/**
 	 * Throws a {@code JSONRPC2Error.INVALID_PARAMS} exception if there is
 	 * no parameter by the specified name.
@@ -306,23 +493,7 @@ public class NamedParamsRetriever
 	public <T> void ensureParameter(final String name, final Class<T> clazz, final boolean allowNull)
 		throws JSONRPC2Error {
 		
-		// First, check existence only
-		ensureParameter(name);
-		
-		// Now check type
-		Object value = params.get(name);
-		
-		if (value == null) {
-			
-			if (allowNull)
-				return; // ok
-		
-			else
-				throw JSONRPC2Error.INVALID_PARAMS;
-		}
-		
-		if (! clazz.isAssignableFrom(value.getClass()))
-			throw JSONRPC2Error.INVALID_PARAMS;
+		ensureValue(lookup(name), clazz, allowNull);
 	}
 	
 	
@@ -341,9 +512,13 @@ public class NamedParamsRetriever
 	public Object get(final String name)
 		throws JSONRPC2Error {
 	
-		ensureParameter(name);
+		final Object value = lookup(name);
+		
+		if (value == MISSING)
+			throw JSONRPC2Error.INVALID_PARAMS;
 	
-		return params.get(name);
+		// Members of raw parameters are decoded
+		return params != null ? value : decodeRaw(value, null);
 	}
 	
 	
@@ -390,10 +565,8 @@ public class NamedParamsRetriever
 	public <T> T get(final String name, final Class<T> clazz, final boolean allowNull)
 		throws JSONRPC2Error {
 	
-		ensureParameter(name, clazz, allowNull);
-		
 		try {
-			return (T)params.get(name);
+			return (T)ensureValue(lookup(name), clazz, allowNull);
 			
 		} catch (ClassCastException e) {
 			
@@ -453,13 +626,13 @@ public class NamedParamsRetriever
 	public <T> T getOpt(final String name, final Class<T> clazz, final boolean allowNull, final T defaultValue)
 		throws JSONRPC2Error {
 	
-		if (! hasParameter(name))
-			return defaultValue;
+		final Object value = lookup(name);
 		
-		ensureParameter(name, clazz, allowNull);
+		if (value == MISSING)
+			return defaultValue;
 		
 		try {
-			return (T)params.get(name);
+			return (T)ensureValue(value, clazz, allowNull);
 			
 		} catch (ClassCastException e) {
 			
@@ -630,6 +803,98 @@ public class NamedParamsRetriever
 	}
 	
 	
+	/**
+	 * Retrieves the specified enumerated string parameter, matching it
+	 * against a precompiled set of values.
+	 *
+	 * @param name        The parameter name.
+	 * @param enumStrings The acceptable string values.
+	 *
+	 * @return The parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or 
+	 *                       bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getEnumString(final String name, final EnumStringSet enumStrings)
+		throws JSONRPC2Error {
+		
+		return getEnumString(name, enumStrings, false); 
+	}
+	
+	
+	/**
+	 * Retrieves the specified enumerated string parameter, matching it
+	 * against a precompiled set of values and allowing for a case 
+	 * insensitive match.
+	 *
+	 * @param name        The parameter name.
+	 * @param enumStrings The acceptable string values.
+	 * @param ignoreCase  {@code true} for a case insensitive match.
+	 *
+	 * @return The matching parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or 
+	 *                       bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getEnumString(final String name, final EnumStringSet enumStrings, final boolean ignoreCase)
+		throws JSONRPC2Error {
+		
+		String value = get(name, String.class);
+		
+		return ensureEnumString(value, enumStrings, ignoreCase);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional enumerated string parameter, 
+	 * matching it against a precompiled set of values. If it doesn't 
+	 * exist the method will return the specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param enumStrings  The acceptable string values.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a bad type or bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getOptEnumString(final String name, final EnumStringSet enumStrings, final String defaultValue)
+		throws JSONRPC2Error {
+		
+		return getOptEnumString(name, enumStrings, defaultValue, false); 
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional enumerated string parameter, 
+	 * matching it against a precompiled set of values and allowing for a
+	 * case insensitive match. If it doesn't exist the method will return 
+	 * the specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param enumStrings  The acceptable string values.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 * @param ignoreCase   {@code true} for a case insensitive match.
+	 *
+	 * @return The matching parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a bad type or bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getOptEnumString(final String name, final EnumStringSet enumStrings, final String defaultValue, final boolean ignoreCase)
+		throws JSONRPC2Error {
+		
+		String value = getOpt(name, String.class, defaultValue);
+		
+		return ensureEnumString(value, enumStrings, ignoreCase);
+	}
+	
+	
 	/**
 	 * Retrieves the specified enumerated parameter (from a JSON string that
 	 * has a predefined set of possible values).
@@ -1059,7 +1324,7 @@ public class NamedParamsRetriever
 			return null;
 		
 		try {
-			return (String[])list.toArray(new String[0]);
+			return list.toArray(new String[0]);
 			
 		} catch (ArrayStoreException e) {
 			
@@ -1117,94 +1382,858 @@ public class NamedParamsRetriever
 	
 	
 	/**
-	 * Retrieves the specified map (maps from JSON object) parameter.
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as an {@code int} array.
 	 *
 	 * @param name The parameter name.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a missing parameter, bad type or
 	 *                       {@code null} value
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	public Map<String,Object> getMap(final String name)
+	public int[] getIntArray(final String name)
 		throws JSONRPC2Error {
-		
-		return getMap(name, false);
+	
+		return getIntArray(name, false);
 	}
 	
 	
 	/**
-	 * Retrieves the specified map (maps from JSON object) parameter.
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as an {@code int} array. The array is filled in 
+	 * one pass, from a raw JSON array it is decoded straight from the 
+	 * text.
 	 *
 	 * @param name      The parameter name.
 	 * @param allowNull If {@code true} allows a {@code null} value.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a missing parameter or bad type
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	@SuppressWarnings("unchecked")
-	public Map<String,Object> getMap(final String name, final boolean allowNull)
+	public int[] getIntArray(final String name, final boolean allowNull)
 		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
 		
-		try {
-			return (Map<String,Object>)get(name, Map.class, allowNull);
-			
-		} catch (ClassCastException e) {
-			
-			throw JSONRPC2Error.INVALID_PARAMS;
-		}
+		if (value == null)
+			return null;
+		
+		return toIntArray(value);
 	}
 	
 	
 	/**
-	 * Retrieves the specified optional map (maps from JSON object) 
-	 * parameter. If it doesn't exist the method will return the specified 
-	 * default value.
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as an {@code int} array. If it doesn't exist
+	 * the method will return the specified default value.
 	 *
 	 * @param name         The parameter name.
 	 * @param defaultValue The default return value if the parameter 
 	 *                     doesn't exist. May be {@code null}.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	public Map<String,Object> getOptMap(final String name, final Map<String,Object> defaultValue)
+	public int[] getOptIntArray(final String name, final int[] defaultValue)
 		throws JSONRPC2Error {
 	
-		return getOptMap(name, false, defaultValue);
+		return getOptIntArray(name, false, defaultValue);
 	}
 	
 	
 	/**
-	 * Retrieves the specified optional map (maps from JSON object) 
-	 * parameter. If it doesn't exist the method will return the specified 
-	 * default value.
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as an {@code int} array. If it doesn't exist
+	 * the method will return the specified default value.
 	 *
 	 * @param name         The parameter name.
 	 * @param allowNull    If {@code true} allows a {@code null} value.
 	 * @param defaultValue The default return value if the parameter 
-	 *                     doesn't exist.
+	 *                     doesn't exist. May be {@code null}.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a bad parameter type
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	@SuppressWarnings("unchecked")
-	public Map<String,Object> getOptMap(final String name, final boolean allowNull, final Map<String,Object> defaultValue)
+	public int[] getOptIntArray(final String name, final boolean allowNull, final int[] defaultValue)
 		throws JSONRPC2Error {
-		
-		try {
-			return (Map<String,Object>)getOpt(name, Map.class, allowNull, defaultValue);
-			
-		} catch (ClassCastException e) {
-			
-			throw JSONRPC2Error.INVALID_PARAMS;
-		}
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getIntArray(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code long} array.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getLongArray(final String name)
+		throws JSONRPC2Error {
+	
+		return getLongArray(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code long} array. The array is filled in 
+	 * one pass, from a raw JSON array it is decoded straight from the 
+	 * text.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getLongArray(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toLongArray(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code long} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getOptLongArray(final String name, final long[] defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptLongArray(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code long} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getOptLongArray(final String name, final boolean allowNull, final long[] defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getLongArray(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code double} array.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getDoubleArray(final String name)
+		throws JSONRPC2Error {
+	
+		return getDoubleArray(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code double} array. The array is filled in 
+	 * one pass, from a raw JSON array it is decoded straight from the 
+	 * text.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getDoubleArray(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toDoubleArray(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code double} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getOptDoubleArray(final String name, final double[] defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptDoubleArray(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code double} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getOptDoubleArray(final String name, final boolean allowNull, final double[] defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getDoubleArray(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code UUID}.
+	 * The value must be a UUID string in canonical form, e.g.
+	 * {@code 123e4567-e89b-12d3-a456-426614174000}.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getUUID(final String name)
+		throws JSONRPC2Error {
+	
+		return getUUID(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code UUID}.
+	 * The value is decoded in one pass, from a raw JSON value straight from
+	 * its bytes.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getUUID(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toUUID(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code UUID}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getOptUUID(final String name, final UUID defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptUUID(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code UUID}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getOptUUID(final String name, final boolean allowNull, final UUID defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getUUID(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code Date}.
+	 * The value must be an ISO-8601 timestamp string with a time zone
+	 * designator, e.g. {@code 2026-10-18T09:30:00.250Z}.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getDate(final String name)
+		throws JSONRPC2Error {
+	
+		return getDate(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code Date}.
+	 * The value is decoded in one pass, from a raw JSON value straight from
+	 * its bytes.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getDate(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toDate(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code Date}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getOptDate(final String name, final Date defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptDate(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code Date}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getOptDate(final String name, final boolean allowNull, final Date defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getDate(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a
+	 * {@code BigDecimal}. The value must be a decimal string, e.g.
+	 * {@code "12.50"}, or a JSON number.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getBigDecimal(final String name)
+		throws JSONRPC2Error {
+	
+		return getBigDecimal(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a
+	 * {@code BigDecimal}. The value is decoded in one pass, from a raw JSON
+	 * value straight from its bytes.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getBigDecimal(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toBigDecimal(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code BigDecimal}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getOptBigDecimal(final String name, final BigDecimal defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptBigDecimal(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code BigDecimal}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getOptBigDecimal(final String name, final boolean allowNull, final BigDecimal defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getBigDecimal(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a byte array. The
+	 * value must be a base64 string, in the standard or the URL-safe
+	 * alphabet, padding optional.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getBytes(final String name)
+		throws JSONRPC2Error {
+	
+		return getBytes(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a byte array. The
+	 * value is decoded in one pass, from a raw JSON value straight from its
+	 * bytes.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getBytes(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(name, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toBytes(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a byte
+	 * array. If it doesn't exist the method will return the specified
+	 * default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getOptBytes(final String name, final byte[] defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptBytes(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a byte
+	 * array. If it doesn't exist the method will return the specified
+	 * default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getOptBytes(final String name, final boolean allowNull, final byte[] defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(name))
+			return defaultValue;
+	
+		return getBytes(name, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified map (maps from JSON object) parameter.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Map<String,Object> getMap(final String name)
+		throws JSONRPC2Error {
+		
+		return getMap(name, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified map (maps from JSON object) parameter.
+	 *
+	 * @param name      The parameter name.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getMap(final String name, final boolean allowNull)
+		throws JSONRPC2Error {
+		
+		try {
+			return (Map<String,Object>)get(name, Map.class, allowNull);
+			
+		} catch (ClassCastException e) {
+			
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional map (maps from JSON object) 
+	 * parameter. If it doesn't exist the method will return the specified 
+	 * default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Map<String,Object> getOptMap(final String name, final Map<String,Object> defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptMap(name, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional map (maps from JSON object) 
+	 * parameter. If it doesn't exist the method will return the specified 
+	 * default value.
+	 *
+	 * @param name         The parameter name.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getOptMap(final String name, final boolean allowNull, final Map<String,Object> defaultValue)
+		throws JSONRPC2Error {
+		
+		try {
+			return (Map<String,Object>)getOpt(name, Map.class, allowNull, defaultValue);
+			
+		} catch (ClassCastException e) {
+			
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Probes the specified parameter without throwing an exception, for
+	 * handlers that try several optional parameter shapes. The status and
+	 * value are recorded in the specified reusable holder.
+	 *
+	 * @param name   The parameter name.
+	 * @param clazz  The expected class of the parameter value, as
+	 *               for {@link #get(String,Class)}.
+	 * @param holder The holder to record the status and value in.
+	 *               Must not be {@code null}.
+	 *
+	 * @return The parameter status.
+	 */
+	public ParamStatus probe(final String name, final Class<?> clazz, final ParamHolder holder) {
+	
+		try {
+			final Object value = lookup(name);
+			
+			if (value == MISSING)
+				return probeValue(null, false, clazz, holder);
+			
+			return probeValue(decodeRaw(value, clazz), true, clazz, holder);
+			
+		} catch (JSONRPC2Error e) {
+		
+			return holder.set(ParamStatus.WRONG_TYPE, null);
+		}
+	}
+	
+	
+	/**
+	 * Retrieves the value at the specified path into the named
+	 * parameters, e.g. {@code order.lines[3].sku}, which must map to the
+	 * provided class.
+	 *
+	 * @param path  The compiled parameter path. Must not be {@code null}.
+	 * @param clazz The corresponding Java class that the value should map
+	 *              to. Set to {@code Object.class} to allow any type.
+	 *
+	 * @return The value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public <T> T get(final ParamPath path, final Class<T> clazz)
+		throws JSONRPC2Error {
+	
+		return path.get(params != null ? params : rawParams, clazz);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string parameter as a string without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param name     The parameter name.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as a string, or the sentinel.
+	 */
+	public String tryGetString(final String name, final String sentinel) {
+	
+		final Object value = peek(name);
+		
+		return value instanceof String ? (String)value : sentinel;
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric parameter as an {@code int} without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param name     The parameter name.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as an {@code int}, or the sentinel.
+	 */
+	public int tryGetInt(final String name, final int sentinel) {
+	
+		final Object value = peek(name);
+		
+		return value instanceof Number ? ((Number)value).intValue() : sentinel;
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric parameter as a {@code long} without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param name     The parameter name.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as a {@code long}, or the sentinel.
+	 */
+	public long tryGetLong(final String name, final long sentinel) {
+	
+		final Object value = peek(name);
+		
+		return value instanceof Number ? ((Number)value).longValue() : sentinel;
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric parameter as a {@code double} without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param name     The parameter name.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as a {@code double}, or the sentinel.
+	 */
+	public double tryGetDouble(final String name, final double sentinel) {
+	
+		final Object value = peek(name);
+		
+		return value instanceof Number ? ((Number)value).doubleValue() : sentinel;
 	}
 }
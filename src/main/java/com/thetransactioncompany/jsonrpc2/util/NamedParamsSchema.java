@@ -0,0 +1,293 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thetransactioncompany.jsonrpc2.*;
+
+
+/**
+ * Compiled schema of JSON-RPC 2.0 named parameters. Create the schema once,
+ * e.g. when a request handler is set up, then validate each received
+ * parameters map in a single pass into a reusable {@link ParamValues} slot
+ * array. The handler reads the values by slot index, which is the position
+ * of the parameter specification in the schema.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * static final NamedParamsSchema SCHEMA = new NamedParamsSchema(
+ *         ParamSpec.mandatory("recipient", String.class),
+ *         ParamSpec.mandatory("amount", Number.class),
+ *         ParamSpec.optional("currency", String.class, "EUR"));
+ *
+ * static final int RECIPIENT = 0, AMOUNT = 1, CURRENCY = 2;
+ *
+ * ParamValues values = SCHEMA.newValues();
+ *
+ * // For each request
+ * SCHEMA.validate((Map)request.getParams(), values);
+ *
+ * String recipient = values.getString(RECIPIENT);
+ * double amount = values.getDouble(AMOUNT);
+ * </pre>
+ *
+ * <p>A parameters map passes validation if all mandatory parameters are
+ * present, no parameter outside the schema is present (unless allowed),
+ * and each value is of the specified type, non-{@code null} unless
+ * allowed, and matches the enumerated values if specified. Else a
+ * {@link JSONRPC2Error#INVALID_PARAMS} error is thrown.
+ *
+ * <p>This class is immutable and thread-safe. The {@link ParamValues} are
+ * not, use one per thread.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class NamedParamsSchema {
+
+
+	/**
+	 * The parameter specifications, by slot.
+	 */
+	private final ParamSpec[] specs;
+
+
+	/**
+	 * Maps the parameter names to their slots.
+	 */
+	private final Map<String,Integer> slots;
+
+
+	/**
+	 * {@code true} if parameters outside the schema are allowed.
+	 */
+	private final boolean allowUnknown;
+
+
+	/**
+	 * Creates a new named parameters schema. Parameters outside the
+	 * schema are not allowed.
+	 *
+	 * @param specs The parameter specifications, in slot order. Must not
+	 *              be {@code null} or contain duplicate names.
+	 */
+	public NamedParamsSchema(final ParamSpec ... specs) {
+
+		this(false, specs);
+	}
+
+
+	/**
+	 * Creates a new named parameters schema.
+	 *
+	 * @param allowUnknown {@code true} to ignore parameters outside the
+	 *                     schema, {@code false} to reject them.
+	 * @param specs        The parameter specifications, in slot order.
+	 *                     Must not be {@code null} or contain duplicate
+	 *                     names.
+	 */
+	public NamedParamsSchema(final boolean allowUnknown, final ParamSpec ... specs) {
+
+		if (specs == null)
+			throw new NullPointerException("The parameter specifications must not be null");
+
+		this.specs = specs.clone();
+		this.allowUnknown = allowUnknown;
+
+		slots = new HashMap<String,Integer>(specs.length * 2);
+
+		for (int i = 0; i < this.specs.length; i++) {
+
+			if (this.specs[i] == null)
+				throw new NullPointerException("The parameter specifications must not contain null");
+
+			if (slots.put(this.specs[i].getName(), i) != null)
+				throw new IllegalArgumentException("Duplicate parameter name: " + this.specs[i].getName());
+		}
+	}
+
+
+	/**
+	 * Gets the number of parameter specifications (slots).
+	 *
+	 * @return The number of slots.
+	 */
+	public int size() {
+
+		return specs.length;
+	}
+
+
+	/**
+	 * Gets the specification of the parameter at the specified slot.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The parameter specification.
+	 */
+	public ParamSpec getSpec(final int slot) {
+
+		return specs[slot];
+	}
+
+
+	/**
+	 * Gets the slot of the parameter with the specified name.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The slot index, -1 if not in the schema.
+	 */
+	public int indexOf(final String name) {
+
+		final Integer slot = slots.get(name);
+
+		return slot != null ? slot : -1;
+	}
+
+
+	/**
+	 * Returns {@code true} if parameters outside the schema are allowed.
+	 *
+	 * @return {@code true} if unknown parameters are ignored,
+	 *         {@code false} if they are rejected.
+	 */
+	public boolean allowsUnknown() {
+
+		return allowUnknown;
+	}
+
+
+	/**
+	 * Creates a new slot array for this schema.
+	 *
+	 * @return The slot array.
+	 */
+	public ParamValues newValues() {
+
+		return new ParamValues(this);
+	}
+
+
+	/**
+	 * Validates the specified named parameters against this schema.
+	 *
+	 * @param params The named parameters, {@code null} if none.
+	 *
+	 * @return The validated parameter values, in a new slot array.
+	 *
+	 * @throws JSONRPC2Error If the parameters don't match the schema
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public ParamValues validate(final Map<String,Object> params)
+		throws JSONRPC2Error {
+
+		ParamValues values = newValues();
+
+		validate(params, values);
+
+		return values;
+	}
+
+
+	/**
+	 * Validates the specified named parameters against this schema and
+	 * stores the values in the specified slot array. Optional parameters
+	 * which are absent get their default value. The slot array is cleared
+	 * first.
+	 *
+	 * @param params The named parameters, {@code null} if none.
+	 * @param values The slot array, created by {@link #newValues} of this
+	 *               schema. Must not be {@code null}.
+	 *
+	 * @throws JSONRPC2Error If the parameters don't match the schema
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public void validate(final Map<String,Object> params, final ParamValues values)
+		throws JSONRPC2Error {
+
+		if (values.getSchema() != this)
+			throw new IllegalArgumentException("The parameter values must be created by this schema");
+
+		values.clear();
+
+		if (params != null) {
+
+			for (Map.Entry<String,Object> entry: params.entrySet()) {
+
+				final Integer slot = slots.get(entry.getKey());
+
+				if (slot == null) {
+
+					if (allowUnknown)
+						continue;
+
+					throw JSONRPC2Error.INVALID_PARAMS;
+				}
+
+				values.set(slot, convert(specs[slot], entry.getValue()));
+			}
+		}
+
+		for (int i = 0; i < specs.length; i++) {
+
+			if (values.isPresent(i))
+				continue;
+
+			if (! specs[i].isOptional())
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			values.setDefault(i, specs[i].getDefaultValue());
+		}
+	}
+
+
+	/**
+	 * Checks the specified parameter value against its specification and
+	 * resolves enumerated values.
+	 *
+	 * @param spec  The parameter specification.
+	 * @param value The parameter value.
+	 *
+	 * @return The value, or the matching enumerated string or constant.
+	 *
+	 * @throws JSONRPC2Error If the value doesn't match the specification
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static Object convert(final ParamSpec spec, final Object value)
+		throws JSONRPC2Error {
+
+		if (value == null) {
+
+			if (spec.allowsNull())
+				return null;
+
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+
+		final Class<?> enumClass = spec.getEnumClass();
+
+		if (enumClass != null) {
+
+			if (! (value instanceof String))
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			final Object constant = ParamsRetriever.matchEnumConstant((String)value, enumClass, spec.ignoresCase());
+
+			if (constant == null)
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			return constant;
+		}
+
+		if (! spec.getType().isInstance(value))
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		if (spec.getEnumStrings() != null)
+			return ParamsRetriever.ensureEnumString((String)value, spec.getEnumStrings(), spec.ignoresCase());
+
+		return value;
+	}
+}
@@ -0,0 +1,499 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+import com.thetransactioncompany.jsonrpc2.*;
+
+
+/**
+ * Decoders for values commonly passed as JSON strings: UUIDs, ISO-8601
+ * timestamps, decimals and base64 data. The decoders read the characters
+ * in one pass, without intermediate strings, so they can also be applied
+ * to a view of raw JSON bytes (see {@link JSONRPC2RawValue#getText}).
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+final class ParamDecoders {
+
+
+	/**
+	 * The values of the base64 characters, -1 for other characters. Both
+	 * the standard and the URL-safe alphabets are accepted.
+	 */
+	private static final byte[] BASE64_VALUES = new byte[128];
+
+
+	static {
+		final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+		Arrays.fill(BASE64_VALUES, (byte)-1);
+
+		for (int i = 0; i < alphabet.length(); i++)
+			BASE64_VALUES[alphabet.charAt(i)] = (byte)i;
+
+		BASE64_VALUES['-'] = 62;
+		BASE64_VALUES['_'] = 63;
+	}
+
+
+	/**
+	 * Prevents instantiation.
+	 */
+	private ParamDecoders() {
+
+		// Nothing to do
+	}
+
+
+	/**
+	 * Gets the value of the specified hexadecimal digit.
+	 *
+	 * @param c The character.
+	 *
+	 * @return The digit value.
+	 *
+	 * @throws JSONRPC2Error If not a hexadecimal digit
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private static int hexValue(final char c)
+		throws JSONRPC2Error {
+
+		if (c >= '0' && c <= '9')
+			return c - '0';
+
+		if (c >= 'a' && c <= 'f')
+			return c - 'a' + 10;
+
+		if (c >= 'A' && c <= 'F')
+			return c - 'A' + 10;
+
+		throw JSONRPC2Error.INVALID_PARAMS;
+	}
+
+
+	/**
+	 * Parses the specified number of decimal digits.
+	 *
+	 * @param s     The characters.
+	 * @param start The position of the first digit.
+	 * @param count The number of digits.
+	 *
+	 * @return The value.
+	 *
+	 * @throws JSONRPC2Error If a character isn't a decimal digit
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private static int parseDigits(final CharSequence s, final int start, final int count)
+		throws JSONRPC2Error {
+
+		int value = 0;
+
+		for (int i = start; i < start + count; i++) {
+
+			final char c = s.charAt(i);
+
+			if (c < '0' || c > '9')
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			value = value * 10 + (c - '0');
+		}
+
+		return value;
+	}
+
+
+	/**
+	 * Checks that the specified character is at the specified position.
+	 *
+	 * @param s   The characters.
+	 * @param pos The position.
+	 * @param c   The expected character.
+	 *
+	 * @throws JSONRPC2Error If the character doesn't match
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private static void expect(final CharSequence s, final int pos, final char c)
+		throws JSONRPC2Error {
+
+		if (pos >= s.length() || s.charAt(pos) != c)
+			throw JSONRPC2Error.INVALID_PARAMS;
+	}
+
+
+	/**
+	 * Decodes a UUID in its canonical 36 character form, e.g.
+	 * {@code 123e4567-e89b-12d3-a456-426614174000}. Hexadecimal digits
+	 * are accepted in either case.
+	 *
+	 * @param s The characters. Must not be {@code null}.
+	 *
+	 * @return The UUID.
+	 *
+	 * @throws JSONRPC2Error If the UUID is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static UUID decodeUUID(final CharSequence s)
+		throws JSONRPC2Error {
+
+		if (s.length() != 36)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		long msb = 0;
+		long lsb = 0;
+
+		int digits = 0;
+
+		for (int i = 0; i < 36; i++) {
+
+			if (i == 8 || i == 13 || i == 18 || i == 23) {
+
+				expect(s, i, '-');
+				continue;
+			}
+
+			final int value = hexValue(s.charAt(i));
+
+			if (digits++ < 16)
+				msb = (msb << 4) | value;
+			else
+				lsb = (lsb << 4) | value;
+		}
+
+		return new UUID(msb, lsb);
+	}
+
+
+	/**
+	 * Decodes an ISO-8601 timestamp with a time zone designator, in the
+	 * RFC 3339 profile, e.g. {@code 2026-10-18T09:30:00Z} or
+	 * {@code 2026-10-18T11:30:00.250+02:00}. Fractions of a second beyond
+	 * milliseconds are truncated.
+	 *
+	 * @param s The characters. Must not be {@code null}.
+	 *
+	 * @return The timestamp.
+	 *
+	 * @throws JSONRPC2Error If the timestamp is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static Date decodeDate(final CharSequence s)
+		throws JSONRPC2Error {
+
+		final int len = s.length();
+
+		if (len < 20)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		final int year = parseDigits(s, 0, 4);
+		expect(s, 4, '-');
+		final int month = parseDigits(s, 5, 2);
+		expect(s, 7, '-');
+		final int day = parseDigits(s, 8, 2);
+
+		final char t = s.charAt(10);
+
+		if (t != 'T' && t != 't')
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		final int hour = parseDigits(s, 11, 2);
+		expect(s, 13, ':');
+		final int minute = parseDigits(s, 14, 2);
+		expect(s, 16, ':');
+		final int second = parseDigits(s, 17, 2);
+
+		if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month) ||
+		    hour > 23 || minute > 59 || second > 59)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		int pos = 19;
+
+		int millis = 0;
+
+		if (s.charAt(pos) == '.') {
+
+			pos++;
+
+			final int fractionStart = pos;
+
+			while (pos < len && s.charAt(pos) >= '0' && s.charAt(pos) <= '9') {
+
+				if (pos - fractionStart < 3)
+					millis = millis * 10 + (s.charAt(pos) - '0');
+
+				pos++;
+			}
+
+			final int fractionDigits = pos - fractionStart;
+
+			if (fractionDigits == 0 || fractionDigits > 9)
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			for (int i = fractionDigits; i < 3; i++)
+				millis *= 10;
+		}
+
+		if (pos >= len)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		int offsetMinutes = 0;
+
+		final char zone = s.charAt(pos);
+
+		if (zone == 'Z' || zone == 'z') {
+
+			pos++;
+		}
+		else if (zone == '+' || zone == '-') {
+
+			if (len != pos + 6)
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			final int offsetHours = parseDigits(s, pos + 1, 2);
+			expect(s, pos + 3, ':');
+			final int offsetMins = parseDigits(s, pos + 4, 2);
+
+			if (offsetHours > 23 || offsetMins > 59)
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			offsetMinutes = offsetHours * 60 + offsetMins;
+
+			if (zone == '-')
+				offsetMinutes = -offsetMinutes;
+
+			pos += 6;
+		}
+
+		if (pos != len)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		final long seconds = daysFromEpoch(year, month, day) * 86400L +
+		                     hour * 3600 + (minute - offsetMinutes) * 60 + second;
+
+		return new Date(seconds * 1000L + millis);
+	}
+
+
+	/**
+	 * Returns the number of days in the specified month of the
+	 * proleptic Gregorian calendar.
+	 *
+	 * @param year  The year.
+	 * @param month The month, 1 to 12.
+	 *
+	 * @return The number of days.
+	 */
+	private static int daysInMonth(final int year, final int month) {
+
+		if (month == 2)
+			return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+
+		return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+	}
+
+
+	/**
+	 * Returns the number of days from 1970-01-01 to the specified date of
+	 * the proleptic Gregorian calendar.
+	 *
+	 * @param year  The year, 0 to 9999.
+	 * @param month The month, 1 to 12.
+	 * @param day   The day of the month.
+	 *
+	 * @return The number of days, negative before the epoch.
+	 */
+	private static long daysFromEpoch(final int year, final int month, final int day) {
+
+		// Count the years from March, so that the leap day is last
+		final int y = month <= 2 ? year - 1 : year;
+		final int era = (y >= 0 ? y : y - 399) / 400;
+		final int yearOfEra = y - era * 400;
+		final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+		return era * 146097L + dayOfEra - 719468L;
+	}
+
+
+	/**
+	 * Decodes a decimal number, e.g. {@code 12.50} or {@code -1.5e3}.
+	 * Numbers with up to 18 digits are decoded straight into an unscaled
+	 * {@code long}, longer ones as by {@link BigDecimal#BigDecimal(String)}.
+	 * The scale is preserved, i.e. {@code 12.50} decodes with scale 2.
+	 *
+	 * @param s The characters. Must not be {@code null}.
+	 *
+	 * @return The decimal number.
+	 *
+	 * @throws JSONRPC2Error If the number is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static BigDecimal decodeDecimal(final CharSequence s)
+		throws JSONRPC2Error {
+
+		final int len = s.length();
+
+		int pos = 0;
+
+		boolean negative = false;
+
+		if (pos < len && (s.charAt(pos) == '-' || s.charAt(pos) == '+'))
+			negative = s.charAt(pos++) == '-';
+
+		long unscaled = 0;
+		int digits = 0;
+		int scale = 0;
+
+		boolean fraction = false;
+
+		for (; pos < len; pos++) {
+
+			final char c = s.charAt(pos);
+
+			if (c >= '0' && c <= '9') {
+
+				unscaled = unscaled * 10 + (c - '0');
+				digits++;
+
+				if (fraction)
+					scale++;
+			}
+			else if (c == '.' && ! fraction && digits > 0) {
+
+				fraction = true;
+			}
+			else {
+				break;
+			}
+		}
+
+		if (digits == 0 || digits > 18 || s.charAt(pos - 1) == '.')
+			return parseDecimal(s);
+
+		if (pos < len) {
+
+			final char e = s.charAt(pos);
+
+			if ((e != 'e' && e != 'E') || len - pos > 8)
+				return parseDecimal(s);
+
+			pos++;
+
+			boolean negativeExponent = false;
+
+			if (pos < len && (s.charAt(pos) == '-' || s.charAt(pos) == '+'))
+				negativeExponent = s.charAt(pos++) == '-';
+
+			if (pos == len)
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			final int exponent = parseDigits(s, pos, len - pos);
+
+			scale = negativeExponent ? scale + exponent : scale - exponent;
+		}
+
+		return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+	}
+
+
+	/**
+	 * Parses a decimal number as by {@link BigDecimal#BigDecimal(String)}.
+	 *
+	 * @param s The characters.
+	 *
+	 * @return The decimal number.
+	 *
+	 * @throws JSONRPC2Error If the number is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private static BigDecimal parseDecimal(final CharSequence s)
+		throws JSONRPC2Error {
+
+		try {
+			return new BigDecimal(s.toString());
+
+		} catch (NumberFormatException e) {
+
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+
+
+	/**
+	 * Decodes base64 data. Both the standard and the URL-safe alphabets
+	 * are accepted, with or without padding, but not mixed: the first
+	 * {@code +/} or {@code -_} character selects the alphabet. The unused
+	 * bits of the last character must be zero, so that each byte 
+	 * sequence has a single encoding. Line breaks are not allowed.
+	 *
+	 * @param s The characters. Must not be {@code null}.
+	 *
+	 * @return The decoded bytes.
+	 *
+	 * @throws JSONRPC2Error If the data is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static byte[] decodeBase64(final CharSequence s)
+		throws JSONRPC2Error {
+
+		int len = s.length();
+
+		if (len % 4 == 0 && len > 0 && s.charAt(len - 1) == '=') {
+
+			len--;
+
+			if (s.charAt(len - 1) == '=')
+				len--;
+		}
+
+		if (len % 4 == 1)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		byte[] out = new byte[len * 3 / 4];
+
+		int bits = 0;
+		int bitCount = 0;
+		int o = 0;
+
+		// 0 until the alphabet is known, then '+' or '-'
+		char alphabet = 0;
+
+		for (int i = 0; i < len; i++) {
+
+			final char c = s.charAt(i);
+
+			final int value = c < 128 ? BASE64_VALUES[c] : -1;
+
+			if (value < 0)
+				throw JSONRPC2Error.INVALID_PARAMS;
+
+			if (value >= 62) {
+
+				final char set = c == '+' || c == '/' ? '+' : '-';
+
+				if (alphabet == 0)
+					alphabet = set;
+				else if (alphabet != set)
+					throw JSONRPC2Error.INVALID_PARAMS;
+			}
+
+			bits = (bits << 6) | value;
+			bitCount += 6;
+
+			if (bitCount >= 8) {
+
+				bitCount -= 8;
+				out[o++] = (byte)(bits >> bitCount);
+			}
+		}
+
+		if ((bits & ((1 << bitCount) - 1)) != 0)
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		return out;
+	}
+}
@@ -0,0 +1,196 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Reusable holder of the outcome of probing a JSON-RPC 2.0 parameter with
+ * the non-throwing {@code probe} methods of the parameter retrievers: the
+ * {@link ParamStatus status} and, if present, the value.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * ParamHolder holder = new ParamHolder();
+ *
+ * if (r.probe("limit", Number.class, holder) == ParamStatus.OK)
+ *         limit = holder.getInt();
+ * else if (r.probe("range", List.class, holder) == ParamStatus.OK)
+ *         range = holder.getList();
+ * </pre>
+ *
+ * <p>The typed getters simply cast the value and are intended for the
+ * {@link ParamStatus#OK} status.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class ParamHolder {
+
+
+	/**
+	 * The status.
+	 */
+	private ParamStatus status = ParamStatus.MISSING;
+
+
+	/**
+	 * The value, {@code null} if missing or {@code null}.
+	 */
+	private Object value = null;
+
+
+	/**
+	 * Creates a new empty parameter holder, with status
+	 * {@link ParamStatus#MISSING}.
+	 */
+	public ParamHolder() {
+
+		// nothing to do
+	}
+
+
+	/**
+	 * Sets the status and value.
+	 *
+	 * @param status The status.
+	 * @param value  The value.
+	 *
+	 * @return The status.
+	 */
+	ParamStatus set(final ParamStatus status, final Object value) {
+
+		this.status = status;
+		this.value = value;
+
+		return status;
+	}
+
+
+	/**
+	 * Clears this holder, setting its status to
+	 * {@link ParamStatus#MISSING}.
+	 */
+	public void clear() {
+
+		set(ParamStatus.MISSING, null);
+	}
+
+
+	/**
+	 * Gets the status.
+	 *
+	 * @return The status.
+	 */
+	public ParamStatus getStatus() {
+
+		return status;
+	}
+
+
+	/**
+	 * Returns {@code true} if the parameter is present and of the expected
+	 * type.
+	 *
+	 * @return {@code true} if the status is {@link ParamStatus#OK}.
+	 */
+	public boolean isOK() {
+
+		return status == ParamStatus.OK;
+	}
+
+
+	/**
+	 * Gets the value. For the {@link ParamStatus#WRONG_TYPE} status this
+	 * is the present value of the other type.
+	 *
+	 * @return The value, {@code null} if missing or {@code null}.
+	 */
+	public Object getValue() {
+
+		return value;
+	}
+
+
+	/**
+	 * Gets the value as a string.
+	 *
+	 * @return The string value.
+	 */
+	public String getString() {
+
+		return (String)value;
+	}
+
+
+	/**
+	 * Gets the value as a {@code boolean}.
+	 *
+	 * @return The boolean value.
+	 */
+	public boolean getBoolean() {
+
+		return (Boolean)value;
+	}
+
+
+	/**
+	 * Gets the numeric value as an {@code int}.
+	 *
+	 * @return The value as an {@code int}.
+	 */
+	public int getInt() {
+
+		return ((Number)value).intValue();
+	}
+
+
+	/**
+	 * Gets the numeric value as a {@code long}.
+	 *
+	 * @return The value as a {@code long}.
+	 */
+	public long getLong() {
+
+		return ((Number)value).longValue();
+	}
+
+
+	/**
+	 * Gets the numeric value as a {@code double}.
+	 *
+	 * @return The value as a {@code double}.
+	 */
+	public double getDouble() {
+
+		return ((Number)value).doubleValue();
+	}
+
+
+	/**
+	 * Gets the value as a list.
+	 *
+	 * @return The list value.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Object> getList() {
+
+		return (List<Object>)value;
+	}
+
+
+	/**
+	 * Gets the value as a map.
+	 *
+	 * @return The map value.
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getMap() {
+
+		return (Map<String,Object>)value;
+	}
+}
@@ -0,0 +1,442 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.thetransactioncompany.jsonrpc2.*;
+
+
+/**
+ * Compiled path to a value nested in JSON-RPC 2.0 parameters, such as
+ * {@code order.lines[3].sku}. Compile the path once, e.g. as a static
+ * constant, then resolve it against the parameters of each request. The
+ * path walks nested maps (JSON objects) by member name and lists (JSON
+ * arrays) by index; any missing node or type mismatch along the way, or at
+ * the leaf, results in a single
+ * {@link JSONRPC2Error#INVALID_PARAMS} error.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * static final ParamPath SKU = ParamPath.compile("order.lines[3].sku");
+ *
+ * String sku = SKU.getString(request.getParams());
+ * </pre>
+ *
+ * <p>Path syntax: member names separated by dots, each optionally followed
+ * by one or more {@code [index]} selectors. A path into positional
+ * parameters starts with an index selector, e.g. {@code [0].name}. Member
+ * names can't contain dots or square brackets.
+ *
+ * <p>Nodes which are {@link JSONRPC2RawValue raw values}, e.g. from
+ * pass-through parsing, are walked without decoding: only the member
+ * names along the path are decoded and only the leaf value is parsed.
+ *
+ * <p>This class is immutable and thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class ParamPath {
+
+
+	/**
+	 * The path as specified.
+	 */
+	private final String path;
+
+
+	/**
+	 * The member names of the steps, {@code null} for index steps.
+	 */
+	private final String[] names;
+
+
+	/**
+	 * The indexes of the steps, -1 for member name steps.
+	 */
+	private final int[] indexes;
+
+
+	/**
+	 * Creates a new compiled path.
+	 *
+	 * @param path    The path as specified.
+	 * @param names   The member names of the steps.
+	 * @param indexes The indexes of the steps.
+	 */
+	private ParamPath(final String path, final String[] names, final int[] indexes) {
+
+		this.path = path;
+		this.names = names;
+		this.indexes = indexes;
+	}
+
+
+	/**
+	 * Compiles the specified path.
+	 *
+	 * @param path The path, e.g. {@code order.lines[3].sku}. Must not be
+	 *             {@code null}.
+	 *
+	 * @return The compiled path.
+	 *
+	 * @throws IllegalArgumentException If the path is invalid.
+	 */
+	public static ParamPath compile(final String path) {
+
+		if (path == null)
+			throw new NullPointerException("The path must not be null");
+
+		List<String> names = new ArrayList<String>();
+		List<Integer> indexes = new ArrayList<Integer>();
+
+		int pos = 0;
+
+		final int len = path.length();
+
+		while (pos < len) {
+
+			if (path.charAt(pos) == '[') {
+
+				final int close = path.indexOf(']', pos);
+
+				if (close < 0)
+					throw new IllegalArgumentException("Invalid path: Unclosed bracket in " + path);
+
+				final int index;
+
+				try {
+					index = Integer.parseInt(path.substring(pos + 1, close));
+
+				} catch (NumberFormatException e) {
+
+					throw new IllegalArgumentException("Invalid path: Bad index in " + path);
+				}
+
+				if (index < 0)
+					throw new IllegalArgumentException("Invalid path: Negative index in " + path);
+
+				names.add(null);
+				indexes.add(index);
+
+				pos = close + 1;
+			}
+			else {
+				if (! names.isEmpty()) {
+
+					if (path.charAt(pos) != '.')
+						throw new IllegalArgumentException("Invalid path: Expected dot at position " + pos + " in " + path);
+
+					pos++;
+				}
+
+				final int start = pos;
+
+				while (pos < len && path.charAt(pos) != '.' && path.charAt(pos) != '[') {
+
+					if (path.charAt(pos) == ']')
+						throw new IllegalArgumentException("Invalid path: Unexpected bracket in " + path);
+
+					pos++;
+				}
+
+				if (pos == start)
+					throw new IllegalArgumentException("Invalid path: Empty member name in " + path);
+
+				names.add(path.substring(start, pos));
+				indexes.add(-1);
+			}
+		}
+
+		if (names.isEmpty())
+			throw new IllegalArgumentException("Invalid path: Empty");
+
+		int[] indexArray = new int[indexes.size()];
+
+		for (int i = 0; i < indexArray.length; i++)
+			indexArray[i] = indexes.get(i);
+
+		return new ParamPath(path, names.toArray(new String[names.size()]), indexArray);
+	}
+
+
+	/**
+	 * Gets the number of steps in this path.
+	 *
+	 * @return The number of steps.
+	 */
+	public int getDepth() {
+
+		return names.length;
+	}
+
+
+	/**
+	 * Takes the specified step from a node.
+	 *
+	 * @param node The node, may be {@code null}.
+	 * @param i    The step index.
+	 *
+	 * @return The child node, {@code null} if not found. A raw child node
+	 *         is returned undecoded.
+	 *
+	 * @throws JSONRPC2Error If the node is a malformed raw value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private Object step(final Object node, final int i)
+		throws JSONRPC2Error {
+
+		if (node instanceof JSONRPC2RawValue) {
+
+			final JSONRPC2RawValue raw = (JSONRPC2RawValue)node;
+
+			try {
+				return names[i] != null ? raw.getMember(names[i]) : raw.getElement(indexes[i]);
+
+			} catch (JSONRPC2ParseException e) {
+
+				throw JSONRPC2Error.INVALID_PARAMS;
+			}
+		}
+
+		if (names[i] != null)
+			return node instanceof Map ? ((Map<?,?>)node).get(names[i]) : null;
+
+		if (node instanceof List) {
+
+			final List<?> list = (List<?>)node;
+
+			return indexes[i] < list.size() ? list.get(indexes[i]) : null;
+		}
+
+		return null;
+	}
+
+
+	/**
+	 * Walks the specified number of steps of this path.
+	 *
+	 * @param params The parameters: a map, a list or a raw JSON object or
+	 *               array.
+	 * @param steps  The number of steps to take.
+	 *
+	 * @return The node reached, {@code null} if the path doesn't resolve.
+	 *
+	 * @throws JSONRPC2Error If a raw value along the path is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private Object walk(final Object params, final int steps)
+		throws JSONRPC2Error {
+
+		Object node = params;
+
+		for (int i = 0; i < steps && node != null; i++)
+			node = step(node, i);
+
+		return node;
+	}
+
+
+	/**
+	 * Retrieves the value at this path, which must map to the specified
+	 * class.
+	 *
+	 * @param params The parameters: a map, a list or a raw JSON object or
+	 *               array.
+	 * @param clazz  The class the value should map to. Set to
+	 *               {@code Object.class} to allow any type, or to
+	 *               {@code JSONRPC2RawValue.class} to get a raw value
+	 *               undecoded.
+	 *
+	 * @return The value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public <T> T get(final Object params, final Class<T> clazz)
+		throws JSONRPC2Error {
+
+		final Object value = ParamsRetriever.decodeRaw(walk(params, names.length), clazz);
+
+		if (! clazz.isInstance(value))
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		return clazz.cast(value);
+	}
+
+
+	/**
+	 * Probes the value at this path without throwing an exception. A
+	 * missing node along the path is reported as
+	 * {@link ParamStatus#MISSING}, a malformed raw value as
+	 * {@link ParamStatus#WRONG_TYPE}.
+	 *
+	 * @param params The parameters: a map, a list or a raw JSON object or
+	 *               array.
+	 * @param clazz  The expected class of the value.
+	 * @param holder The holder to record the status and value in. Must
+	 *               not be {@code null}.
+	 *
+	 * @return The parameter status.
+	 */
+	public ParamStatus probe(final Object params, final Class<?> clazz, final ParamHolder holder) {
+
+		final int last = names.length - 1;
+
+		try {
+			final Object parent = walk(params, last);
+
+			Object value = step(parent, last);
+
+			boolean present;
+
+			if (value != null)
+				present = true;
+			else if (names[last] != null)
+				present = parent instanceof Map && ((Map<?,?>)parent).containsKey(names[last]);
+			else
+				present = parent instanceof List && indexes[last] < ((List<?>)parent).size();
+
+			return ParamsRetriever.probeValue(ParamsRetriever.decodeRaw(value, clazz), present, clazz, holder);
+
+		} catch (JSONRPC2Error e) {
+
+			return holder.set(ParamStatus.WRONG_TYPE, null);
+		}
+	}
+
+
+	/**
+	 * Retrieves the string value at this path.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The string value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getString(final Object params)
+		throws JSONRPC2Error {
+
+		return get(params, String.class);
+	}
+
+
+	/**
+	 * Retrieves the boolean value at this path.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The boolean value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public boolean getBoolean(final Object params)
+		throws JSONRPC2Error {
+
+		return get(params, Boolean.class);
+	}
+
+
+	/**
+	 * Retrieves the numeric value at this path as an {@code int}.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The value as an {@code int}.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public int getInt(final Object params)
+		throws JSONRPC2Error {
+
+		return get(params, Number.class).intValue();
+	}
+
+
+	/**
+	 * Retrieves the numeric value at this path as a {@code long}.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The value as a {@code long}.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long getLong(final Object params)
+		throws JSONRPC2Error {
+
+		return get(params, Number.class).longValue();
+	}
+
+
+	/**
+	 * Retrieves the numeric value at this path as a {@code double}.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The value as a {@code double}.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double getDouble(final Object params)
+		throws JSONRPC2Error {
+
+		return get(params, Number.class).doubleValue();
+	}
+
+
+	/**
+	 * Retrieves the list (JSON array) value at this path.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The list value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Object> getList(final Object params)
+		throws JSONRPC2Error {
+
+		return (List<Object>)get(params, List.class);
+	}
+
+
+	/**
+	 * Retrieves the map (JSON object) value at this path.
+	 *
+	 * @param params The parameters.
+	 *
+	 * @return The map value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getMap(final Object params)
+		throws JSONRPC2Error {
+
+		return (Map<String,Object>)get(params, Map.class);
+	}
+
+
+	/**
+	 * Returns the path as specified at compilation.
+	 *
+	 * @return The path.
+	 */
+	public String toString() {
+
+		return path;
+	}
+}
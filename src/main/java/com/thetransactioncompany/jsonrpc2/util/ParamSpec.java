@@ -0,0 +1,295 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+/**
+ * Specification of a named JSON-RPC 2.0 parameter within a
+ * {@link NamedParamsSchema}: its name, expected type, whether it is
+ * optional and its default value, whether it may be {@code null}, and
+ * optionally the set of acceptable enumerated values.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * ParamSpec name = ParamSpec.mandatory("name", String.class);
+ * ParamSpec age  = ParamSpec.mandatory("age", Number.class);
+ * ParamSpec sex  = ParamSpec.optional("sex", String.class, "female")
+ *                           .withEnumStrings(new EnumStringSet("male", "female"))
+ *                           .withIgnoreCase();
+ * ParamSpec day  = ParamSpec.mandatory("day", Weekday.class);
+ * </pre>
+ *
+ * <p>The type is matched as by {@link NamedParamsRetriever#get(String,Class)}:
+ * use {@code Number.class} for numbers, {@code Boolean.class},
+ * {@code String.class}, {@code java.util.List.class},
+ * {@code java.util.Map.class}, or {@code Object.class} to allow any type.
+ * For an enumeration type the parameter must be a JSON string matching
+ * a constant name, as by {@link NamedParamsRetriever#getEnum}; the value 
+ * is replaced by the matching constant.
+ *
+ * <p>This class is immutable; the {@code with*} methods return modified
+ * copies.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class ParamSpec {
+
+
+	/**
+	 * The parameter name.
+	 */
+	private final String name;
+
+
+	/**
+	 * The class the parameter value must map to.
+	 */
+	private final Class<?> type;
+
+
+	/**
+	 * {@code true} if the parameter is optional.
+	 */
+	private final boolean optional;
+
+
+	/**
+	 * The default value of an optional parameter.
+	 */
+	private final Object defaultValue;
+
+
+	/**
+	 * {@code true} if a {@code null} value is allowed.
+	 */
+	private final boolean allowNull;
+
+
+	/**
+	 * The acceptable enumerated string values, {@code null} if not
+	 * enumerated.
+	 */
+	private final EnumStringSet enumStrings;
+
+
+	/**
+	 * {@code true} for case insensitive matching of enumerated values.
+	 */
+	private final boolean ignoreCase;
+
+
+	/**
+	 * Creates a new parameter specification.
+	 *
+	 * @param name         The parameter name.
+	 * @param type         The class the value must map to.
+	 * @param optional     {@code true} if the parameter is optional.
+	 * @param defaultValue The default value, {@code null} if none.
+	 * @param allowNull    {@code true} if a {@code null} value is allowed.
+	 * @param enumStrings  The acceptable enumerated string values,
+	 *                     {@code null} if not enumerated.
+	 * @param ignoreCase   {@code true} for case insensitive matching of
+	 *                     enumerated values.
+	 */
+	private ParamSpec(final String name,
+		          final Class<?> type,
+		          final boolean optional,
+		          final Object defaultValue,
+		          final boolean allowNull,
+		          final EnumStringSet enumStrings,
+		          final boolean ignoreCase) {
+
+		if (name == null)
+			throw new NullPointerException("The parameter name must not be null");
+
+		if (type == null)
+			throw new NullPointerException("The parameter type must not be null");
+
+		if (defaultValue != null && ! type.isInstance(defaultValue))
+			throw new IllegalArgumentException("The default value must be of type " + type.getName());
+
+		if (defaultValue != null && enumStrings != null && enumStrings.indexOf((String)defaultValue, false) < 0)
+			throw new IllegalArgumentException("The default value must be one of the enumerated string values");
+
+		this.name = name;
+		this.type = type;
+		this.optional = optional;
+		this.defaultValue = defaultValue;
+		this.allowNull = allowNull;
+		this.enumStrings = enumStrings;
+		this.ignoreCase = ignoreCase;
+	}
+
+
+	/**
+	 * Creates a new specification of a mandatory parameter with a
+	 * non-{@code null} value.
+	 *
+	 * @param name The parameter name. Must not be {@code null}.
+	 * @param type The class the parameter value must map to. Must not be
+	 *             {@code null}.
+	 *
+	 * @return The parameter specification.
+	 */
+	public static ParamSpec mandatory(final String name, final Class<?> type) {
+
+		return new ParamSpec(name, type, false, null, false, null, false);
+	}
+
+
+	/**
+	 * Creates a new specification of an optional parameter with a
+	 * non-{@code null} value.
+	 *
+	 * @param name         The parameter name. Must not be {@code null}.
+	 * @param type         The class the parameter value must map to. Must
+	 *                     not be {@code null}.
+	 * @param defaultValue The value to use if the parameter is absent,
+	 *                     {@code null} if none. Must be of the specified
+	 *                     type.
+	 *
+	 * @return The parameter specification.
+	 */
+	public static ParamSpec optional(final String name, final Class<?> type, final Object defaultValue) {
+
+		return new ParamSpec(name, type, true, defaultValue, false, null, false);
+	}
+
+
+	/**
+	 * Returns a copy of this specification which allows a {@code null}
+	 * parameter value.
+	 *
+	 * @return The modified specification.
+	 */
+	public ParamSpec withNullAllowed() {
+
+		return new ParamSpec(name, type, optional, defaultValue, true, enumStrings, ignoreCase);
+	}
+
+
+	/**
+	 * Returns a copy of this specification for an enumerated string
+	 * parameter. The value is replaced by the matching string from the
+	 * set. A default value must be one of the strings, matched exactly.
+	 *
+	 * @param enumStrings The acceptable string values. Must not be
+	 *                    {@code null}.
+	 *
+	 * @return The modified specification.
+	 *
+	 * @throws IllegalArgumentException If the default value isn't one of
+	 *                                  the enumerated string values.
+	 */
+	public ParamSpec withEnumStrings(final EnumStringSet enumStrings) {
+
+		if (enumStrings == null)
+			throw new NullPointerException("The enumerated string values must not be null");
+
+		return new ParamSpec(name, String.class, optional, defaultValue, allowNull, enumStrings, ignoreCase);
+	}
+
+
+	/**
+	 * Returns a copy of this specification which matches enumerated 
+	 * values case insensitively.
+	 *
+	 * @return The modified specification.
+	 */
+	public ParamSpec withIgnoreCase() {
+
+		return new ParamSpec(name, type, optional, defaultValue, allowNull, enumStrings, true);
+	}
+
+
+	/**
+	 * Gets the parameter name.
+	 *
+	 * @return The parameter name.
+	 */
+	public String getName() {
+
+		return name;
+	}
+
+
+	/**
+	 * Gets the class the parameter value must map to.
+	 *
+	 * @return The parameter type.
+	 */
+	public Class<?> getType() {
+
+		return type;
+	}
+
+
+	/**
+	 * Returns {@code true} if the parameter is optional.
+	 *
+	 * @return {@code true} if optional, {@code false} if mandatory.
+	 */
+	public boolean isOptional() {
+
+		return optional;
+	}
+
+
+	/**
+	 * Gets the default value of an optional parameter.
+	 *
+	 * @return The default value, {@code null} if none.
+	 */
+	public Object getDefaultValue() {
+
+		return defaultValue;
+	}
+
+
+	/**
+	 * Returns {@code true} if a {@code null} parameter value is allowed.
+	 *
+	 * @return {@code true} if {@code null} is allowed, else
+	 *         {@code false}.
+	 */
+	public boolean allowsNull() {
+
+		return allowNull;
+	}
+
+
+	/**
+	 * Gets the acceptable enumerated string values.
+	 *
+	 * @return The enumerated string values, {@code null} if none.
+	 */
+	public EnumStringSet getEnumStrings() {
+
+		return enumStrings;
+	}
+
+
+	/**
+	 * Gets the enumeration class of the parameter, if its type is an 
+	 * enumeration.
+	 *
+	 * @return The enumeration class, {@code null} if none.
+	 */
+	public Class<?> getEnumClass() {
+
+		return type.isEnum() ? type : null;
+	}
+
+
+	/**
+	 * Returns {@code true} if enumerated values are matched case
+	 * insensitively.
+	 *
+	 * @return {@code true} for case insensitive matching, else
+	 *         {@code false}.
+	 */
+	public boolean ignoresCase() {
+
+		return ignoreCase;
+	}
+}
@@ -0,0 +1,36 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+/**
+ * The outcome of probing a JSON-RPC 2.0 parameter with the non-throwing
+ * {@code probe} methods of the parameter retrievers.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public enum ParamStatus {
+
+
+	/**
+	 * The parameter is present and of the expected type.
+	 */
+	OK,
+
+
+	/**
+	 * The parameter is absent.
+	 */
+	MISSING,
+
+
+	/**
+	 * The parameter is present with a {@code null} value.
+	 */
+	NULL,
+
+
+	/**
+	 * The parameter is present but of another type than expected.
+	 */
+	WRONG_TYPE
+}
@@ -0,0 +1,286 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Reusable slot array of parameter values, filled by
+ * {@link NamedParamsSchema#validate(Map,ParamValues)} or
+ * {@link PositionalParamsSignature#validate(List,ParamValues)}. The slots 
+ * are in the order of the parameter specifications of the schema or 
+ * signature.
+ *
+ * <p>The values have been checked against the schema, so the typed getters
+ * simply cast them: calling a getter which doesn't match the specified
+ * parameter type causes a {@code ClassCastException}, calling a primitive
+ * getter on a {@code null} value a {@code NullPointerException}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class ParamValues {
+
+
+	/**
+	 * The schema.
+	 */
+	private final NamedParamsSchema schema;
+
+
+	/**
+	 * The values, by slot.
+	 */
+	private final Object[] values;
+
+
+	/**
+	 * Indicates the slots whose parameter was present.
+	 */
+	private final boolean[] present;
+
+
+	/**
+	 * Creates a new slot array for the specified schema.
+	 *
+	 * @param schema The schema.
+	 */
+	ParamValues(final NamedParamsSchema schema) {
+
+		this.schema = schema;
+		values = new Object[schema.size()];
+		present = new boolean[schema.size()];
+	}
+
+
+	/**
+	 * Clears all slots.
+	 */
+	void clear() {
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = null;
+			present[i] = false;
+		}
+	}
+
+
+	/**
+	 * Sets the value of a present parameter.
+	 *
+	 * @param slot  The slot index.
+	 * @param value The value.
+	 */
+	void set(final int slot, final Object value) {
+
+		values[slot] = value;
+		present[slot] = true;
+	}
+
+
+	/**
+	 * Sets the default value of an absent parameter.
+	 *
+	 * @param slot  The slot index.
+	 * @param value The default value.
+	 */
+	void setDefault(final int slot, final Object value) {
+
+		values[slot] = value;
+	}
+
+
+	/**
+	 * Gets the schema of this slot array. For a positional signature this
+	 * is a schema of its parameter specifications, by name.
+	 *
+	 * @return The schema.
+	 */
+	public NamedParamsSchema getSchema() {
+
+		return schema;
+	}
+
+
+	/**
+	 * Gets the number of slots.
+	 *
+	 * @return The number of slots.
+	 */
+	public int size() {
+
+		return values.length;
+	}
+
+
+	/**
+	 * Returns {@code true} if the parameter at the specified slot was
+	 * present, {@code false} if it was absent and has its default value.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return {@code true} if the parameter was present.
+	 */
+	public boolean isPresent(final int slot) {
+
+		return present[slot];
+	}
+
+
+	/**
+	 * Gets the value at the specified slot.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The value, may be {@code null}.
+	 */
+	public Object get(final int slot) {
+
+		return values[slot];
+	}
+
+
+	/**
+	 * Gets the value of the parameter with the specified name. Prefer
+	 * {@link #get(int)} on hot paths, this method looks up the slot.
+	 *
+	 * @param name The parameter name.
+	 *
+	 * @return The value, may be {@code null}.
+	 *
+	 * @throws IllegalArgumentException If the parameter is not in the
+	 *                                  schema.
+	 */
+	public Object get(final String name) {
+
+		final int slot = schema.indexOf(name);
+
+		if (slot < 0)
+			throw new IllegalArgumentException("No parameter " + name + " in the schema");
+
+		return values[slot];
+	}
+
+
+	/**
+	 * Gets the string value at the specified slot.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The string value, may be {@code null}.
+	 */
+	public String getString(final int slot) {
+
+		return (String)values[slot];
+	}
+
+
+	/**
+	 * Gets the boolean value at the specified slot.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The boolean value.
+	 */
+	public boolean getBoolean(final int slot) {
+
+		return (Boolean)values[slot];
+	}
+
+
+	/**
+	 * Gets the numeric value at the specified slot as an {@code int}.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The value as an {@code int}.
+	 */
+	public int getInt(final int slot) {
+
+		return ((Number)values[slot]).intValue();
+	}
+
+
+	/**
+	 * Gets the numeric value at the specified slot as a {@code long}.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The value as a {@code long}.
+	 */
+	public long getLong(final int slot) {
+
+		return ((Number)values[slot]).longValue();
+	}
+
+
+	/**
+	 * Gets the numeric value at the specified slot as a {@code float}.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The value as a {@code float}.
+	 */
+	public float getFloat(final int slot) {
+
+		return ((Number)values[slot]).floatValue();
+	}
+
+
+	/**
+	 * Gets the numeric value at the specified slot as a {@code double}.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The value as a {@code double}.
+	 */
+	public double getDouble(final int slot) {
+
+		return ((Number)values[slot]).doubleValue();
+	}
+
+
+	/**
+	 * Gets the list value at the specified slot.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The list value, may be {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Object> getList(final int slot) {
+
+		return (List<Object>)values[slot];
+	}
+
+
+	/**
+	 * Gets the map value at the specified slot.
+	 *
+	 * @param slot The slot index.
+	 *
+	 * @return The map value, may be {@code null}.
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getMap(final int slot) {
+
+		return (Map<String,Object>)values[slot];
+	}
+
+
+	/**
+	 * Gets the enumeration constant at the specified slot.
+	 *
+	 * @param slot      The slot index.
+	 * @param enumClass The enumeration class of the parameter.
+	 *
+	 * @return The enumeration constant, may be {@code null}.
+	 */
+	public <T extends Enum<T>> T getEnum(final int slot, final Class<T> enumClass) {
+
+		return enumClass.cast(values[slot]);
+	}
+}
@@ -1,7 +1,13 @@
 package com.thetransactioncompany.jsonrpc2.util;
 
 
-import java.lang.reflect.*;
+import java.lang.ref.WeakReference;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 import com.thetransactioncompany.jsonrpc2.*;
 
@@ -10,10 +16,91 @@ import com.thetransactioncompany.jsonrpc2.*;
  * The base abstract class for the JSON-RPC 2.0 parameter retrievers.
  *
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-10-08)
+ * @version 1.27 (2026-10-18)
  */
 public abstract class ParamsRetriever {
 
+
+	/**
+	 * Cache of the constant names of enumeration classes, compiled on 
+	 * first use. An immutable open-addressed table keyed by class 
+	 * identity, read without locking and replaced by a copy on each miss.
+	 * The classes are weakly referenced and the tables hold only strings,
+	 * so the cache doesn't keep class loaders alive.
+	 */
+	private static volatile EnumTable[] enumTables = new EnumTable[8];
+
+
+	/**
+	 * Serialises the replacement of the enumeration cache.
+	 */
+	private static final Object enumTablesLock = new Object();
+
+
+	/**
+	 * Marks a missing parameter in lookups, where {@code null} stands for
+	 * a parameter with a {@code null} value.
+	 */
+	static final Object MISSING = new Object();
+
+
+	/**
+	 * The constant names of an enumeration class.
+	 */
+	private static final class EnumTable {
+
+
+		/**
+		 * The enumeration class, weakly referenced.
+		 */
+		final WeakReference<Class<?>> enumClass;
+
+
+		/**
+		 * The identity hash code of the enumeration class.
+		 */
+		final int hash;
+
+
+		/**
+		 * The declared constant names, as returned by {@code name()}.
+		 */
+		final String[] constantNames;
+
+
+		/**
+		 * The constant names, as returned by {@code toString()}.
+		 */
+		final EnumStringSet names;
+
+
+		/**
+		 * Creates a new table for the specified enumeration class.
+		 *
+		 * @param enumClass The enumeration class.
+		 */
+		EnumTable(final Class<?> enumClass) {
+
+			this.enumClass = new WeakReference<Class<?>>(enumClass);
+
+			hash = System.identityHashCode(enumClass);
+
+			final Object[] constants = enumClass.getEnumConstants();
+
+			constantNames = new String[constants.length];
+
+			String[] strings = new String[constants.length];
+
+			for (int i = 0; i < constants.length; i++) {
+
+				constantNames[i] = ((Enum<?>)constants[i]).name();
+				strings[i] = constants[i].toString();
+			}
+
+			names = new EnumStringSet(strings);
+		}
+	}
+
 	
 	/**
 	 * Returns the parameter count.
@@ -59,6 +146,31 @@ public abstract class ParamsRetriever {
 	}
 	
 	
+	/**
+	 * Throws a {@code JSONRPC2Error.INVALID_PARAMS} exception if the input
+	 * string doesn't match a value in the specified precompiled set.
+	 *
+	 * @param input       The string to check.
+	 * @param enumStrings The acceptable string values.
+	 * @param ignoreCase  {@code true} for a case insensitive match.
+	 *
+	 * @return The matching string value.
+	 *
+	 * @throws JSONRPC2Error With proper code and message if the input
+	 *                       string didn't match.
+	 */
+	protected static String ensureEnumString(final String input, final EnumStringSet enumStrings, final boolean ignoreCase)
+		throws JSONRPC2Error {
+	
+		final String match = enumStrings.match(input, ignoreCase);
+		
+		if (match == null)
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		return match;
+	}
+	
+	
 	/**
 	 * Throws a {@code JSONRPC2Error.INVALID_PARAMS} exception if the input
 	 * string doesn't match a constant name in the specified enumeration
@@ -80,19 +192,527 @@ public abstract class ParamsRetriever {
 	protected static <T extends Enum<T>> T ensureEnumString(final String input, final Class<T> enumClass, final boolean ignoreCase)
 		throws JSONRPC2Error {
 		
-		for (T en: enumClass.getEnumConstants()) {
+		Object constant = matchEnumConstant(input, enumClass, ignoreCase);
 		
-			if (ignoreCase) {
-				if (en.toString().equalsIgnoreCase(input))
-					return en;
+		// No match -> raise error
+		if (constant == null)
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		return enumClass.cast(constant);
+	}
+	
+	
+	/**
+	 * Returns the constant of the specified enumeration class whose name
+	 * matches the input. The constant names of each class are compiled
+	 * once into a cached lookup table, the matching constant is then 
+	 * resolved by its declared name.
+	 *
+	 * @param input      The string to match.
+	 * @param enumClass  The enumeration class.
+	 * @param ignoreCase {@code true} for a case insensitive match.
+	 *
+	 * @return The matching enumeration constant, {@code null} if none.
+	 */
+	static Object matchEnumConstant(final String input, final Class<?> enumClass, final boolean ignoreCase) {
+		
+		final EnumTable table = enumTable(enumClass);
+		
+		final int index = table.names.indexOf(input, ignoreCase);
+		
+		return index >= 0 ? valueOf(enumClass, table.constantNames[index]) : null;
+	}
+	
+	
+	/**
+	 * Returns the cached constant names of the specified enumeration
+	 * class, compiling them on a miss. Hits read the current cache without
+	 * locking. A miss copies the live entries and the new one into a new
+	 * cache under a lock, which also drops the entries of unloaded 
+	 * classes.
+	 *
+	 * @param enumClass The enumeration class.
+	 *
+	 * @return The constant names.
+	 */
+	private static EnumTable enumTable(final Class<?> enumClass) {
+		
+		EnumTable table = findEnumTable(enumTables, enumClass);
+		
+		if (table != null)
+			return table;
+		
+		synchronized (enumTablesLock) {
+			
+			final EnumTable[] tables = enumTables;
+			
+			table = findEnumTable(tables, enumClass);
+			
+			if (table != null)
+				return table;
+			
+			table = new EnumTable(enumClass);
+			
+			int live = 1;
+			
+			for (final EnumTable t: tables) {
+				
+				if (t != null && t.enumClass.get() != null)
+					live++;
 			}
-			else {
-				if (en.toString().equals(input))
-					return en;
+			
+			// Keep the load factor at or below one half
+			int capacity = 8;
+			
+			while (capacity < live * 2)
+				capacity *= 2;
+			
+			final EnumTable[] copy = new EnumTable[capacity];
+			
+			for (final EnumTable t: tables) {
+				
+				if (t != null && t.enumClass.get() != null)
+					insertEnumTable(copy, t);
 			}
+			
+			insertEnumTable(copy, table);
+			
+			enumTables = copy;
 		}
 		
-		// No match -> raise error
-		throw JSONRPC2Error.INVALID_PARAMS;
+		return table;
+	}
+	
+	
+	/**
+	 * Finds the constant names of the specified enumeration class in a
+	 * cache.
+	 *
+	 * @param tables    The cache, with at least one free slot.
+	 * @param enumClass The enumeration class.
+	 *
+	 * @return The constant names, {@code null} if not cached.
+	 */
+	private static EnumTable findEnumTable(final EnumTable[] tables, final Class<?> enumClass) {
+		
+		final int mask = tables.length - 1;
+		
+		for (int i = System.identityHashCode(enumClass) & mask; ; i = (i + 1) & mask) {
+			
+			final EnumTable t = tables[i];
+			
+			if (t == null)
+				return null;
+			
+			if (t.enumClass.get() == enumClass)
+				return t;
+		}
+	}
+	
+	
+	/**
+	 * Inserts the constant names of an enumeration class into a cache
+	 * under construction.
+	 *
+	 * @param tables The cache, with at least one free slot.
+	 * @param table  The constant names to insert.
+	 */
+	private static void insertEnumTable(final EnumTable[] tables, final EnumTable table) {
+		
+		final int mask = tables.length - 1;
+		
+		int i = table.hash & mask;
+		
+		while (tables[i] != null)
+			i = (i + 1) & mask;
+		
+		tables[i] = table;
+	}
+	
+	
+	/**
+	 * Returns the constant of the specified enumeration class with the
+	 * specified declared name.
+	 *
+	 * @param enumClass The enumeration class.
+	 * @param name      The declared constant name.
+	 *
+	 * @return The enumeration constant.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object valueOf(final Class<?> enumClass, final String name) {
+		
+		return Enum.valueOf((Class)enumClass, name);
+	}
+	
+	
+	/**
+	 * Decodes the specified parameter value if it's raw, unless the 
+	 * specified class accepts raw values, e.g. {@code Object.class} or
+	 * {@code JSONRPC2RawValue.class}. A raw JSON null is always decoded.
+	 *
+	 * @param value The parameter value.
+	 * @param clazz The expected class, {@code null} to always decode.
+	 *
+	 * @return The value, decoded if raw.
+	 *
+	 * @throws JSONRPC2Error If the raw value is malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static Object decodeRaw(final Object value, final Class<?> clazz)
+		throws JSONRPC2Error {
+		
+		if (! (value instanceof JSONRPC2RawValue))
+			return value;
+		
+		final JSONRPC2RawValue raw = (JSONRPC2RawValue)value;
+		
+		if (raw.isNull())
+			return null;
+		
+		if (clazz != null && clazz.isInstance(raw))
+			return raw;
+		
+		try {
+			return raw.parse();
+			
+		} catch (JSONRPC2ParseException e) {
+			
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Throws a {@code JSONRPC2Error.INVALID_PARAMS} exception if the
+	 * specified looked up parameter value is missing, {@code null} when
+	 * not allowed, or its type doesn't map to the specified.
+	 *
+	 * @param value     The parameter value, {@link #MISSING} if none.
+	 * @param clazz     The class the value should map to.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The value, decoded if raw and the class doesn't accept raw
+	 *         values.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type 
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	static Object ensureValue(final Object value, final Class<?> clazz, final boolean allowNull)
+		throws JSONRPC2Error {
+		
+		if (value == MISSING)
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		final Object decoded = decodeRaw(value, clazz);
+		
+		if (decoded == null) {
+			
+			if (allowNull)
+				return null;
+			else
+				throw JSONRPC2Error.INVALID_PARAMS;
+		}
+		
+		if (! clazz.isAssignableFrom(decoded.getClass()))
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		return decoded;
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, a JSON array of numbers, to
+	 * an {@code int} array. Decimals are truncated, as by 
+	 * {@link Number#intValue}.
+	 *
+	 * @param value The parameter value, a {@code List} or a raw JSON
+	 *              array.
+	 *
+	 * @return The {@code int} array.
+	 *
+	 * @throws JSONRPC2Error If the value isn't an array of numbers
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static int[] toIntArray(final Object value)
+		throws JSONRPC2Error {
+		
+		if (value instanceof JSONRPC2RawValue) {
+			
+			final long[] longs = toLongArray(value);
+			
+			int[] ints = new int[longs.length];
+			
+			for (int i = 0; i < longs.length; i++)
+				ints[i] = (int)longs[i];
+			
+			return ints;
+		}
+		
+		if (! (value instanceof List))
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		final List<?> list = (List<?>)value;
+		
+		int[] ints = new int[list.size()];
+		
+		int i = 0;
+		
+		for (Object item: list) {
+			
+			if (! (item instanceof Number))
+				throw JSONRPC2Error.INVALID_PARAMS;
+			
+			ints[i++] = ((Number)item).intValue();
+		}
+		
+		return ints;
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, a JSON array of numbers, to
+	 * a {@code long} array. Decimals are truncated, as by 
+	 * {@link Number#longValue}.
+	 *
+	 * @param value The parameter value, a {@code List} or a raw JSON
+	 *              array.
+	 *
+	 * @return The {@code long} array.
+	 *
+	 * @throws JSONRPC2Error If the value isn't an array of numbers
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static long[] toLongArray(final Object value)
+		throws JSONRPC2Error {
+		
+		if (value instanceof JSONRPC2RawValue) {
+			
+			try {
+				return ((JSONRPC2RawValue)value).toLongArray();
+				
+			} catch (JSONRPC2ParseException e) {
+				
+				throw JSONRPC2Error.INVALID_PARAMS;
+			}
+		}
+		
+		if (! (value instanceof List))
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		final List<?> list = (List<?>)value;
+		
+		long[] longs = new long[list.size()];
+		
+		int i = 0;
+		
+		for (Object item: list) {
+			
+			if (! (item instanceof Number))
+				throw JSONRPC2Error.INVALID_PARAMS;
+			
+			longs[i++] = ((Number)item).longValue();
+		}
+		
+		return longs;
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, a JSON array of numbers, to
+	 * a {@code double} array.
+	 *
+	 * @param value The parameter value, a {@code List} or a raw JSON
+	 *              array.
+	 *
+	 * @return The {@code double} array.
+	 *
+	 * @throws JSONRPC2Error If the value isn't an array of numbers
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static double[] toDoubleArray(final Object value)
+		throws JSONRPC2Error {
+		
+		if (value instanceof JSONRPC2RawValue) {
+			
+			try {
+				return ((JSONRPC2RawValue)value).toDoubleArray();
+				
+			} catch (JSONRPC2ParseException e) {
+				
+				throw JSONRPC2Error.INVALID_PARAMS;
+			}
+		}
+		
+		if (! (value instanceof List))
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		final List<?> list = (List<?>)value;
+		
+		double[] doubles = new double[list.size()];
+		
+		int i = 0;
+		
+		for (Object item: list) {
+			
+			if (! (item instanceof Number))
+				throw JSONRPC2Error.INVALID_PARAMS;
+			
+			doubles[i++] = ((Number)item).doubleValue();
+		}
+		
+		return doubles;
+	}
+	
+	
+	/**
+	 * Gets the text of the specified string-encoded parameter value. The
+	 * text of a raw JSON string is a view of its bytes where possible.
+	 *
+	 * @param value   The parameter value, a {@code String} or a raw JSON
+	 *                string.
+	 * @param numeric {@code true} to also accept a raw JSON number.
+	 *
+	 * @return The text.
+	 *
+	 * @throws JSONRPC2Error If the value isn't a string
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private static CharSequence toText(final Object value, final boolean numeric)
+		throws JSONRPC2Error {
+		
+		if (value instanceof String)
+			return (String)value;
+		
+		if (! (value instanceof JSONRPC2RawValue))
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		final JSONRPC2RawValue raw = (JSONRPC2RawValue)value;
+		
+		if (! raw.isString() && ! (numeric && raw.isNumber()))
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		try {
+			return raw.getText();
+			
+		} catch (JSONRPC2ParseException e) {
+		
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, a UUID string in canonical
+	 * form, to a {@code UUID}.
+	 *
+	 * @param value The parameter value, a {@code String} or a raw JSON
+	 *              string.
+	 *
+	 * @return The UUID.
+	 *
+	 * @throws JSONRPC2Error If the value isn't a valid UUID string
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static UUID toUUID(final Object value)
+		throws JSONRPC2Error {
+		
+		return ParamDecoders.decodeUUID(toText(value, false));
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, an ISO-8601 timestamp
+	 * string with a time zone designator, to a {@code Date}.
+	 *
+	 * @param value The parameter value, a {@code String} or a raw JSON
+	 *              string.
+	 *
+	 * @return The date.
+	 *
+	 * @throws JSONRPC2Error If the value isn't a valid timestamp string
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static Date toDate(final Object value)
+		throws JSONRPC2Error {
+		
+		return ParamDecoders.decodeDate(toText(value, false));
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, a decimal string or a JSON
+	 * number, to a {@code BigDecimal}. Decimals in raw JSON are decoded
+	 * from their text, without loss of precision.
+	 *
+	 * @param value The parameter value, a {@code String}, a 
+	 *              {@code Number} or a raw JSON string or number.
+	 *
+	 * @return The decimal number.
+	 *
+	 * @throws JSONRPC2Error If the value isn't a valid decimal
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static BigDecimal toBigDecimal(final Object value)
+		throws JSONRPC2Error {
+		
+		if (value instanceof BigDecimal)
+			return (BigDecimal)value;
+		
+		if (value instanceof BigInteger)
+			return new BigDecimal((BigInteger)value);
+		
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+			return BigDecimal.valueOf(((Number)value).longValue());
+		
+		if (value instanceof Number)
+			return ParamDecoders.decodeDecimal(value.toString());
+		
+		return ParamDecoders.decodeDecimal(toText(value, true));
+	}
+	
+	
+	/**
+	 * Converts the specified parameter value, a base64 string in the
+	 * standard or URL-safe alphabet, to a byte array.
+	 *
+	 * @param value The parameter value, a {@code String} or a raw JSON
+	 *              string.
+	 *
+	 * @return The decoded bytes.
+	 *
+	 * @throws JSONRPC2Error If the value isn't a valid base64 string
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	protected static byte[] toBytes(final Object value)
+		throws JSONRPC2Error {
+		
+		return ParamDecoders.decodeBase64(toText(value, false));
+	}
+	
+	
+	/**
+	 * Determines the status of the specified parameter value and records
+	 * it in a holder, without throwing an exception.
+	 *
+	 * @param value   The parameter value, {@code null} if missing.
+	 * @param present {@code true} if the parameter is present.
+	 * @param clazz   The expected class of the parameter value.
+	 * @param holder  The holder to record the status and value in.
+	 *
+	 * @return The parameter status.
+	 */
+	protected static ParamStatus probeValue(final Object value, final boolean present, final Class<?> clazz, final ParamHolder holder) {
+		
+		if (! present)
+			return holder.set(ParamStatus.MISSING, null);
+		
+		if (value == null)
+			return holder.set(ParamStatus.NULL, null);
+		
+		if (! clazz.isInstance(value))
+			return holder.set(ParamStatus.WRONG_TYPE, value);
+		
+		return holder.set(ParamStatus.OK, value);
 	}
 }
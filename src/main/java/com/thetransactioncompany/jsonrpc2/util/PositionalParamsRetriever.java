@@ -1,9 +1,12 @@
 package com.thetransactioncompany.jsonrpc2.util;
 
 
+import java.math.BigDecimal;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import com.thetransactioncompany.jsonrpc2.*;
 
@@ -30,6 +33,11 @@ import com.thetransactioncompany.jsonrpc2.*;
  * {@link com.thetransactioncompany.jsonrpc2.JSONRPC2Error#INVALID_PARAMS}
  * exception is thrown.
  *
+ * <p>The parameters of a request parsed in pass-through mode are a raw
+ * JSON array, see {@link #PositionalParamsRetriever(JSONRPC2RawValue)}.
+ * Its elements are then looked up and decoded one by one, so that array 
+ * and string-encoded parameters are decoded straight from the bytes.
+ *
  * <p>Example: suppose you have a method with 3 positional parameters where the
  * first two are mandatory and the last is optional and has a default value of
  * {@code true}.
@@ -68,7 +76,7 @@ import com.thetransactioncompany.jsonrpc2.*;
  * </pre>
  *
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2012-07-08)
+ * @version 1.27 (2026-10-18)
  */
 public class PositionalParamsRetriever
 	extends ParamsRetriever {
@@ -80,6 +88,13 @@ public class PositionalParamsRetriever
 	private List<Object> params = null;
 	
 	
+	/**
+	 * The raw positional params, {@code null} if bound to a list. Decoded
+	 * into {@link #params} only when all elements are needed.
+	 */
+	private JSONRPC2RawValue rawParams = null;
+	
+	
 	/**
 	 * Creates a new positional parameters retriever from the specified 
 	 * value list.
@@ -92,6 +107,146 @@ public class PositionalParamsRetriever
 	}
 	
 	
+	/**
+	 * Creates a new positional parameters retriever from the specified 
+	 * raw JSON array, e.g. the parameters of a request parsed in 
+	 * pass-through mode. Each parameter is looked up in the raw array 
+	 * when retrieved, skipping the preceding elements without decoding
+	 * them. An element retrieved as {@code Object.class} is returned 
+	 * undecoded, as a raw value, unless it's {@code null}. Methods that
+	 * need all parameters, such as {@link #size}, decode the array once;
+	 * if it turns out malformed it's treated as empty.
+	 *
+	 * @param params The raw positional parameters, a JSON array. Must 
+	 *               not be {@code null}.
+	 */
+	public PositionalParamsRetriever(final JSONRPC2RawValue params) {
+	
+		rebind(params);
+	}
+	
+	
+	/**
+	 * Rebinds this retriever to the specified value list, so that a 
+	 * thread-confined retriever can be reused across requests instead of
+	 * creating one per request. The retriever keeps no other per-request
+	 * state; the enumeration lookup tables are shared and stay valid.
+	 *
+	 * @param params The positional parameters list.
+	 *
+	 * @return This retriever.
+	 */
+	public PositionalParamsRetriever rebind(final List<Object> params) {
+	
+		this.params = params;
+		rawParams = null;
+		
+		return this;
+	}
+	
+	
+	/**
+	 * Rebinds this retriever to the specified raw JSON array, see
+	 * {@link #PositionalParamsRetriever(JSONRPC2RawValue)}.
+	 *
+	 * @param params The raw positional parameters, a JSON array. Must 
+	 *               not be {@code null}.
+	 *
+	 * @return This retriever.
+	 */
+	public PositionalParamsRetriever rebind(final JSONRPC2RawValue params) {
+	
+		if (! params.isArray())
+			throw new IllegalArgumentException("The raw positional parameters must be a JSON array");
+		
+		this.params = null;
+		rawParams = params;
+		
+		return this;
+	}
+	
+	
+	/**
+	 * Returns the parameters as a list, decoding raw parameters on the 
+	 * first call.
+	 *
+	 * @return The parameters list, empty for malformed raw parameters.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<Object> list() {
+	
+		if (params == null) {
+		
+			Object decoded;
+			
+			try {
+				decoded = rawParams.parse();
+				
+			} catch (JSONRPC2ParseException e) {
+			
+				decoded = null;
+			}
+			
+			params = decoded instanceof List ? (List<Object>)decoded : new LinkedList<Object>();
+		}
+		
+		return params;
+	}
+	
+	
+	/**
+	 * Looks up the parameter at the specified position. Raw parameters
+	 * are looked up by skipping the preceding elements, without decoding
+	 * them.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value, a raw value if not yet decoded,
+	 *         {@link #MISSING} if there's no such parameter.
+	 *
+	 * @throws JSONRPC2Error If the raw parameters are malformed
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	private Object lookup(final int position)
+		throws JSONRPC2Error {
+	
+		if (params != null)
+			return position >= 0 && position < params.size() ? params.get(position) : MISSING;
+		
+		try {
+			final JSONRPC2RawValue value = rawParams.getElement(position);
+			
+			return value != null ? value : MISSING;
+			
+		} catch (JSONRPC2ParseException e) {
+		
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Looks up and decodes the parameter at the specified position 
+	 * without throwing an exception.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value, {@code null} if the raw parameters 
+	 *         are malformed, {@link #MISSING} if there's no such 
+	 *         parameter.
+	 */
+	private Object peek(final int position) {
+	
+		try {
+			return decodeRaw(lookup(position), null);
+			
+		} catch (JSONRPC2Error e) {
+		
+			return null;
+		}
+	}
+	
+	
 	/**
 	 * Returns the number of available positional parameters.
 	 *
@@ -99,7 +254,7 @@ public class PositionalParamsRetriever
 	 */
 	public int size() {
 	
-		return params.size();
+		return list().size();
 	}
 	
 	
@@ -113,10 +268,16 @@ public class PositionalParamsRetriever
 	 */
 	public boolean hasParameter(final int position) {
 	
-		if (position >= params.size())
+		if (params != null)
+			return position < params.size();
+		
+		try {
+			return lookup(position) != MISSING;
+			
+		} catch (JSONRPC2Error e) {
+		
 			return false;
-		else
-			return true;
+		}
 	}
 	
 	
@@ -136,11 +297,33 @@ public class PositionalParamsRetriever
 	public void ensureParameter(final int position)
 		throws JSONRPC2Error {
 		
-		if (position >= params.size() )
+		if (! hasParameter(position))
 			throw JSONRPC2Error.INVALID_PARAMS;
 	}
 	
 	
+	/**
+	 * Checks the parameters against the specified compiled signature in
+	 * one pass and stores their values in a reusable slot array. This is 
+	 * the efficient alternative to calling the typed getters one by one.
+	 *
+	 * @param signature The positional parameters signature. Must not be
+	 *                  {@code null}.
+	 * @param values    The slot array, created by the signature. Must not
+	 *                  be {@code null}.
+	 *
+	 * @throws JSONRPC2Error On a parameter count outside the arity range, 
+	 *                       bad type, {@code null} value or bad 
+	 *                       enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public void ensureParameters(final PositionalParamsSignature signature, final ParamValues values)
+		throws JSONRPC2Error {
+	
+		signature.validate(list(), values);
+	}
+	
+	
 	/**
 	 * Throws a {@code JSONRPC2Error.INVALID_PARAMS} exception if there is
 	 * no parameter at the specified position, its value is {@code null}, 
@@ -187,22 +370,7 @@ public class PositionalParamsRetriever
 	public <T> void ensureParameter(final int position, final Class<T> clazz, final boolean allowNull)
 		throws JSONRPC2Error {
 		
-		// First, check existence only
-		ensureParameter(position);
-		
-		// Now check type
-		Object value = params.get(position);
-		
-		if (value == null) {
-			
-			if (allowNull)
-				return; // ok
-			else
-				throw JSONRPC2Error.INVALID_PARAMS;
-		}
-		
-		if (! clazz.isAssignableFrom(value.getClass()))
-			throw JSONRPC2Error.INVALID_PARAMS;
+		ensureValue(lookup(position), clazz, allowNull);
 	}
 	
 	
@@ -221,9 +389,13 @@ public class PositionalParamsRetriever
 	public Object get(final int position)
 		throws JSONRPC2Error {
 		
-		ensureParameter(position);
+		final Object value = lookup(position);
 		
-		return params.get(position);
+		if (value == MISSING)
+			throw JSONRPC2Error.INVALID_PARAMS;
+		
+		// Elements of raw parameters are decoded
+		return params != null ? value : decodeRaw(value, null);
 	}
 	
 	
@@ -270,10 +442,8 @@ public class PositionalParamsRetriever
 	public <T> T get(final int position, final Class<T> clazz, final boolean allowNull)
 		throws JSONRPC2Error {
 	
-		ensureParameter(position, clazz, allowNull);
-		
 		try {
-			return (T)params.get(position);
+			return (T)ensureValue(lookup(position), clazz, allowNull);
 			
 		} catch (ClassCastException e) {
 			
@@ -333,13 +503,13 @@ public class PositionalParamsRetriever
 	public <T> T getOpt(final int position, final Class<T> clazz, final boolean allowNull, final T defaultValue)
 		throws JSONRPC2Error {
 	
-		if (! hasParameter(position))
-			return defaultValue;
+		final Object value = lookup(position);
 		
-		ensureParameter(position, clazz, allowNull);
+		if (value == MISSING)
+			return defaultValue;
 		
 		try {
-			return (T)params.get(position);
+			return (T)ensureValue(value, clazz, allowNull);
 			
 		} catch (ClassCastException e) {
 			
@@ -511,6 +681,98 @@ public class PositionalParamsRetriever
 	}
 	
 	
+	/**
+	 * Retrieves the specified enumerated string parameter, matching it
+	 * against a precompiled set of values.
+	 *
+	 * @param position    The parameter position.
+	 * @param enumStrings The acceptable string values.
+	 *
+	 * @return The parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or 
+	 *                       bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getEnumString(final int position, final EnumStringSet enumStrings)
+		throws JSONRPC2Error {
+		
+		return getEnumString(position, enumStrings, false); 
+	}
+	
+	
+	/**
+	 * Retrieves the specified enumerated string parameter, matching it
+	 * against a precompiled set of values and allowing for a case 
+	 * insensitive match.
+	 *
+	 * @param position    The parameter position.
+	 * @param enumStrings The acceptable string values.
+	 * @param ignoreCase  {@code true} for a case insensitive match.
+	 *
+	 * @return The matching parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or 
+	 *                       bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getEnumString(final int position, final EnumStringSet enumStrings, final boolean ignoreCase)
+		throws JSONRPC2Error {
+		
+		String value = get(position, String.class);
+		
+		return ensureEnumString(value, enumStrings, ignoreCase);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional enumerated string parameter, 
+	 * matching it against a precompiled set of values. If it doesn't 
+	 * exist the method will return the specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param enumStrings  The acceptable string values.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a bad type or bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getOptEnumString(final int position, final EnumStringSet enumStrings, final String defaultValue)
+		throws JSONRPC2Error {
+		
+		return getOptEnumString(position, enumStrings, defaultValue, false); 
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional enumerated string parameter, 
+	 * matching it against a precompiled set of values and allowing for a
+	 * case insensitive match. If it doesn't exist the method will return 
+	 * the specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param enumStrings  The acceptable string values.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 * @param ignoreCase   {@code true} for a case insensitive match.
+	 *
+	 * @return The matching parameter value as a string.
+	 *
+	 * @throws JSONRPC2Error On a bad type or bad enumeration value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public String getOptEnumString(final int position, final EnumStringSet enumStrings, final String defaultValue, final boolean ignoreCase)
+		throws JSONRPC2Error {
+		
+		String value = getOpt(position, String.class, defaultValue);
+		
+		return ensureEnumString(value, enumStrings, ignoreCase);
+	}
+	
+	
 	/**
 	 * Retrieves the specified enumerated parameter (from a JSON string that
 	 * has a predefined set of possible values).
@@ -941,7 +1203,7 @@ public class PositionalParamsRetriever
 			return null;
 		
 		try {
-			return (String[])list.toArray(new String[0]);
+			return list.toArray(new String[0]);
 			
 		} catch (ArrayStoreException e) {
 			
@@ -999,94 +1261,858 @@ public class PositionalParamsRetriever
 	
 	
 	/**
-	 * Retrieves the specified map (maps from JSON object) parameter.
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as an {@code int} array.
 	 *
 	 * @param position The parameter position.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a missing parameter, bad type or
 	 *                       {@code null} value
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	public Map<String,Object> getMap(final int position)
+	public int[] getIntArray(final int position)
 		throws JSONRPC2Error {
-		
-		return getMap(position, false);
+	
+		return getIntArray(position, false);
 	}
 	
 	
 	/**
-	 * Retrieves the specified map (maps from JSON object) parameter.
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as an {@code int} array. The array is filled in 
+	 * one pass, from a raw JSON array it is decoded straight from the 
+	 * text.
 	 *
 	 * @param position  The parameter position.
 	 * @param allowNull If {@code true} allows a {@code null} value.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a missing parameter or bad type
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	@SuppressWarnings("unchecked")
-	public Map<String,Object> getMap(final int position, final boolean allowNull)
+	public int[] getIntArray(final int position, final boolean allowNull)
 		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
 		
-		try {
-			return (Map<String,Object>)get(position, Map.class, allowNull);
-			
-		} catch (ClassCastException e) {
-			
-			throw JSONRPC2Error.INVALID_PARAMS;
-		}
+		if (value == null)
+			return null;
+		
+		return toIntArray(value);
 	}
 	
 	
 	/**
-	 * Retrieves the specified optional map (maps from JSON object) 
-	 * parameter. If it doesn't exist the method will return the specified 
-	 * default value.
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as an {@code int} array. If it doesn't exist
+	 * the method will return the specified default value.
 	 *
 	 * @param position     The parameter position.
 	 * @param defaultValue The default return value if the parameter 
 	 *                     doesn't exist. May be {@code null}.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	public Map<String,Object> getOptMap(final int position, final Map<String,Object> defaultValue)
+	public int[] getOptIntArray(final int position, final int[] defaultValue)
 		throws JSONRPC2Error {
 	
-		return getOptMap(position, false, defaultValue);
+		return getOptIntArray(position, false, defaultValue);
 	}
 	
 	
 	/**
-	 * Retrieves the specified optional map (maps from JSON object) 
-	 * parameter. If it doesn't exist the method will return the specified 
-	 * default value.
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as an {@code int} array. If it doesn't exist
+	 * the method will return the specified default value.
 	 *
 	 * @param position     The parameter position.
 	 * @param allowNull    If {@code true} allows a {@code null} value.
 	 * @param defaultValue The default return value if the parameter 
-	 *                     doesn't exist.  May be {@code null}.
+	 *                     doesn't exist. May be {@code null}.
 	 *
-	 * @return The parameter value as a map.
+	 * @return The parameter value as an {@code int} array.
 	 *
 	 * @throws JSONRPC2Error On a bad parameter type
 	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
 	 */
-	@SuppressWarnings("unchecked")
-	public Map<String,Object> getOptMap(final int position, final boolean allowNull, final Map<String,Object> defaultValue)
+	public int[] getOptIntArray(final int position, final boolean allowNull, final int[] defaultValue)
 		throws JSONRPC2Error {
 	
-		try {
-			return (Map<String,Object>)getOpt(position, Map.class, allowNull, defaultValue);
-			
-		} catch (ClassCastException e) {
-			
-			throw JSONRPC2Error.INVALID_PARAMS;
-		}
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getIntArray(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code long} array.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getLongArray(final int position)
+		throws JSONRPC2Error {
+	
+		return getLongArray(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code long} array. The array is filled in 
+	 * one pass, from a raw JSON array it is decoded straight from the 
+	 * text.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getLongArray(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toLongArray(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code long} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getOptLongArray(final int position, final long[] defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptLongArray(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code long} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code long} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public long[] getOptLongArray(final int position, final boolean allowNull, final long[] defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getLongArray(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code double} array.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getDoubleArray(final int position)
+		throws JSONRPC2Error {
+	
+		return getDoubleArray(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric array (maps from JSON array of 
+	 * numbers) parameter as a {@code double} array. The array is filled in 
+	 * one pass, from a raw JSON array it is decoded straight from the 
+	 * text.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getDoubleArray(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toDoubleArray(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code double} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getOptDoubleArray(final int position, final double[] defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptDoubleArray(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional numeric array (maps from JSON array
+	 * of numbers) parameter as a {@code double} array. If it doesn't exist
+	 * the method will return the specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code double} array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public double[] getOptDoubleArray(final int position, final boolean allowNull, final double[] defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getDoubleArray(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code UUID}.
+	 * The value must be a UUID string in canonical form, e.g.
+	 * {@code 123e4567-e89b-12d3-a456-426614174000}.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getUUID(final int position)
+		throws JSONRPC2Error {
+	
+		return getUUID(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code UUID}.
+	 * The value is decoded in one pass, from a raw JSON value straight from
+	 * its bytes.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getUUID(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toUUID(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code UUID}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getOptUUID(final int position, final UUID defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptUUID(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code UUID}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code UUID}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public UUID getOptUUID(final int position, final boolean allowNull, final UUID defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getUUID(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code Date}.
+	 * The value must be an ISO-8601 timestamp string with a time zone
+	 * designator, e.g. {@code 2026-10-18T09:30:00.250Z}.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getDate(final int position)
+		throws JSONRPC2Error {
+	
+		return getDate(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a {@code Date}.
+	 * The value is decoded in one pass, from a raw JSON value straight from
+	 * its bytes.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getDate(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toDate(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code Date}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getOptDate(final int position, final Date defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptDate(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code Date}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code Date}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Date getOptDate(final int position, final boolean allowNull, final Date defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getDate(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a
+	 * {@code BigDecimal}. The value must be a decimal string, e.g.
+	 * {@code "12.50"}, or a JSON number.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getBigDecimal(final int position)
+		throws JSONRPC2Error {
+	
+		return getBigDecimal(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a
+	 * {@code BigDecimal}. The value is decoded in one pass, from a raw JSON
+	 * value straight from its bytes.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getBigDecimal(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toBigDecimal(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code BigDecimal}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getOptBigDecimal(final int position, final BigDecimal defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptBigDecimal(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a
+	 * {@code BigDecimal}. If it doesn't exist the method will return the
+	 * specified default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a {@code BigDecimal}.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public BigDecimal getOptBigDecimal(final int position, final boolean allowNull, final BigDecimal defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getBigDecimal(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a byte array. The
+	 * value must be a base64 string, in the standard or the URL-safe
+	 * alphabet, padding optional.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getBytes(final int position)
+		throws JSONRPC2Error {
+	
+		return getBytes(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string-encoded parameter as a byte array. The
+	 * value is decoded in one pass, from a raw JSON value straight from its
+	 * bytes.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getBytes(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+	
+		Object value = get(position, Object.class, allowNull);
+		
+		if (value == null)
+			return null;
+		
+		return toBytes(value);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a byte
+	 * array. If it doesn't exist the method will return the specified
+	 * default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getOptBytes(final int position, final byte[] defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptBytes(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional string-encoded parameter as a byte
+	 * array. If it doesn't exist the method will return the specified
+	 * default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a byte array.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public byte[] getOptBytes(final int position, final boolean allowNull, final byte[] defaultValue)
+		throws JSONRPC2Error {
+	
+		if (! hasParameter(position))
+			return defaultValue;
+	
+		return getBytes(position, allowNull);
+	}
+	
+	
+	/**
+	 * Retrieves the specified map (maps from JSON object) parameter.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter, bad type or
+	 *                       {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Map<String,Object> getMap(final int position)
+		throws JSONRPC2Error {
+		
+		return getMap(position, false);
+	}
+	
+	
+	/**
+	 * Retrieves the specified map (maps from JSON object) parameter.
+	 *
+	 * @param position  The parameter position.
+	 * @param allowNull If {@code true} allows a {@code null} value.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a missing parameter or bad type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getMap(final int position, final boolean allowNull)
+		throws JSONRPC2Error {
+		
+		try {
+			return (Map<String,Object>)get(position, Map.class, allowNull);
+			
+		} catch (ClassCastException e) {
+			
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional map (maps from JSON object) 
+	 * parameter. If it doesn't exist the method will return the specified 
+	 * default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist. May be {@code null}.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type or {@code null} value
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public Map<String,Object> getOptMap(final int position, final Map<String,Object> defaultValue)
+		throws JSONRPC2Error {
+	
+		return getOptMap(position, false, defaultValue);
+	}
+	
+	
+	/**
+	 * Retrieves the specified optional map (maps from JSON object) 
+	 * parameter. If it doesn't exist the method will return the specified 
+	 * default value.
+	 *
+	 * @param position     The parameter position.
+	 * @param allowNull    If {@code true} allows a {@code null} value.
+	 * @param defaultValue The default return value if the parameter 
+	 *                     doesn't exist.  May be {@code null}.
+	 *
+	 * @return The parameter value as a map.
+	 *
+	 * @throws JSONRPC2Error On a bad parameter type
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Object> getOptMap(final int position, final boolean allowNull, final Map<String,Object> defaultValue)
+		throws JSONRPC2Error {
+	
+		try {
+			return (Map<String,Object>)getOpt(position, Map.class, allowNull, defaultValue);
+			
+		} catch (ClassCastException e) {
+			
+			throw JSONRPC2Error.INVALID_PARAMS;
+		}
+	}
+	
+	
+	/**
+	 * Probes the specified parameter without throwing an exception, for
+	 * handlers that try several optional parameter shapes. The status and
+	 * value are recorded in the specified reusable holder.
+	 *
+	 * @param position The parameter position.
+	 * @param clazz    The expected class of the parameter value, as
+	 *                 for {@link #get(int,Class)}.
+	 * @param holder   The holder to record the status and value in.
+	 *                 Must not be {@code null}.
+	 *
+	 * @return The parameter status.
+	 */
+	public ParamStatus probe(final int position, final Class<?> clazz, final ParamHolder holder) {
+	
+		try {
+			final Object value = lookup(position);
+			
+			if (value == MISSING)
+				return probeValue(null, false, clazz, holder);
+			
+			return probeValue(decodeRaw(value, clazz), true, clazz, holder);
+			
+		} catch (JSONRPC2Error e) {
+		
+			return holder.set(ParamStatus.WRONG_TYPE, null);
+		}
+	}
+	
+	
+	/**
+	 * Retrieves the value at the specified path into the positional
+	 * parameters, e.g. {@code [0].lines[3].sku}, which must map to the provided
+	 * class.
+	 *
+	 * @param path  The compiled parameter path. Must not be {@code null}.
+	 * @param clazz The corresponding Java class that the value should map
+	 *              to. Set to {@code Object.class} to allow any type.
+	 *
+	 * @return The value.
+	 *
+	 * @throws JSONRPC2Error On a missing node, {@code null} value or bad
+	 *                       type ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public <T> T get(final ParamPath path, final Class<T> clazz)
+		throws JSONRPC2Error {
+	
+		return path.get(params != null ? params : rawParams, clazz);
+	}
+	
+	
+	/**
+	 * Retrieves the specified string parameter as a string without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param position The parameter position.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as a string, or the sentinel.
+	 */
+	public String tryGetString(final int position, final String sentinel) {
+	
+		final Object value = peek(position);
+		
+		return value instanceof String ? (String)value : sentinel;
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric parameter as an {@code int} without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param position The parameter position.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as an {@code int}, or the sentinel.
+	 */
+	public int tryGetInt(final int position, final int sentinel) {
+	
+		final Object value = peek(position);
+		
+		return value instanceof Number ? ((Number)value).intValue() : sentinel;
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric parameter as a {@code long} without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param position The parameter position.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as a {@code long}, or the sentinel.
+	 */
+	public long tryGetLong(final int position, final long sentinel) {
+	
+		final Object value = peek(position);
+		
+		return value instanceof Number ? ((Number)value).longValue() : sentinel;
+	}
+	
+	
+	/**
+	 * Retrieves the specified numeric parameter as a {@code double} without 
+	 * throwing an exception. If the parameter is missing, {@code null}
+	 * or of another type the specified sentinel is returned.
+	 *
+	 * @param position The parameter position.
+	 * @param sentinel The value to return if the parameter can't be
+	 *                 retrieved.
+	 *
+	 * @return The parameter value as a {@code double}, or the sentinel.
+	 */
+	public double tryGetDouble(final int position, final double sentinel) {
+	
+		final Object value = peek(position);
+		
+		return value instanceof Number ? ((Number)value).doubleValue() : sentinel;
 	}
 }
@@ -0,0 +1,241 @@
+package com.thetransactioncompany.jsonrpc2.util;
+
+
+import java.util.List;
+
+import com.thetransactioncompany.jsonrpc2.*;
+
+
+/**
+ * Compiled signature of JSON-RPC 2.0 positional parameters. Declare the
+ * signature once per method, then check each received parameters list in a
+ * single pass into a reusable {@link ParamValues} slot array, where slot
+ * <em>i</em> holds the parameter at position <em>i</em>.
+ *
+ * <p>The signature is made of {@link ParamSpec}s, one per position, whose
+ * names serve for documentation and for {@link ParamValues#get(String)}.
+ * The mandatory parameters must come before the optional ones; the arity
+ * range runs from the number of mandatory parameters to the total number
+ * of parameters.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * static final PositionalParamsSignature SIGNATURE = new PositionalParamsSignature(
+ *         ParamSpec.mandatory("recipient", String.class),
+ *         ParamSpec.mandatory("amount", Number.class),
+ *         ParamSpec.optional("tags", List.class, null).withNullAllowed());
+ *
+ * ParamValues values = SIGNATURE.newValues();
+ *
+ * // For each request
+ * SIGNATURE.validate((List)request.getParams(), values);
+ *
+ * String recipient = values.getString(0);
+ * double amount = values.getDouble(1);
+ * </pre>
+ *
+ * <p>This class is immutable and thread-safe. The {@link ParamValues} are
+ * not, use one per thread.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public final class PositionalParamsSignature {
+
+
+	/**
+	 * The parameter specifications, by position.
+	 */
+	private final ParamSpec[] specs;
+
+
+	/**
+	 * The schema backing the slot arrays.
+	 */
+	private final NamedParamsSchema schema;
+
+
+	/**
+	 * The minimum number of parameters.
+	 */
+	private final int minArity;
+
+
+	/**
+	 * {@code true} if parameters beyond the signature are allowed.
+	 */
+	private final boolean allowExtra;
+
+
+	/**
+	 * Creates a new positional parameters signature. Parameters beyond
+	 * the signature are not allowed.
+	 *
+	 * @param specs The parameter specifications, by position. Must not
+	 *              be {@code null} or contain duplicate names, the
+	 *              mandatory must precede the optional.
+	 */
+	public PositionalParamsSignature(final ParamSpec ... specs) {
+
+		this(false, specs);
+	}
+
+
+	/**
+	 * Creates a new positional parameters signature.
+	 *
+	 * @param allowExtra {@code true} to ignore parameters beyond the
+	 *                   signature, {@code false} to reject them.
+	 * @param specs      The parameter specifications, by position. Must
+	 *                   not be {@code null} or contain duplicate names,
+	 *                   the mandatory must precede the optional.
+	 */
+	public PositionalParamsSignature(final boolean allowExtra, final ParamSpec ... specs) {
+
+		schema = new NamedParamsSchema(specs);
+
+		this.specs = specs.clone();
+		this.allowExtra = allowExtra;
+
+		int min = 0;
+
+		while (min < this.specs.length && ! this.specs[min].isOptional())
+			min++;
+
+		for (int i = min; i < this.specs.length; i++) {
+
+			if (! this.specs[i].isOptional())
+				throw new IllegalArgumentException("The mandatory parameter " + this.specs[i].getName() + " follows an optional");
+		}
+
+		minArity = min;
+	}
+
+
+	/**
+	 * Gets the number of parameter specifications (slots).
+	 *
+	 * @return The number of slots.
+	 */
+	public int size() {
+
+		return specs.length;
+	}
+
+
+	/**
+	 * Gets the specification of the parameter at the specified position.
+	 *
+	 * @param position The parameter position.
+	 *
+	 * @return The parameter specification.
+	 */
+	public ParamSpec getSpec(final int position) {
+
+		return specs[position];
+	}
+
+
+	/**
+	 * Gets the minimum number of parameters, i.e. the number of
+	 * mandatory parameters.
+	 *
+	 * @return The minimum arity.
+	 */
+	public int getMinArity() {
+
+		return minArity;
+	}
+
+
+	/**
+	 * Gets the maximum number of parameters.
+	 *
+	 * @return The maximum arity, {@code Integer.MAX_VALUE} if parameters
+	 *         beyond the signature are allowed.
+	 */
+	public int getMaxArity() {
+
+		return allowExtra ? Integer.MAX_VALUE : specs.length;
+	}
+
+
+	/**
+	 * Creates a new slot array for this signature.
+	 *
+	 * @return The slot array.
+	 */
+	public ParamValues newValues() {
+
+		return schema.newValues();
+	}
+
+
+	/**
+	 * Checks the specified positional parameters against this signature.
+	 *
+	 * @param params The positional parameters, {@code null} if none.
+	 *
+	 * @return The validated parameter values, in a new slot array.
+	 *
+	 * @throws JSONRPC2Error If the parameters don't match the signature
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public ParamValues validate(final List<Object> params)
+		throws JSONRPC2Error {
+
+		ParamValues values = newValues();
+
+		validate(params, values);
+
+		return values;
+	}
+
+
+	/**
+	 * Checks the specified positional parameters against this signature
+	 * and stores the values in the specified slot array. Optional
+	 * parameters which are absent get their default value. The slot array
+	 * is cleared first.
+	 *
+	 * @param params The positional parameters, {@code null} if none.
+	 * @param values The slot array, created by {@link #newValues} of this
+	 *               signature. Must not be {@code null}.
+	 *
+	 * @throws JSONRPC2Error If the parameters don't match the signature
+	 *                       ({@link JSONRPC2Error#INVALID_PARAMS}).
+	 */
+	public void validate(final List<Object> params, final ParamValues values)
+		throws JSONRPC2Error {
+
+		if (values.getSchema() != schema)
+			throw new IllegalArgumentException("The parameter values must be created by this signature");
+
+		final int count = params != null ? params.size() : 0;
+
+		if (count < minArity || (count > specs.length && ! allowExtra))
+			throw JSONRPC2Error.INVALID_PARAMS;
+
+		values.clear();
+
+		final int n = Math.min(count, specs.length);
+
+		int i = 0;
+
+		if (n > 0) {
+
+			// Iterate, positional access may be linear, e.g. LinkedList
+			for (Object value: params) {
+
+				values.set(i, NamedParamsSchema.convert(specs[i], value));
+
+				if (++i == n)
+					break;
+			}
+		}
+
+		for (; i < specs.length; i++)
+			values.setDefault(i, specs[i].getDefaultValue());
+	}
+}
@@ -9,6 +9,9 @@
  *     <li>JSON number to Java {@code int}, {@code long}, {@code float} or 
  *         {@code double}</li>
  *     <li>JSON string to {@code java.lang.String}</li>
+ *     <li>UUID, ISO-8601 timestamp, decimal and base64 JSON strings to
+ *         {@code java.util.UUID}, {@code java.util.Date},
+ *         {@code java.math.BigDecimal} and {@code byte[]}</li>
  *     <li>Predefined (enumerated) JSON string to a Java {@code enum} constant
  *         or {@code java.lang.String}</li>
  *     <li>JSON array to Java {@code boolean[]}, {@code int[]}, {@code long[]},
@@ -33,12 +36,22 @@
  *         object).
  * </ul>
  *
+ * <p>Named parameters can also be validated in one pass against a
+ * {@link com.thetransactioncompany.jsonrpc2.util.NamedParamsSchema} compiled
+ * from {@link com.thetransactioncompany.jsonrpc2.util.ParamSpec}s, which
+ * fills a reusable {@link com.thetransactioncompany.jsonrpc2.util.ParamValues}
+ * slot array. Positional parameters can be checked likewise against a
+ * {@link com.thetransactioncompany.jsonrpc2.util.PositionalParamsSignature}.
+ * Values nested in the parameters are retrieved with compiled
+ * {@link com.thetransactioncompany.jsonrpc2.util.ParamPath}s, such as
+ * {@code order.lines[3].sku}.
+ *
  *
  * <p><b>Package dependencies:</b> The classes in this package depend on the 
  * sister {@link com.thetransactioncompany.jsonrpc2} package.
  *
  * @author Vladimir Dzhuvinov
- * @version 1.26 (2011-10-16)
+ * @version 1.27 (2026-10-18)
  */
 package com.thetransactioncompany.jsonrpc2.util;
 
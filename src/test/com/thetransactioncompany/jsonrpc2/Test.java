@@ -639,4 +639,290 @@ public class Test extends TestCase {
 		
 		assertFalse(err1.equals(err2));
 	}
+	
+	
+	public void testParseInto() {
+	
+		JSONRPC2Parser parser = new JSONRPC2Parser(false, false, true);
+		
+		JSONRPC2MessagePool pool = new JSONRPC2MessagePool(2);
+		
+		try {
+			JSONRPC2Request request = pool.acquireRequest();
+			
+			assertSame(request, parser.parseInto("{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"params\":[1],\"id\":1,\"_t\":\"x\"}", request));
+			assertEquals("a", request.getMethod());
+			assertEquals("x", request.getNonStdAttribute("_t"));
+			
+			pool.release(request);
+			
+			assertEquals(1, pool.size());
+			assertNull(request.getMethod());
+			assertNull(request.getNonStandardAttributes());
+			assertEquals(JSONRPC2ParamsType.NO_PARAMS, request.getParamsType());
+			
+			// Recycled
+			assertSame(request, pool.acquireRequest());
+			assertEquals(0, pool.size());
+			
+			parser.parseInto("{\"jsonrpc\":\"2.0\",\"method\":\"b\",\"id\":2}", request);
+			
+			assertEquals("{\"jsonrpc\":\"2.0\",\"method\":\"b\",\"id\":2}", request.toString());
+			
+			// Left unchanged on failure
+			try {
+				parser.parseInto("{\"jsonrpc\":\"2.0\",\"method\":\"c\"}", request);
+				fail("Failed to raise exception on missing identifier");
+				
+			} catch (JSONRPC2ParseException e) {
+				// ok
+			}
+			
+			assertEquals("b", request.getMethod());
+			
+			JSONRPC2Notification notification = parser.parseInto("{\"jsonrpc\":\"2.0\",\"method\":\"n\",\"params\":{\"p\":true}}", pool.acquireNotification());
+			
+			assertEquals(JSONRPC2ParamsType.OBJECT, notification.getParamsType());
+			
+			JSONRPC2Response response = pool.acquireResponse();
+			
+			parser.parseInto("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32601,\"message\":\"Method not found\"},\"id\":3}", response);
+			
+			assertEquals(-32601, response.getError().getCode());
+			
+			parser.parseInto("{\"jsonrpc\":\"2.0\",\"result\":\"ok\",\"id\":4}", response);
+			
+			assertTrue(response.indicatesSuccess());
+			assertEquals("ok", response.getResult());
+			assertEquals(4L, response.getID());
+			
+			pool.release(notification);
+			pool.release(response);
+			
+			assertEquals(2, pool.size());
+			
+		} catch (JSONRPC2ParseException e) {
+		
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	public void testStacklessErrors() {
+	
+		assertEquals(0, JSONRPC2Error.INVALID_PARAMS.getStackTrace().length);
+		assertTrue(new JSONRPC2Error(1, "With trace").getStackTrace().length > 0);
+		assertEquals(0, new JSONRPC2Error(1, "Without trace", null, false).getStackTrace().length);
+		
+		// The trace starts at the creating method, not in the constructors
+		assertEquals("testStacklessErrors", new JSONRPC2Error(1, "With trace", null, true).getStackTrace()[0].getMethodName());
+		
+		JSONRPC2Error stackless = new JSONRPC2Error(1, "Without trace", null, false);
+		stackless.fillInStackTrace();
+		stackless.setStackTrace(new Throwable().getStackTrace());
+		assertEquals(0, stackless.getStackTrace().length);
+		
+		JSONRPC2ErrorRegistry registry = new JSONRPC2ErrorRegistry();
+		
+		int[] codes = { 5, -32001, 1001, 0, 42 };
+		
+		for (int code: codes)
+			registry.register(code, "Error " + code);
+		
+		assertEquals(5, registry.size());
+		assertTrue(Arrays.equals(new int[]{ -32001, 0, 5, 42, 1001 }, registry.getCodes()));
+		
+		JSONRPC2Error error = registry.get(42);
+		
+		assertEquals("Error 42", error.getMessage());
+		assertEquals(0, error.getStackTrace().length);
+		assertNull(registry.get(43));
+		assertSame(error, registry.get(42, "Error 42"));
+		assertNull(registry.get(42, "Other"));
+		
+		try {
+			registry.register(42, "Again");
+			fail("Failed to raise exception on duplicate code");
+			
+		} catch (IllegalArgumentException e) {
+			// ok
+		}
+		
+		// Preserialised
+		JSONRPC2Response response = new JSONRPC2Response(error, 1L);
+		
+		assertEquals("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":42,\"message\":\"Error 42\"},\"id\":1}", response.toString());
+		
+		// Standard errors are shared by the parser
+		try {
+			response = JSONRPC2Response.parse(new JSONRPC2Response(JSONRPC2Error.METHOD_NOT_FOUND, 1L).toString());
+			
+			assertSame(JSONRPC2Error.METHOD_NOT_FOUND, response.getError());
+			
+			response = JSONRPC2Response.parse("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32601,\"message\":\"No such method\"},\"id\":1}");
+			
+			assertNotSame(JSONRPC2Error.METHOD_NOT_FOUND, response.getError());
+			assertEquals("No such method", response.getError().getMessage());
+			
+		} catch (JSONRPC2ParseException e) {
+		
+			fail(e.getMessage());
+		}
+	}
+	
+	
+	public void testMessageView()
+		throws Exception {
+	
+		String log = "{\"jsonrpc\":\"2.0\",\"method\":\"makePayment\",\"params\":{\"recipient\":\"Penny Adams\",\"amount\":175.05},\"id\":\"0001\"}\n" +
+		             " { \"id\" : 12345678901234567890 , \"result\" : [ \"a\\\"b\", {\"x\":\"]\"} ], \"jsonrpc\" : \"2.0\" , \"_t\":1 }\n" +
+		             "{\"jsonrpc\":\"2.0\",\"method\":\"caf\\u00e9\",\"params\":[1,-2.5e3,true,null]}\n" +
+		             "{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32601,\"message\":\"Method not found\"},\"id\":-7}\n";
+		
+		byte[] bytes = log.getBytes("UTF-8");
+		
+		int[] starts = new int[4];
+		int[] ends = new int[4];
+		
+		for (int i=0, pos=0; i < 4; i++) {
+			starts[i] = pos;
+			while (bytes[pos] != '\n') pos++;
+			ends[i] = pos++;
+		}
+		
+		JSONRPC2MessageView view = new JSONRPC2MessageView();
+		
+		view.wrap(bytes, starts[0], ends[0] - starts[0]);
+		
+		assertTrue(view.isRequest());
+		assertTrue(view.methodEquals("makePayment"));
+		assertFalse(view.methodEquals("makePaymentX"));
+		assertEquals("makePayment", view.getMethod());
+		assertEquals("0001", view.getID());
+		assertEquals(JSONRPC2ParamsType.OBJECT, view.getParamsType());
+		assertEquals(175.05, ((Map)view.getParams()).get("amount"));
+		assertEquals(JSONRPC2Request.parse(view.toString()).toString(), view.toMessage(new JSONRPC2Parser()).toString());
+		
+		// Pointed at the next record
+		view.wrap(bytes, starts[1], ends[1] - starts[1]);
+		
+		assertTrue(view.isResponse());
+		assertTrue(view.indicatesSuccess());
+		assertNull(view.getMethod());
+		assertEquals(new java.math.BigInteger("12345678901234567890"), view.getID());
+		assertEquals(Arrays.asList("a\"b", Collections.singletonMap("x", "]")), view.getResult());
+		assertEquals(1, view.getNonStdAttributeCount());
+		
+		view.wrap(bytes, starts[2], ends[2] - starts[2]);
+		
+		assertTrue(view.isNotification());
+		assertEquals("caf\u00e9", view.getMethod());
+		assertTrue(view.methodEquals("caf\u00e9"));
+		assertEquals(Arrays.asList(1L, -2500.0, true, null), view.getParams());
+		assertEquals("[1,-2.5e3,true,null]", view.getRawParams().toString());
+		
+		view.wrap(bytes, starts[3], ends[3] - starts[3]);
+		
+		assertFalse(view.indicatesSuccess());
+		assertSame(JSONRPC2Error.METHOD_NOT_FOUND, view.getError());
+		assertEquals(-7L, view.getID());
+		
+		String[] bad = {
+			"",
+			"[]",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"id\":1",
+			"{\"jsonrpc\":\"2.0\",\"method\":1,\"id\":1}",
+			"{\"jsonrpc\":\"1.0\",\"method\":\"a\",\"id\":1}",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"id\":[1]}",
+			"{\"jsonrpc\":\"2.0\",\"result\":1,\"error\":{}}",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"id\":01}",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\\x\",\"id\":1}",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"id\":1} x"
+		};
+		
+		for (String json: bad) {
+		
+			try {
+				view.wrap(json.getBytes("UTF-8"));
+				fail("Failed to raise exception on " + json);
+				
+			} catch (JSONRPC2ParseException e) {
+				// ok
+			}
+		}
+		
+		try {
+			view.getMethod();
+			fail("Failed to raise exception on cleared view");
+			
+		} catch (IllegalStateException e) {
+			// ok
+		}
+	}
+	
+	
+	public void testPassThrough()
+		throws Exception {
+	
+		JSONRPC2Parser parser = new JSONRPC2Parser(false, false, true);
+		parser.passThrough(true);
+		assertTrue(parser.passesThrough());
+		
+		String params = "{ \"recipient\" : \"Penny Adams\",\"amount\":175.050, \"tags\":[ ] }";
+		String json = "{\"jsonrpc\":\"2.0\",\"method\":\"makePayment\",\"params\":" + params + ",\"id\":1,\"_trace\":{\"a\":[1]}}";
+		
+		JSONRPC2Request request = parser.parseJSONRPC2Request(json);
+		
+		assertTrue(request.getParams() instanceof JSONRPC2RawValue);
+		assertEquals(JSONRPC2ParamsType.OBJECT, request.getParamsType());
+		assertEquals(Collections.singletonMap("a", Arrays.asList(1L)), request.getNonStdAttribute("_trace"));
+		
+		// Only the envelope is rewritten, the params are copied verbatim
+		request.setID("gw-1");
+		request.appendNonStdAttribute("_hop", 2L);
+		
+		String forwarded = request.serialize().toString();
+		
+		assertTrue(forwarded.contains("\"params\":" + params));
+		assertEquals("gw-1", JSONRPC2Request.parse(forwarded).getID());
+		
+		// Bytes input, raw values reference it
+		byte[] bytes = ("  {\"jsonrpc\":\"2.0\",\"result\":[1, 2.50],\"id\":\"x\"}").getBytes("UTF-8");
+		
+		JSONRPC2Response response = parser.parseJSONRPC2Response(bytes, 0, bytes.length);
+		
+		JSONRPC2RawValue result = (JSONRPC2RawValue)response.getResult();
+		assertSame(bytes, result.getBytes());
+		assertEquals("[1, 2.50]", result.toString());
+		assertEquals(Arrays.asList(1L, 2.5), result.parse());
+		
+		response = (JSONRPC2Response)parser.parseJSONRPC2Message("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-1,\"message\":\"m\",\"data\":{\"k\":[true]}},\"id\":3}");
+		
+		assertEquals(-1, response.getError().getCode());
+		assertEquals("{\"k\":[true]}", response.getError().getData().toString());
+		assertSame(JSONRPC2Error.METHOD_NOT_FOUND, parser.parseJSONRPC2Response("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32601,\"message\":\"Method not found\"},\"id\":null}").getError());
+		
+		// Scalar results and absent params are decoded as usual
+		assertEquals(5L, parser.parseJSONRPC2Response("{\"jsonrpc\":\"2.0\",\"result\":5,\"id\":1}").getResult());
+		assertEquals(JSONRPC2ParamsType.NO_PARAMS, parser.parseJSONRPC2Notification("{\"jsonrpc\":\"2.0\",\"method\":\"n\"}").getParamsType());
+		
+		String[] bad = {
+			"[]",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"params\":[1,\"]\",\"id\":1}",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"params\":1,\"id\":1}",
+			"{\"jsonrpc\":\"2.0\",\"method\":\"a\",\"id\":1} x"
+		};
+		
+		for (String s: bad) {
+		
+			try {
+				parser.parseJSONRPC2Request(s);
+				fail("Failed to raise exception on " + s);
+				
+			} catch (JSONRPC2ParseException e) {
+				
+				assertEquals(s, e.getUnparsableString());
+			}
+		}
+	}
 }
@@ -146,4 +146,67 @@ public class TestNonStdAttributes extends TestCase {
 		
 		assertEquals(t, resp.getNonStdAttribute("_procTime"));
 	}
+	
+	
+	public void testAttributeStore() {
+	
+		JSONRPC2Notification notification = new JSONRPC2Notification("notify");
+		
+		assertEquals(0, notification.getNonStdAttributeCount());
+		assertNull(notification.getNonStandardAttributes());
+		
+		String[] names = { "_trace", "_tenant", "_deadline", "ids", "_x" };
+		
+		for (int i=0; i < names.length; i++)
+			notification.appendNonStdAttribute(names[i], (long)i);
+		
+		// Replaced in place
+		notification.appendNonStdAttribute("_tenant", "acme");
+		
+		assertEquals(names.length, notification.getNonStdAttributeCount());
+		
+		for (int i=0; i < names.length; i++)
+			assertEquals(names[i], notification.getNonStdAttributeName(i));
+		
+		assertEquals("acme", notification.getNonStdAttributeValue(1));
+		assertEquals(4L, notification.getNonStdAttribute("_x"));
+		assertNull(notification.getNonStdAttribute("_y"));
+		
+		// Snapshot in order of appending
+		Map<String,Object> snapshot = notification.getNonStandardAttributes();
+		
+		assertEquals(Arrays.asList(names), new ArrayList<String>(snapshot.keySet()));
+		
+		snapshot.clear();
+		
+		assertEquals(names.length, notification.getNonStdAttributeCount());
+		
+		assertTrue(notification.toString().endsWith(",\"_trace\":0,\"_tenant\":\"acme\",\"_deadline\":2,\"ids\":3,\"_x\":4}"));
+		
+		try {
+			notification.getNonStdAttributeName(names.length);
+			fail("Failed to raise exception on bad index");
+			
+		} catch (IndexOutOfBoundsException e) {
+			// ok
+		}
+		
+		String[] reserved = { "jsonrpc", "method", "params", "id", "result", "error" };
+		
+		for (String name: reserved) {
+		
+			try {
+				notification.appendNonStdAttribute(name, 1L);
+				fail("Failed to raise exception on reserved name " + name);
+				
+			} catch (IllegalArgumentException e) {
+				// ok
+			}
+		}
+		
+		notification.reset();
+		
+		assertEquals(0, notification.getNonStdAttributeCount());
+		assertNull(notification.getNonStdAttribute("_trace"));
+	}
 }
@@ -0,0 +1,720 @@
+package com.thetransactioncompany.jsonrpc2;
+
+
+import java.io.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import java.util.*;
+
+import junit.framework.*;
+
+import net.minidev.json.JSONValue;
+
+
+/**
+ * JUnit tests for serialising JSON-RPC 2.0 messages to UTF-8 bytes.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public class TestSerialization extends TestCase {
+
+
+	public TestSerialization(String name) {
+
+		super(name);
+	}
+
+
+	public void testOutputBufferUTF8() {
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer(1);
+
+		String s = "abc \u00e9 \u20ac \ud83d\ude00";
+
+		out.append(s);
+
+		assertEquals(s, out.toString());
+
+		try {
+			assertTrue(Arrays.equals(s.getBytes("UTF-8"), out.toByteArray()));
+
+		} catch (java.io.UnsupportedEncodingException e) {
+			fail(e.getMessage());
+		}
+
+		assertEquals(out.size(), out.byteBuffer().remaining());
+	}
+
+
+	public void testOutputBufferWriteToChannel()
+		throws IOException {
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer(1);
+
+		out.append("abc");
+
+		ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+		out.writeTo(Channels.newChannel(sink));
+
+		assertEquals("abc", sink.toString("UTF-8"));
+
+		// A channel accepting no bytes fails instead of spinning
+		WritableByteChannel stalled = new WritableByteChannel() {
+
+			public int write(ByteBuffer src) {
+
+				return 0;
+			}
+
+			public boolean isOpen() {
+
+				return true;
+			}
+
+			public void close() {}
+		};
+
+		try {
+			out.writeTo(stalled);
+			fail();
+
+		} catch (IOException e) {
+			// ok
+		}
+	}
+
+
+	public void testPendingSurrogateAtEnd() {
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer(1);
+
+		out.append("ab\ud83d");
+		assertEquals(2, out.size());
+
+		out.finish();
+		assertEquals("ab?", out.toString());
+
+		out.finish();
+		assertEquals(3, out.size());
+	}
+
+
+	public void testSerializeRequest() {
+
+		Map params = new HashMap();
+		params.put("recipient", "Penny Adams");
+		params.put("amount", 175.05);
+
+		JSONRPC2Request request = new JSONRPC2Request("makePayment", params, "req-001");
+
+		JSONRPC2OutputBuffer out = request.serialize();
+
+		assertSame(out, JSONRPC2OutputBuffer.getThreadBuffer(0));
+
+		out = request.serialize();
+
+		JSONRPC2Request parsed = null;
+
+		try {
+			parsed = JSONRPC2Request.parse(out.toString());
+
+		} catch (JSONRPC2ParseException e) {
+			fail(e.getMessage());
+		}
+
+		assertEquals("makePayment", parsed.getMethod());
+		assertEquals("req-001", parsed.getID());
+		assertEquals(params, parsed.getParams());
+
+		assertTrue(JSONRPC2OutputBuffer.estimateSize("makePayment") >= out.size());
+	}
+
+
+	public void testRawResult() {
+
+		JSONRPC2RawValue raw = new JSONRPC2RawValue("{\"a\":[1,2,3],\"b\":\"\u00e9\"}");
+
+		JSONRPC2Response response = new JSONRPC2Response(raw, 1);
+
+		assertSame(raw, response.getResult());
+
+		String serialized = response.serialize().toString();
+
+		assertTrue(serialized.contains("\"result\":{\"a\":[1,2,3],\"b\":\"\u00e9\"}"));
+
+		assertEquals(serialized.length(), response.toString().length());
+
+		try {
+			response = JSONRPC2Response.parse(serialized);
+
+		} catch (JSONRPC2ParseException e) {
+			fail(e.getMessage());
+		}
+
+		Map result = (Map)response.getResult();
+		assertEquals("\u00e9", result.get("b"));
+	}
+
+
+	public void testRawParams() {
+
+		JSONRPC2Request request = new JSONRPC2Request("rpc.test", 0);
+
+		request.setParams(new JSONRPC2RawValue("  [true, null]"));
+		assertEquals(JSONRPC2ParamsType.ARRAY, request.getParamsType());
+
+		request.setParams(new JSONRPC2RawValue("{}"));
+		assertEquals(JSONRPC2ParamsType.OBJECT, request.getParamsType());
+
+		try {
+			request.setParams(new JSONRPC2RawValue("\"abc\""));
+			fail("Failed to raise exception on raw string params");
+
+		} catch (IllegalArgumentException e) {
+			// ok
+		}
+
+		JSONRPC2Error error = new JSONRPC2Error(-1, "Failure", new JSONRPC2RawValue("[1]"));
+
+		assertTrue(error.toString().contains("\"data\":[1]"));
+	}
+
+
+	public void testMemoizedSerialization() {
+
+		List params = new ArrayList();
+		params.add("75%");
+
+		JSONRPC2Notification notification = new JSONRPC2Notification("progressNotify", params);
+
+		assertFalse(notification.memoizesSerialization());
+
+		notification.memoizeSerialization(true);
+
+		assertTrue(notification.memoizesSerialization());
+
+		String json = notification.toString();
+
+		assertSame(json, notification.toString());
+
+		byte[] bytes = notification.serialize().toByteArray();
+
+		assertTrue(Arrays.equals(bytes, notification.serialize().toByteArray()));
+
+		// Mutation must clear the memoised form
+		notification.setMethod("progressDone");
+
+		assertNotSame(json, notification.toString());
+		assertTrue(notification.toString().contains("progressDone"));
+		assertTrue(notification.serialize().toString().contains("progressDone"));
+
+		notification.appendNonStdAttribute("_seq", 2);
+
+		assertTrue(notification.toString().contains("_seq"));
+		assertTrue(notification.serialize().toString().contains("_seq"));
+	}
+
+
+	public void testPreserializedErrorResponse() {
+
+		JSONRPC2Response response = new JSONRPC2Response(JSONRPC2Error.METHOD_NOT_FOUND, "req-003");
+
+		String json = response.toString();
+
+		assertTrue(json.startsWith("{\"jsonrpc\":\"2.0\",\"error\":"));
+
+		assertEquals(json, response.serialize().toString());
+
+		try {
+			response = JSONRPC2Response.parse(json);
+
+		} catch (JSONRPC2ParseException e) {
+			fail(e.getMessage());
+		}
+
+		assertEquals(JSONRPC2Error.METHOD_NOT_FOUND, response.getError());
+		assertEquals("Method not found", response.getError().getMessage());
+		assertEquals("req-003", response.getID());
+
+		// Null ID on parse errors
+		response = new JSONRPC2Response(JSONRPC2Error.PARSE_ERROR, null);
+
+		assertTrue(response.toString().endsWith(",\"id\":null}"));
+	}
+
+
+	public void testSerializeToDirectByteBuffer() {
+
+		List result = new ArrayList();
+
+		for (int i=0; i < 1000; i++)
+			result.add("item-\u00e9-" + i);
+
+		JSONRPC2Response response = new JSONRPC2Response(result, 10);
+
+		String expected = response.toString();
+
+		ByteBuffer small = ByteBuffer.allocateDirect(16);
+
+		ByteBuffer out = response.serialize(small);
+
+		assertNotSame(small, out);
+		assertTrue(out.isDirect());
+
+		out.flip();
+		byte[] bytes = new byte[out.remaining()];
+		out.get(bytes);
+
+		try {
+			assertEquals(expected, new String(bytes, "UTF-8"));
+
+		} catch (UnsupportedEncodingException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	public void testSerializeDrainingByteBuffer()
+		throws IOException {
+
+		JSONRPC2Response response = new JSONRPC2Response("a long enough result string", "id-1");
+
+		ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+
+		buffer = response.serialize(buffer, JSONRPC2ByteBufferOutput.drainTo(Channels.newChannel(sink)));
+
+		buffer.flip();
+
+		while (buffer.hasRemaining())
+			sink.write(buffer.get());
+
+		assertEquals(response.toString(), sink.toString("UTF-8"));
+
+		// A channel accepting no bytes fails instead of spinning
+		WritableByteChannel stalled = new WritableByteChannel() {
+
+			public int write(ByteBuffer src) {
+
+				return 0;
+			}
+
+			public boolean isOpen() {
+
+				return true;
+			}
+
+			public void close() {}
+		};
+
+		try {
+			response.serialize(ByteBuffer.allocate(8), JSONRPC2ByteBufferOutput.drainTo(stalled));
+			fail();
+
+		} catch (IOException e) {
+			// ok
+		}
+	}
+
+
+	public void testSerializeSegments()
+		throws IOException {
+
+		StringBuilder sb = new StringBuilder("[");
+
+		for (int i=0; i < 500; i++) {
+
+			if (i > 0)
+				sb.append(',');
+
+			sb.append("\"blob-").append(i).append('"');
+		}
+
+		sb.append(']');
+
+		JSONRPC2RawValue raw = new JSONRPC2RawValue(sb.toString());
+
+		JSONRPC2Response response = new JSONRPC2Response(raw, "id-7");
+
+		ByteBuffer[] segments = response.serializeSegments();
+
+		assertEquals(3, segments.length);
+
+		// The raw value is referenced, not copied
+		assertEquals(raw.getLength(), segments[1].remaining());
+		assertTrue(segments[1].isReadOnly());
+
+		final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+		final java.nio.channels.WritableByteChannel channel = Channels.newChannel(sink);
+
+		GatheringByteChannel gathering = new GatheringByteChannel() {
+
+			public long write(ByteBuffer[] srcs, int offset, int length)
+				throws IOException {
+
+				long n = 0;
+
+				// Partial writes, one segment at a time
+				if (length > 0)
+					n = channel.write(srcs[offset]);
+
+				return n;
+			}
+
+			public long write(ByteBuffer[] srcs)
+				throws IOException {
+
+				return write(srcs, 0, srcs.length);
+			}
+
+			public int write(ByteBuffer src)
+				throws IOException {
+
+				return channel.write(src);
+			}
+
+			public boolean isOpen() {
+
+				return true;
+			}
+
+			public void close() {}
+		};
+
+		JSONRPC2SegmentedOutput.writeFully(gathering, segments);
+
+		assertEquals(response.toString(), sink.toString("UTF-8"));
+
+		// Small values are copied into a single segment
+		assertEquals(1, new JSONRPC2Response(new JSONRPC2RawValue("[1]"), 1).serializeSegments().length);
+
+		// A channel accepting no bytes fails instead of spinning
+		GatheringByteChannel stalled = new GatheringByteChannel() {
+
+			public long write(ByteBuffer[] srcs, int offset, int length) {
+
+				return 0;
+			}
+
+			public long write(ByteBuffer[] srcs) {
+
+				return 0;
+			}
+
+			public int write(ByteBuffer src) {
+
+				return 0;
+			}
+
+			public boolean isOpen() {
+
+				return true;
+			}
+
+			public void close() {}
+		};
+
+		try {
+			JSONRPC2SegmentedOutput.writeFully(stalled, response.serializeSegments());
+			fail();
+
+		} catch (IOException e) {
+			// ok
+		}
+
+		// Empty segments need no write
+		JSONRPC2SegmentedOutput.writeFully(stalled, new ByteBuffer[]{ ByteBuffer.allocate(0) });
+	}
+
+
+	public void testValueWriterNumbers()
+		throws IOException {
+
+		long[] longs = { 0, 7, -7, 10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE };
+
+		for (long l: longs) {
+
+			StringBuilder sb = new StringBuilder();
+			JSONRPC2ValueWriter.writeLong(l, sb);
+			assertEquals(Long.toString(l), sb.toString());
+		}
+
+		double[] doubles = { 0.0, -0.0, 1.0, -2.5, 0.1, 0.1 + 0.2, 175.05, 1.0/3, 1e-3, 9999999.5,
+		                     1e-5, 1e7, 123456789.125, Double.MIN_VALUE, Double.MAX_VALUE };
+
+		for (double d: doubles) {
+
+			JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer();
+			JSONRPC2ValueWriter.writeDouble(d, out);
+
+			String s = out.toString();
+
+			assertEquals(s, Double.doubleToLongBits(d), Double.doubleToLongBits(Double.parseDouble(s)));
+			assertTrue(s, s.length() <= Double.toString(d).length());
+		}
+
+		StringBuilder sb = new StringBuilder();
+		JSONRPC2ValueWriter.writeDouble(Double.NaN, sb);
+		JSONRPC2ValueWriter.writeDouble(Double.NEGATIVE_INFINITY, sb);
+		assertEquals("nullnull", sb.toString());
+	}
+
+
+	public void testValueWriterStrings()
+		throws IOException {
+
+		StringBuilder sb = new StringBuilder();
+
+		for (char c=0; c < 0x2200; c++)
+			sb.append(c);
+
+		sb.append("a long plain ASCII run / \"quoted\" \\ end");
+
+		String s = sb.toString();
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer();
+		JSONRPC2ValueWriter.writeString(s, out);
+
+		assertEquals(JSONValue.toJSONString(s), out.toString());
+
+		List list = new ArrayList();
+		list.add(s);
+		list.add(42);
+		list.add(true);
+		list.add(null);
+		list.add(new int[]{ 1, 2 });
+
+		out.reset();
+		JSONRPC2ValueWriter.writeValue(list, out);
+
+		assertEquals(JSONValue.toJSONString(list), out.toString());
+	}
+
+
+	private static String canonicalNumber(final Number n)
+		throws IOException {
+
+		StringBuilder sb = new StringBuilder();
+		JSONRPC2CanonicalWriter.writeNumber(n, sb);
+		return sb.toString();
+	}
+
+
+	public void testCanonicalNumbers()
+		throws IOException {
+
+		// Equal values of different types
+		Number[][] equal = {
+			{ 1e16, 10000000000000000L, new java.math.BigDecimal("1E+16"), new java.math.BigInteger("10000000000000000") },
+			{ 1e20, new java.math.BigDecimal("1E+20"), new java.math.BigInteger("100000000000000000000") },
+			{ 1e21, new java.math.BigDecimal("1E+21"), new java.math.BigInteger("1000000000000000000000") },
+			{ 9007199254740993.0, 9007199254740992L },
+			{ 2.5, 2.5f, new java.math.BigDecimal("2.500") },
+			{ 1.23e-6, new java.math.BigDecimal("0.0000012300") },
+			{ -0.0, 0L, java.math.BigDecimal.ZERO }
+		};
+
+		for (Number[] group: equal) {
+
+			for (Number n: group)
+				assertEquals(n.getClass().getName(), canonicalNumber(group[0]), canonicalNumber(n));
+		}
+
+		assertEquals("10000000000000000", canonicalNumber(1e16));
+		assertEquals("100000000000000000000", canonicalNumber(1e20));
+		assertEquals("1e+21", canonicalNumber(1e21));
+		assertEquals("0.001", canonicalNumber(0.001));
+		assertEquals("0.000001", canonicalNumber(1e-6));
+		assertEquals("1e-7", canonicalNumber(1e-7));
+		assertEquals("-1.5e+300", canonicalNumber(-1.5e300));
+		assertEquals("123.456", canonicalNumber(new java.math.BigDecimal("123.4560")));
+		assertEquals("1.2345678901234567e+21", canonicalNumber(new java.math.BigInteger("1234567890123456700000")));
+		assertEquals("-9223372036854775808", canonicalNumber(Long.MIN_VALUE));
+
+		// Huge exponents are not expanded
+		assertEquals("1e+100000000", canonicalNumber(new java.math.BigDecimal("1E+100000000")));
+		assertEquals("-2.5e-100000000", canonicalNumber(new java.math.BigDecimal("-2.5E-100000000")));
+	}
+
+
+	public void testCanonicalForm()
+		throws IOException {
+
+		Map params = new HashMap();
+		params.put("b", 2.0);
+		params.put("a", Arrays.asList(1.5, 1e21, 1e-7, -0.0, new java.math.BigDecimal("2.50")));
+		params.put("\u00e9", "tab\t/\u2028");
+
+		JSONRPC2Request request = new JSONRPC2Request("m", params, 1L);
+		request.appendNonStdAttribute("_trace", 7);
+
+		assertEquals("{\"_trace\":7,\"id\":1,\"jsonrpc\":\"2.0\",\"method\":\"m\"," +
+		             "\"params\":{\"a\":[1.5,1e+21,1e-7,0,2.5],\"b\":2,\"\u00e9\":\"tab\\t/\u2028\"}}",
+		             request.toCanonicalString());
+
+		// Member order and number types don't matter
+		Map reordered = new LinkedHashMap();
+		reordered.put("\u00e9", "tab\t/\u2028");
+		reordered.put("b", 2L);
+		reordered.put("a", Arrays.asList(1.5f, 1e21, 1e-7, 0L, 2.5));
+
+		JSONRPC2Request equal = new JSONRPC2Request("m", reordered, 1);
+		equal.appendNonStdAttribute("_trace", 7L);
+
+		assertEquals(request.toCanonicalString(), equal.toCanonicalString());
+		assertEquals(request.canonicalHash(), equal.canonicalHash());
+
+		equal.setID(2L);
+
+		assertFalse(request.canonicalHash() == equal.canonicalHash());
+
+		// Raw values are canonicalised
+		JSONRPC2Response response = new JSONRPC2Response(new JSONRPC2RawValue("{ \"y\" : 1.0, \"x\" : [ ] }"), "r");
+
+		assertEquals("{\"id\":\"r\",\"jsonrpc\":\"2.0\",\"result\":{\"x\":[],\"y\":1}}", response.toCanonicalString());
+	}
+
+
+	public void testHashOutput()
+		throws IOException {
+
+		JSONRPC2HashOutput hash = new JSONRPC2HashOutput();
+
+		assertEquals(0xEF46DB3751D8E999L, hash.getValue());
+
+		hash.append("abc");
+
+		assertEquals(0x44BC2CF5AD770999L, hash.getValue());
+
+		hash.reset();
+
+		String s = "Nobody inspects the spammish repetition";
+
+		hash.append(s);
+
+		assertEquals(0xFBCEA83C8A378BF1L, hash.getValue());
+		assertEquals(s.length(), hash.getLength());
+
+		// Byte by byte and in odd chunks
+		byte[] bytes = (s + s + s).getBytes("UTF-8");
+
+		JSONRPC2HashOutput whole = new JSONRPC2HashOutput(42L);
+		whole.write(bytes);
+
+		JSONRPC2HashOutput single = new JSONRPC2HashOutput(42L);
+
+		for (byte b: bytes)
+			single.write(b);
+
+		JSONRPC2HashOutput chunked = new JSONRPC2HashOutput(42L);
+
+		for (int i=0; i < bytes.length; i += 7)
+			chunked.write(bytes, i, Math.min(7, bytes.length - i));
+
+		assertEquals(whole.getValue(), single.getValue());
+		assertEquals(whole.getValue(), chunked.getValue());
+
+		// The hash of a message equals the hash of its canonical bytes
+		JSONRPC2Notification notification = new JSONRPC2Notification("progressNotify", Arrays.asList((Object)"75%"));
+
+		hash.reset();
+		hash.write(notification.toCanonicalString().getBytes("UTF-8"));
+
+		assertEquals(hash.getValue(), notification.canonicalHash());
+	}
+
+
+	public void testCompactMessages() {
+
+		Map params = new LinkedHashMap();
+		params.put("recipient", "Penny Adams");
+		params.put("amount", 175.05);
+
+		JSONRPC2Request request = new JSONRPC2Request("makePayment", params, "0001");
+		request.appendNonStdAttribute("_trace", "abc");
+
+		JSONRPC2CompactRequest compactRequest = JSONRPC2CompactRequest.from(request);
+
+		assertEquals(request.toString(), compactRequest.toString());
+		assertEquals("makePayment", compactRequest.getMethod());
+		assertEquals(JSONRPC2ParamsType.OBJECT, compactRequest.getParamsType());
+		assertEquals(2, compactRequest.getParamCount());
+		assertEquals(175.05, compactRequest.getParam("amount"));
+		assertEquals("Penny Adams", compactRequest.getParam(0));
+		assertNull(compactRequest.getParam("x"));
+		assertEquals("abc", compactRequest.getNonStdAttribute("_trace"));
+		assertEquals(1, compactRequest.getNonStdAttributeCount());
+		assertEquals("_trace", compactRequest.getNonStdAttributeName(0));
+
+		// Independent of the source
+		params.put("amount", 0.0);
+		request.appendNonStdAttribute("_trace", "def");
+
+		JSONRPC2Request copy = compactRequest.toMutable();
+
+		assertEquals(175.05, ((Map)copy.getParams()).get("amount"));
+		assertEquals("abc", copy.getNonStdAttribute("_trace"));
+		assertEquals(compactRequest.toString(), copy.toString());
+
+		JSONRPC2Notification notification = new JSONRPC2Notification("progressNotify", Arrays.asList((Object)"75%", 3L));
+
+		JSONRPC2CompactMessage compact = JSONRPC2CompactMessage.from(notification);
+
+		assertTrue(compact instanceof JSONRPC2CompactNotification);
+		assertEquals(notification.toString(), compact.toString());
+		assertEquals(notification.getParams(), ((JSONRPC2CompactNotification)compact).getParams());
+		assertEquals(notification.toString(), compact.toMutable().toString());
+
+		notification = new JSONRPC2Notification("ping");
+
+		assertEquals(notification.toString(), JSONRPC2CompactNotification.from(notification).toString());
+		assertEquals(0, JSONRPC2CompactNotification.from(notification).getParamCount());
+		assertNull(JSONRPC2CompactNotification.from(notification).getParam(0));
+		assertNull(JSONRPC2CompactRequest.from(new JSONRPC2Request("ping", 1L)).getParam(0));
+
+		// Pre-serialised parameters aren't accessible by position
+		JSONRPC2Request raw = new JSONRPC2Request("makePayment", 1L);
+		raw.setParams(new JSONRPC2RawValue("{\"amount\":1}"));
+
+		JSONRPC2CompactRequest rawRequest = JSONRPC2CompactRequest.from(raw);
+
+		assertEquals(0, rawRequest.getParamCount());
+		assertNull(rawRequest.getParam(0));
+		assertNull(rawRequest.getParam("amount"));
+
+		raw.setParams(new JSONRPC2RawValue("[1]"));
+
+		assertNull(JSONRPC2CompactRequest.from(raw).getParam(0));
+
+		try {
+			compactRequest.getParam(2);
+			fail();
+
+		} catch (IndexOutOfBoundsException e) {
+			// ok
+		}
+
+		JSONRPC2Response[] responses = {
+			new JSONRPC2Response(new JSONRPC2RawValue("[1,2]"), 5L),
+			new JSONRPC2Response(JSONRPC2Error.INVALID_PARAMS, 5L),
+			new JSONRPC2Response(new JSONRPC2Error(1, "Custom"), null)
+		};
+
+		for (JSONRPC2Response response: responses) {
+
+			JSONRPC2CompactResponse compactResponse = JSONRPC2CompactResponse.from(response);
+
+			assertEquals(response.toString(), compactResponse.toString());
+			assertEquals(response.indicatesSuccess(), compactResponse.indicatesSuccess());
+			assertEquals(response.toString(), compactResponse.toMutable().toString());
+		}
+	}
+}
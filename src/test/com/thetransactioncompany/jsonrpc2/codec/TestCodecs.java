@@ -0,0 +1,404 @@
+package com.thetransactioncompany.jsonrpc2.codec;
+
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import java.util.*;
+
+import junit.framework.*;
+
+import com.thetransactioncompany.jsonrpc2.*;
+
+
+/**
+ * JUnit tests for the JSON-RPC 2.0 message codecs.
+ *
+ * @author Vladimir Dzhuvinov
+ * @version 1.27 (2026-10-18)
+ */
+public class TestCodecs extends TestCase {
+
+
+	public TestCodecs(String name) {
+
+		super(name);
+	}
+
+
+	private static JSONRPC2Request createRequest() {
+
+		Map params = new HashMap();
+		params.put("recipient", "Penny Adams \u00e9 \ud83d\ude00");
+		params.put("amount", 175.05);
+		params.put("count", 3L);
+		params.put("big", -5000000000L);
+		params.put("flags", Arrays.asList(true, false, null));
+
+		JSONRPC2Request request = new JSONRPC2Request("makePayment", params, 1001L);
+		request.appendNonStdAttribute("_trace", "abc");
+
+		return request;
+	}
+
+
+	private static void assertRoundTrip(final JSONRPC2Codec codec)
+		throws JSONRPC2ParseException {
+
+		JSONRPC2Parser parser = new JSONRPC2Parser(false, false, true);
+
+		JSONRPC2Request request = createRequest();
+
+		byte[] bytes = codec.encode(request);
+
+		JSONRPC2Request decodedRequest = codec.decodeRequest(bytes, 0, bytes.length);
+
+		assertEquals(request.getMethod(), decodedRequest.getMethod());
+		assertEquals(request.getID(), decodedRequest.getID());
+		assertEquals(request.getParams(), decodedRequest.getParams());
+		assertEquals("abc", decodedRequest.getNonStdAttribute("_trace"));
+
+		// Interchangeable with the JSON form
+		assertEquals(parser.parseJSONRPC2Request(request.toString()).getParams(), decodedRequest.getParams());
+
+		JSONRPC2Notification notification = new JSONRPC2Notification("progressNotify", Arrays.asList((Object)"75%"));
+
+		bytes = codec.encode(notification);
+
+		JSONRPC2Message message = codec.decode(bytes, 0, bytes.length);
+
+		assertTrue(message instanceof JSONRPC2Notification);
+		assertEquals(notification.toString(), message.toString());
+
+		JSONRPC2Response response = new JSONRPC2Response(new JSONRPC2Error(-32099, "Custom", Arrays.asList(1L, 2L)), "id-1");
+
+		bytes = codec.encode(response);
+
+		JSONRPC2Response decodedResponse = codec.decodeResponse(bytes, 0, bytes.length);
+
+		assertEquals(-32099, decodedResponse.getError().getCode());
+		assertEquals("Custom", decodedResponse.getError().getMessage());
+		assertEquals(Arrays.asList(1L, 2L), decodedResponse.getError().getData());
+		assertEquals("id-1", decodedResponse.getID());
+
+		response = new JSONRPC2Response(new JSONRPC2RawValue("{\"x\":[1.5,-2]}"), null);
+
+		bytes = codec.encode(response);
+
+		assertEquals(response.toString(), codec.decode(bytes, 0, bytes.length).toString());
+
+		try {
+			codec.decodeRequest(bytes, 0, bytes.length);
+			fail("Failed to raise exception on response decoded as request");
+
+		} catch (JSONRPC2ParseException e) {
+			assertEquals(JSONRPC2ParseException.PROTOCOL, e.getCauseType());
+		}
+	}
+
+
+	public void testJSONCodec()
+		throws JSONRPC2ParseException {
+
+		assertRoundTrip(new JSONCodec(new JSONRPC2Parser(false, false, true)));
+	}
+
+
+	public void testCBORCodec()
+		throws JSONRPC2ParseException {
+
+		JSONRPC2Codec codec = new CBORCodec(new JSONRPC2Parser(false, false, true));
+
+		assertEquals("cbor", codec.getName());
+
+		assertRoundTrip(codec);
+
+		JSONRPC2Notification notification = new JSONRPC2Notification("n");
+
+		// {"jsonrpc":"2.0","method":"n"}
+		byte[] expected = { (byte)0xa2,
+		                    0x67, 'j', 's', 'o', 'n', 'r', 'p', 'c', 0x63, '2', '.', '0',
+		                    0x66, 'm', 'e', 't', 'h', 'o', 'd', 0x61, 'n' };
+
+		assertTrue(Arrays.equals(expected, codec.encode(notification)));
+	}
+
+
+	public void testCBORNumbers()
+		throws JSONRPC2ParseException {
+
+		JSONRPC2Codec codec = new CBORCodec();
+
+		List params = new ArrayList();
+		params.add(0L);
+		params.add(23L);
+		params.add(24L);
+		params.add(-1L);
+		params.add(Long.MAX_VALUE);
+		params.add(Long.MIN_VALUE);
+		params.add(0.5);
+		params.add(0.1);
+		params.add(new BigInteger("123456789012345678901234567890"));
+		params.add(new BigInteger("-123456789012345678901234567890"));
+		params.add(new BigDecimal("-1.05"));
+
+		JSONRPC2Request request = new JSONRPC2Request("m", params, 0L);
+
+		byte[] bytes = codec.encode(request);
+
+		assertEquals(params, codec.decodeRequest(bytes, 0, bytes.length).getParams());
+	}
+
+
+	public void testCBORMalformed() {
+
+		JSONRPC2Codec codec = new CBORCodec();
+
+		byte[][] inputs = {
+			{ },
+			{ (byte)0xa1 },                         // truncated map
+			{ (byte)0xa1, 0x01, 0x02 },             // integer key
+			{ (byte)0xa1, 0x61, 'a', 0x41, 0x00 },  // byte string value
+			{ (byte)0x9b, 0x7f, 0, 0, 0, 0, 0, 0, 0 }, // huge array
+			{ (byte)0xf6, (byte)0xf6 }              // trailing bytes
+		};
+
+		for (byte[] input: inputs) {
+
+			try {
+				codec.decode(input, 0, input.length);
+				fail("Failed to raise exception");
+
+			} catch (JSONRPC2ParseException e) {
+				assertEquals(JSONRPC2ParseException.JSON, e.getCauseType());
+			}
+		}
+
+		// Indefinite length map and string
+		byte[] indefinite = { (byte)0xbf,
+		                      0x67, 'j', 's', 'o', 'n', 'r', 'p', 'c', 0x63, '2', '.', '0',
+		                      0x66, 'm', 'e', 't', 'h', 'o', 'd', 0x7f, 0x61, 'a', 0x61, 'b', (byte)0xff,
+		                      (byte)0xff };
+
+		try {
+			assertEquals("ab", codec.decodeNotification(indefinite, 0, indefinite.length).getMethod());
+
+		} catch (JSONRPC2ParseException e) {
+			fail(e.getMessage());
+		}
+	}
+
+
+	public void testMessagePackCodec()
+		throws JSONRPC2ParseException {
+
+		JSONRPC2Codec codec = new MessagePackCodec(new JSONRPC2Parser(false, false, true));
+
+		assertEquals("msgpack", codec.getName());
+
+		assertRoundTrip(codec);
+
+		JSONRPC2Response response = new JSONRPC2Response(JSONRPC2Error.METHOD_NOT_FOUND, 7L);
+
+		// {"jsonrpc":"2.0","error":{"code":-32601,"message":"Method not found"},"id":7}
+		byte[] bytes = codec.encode(response);
+
+		byte[] expectedStart = { (byte)0x83,
+		                         (byte)0xa7, 'j', 's', 'o', 'n', 'r', 'p', 'c', (byte)0xa3, '2', '.', '0',
+		                         (byte)0xa5, 'e', 'r', 'r', 'o', 'r', (byte)0x82,
+		                         (byte)0xa4, 'c', 'o', 'd', 'e', (byte)0xd1, (byte)0x80, (byte)0xa7 };
+
+		assertTrue(Arrays.equals(expectedStart, Arrays.copyOf(bytes, expectedStart.length)));
+
+		// Compact identifier
+		assertEquals(7, bytes[bytes.length - 1]);
+
+		List params = new ArrayList();
+		params.add(-33L);
+		params.add(255L);
+		params.add(65536L);
+		params.add(Long.MIN_VALUE);
+		params.add(new BigInteger("18446744073709551615"));
+		params.add(1.5);
+		params.add(0.1);
+
+		JSONRPC2Request request = new JSONRPC2Request("m", params, 0L);
+
+		bytes = codec.encode(request);
+
+		assertEquals(params, codec.decodeRequest(bytes, 0, bytes.length).getParams());
+
+		byte[] binary = { (byte)0x81, (byte)0xa1, 'a', (byte)0xc4, 0x01, 0x00 };
+
+		try {
+			codec.decode(binary, 0, binary.length);
+			fail("Failed to raise exception on binary value");
+
+		} catch (JSONRPC2ParseException e) {
+			assertEquals(JSONRPC2ParseException.JSON, e.getCauseType());
+		}
+	}
+
+
+	private static JSONRPC2Request createOrder(final int i) {
+
+		Map params = new HashMap();
+		params.put("customerId", "cust-" + (i % 17));
+		params.put("warehouse", i % 2 == 0 ? "eu-west" : "us-east");
+		params.put("quantity", (long)i);
+		params.put("currency", "EUR");
+
+		return new JSONRPC2Request("orders.create", params, (long)i);
+	}
+
+
+	public void testDeflateCodec()
+		throws JSONRPC2ParseException {
+
+		JSONRPC2Codec json = new JSONCodec(new JSONRPC2Parser(false, false, true));
+
+		DeflateCodec codec = new DeflateCodec(json);
+
+		assertEquals("deflate+json", codec.getName());
+
+		assertRoundTrip(codec);
+
+		List<byte[]> samples = new ArrayList<byte[]>();
+
+		for (int i=0; i < 100; i++)
+			samples.add(json.encode(createOrder(i)));
+
+		byte[] preset = DeflateCodec.createPresetDictionary(json);
+
+		byte[] dictionary = DeflateCodec.trainDictionary(preset, samples, 4096);
+
+		assertTrue(dictionary.length <= 4096);
+		assertTrue(dictionary.length > preset.length);
+
+		DeflateCodec trained = new DeflateCodec(json, dictionary);
+		DeflateCodec plain = new DeflateCodec(json, new byte[0]);
+
+		assertTrue(trained.getDictionaryID() != codec.getDictionaryID());
+
+		JSONRPC2Request request = createOrder(1000);
+
+		byte[] uncompressed = json.encode(request);
+		byte[] withoutDictionary = plain.encode(request);
+		byte[] withPreset = codec.encode(request);
+		byte[] withTrained = trained.encode(request);
+
+		assertTrue(withPreset.length < withoutDictionary.length);
+		assertTrue(withTrained.length < withPreset.length);
+		assertTrue(withTrained.length * 3 < uncompressed.length);
+
+		assertEquals(request.toString(), trained.decodeRequest(withTrained, 0, withTrained.length).toString());
+
+		// Dictionary mismatch or truncation
+		try {
+			codec.decode(withTrained, 0, withTrained.length);
+			fail("Failed to raise exception on dictionary mismatch");
+
+		} catch (JSONRPC2ParseException e) {
+			// ok
+		}
+
+		try {
+			trained.decode(withTrained, 0, withTrained.length / 2);
+			fail("Failed to raise exception on truncated input");
+
+		} catch (JSONRPC2ParseException e) {
+			assertEquals(JSONRPC2ParseException.JSON, e.getCauseType());
+		}
+
+		// Over a binary codec
+		DeflateCodec cbor = new DeflateCodec(new CBORCodec(new JSONRPC2Parser(false, false, true)));
+
+		assertRoundTrip(cbor);
+
+		codec.end();
+		trained.end();
+		plain.end();
+		cbor.end();
+	}
+
+
+	private static JSONRPC2Request createRandomRequest(final int chars, final long seed) {
+
+		Random random = new Random(seed);
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int i=0; i < chars; i++)
+			sb.append((char)('!' + random.nextInt(90)));
+
+		Map params = new HashMap();
+		params.put("blob", sb.toString());
+
+		return new JSONRPC2Request("store", params, seed);
+	}
+
+
+	private static byte[] concat(final java.nio.ByteBuffer[] segments) {
+
+		JSONRPC2OutputBuffer out = new JSONRPC2OutputBuffer();
+
+		for (java.nio.ByteBuffer segment: segments) {
+
+			byte[] b = new byte[segment.remaining()];
+			segment.duplicate().get(b);
+			out.write(b);
+		}
+
+		return out.toByteArray();
+	}
+
+
+	public void testDeflateCodecLargeMessages()
+		throws Exception {
+
+		// Messages inflating past the initial scratch buffer
+		JSONRPC2Codec[] inners = {
+			new JSONCodec(new JSONRPC2Parser(false, false, true)),
+			new CBORCodec(new JSONRPC2Parser(false, false, true))
+		};
+
+		for (JSONRPC2Codec inner: inners) {
+
+			DeflateCodec codec = new DeflateCodec(inner);
+
+			JSONRPC2Request request = createRandomRequest(300, 1L);
+
+			byte[] encoded = codec.encode(request);
+
+			assertEquals(request.toString(), codec.decode(encoded, 0, encoded.length).toString());
+
+			codec.end();
+
+			codec = new DeflateCodec(inner);
+
+			assertEquals(request.toString(), codec.decodeRequest(encoded, 0, encoded.length).toString());
+
+			codec.end();
+		}
+
+		// Encoding into an output which retains large writes
+		DeflateCodec codec = new DeflateCodec(inners[0]);
+
+		byte[] medium = codec.encode(createRandomRequest(1500, 2L));
+		codec.decode(medium, 0, medium.length);
+
+		JSONRPC2Request large = createRandomRequest(18000, 3L);
+
+		byte[] expected = codec.encode(large);
+
+		JSONRPC2SegmentedOutput out = new JSONRPC2SegmentedOutput(JSONRPC2SegmentedOutput.DEFAULT_SEGMENT_THRESHOLD);
+		codec.encode(large, out);
+
+		byte[] segmented = concat(out.getSegments());
+
+		assertTrue(Arrays.equals(expected, segmented));
+		assertEquals(large.toString(), codec.decode(segmented, 0, segmented.length).toString());
+
+		codec.end();
+	}
+}
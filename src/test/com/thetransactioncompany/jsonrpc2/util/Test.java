@@ -770,4 +770,696 @@ public class Test extends TestCase {
 			// ok
 		}
 	}
+	
+	
+	public void testEnumStringSet()
+		throws JSONRPC2Error {
+	
+		EnumStringSet set = new EnumStringSet("one", "Two", "TWO", "stra\u00dfe");
+		
+		assertEquals(4, set.size());
+		assertEquals("Two", set.match("Two", false));
+		assertEquals("TWO", set.match("TWO", false));
+		assertEquals("Two", set.match("TWO", true));
+		assertEquals("Two", set.match("two", true));
+		assertNull(set.match("two", false));
+		assertNull(set.match(null, true));
+		assertEquals("stra\u00dfe", set.match("STRA\u00dfE", true));
+		assertTrue(set.contains("one"));
+		assertFalse(set.contains("ONE"));
+		
+		// Probing past colliding and duplicate folded values
+		String[] many = new String[100];
+		
+		for (int i=0; i < many.length; i++)
+			many[i] = "Value" + i;
+		
+		EnumStringSet manySet = new EnumStringSet(many);
+		
+		for (int i=0; i < many.length; i++) {
+			assertEquals(i, manySet.indexOf("VALUE" + i, true));
+			assertEquals(i, manySet.indexOf("value" + i, true));
+			assertEquals(-1, manySet.indexOf("value" + i, false));
+		}
+		
+		assertEquals(-1, manySet.indexOf("VALUE100", true));
+		assertEquals(-1, new EnumStringSet().indexOf("x", true));
+		
+		List l = new LinkedList();
+		l.add("ONE");
+		
+		PositionalParamsRetriever pr = new PositionalParamsRetriever(l);
+		
+		assertEquals("one", pr.getEnumString(0, set, true));
+		assertEquals("two", pr.getOptEnumString(1, new EnumStringSet("two"), "two"));
+		
+		try {
+			pr.getEnumString(0, set);
+			fail("Failed to raise exception");
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		Map m = new HashMap();
+		m.put("day", "friday");
+		
+		NamedParamsRetriever nr = new NamedParamsRetriever(m);
+		
+		assertEquals("one", nr.getOptEnumString("x", set, "one"));
+		
+		// Cached lookup table, repeated and concurrent use
+		for (int i=0; i < 3; i++) {
+			assertSame(TestEnumDay.FRIDAY, nr.getEnum("day", TestEnumDay.class, true));
+			assertSame(TestEnumDay.SUNDAY, ParamsRetriever.ensureEnumString("SUNDAY", TestEnumDay.class, false));
+		}
+		
+		try {
+			nr.getEnum("day", TestEnumDay.class);
+			fail("Failed to raise exception");
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		// Matched by toString(), resolved by declared name
+		m.put("shade", "DARK-RED");
+		assertSame(Shade.DARK_RED, nr.getEnum("shade", Shade.class, true));
+		assertSame(Shade.LIGHT, ParamsRetriever.ensureEnumString("light", Shade.class, false));
+		
+		// The cache grows past its initial capacity, earlier entries stay
+		Class[] classes = {
+			java.util.concurrent.TimeUnit.class,
+			Thread.State.class,
+			java.math.RoundingMode.class,
+			java.lang.annotation.ElementType.class,
+			java.lang.annotation.RetentionPolicy.class,
+			java.net.Proxy.Type.class,
+			java.text.Normalizer.Form.class,
+			java.lang.management.MemoryType.class
+		};
+		
+		for (int i=0; i < 2; i++) {
+			
+			for (Class c: classes) {
+				
+				Enum first = (Enum)c.getEnumConstants()[0];
+				assertSame(first, ParamsRetriever.ensureEnumString(first.toString(), c, false));
+			}
+			
+			assertSame(TestEnumDay.SUNDAY, ParamsRetriever.ensureEnumString("SUNDAY", TestEnumDay.class, false));
+			assertSame(Shade.LIGHT, ParamsRetriever.ensureEnumString("light", Shade.class, false));
+		}
+	}
+	
+	
+	private enum Shade {
+	
+		DARK_RED {
+			public String toString() {
+				return "dark-red";
+			}
+		},
+		
+		LIGHT {
+			public String toString() {
+				return "light";
+			}
+		}
+	}
+	
+	
+	public void testNamedParamsSchema()
+		throws JSONRPC2Error {
+	
+		NamedParamsSchema schema = new NamedParamsSchema(
+			ParamSpec.mandatory("recipient", String.class),
+			ParamSpec.mandatory("amount", Number.class),
+			ParamSpec.optional("currency", String.class, "EUR").withEnumStrings(new EnumStringSet("EUR", "USD")).withIgnoreCase(),
+			ParamSpec.optional("day", TestEnumDay.class, TestEnumDay.MONDAY),
+			ParamSpec.optional("memo", String.class, null).withNullAllowed());
+		
+		assertEquals(5, schema.size());
+		assertEquals(2, schema.indexOf("currency"));
+		assertEquals(-1, schema.indexOf("x"));
+		
+		ParamValues values = schema.newValues();
+		
+		Map params = new HashMap();
+		params.put("recipient", "Penny Adams");
+		params.put("amount", 175.05);
+		params.put("currency", "usd");
+		params.put("memo", null);
+		
+		new NamedParamsRetriever(params).ensureParameters(schema, values);
+		
+		assertEquals("Penny Adams", values.getString(0));
+		assertEquals(175.05, values.getDouble(1));
+		assertEquals(175, values.getInt(1));
+		assertEquals("USD", values.getString(2));
+		assertTrue(values.isPresent(2));
+		assertSame(TestEnumDay.MONDAY, values.getEnum(3, TestEnumDay.class));
+		assertFalse(values.isPresent(3));
+		assertNull(values.get("memo"));
+		assertTrue(values.isPresent(4));
+		
+		// Reused slot array
+		params.remove("currency");
+		params.put("day", "friday");
+		
+		try {
+			schema.validate(params, values);
+			fail("Failed to raise exception");
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		params.put("day", "FRIDAY");
+		schema.validate(params, values);
+		
+		assertEquals("EUR", values.getString(2));
+		assertFalse(values.isPresent(2));
+		assertSame(TestEnumDay.FRIDAY, values.get(3));
+		
+		Map[] bad = new Map[4];
+		
+		for (int i=0; i < bad.length; i++) {
+			bad[i] = new HashMap(params);
+		}
+		
+		bad[0].remove("amount");
+		bad[1].put("amount", "175");
+		bad[2].put("recipient", null);
+		bad[3].put("extra", 1L);
+		
+		for (Map m: bad) {
+		
+			try {
+				schema.validate(m, values);
+				fail("Failed to raise exception on " + m);
+			} catch (JSONRPC2Error e) {
+				assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+			}
+		}
+		
+		new NamedParamsSchema(true, schema.getSpec(0), schema.getSpec(1)).validate(bad[3]);
+		
+		try {
+			new NamedParamsSchema(schema.getSpec(0), schema.getSpec(0));
+			fail("Failed to raise exception");
+		} catch (IllegalArgumentException e) {
+			// ok
+		}
+		
+		// The default value must remain valid for enumerated strings
+		ParamSpec[] badSpecs = {
+			ParamSpec.optional("x", Number.class, 5),
+			ParamSpec.optional("x", String.class, "GBP"),
+			ParamSpec.optional("x", String.class, "eur")
+		};
+		
+		for (ParamSpec spec: badSpecs) {
+			
+			try {
+				spec.withEnumStrings(new EnumStringSet("EUR", "USD"));
+				fail("Failed to raise exception on default " + spec.getDefaultValue());
+			} catch (IllegalArgumentException e) {
+				// ok
+			}
+		}
+		
+		assertEquals("EUR", ParamSpec.optional("x", Object.class, "EUR").withEnumStrings(new EnumStringSet("EUR", "USD")).getDefaultValue());
+	}
+	
+	
+	public void testPositionalParamsSignature()
+		throws JSONRPC2Error {
+	
+		PositionalParamsSignature sig = new PositionalParamsSignature(
+			ParamSpec.mandatory("recipient", String.class),
+			ParamSpec.mandatory("amount", Number.class),
+			ParamSpec.optional("day", TestEnumDay.class, TestEnumDay.SUNDAY).withIgnoreCase(),
+			ParamSpec.optional("tags", List.class, null).withNullAllowed());
+		
+		assertEquals(2, sig.getMinArity());
+		assertEquals(4, sig.getMaxArity());
+		
+		ParamValues values = sig.newValues();
+		
+		List l = new LinkedList();
+		l.add("Penny Adams");
+		l.add(175L);
+		
+		new PositionalParamsRetriever(l).ensureParameters(sig, values);
+		
+		assertEquals("Penny Adams", values.getString(0));
+		assertEquals(175L, values.getLong(1));
+		assertSame(TestEnumDay.SUNDAY, values.getEnum(2, TestEnumDay.class));
+		assertFalse(values.isPresent(2));
+		assertNull(values.getList(3));
+		
+		l.add("tuesday");
+		l.add(null);
+		sig.validate(l, values);
+		
+		assertSame(TestEnumDay.TUESDAY, values.get("day"));
+		assertTrue(values.isPresent(3));
+		
+		List[] bad = {
+			Arrays.asList("Penny Adams"),
+			Arrays.asList("Penny Adams", "175"),
+			Arrays.asList("Penny Adams", 175L, "someday"),
+			Arrays.asList("Penny Adams", 175L, "monday", null, 1L)
+		};
+		
+		for (List b: bad) {
+		
+			try {
+				sig.validate(b, values);
+				fail("Failed to raise exception on " + b);
+			} catch (JSONRPC2Error e) {
+				assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+			}
+		}
+		
+		assertEquals(Integer.MAX_VALUE, new PositionalParamsSignature(true, sig.getSpec(0)).getMaxArity());
+		new PositionalParamsSignature(true, sig.getSpec(0)).validate(bad[3]);
+		
+		try {
+			new PositionalParamsSignature(sig.getSpec(2), sig.getSpec(0));
+			fail("Failed to raise exception");
+		} catch (IllegalArgumentException e) {
+			// ok
+		}
+	}
+	
+	
+	public void testNumericArrays()
+		throws Exception {
+	
+		List l = new LinkedList();
+		l.add(Arrays.asList(1L, -2L, 3.9));
+		l.add(new JSONRPC2RawValue("[ 1, -2 ,3.9, 12345678901234567890, 1e2 ]"));
+		l.add(Arrays.asList(1L, "2"));
+		l.add(new JSONRPC2RawValue("[1, \"2\"]"));
+		l.add(null);
+		l.add(new JSONRPC2RawValue("[]"));
+		
+		PositionalParamsRetriever r = new PositionalParamsRetriever(l);
+		
+		assertTrue(Arrays.equals(new int[]{1, -2, 3}, r.getIntArray(0)));
+		assertTrue(Arrays.equals(new long[]{1L, -2L, 3L}, r.getLongArray(0)));
+		assertTrue(Arrays.equals(new double[]{1.0, -2.0, 3.9}, r.getDoubleArray(0)));
+		
+		assertTrue(Arrays.equals(new long[]{1L, -2L, 3L, new java.math.BigInteger("12345678901234567890").longValue(), 100L}, r.getLongArray(1)));
+		assertTrue(Arrays.equals(new double[]{1.0, -2.0, 3.9, 1.2345678901234567e19, 100.0}, r.getDoubleArray(1)));
+		assertEquals(5, r.getIntArray(1).length);
+		
+		assertEquals(0, r.getLongArray(5).length);
+		assertNull(r.getDoubleArray(4, true));
+		
+		long[] def = new long[0];
+		assertSame(def, r.getOptLongArray(6, def));
+		
+		for (int pos: new int[]{2, 3, 4}) {
+		
+			try {
+				r.getLongArray(pos);
+				fail("Failed to raise exception at " + pos);
+			} catch (JSONRPC2Error e) {
+				assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+			}
+		}
+		
+		Map m = new HashMap();
+		m.put("v", Arrays.asList(0.5, 1.5));
+		
+		NamedParamsRetriever nr = new NamedParamsRetriever(m);
+		
+		assertTrue(Arrays.equals(new double[]{0.5, 1.5}, nr.getDoubleArray("v")));
+		assertTrue(Arrays.equals(new int[]{7}, nr.getOptIntArray("w", new int[]{7})));
+	}
+	
+	
+	public void testProbeAndTryGet() {
+	
+		Map m = new HashMap();
+		m.put("limit", 10L);
+		m.put("name", "x");
+		m.put("none", null);
+		
+		NamedParamsRetriever r = new NamedParamsRetriever(m);
+		
+		ParamHolder holder = new ParamHolder();
+		
+		assertEquals(ParamStatus.OK, r.probe("limit", Number.class, holder));
+		assertTrue(holder.isOK());
+		assertEquals(10, holder.getInt());
+		assertEquals(ParamStatus.WRONG_TYPE, r.probe("limit", String.class, holder));
+		assertEquals(10L, holder.getValue());
+		assertEquals(ParamStatus.NULL, r.probe("none", Object.class, holder));
+		assertEquals(ParamStatus.MISSING, r.probe("other", Object.class, holder));
+		assertNull(holder.getValue());
+		
+		assertEquals(10, r.tryGetInt("limit", -1));
+		assertEquals(-1L, r.tryGetLong("name", -1L));
+		assertEquals(10.0, r.tryGetDouble("limit", Double.NaN));
+		assertTrue(Double.isNaN(r.tryGetDouble("none", Double.NaN)));
+		assertEquals("x", r.tryGetString("name", null));
+		assertNull(r.tryGetString("limit", null));
+		
+		List l = new LinkedList();
+		l.add("x");
+		
+		PositionalParamsRetriever pr = new PositionalParamsRetriever(l);
+		
+		assertEquals(ParamStatus.OK, pr.probe(0, String.class, holder));
+		assertEquals("x", holder.getString());
+		assertEquals(ParamStatus.MISSING, pr.probe(1, String.class, holder));
+		assertEquals(ParamStatus.MISSING, pr.probe(-1, String.class, holder));
+		assertEquals(7, pr.tryGetInt(0, 7));
+		assertEquals(7L, pr.tryGetLong(3, 7L));
+	}
+	
+	
+	public void testRebind()
+		throws JSONRPC2Error {
+	
+		Map m1 = new HashMap();
+		m1.put("day", "MONDAY");
+		
+		Map m2 = new HashMap();
+		m2.put("day", "friday");
+		m2.put("n", 2L);
+		
+		NamedParamsRetriever r = new NamedParamsRetriever(m1);
+		
+		assertSame(TestEnumDay.MONDAY, r.getEnum("day", TestEnumDay.class));
+		assertSame(r, r.rebind(m2));
+		assertEquals(2, r.size());
+		assertSame(TestEnumDay.FRIDAY, r.getEnum("day", TestEnumDay.class, true));
+		assertFalse(r.rebind(m1).hasParameter("n"));
+		
+		PositionalParamsRetriever pr = new PositionalParamsRetriever(Arrays.asList((Object)1L));
+		
+		assertEquals(1, pr.getInt(0));
+		assertEquals("a", pr.rebind(Arrays.asList((Object)"a", 2L)).getString(0));
+		assertEquals(2, pr.size());
+	}
+	
+	
+	public void testParamPath()
+		throws Exception {
+	
+		ParamPath sku = ParamPath.compile("order.lines[1].sku");
+		assertEquals(4, sku.getDepth());
+		assertEquals("order.lines[1].sku", sku.toString());
+		assertEquals(2, ParamPath.compile("[0][1]").getDepth());
+		
+		String[] invalid = {"", "a.", ".a", "a..b", "a[", "a[x]", "a[-1]", "a]b", "a[0]b"};
+		
+		for (String p: invalid) {
+			try {
+				ParamPath.compile(p);
+				fail("Accepted " + p);
+			} catch (IllegalArgumentException e) {
+				// ok
+			}
+		}
+		
+		Map line0 = new HashMap();
+		line0.put("sku", "A1");
+		Map line1 = new HashMap();
+		line1.put("sku", "B2");
+		line1.put("qty", 3L);
+		line1.put("note", null);
+		Map order = new HashMap();
+		order.put("lines", Arrays.asList(line0, line1));
+		Map params = new HashMap();
+		params.put("order", order);
+		
+		assertEquals("B2", sku.getString(params));
+		assertEquals(3, ParamPath.compile("order.lines[1].qty").getInt(params));
+		assertEquals(2, ParamPath.compile("order.lines").getList(params).size());
+		
+		NamedParamsRetriever r = new NamedParamsRetriever(params);
+		assertEquals("B2", r.get(sku, String.class));
+		
+		String[] bad = {"order.lines[2].sku", "order.lines.sku", "order[0]", "order.lines[1].qty", "order.lines[1].note"};
+		
+		for (String p: bad) {
+			try {
+				r.get(ParamPath.compile(p), String.class);
+				fail("Resolved " + p);
+			} catch (JSONRPC2Error e) {
+				assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+			}
+		}
+		
+		ParamHolder h = new ParamHolder();
+		assertEquals(ParamStatus.OK, ParamPath.compile("order.lines[1].qty").probe(params, Long.class, h));
+		assertEquals(3L, h.getLong());
+		assertEquals(ParamStatus.NULL, ParamPath.compile("order.lines[1].note").probe(params, String.class, h));
+		assertEquals(ParamStatus.MISSING, ParamPath.compile("order.lines[5].sku").probe(params, String.class, h));
+		assertEquals(ParamStatus.MISSING, ParamPath.compile("order.lines[0].qty").probe(params, Long.class, h));
+		assertEquals(ParamStatus.WRONG_TYPE, sku.probe(params, Long.class, h));
+		
+		// Raw values are walked without decoding the siblings
+		List l = new ArrayList();
+		l.add(new JSONRPC2RawValue("{\"skip\": [1, {\"x\": \"}\"}], \"lines\": [{\"sku\": \"A1\"}, {\"sku\": \"B2\", \"note\": null}]}"));
+		
+		PositionalParamsRetriever pr = new PositionalParamsRetriever(l);
+		ParamPath rawSku = ParamPath.compile("[0].lines[1].sku");
+		assertEquals("B2", pr.get(rawSku, String.class));
+		assertEquals("[1, {\"x\": \"}\"}]", pr.get(ParamPath.compile("[0].skip"), JSONRPC2RawValue.class).toString());
+		assertEquals(2, ParamPath.compile("[0].skip").getList(l).size());
+		assertEquals(ParamStatus.NULL, ParamPath.compile("[0].lines[1].note").probe(l, String.class, h));
+		assertEquals(ParamStatus.MISSING, ParamPath.compile("[0].lines[2].sku").probe(l, String.class, h));
+		
+		try {
+			ParamPath.compile("lines[0]").getMap(new JSONRPC2RawValue("{\"lines\": [1, 2]}"));
+			fail();
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		try {
+			ParamPath.compile("b").get(new JSONRPC2RawValue("{\"a\": \"x, \"b\": 1}"), Object.class);
+			fail();
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+	}
+	
+	
+	private static long utc(int year, int month, int day, int hour, int minute, int second, int millis) {
+	
+		Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		cal.clear();
+		cal.set(year, month - 1, day, hour, minute, second);
+		cal.set(Calendar.MILLISECOND, millis);
+		return cal.getTimeInMillis();
+	}
+	
+	
+	public void testStringDecoders()
+		throws Exception {
+	
+		String uuid = "123e4567-e89b-12d3-a456-426614174000";
+		
+		Map params = new HashMap();
+		params.put("uuid", uuid);
+		params.put("uuidUpper", uuid.toUpperCase());
+		params.put("date", "2026-10-18T09:30:00Z");
+		params.put("dateOffset", "2026-10-18T11:30:00.25+02:00");
+		params.put("dateNanos", "1969-12-31T23:59:59.123456789Z");
+		params.put("leap", "2024-02-29T00:00:00z");
+		params.put("amount", "12.50");
+		params.put("amountExp", "-1.5e3");
+		params.put("amountLong", "123456789012345678901234.5");
+		params.put("amountLongNum", 42L);
+		params.put("amountDoubleNum", 0.1);
+		params.put("blob", "aGVsbG8=");
+		params.put("blobNoPad", "aGk");
+		params.put("blobURLSafe", "-_8");
+		params.put("blobStd", "+/8=");
+		params.put("blobOneByte", "aQ==");
+		params.put("null", null);
+		params.put("number", 1L);
+		
+		NamedParamsRetriever r = new NamedParamsRetriever(params);
+		
+		assertEquals(UUID.fromString(uuid), r.getUUID("uuid"));
+		assertEquals(UUID.fromString(uuid), r.getUUID("uuidUpper"));
+		assertEquals(utc(2026, 10, 18, 9, 30, 0, 0), r.getDate("date").getTime());
+		assertEquals(utc(2026, 10, 18, 9, 30, 0, 250), r.getDate("dateOffset").getTime());
+		assertEquals(-877L, r.getDate("dateNanos").getTime());
+		assertEquals(utc(2024, 2, 29, 0, 0, 0, 0), r.getDate("leap").getTime());
+		assertEquals(new java.math.BigDecimal("12.50"), r.getBigDecimal("amount"));
+		assertEquals(new java.math.BigDecimal("-1.5e3"), r.getBigDecimal("amountExp"));
+		assertEquals(new java.math.BigDecimal("123456789012345678901234.5"), r.getBigDecimal("amountLong"));
+		assertEquals(new java.math.BigDecimal(42), r.getBigDecimal("amountLongNum"));
+		assertEquals(new java.math.BigDecimal("0.1"), r.getBigDecimal("amountDoubleNum"));
+		assertEquals("hello", new String(r.getBytes("blob"), "UTF-8"));
+		assertEquals("hi", new String(r.getBytes("blobNoPad"), "UTF-8"));
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, r.getBytes("blobURLSafe")));
+		assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, r.getBytes("blobStd")));
+		assertEquals("i", new String(r.getBytes("blobOneByte"), "UTF-8"));
+		
+		assertNull(r.getUUID("null", true));
+		assertNull(r.getOptDate("missing", null));
+		assertEquals(java.math.BigDecimal.ONE, r.getOptBigDecimal("missing", java.math.BigDecimal.ONE));
+		
+		String[] badUUIDs = {"", "123e4567e89b12d3a456426614174000", "123e4567-e89b-12d3-a456-42661417400g", "123e4567-e89b-12d3-a456_426614174000"};
+		String[] badDates = {"2026-10-18", "2026-10-18T09:30:00", "2026-13-18T09:30:00Z", "2026-02-29T09:30:00Z", "2026-10-18T24:00:00Z", "2026-10-18T09:30:00.Z", "2026-10-18T09:30:00+0200", "2026-10-18 09:30:00Z"};
+		String[] badDecimals = {"", "-", "1e", "1e+", "abc", "1.2.3"};
+		String[] badBlobs = {"a", "aGk=a", "aG=k", "aGVs bG8=", "a===", "\u00e9abc", "-/8=", "+_8", "ab+_", "aGl", "aR==", "aGVsbG9="};
+		
+		for (String v: badUUIDs) {
+			params.put("x", v);
+			try { r.getUUID("x"); fail(v); } catch (JSONRPC2Error e) { assertEquals(JSONRPC2Error.INVALID_PARAMS, e); }
+		}
+		
+		for (String v: badDates) {
+			params.put("x", v);
+			try { r.getDate("x"); fail(v); } catch (JSONRPC2Error e) { assertEquals(JSONRPC2Error.INVALID_PARAMS, e); }
+		}
+		
+		for (String v: badDecimals) {
+			params.put("x", v);
+			try { r.getBigDecimal("x"); fail(v); } catch (JSONRPC2Error e) { assertEquals(JSONRPC2Error.INVALID_PARAMS, e); }
+		}
+		
+		for (String v: badBlobs) {
+			params.put("x", v);
+			try { r.getBytes("x"); fail(v); } catch (JSONRPC2Error e) { assertEquals(JSONRPC2Error.INVALID_PARAMS, e); }
+		}
+		
+		try {
+			r.getUUID("number");
+			fail();
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		// Raw values are decoded from their bytes
+		List l = new ArrayList();
+		l.add(new JSONRPC2RawValue(" \"" + uuid + "\" "));
+		l.add(new JSONRPC2RawValue("\"2026-10-18T09:30:00Z\""));
+		l.add(new JSONRPC2RawValue("12345678901234567890.123"));
+		l.add(new JSONRPC2RawValue("\"aGVsbG8=\""));
+		l.add(new JSONRPC2RawValue("\"-_\\u0038\""));
+		l.add(new JSONRPC2RawValue("[1]"));
+		
+		PositionalParamsRetriever pr = new PositionalParamsRetriever(l);
+		
+		assertEquals(UUID.fromString(uuid), pr.getUUID(0));
+		assertEquals(utc(2026, 10, 18, 9, 30, 0, 0), pr.getDate(1).getTime());
+		assertEquals(new java.math.BigDecimal("12345678901234567890.123"), pr.getBigDecimal(2));
+		assertEquals("hello", new String(pr.getBytes(3), "UTF-8"));
+		assertEquals(2, pr.getBytes(4).length);
+		assertNull(pr.getOptDate(9, null));
+		
+		try {
+			pr.getUUID(5);
+			fail();
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		try {
+			pr.getBytes(2);
+			fail();
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+	}
+	
+	
+	public void testPassThroughParams()
+		throws Exception {
+	
+		JSONRPC2Parser parser = new JSONRPC2Parser();
+		parser.passThrough(true);
+		
+		String uuid = "123e4567-e89b-12d3-a456-426614174000";
+		
+		JSONRPC2Request request = parser.parseJSONRPC2Request(
+			"{\"jsonrpc\":\"2.0\",\"method\":\"m\",\"id\":1,\"params\":" +
+			"{\"id\":\"" + uuid + "\",\"v\":[0.1, -2.5e-3, 7, 1.7976931348623157e308, 0.30000000000000004],\"name\":\"x\",\"n\":null}}");
+		
+		NamedParamsRetriever r = new NamedParamsRetriever((JSONRPC2RawValue)request.getParams());
+		
+		// Members are looked up lazily, arrays and strings stay raw
+		assertTrue(r.get("v", Object.class) instanceof JSONRPC2RawValue);
+		assertTrue(Arrays.equals(new double[]{0.1, -2.5e-3, 7.0, 1.7976931348623157e308, 0.30000000000000004}, r.getDoubleArray("v")));
+		assertEquals(UUID.fromString(uuid), r.getUUID("id"));
+		assertEquals("x", r.getString("name"));
+		assertEquals("x", r.get("name"));
+		assertEquals("x", r.tryGetString("name", null));
+		assertNull(r.getString("n", true));
+		assertNull(r.getOptString("n", true, "d"));
+		assertEquals("d", r.getOptString("missing", "d"));
+		assertTrue(r.hasParameter("n"));
+		assertFalse(r.hasParameter("missing"));
+		assertEquals(ParamStatus.NULL, r.probe("n", String.class, new ParamHolder()));
+		assertEquals(ParamStatus.WRONG_TYPE, r.probe("name", Long.class, new ParamHolder()));
+		assertEquals("x", r.get(ParamPath.compile("name"), String.class));
+		
+		try {
+			r.getString("n");
+			fail("Failed to raise exception");
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		// Decoded once when all members are needed
+		assertTrue(r.hasParameters(new String[]{"id", "v", "name", "n"}));
+		assertEquals(4, r.size());
+		assertEquals("x", r.getString("name"));
+		
+		request = parser.parseJSONRPC2Request(
+			"{\"jsonrpc\":\"2.0\",\"method\":\"m\",\"id\":1,\"params\":[\"a\", [1, 2.5], null]}");
+		
+		PositionalParamsRetriever pr = new PositionalParamsRetriever((JSONRPC2RawValue)request.getParams());
+		
+		assertTrue(Arrays.equals(new long[]{1L, 2L}, pr.getLongArray(1)));
+		assertEquals("a", pr.getString(0));
+		assertEquals("a", pr.get(0));
+		assertNull(pr.get(2));
+		assertTrue(pr.hasParameter(2));
+		assertFalse(pr.hasParameter(3));
+		assertEquals(-1, pr.tryGetInt(0, -1));
+		assertTrue(pr.getOptBoolean(5, true));
+		
+		try {
+			pr.getString(3);
+			fail("Failed to raise exception");
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		assertEquals(3, pr.size());
+		
+		// Rebinding to a list drops the raw params
+		assertEquals(1, pr.rebind(Arrays.asList((Object)"b")).size());
+		assertEquals("b", pr.getString(0));
+		
+		// Malformed members are invalid parameters
+		r.rebind(new JSONRPC2RawValue("{\"a\": 1 \"b\": 2}"));
+		
+		try {
+			r.getInt("b");
+			fail("Failed to raise exception");
+		} catch (JSONRPC2Error e) {
+			assertEquals(JSONRPC2Error.INVALID_PARAMS, e);
+		}
+		
+		assertEquals(0, r.size());
+		
+		try {
+			new PositionalParamsRetriever(new JSONRPC2RawValue("{}"));
+			fail("Failed to raise exception");
+		} catch (IllegalArgumentException e) {
+			// ok
+		}
+	}
 }